@@ -0,0 +1,209 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.benchmark;
+
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.util.Options;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Calendar;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Benchmark helpers : objects that normally need a connected server.
+ */
+public final class BenchmarkUtils {
+
+    private BenchmarkUtils() {
+    }
+
+    /**
+     * Protocol answering only what statements and result sets need without a server (options, calendar, lock, ...).
+     *
+     * @return protocol
+     * @throws SQLException if default options cannot be parsed
+     */
+    public static Protocol createProtocol() throws SQLException {
+        final Options options = UrlParser.parse("jdbc:mariadb://localhost:3306/benchmark").getOptions();
+        final Calendar calendar = Calendar.getInstance();
+        final ReentrantLock lock = new ReentrantLock();
+        return (Protocol) Proxy.newProxyInstance(Protocol.class.getClassLoader(), new Class<?>[]{Protocol.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        switch (method.getName()) {
+                            case "getOptions":
+                                return options;
+                            case "getCalendar":
+                                return calendar;
+                            case "getLock":
+                                return lock;
+                            case "getDatabase":
+                                return "benchmark";
+                            case "getDataTypeMappingFlags":
+                                return 3;
+                            default:
+                                return defaultValue(method.getReturnType());
+                        }
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+
+    /**
+     * Output stream that discards all data.
+     *
+     * @return output stream
+     */
+    public static OutputStream nullOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int value) {
+                //discard
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) {
+                //discard
+            }
+        };
+    }
+
+    /**
+     * Encode values in text protocol row packet, with packet header.
+     *
+     * @param out    stream to write packet to
+     * @param seq    packet sequence number
+     * @param values values, null for SQL NULL
+     */
+    public static void writeTextRowPacket(ByteArrayOutputStream out, int seq, String... values) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        for (String value : values) {
+            if (value == null) {
+                payload.write(251);
+            } else {
+                writeLengthEncodedBytes(payload, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        writePacket(out, seq, payload.toByteArray());
+    }
+
+    /**
+     * Write length encoded bytes.
+     *
+     * @param out   stream
+     * @param bytes bytes
+     */
+    public static void writeLengthEncodedBytes(ByteArrayOutputStream out, byte[] bytes) {
+        int length = bytes.length;
+        if (length < 251) {
+            out.write(length);
+        } else if (length < 65536) {
+            out.write(252);
+            out.write(length & 0xff);
+            out.write(length >>> 8);
+        } else {
+            out.write(253);
+            out.write(length & 0xff);
+            out.write((length >>> 8) & 0xff);
+            out.write(length >>> 16);
+        }
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * Write a packet with its 4 bytes header.
+     *
+     * @param out     stream
+     * @param seq     sequence number
+     * @param payload packet payload
+     */
+    public static void writePacket(ByteArrayOutputStream out, int seq, byte[] payload) {
+        out.write(payload.length & 0xff);
+        out.write((payload.length >>> 8) & 0xff);
+        out.write(payload.length >>> 16);
+        out.write(seq);
+        out.write(payload, 0, payload.length);
+    }
+}
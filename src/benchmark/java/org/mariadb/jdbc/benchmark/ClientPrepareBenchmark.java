@@ -0,0 +1,116 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.benchmark;
+
+import org.mariadb.jdbc.MariaDbClientPreparedStatement;
+import org.mariadb.jdbc.MariaDbConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client side prepare : query parsing in parts (createRewritableParts) done when creating a MariaDbClientPreparedStatement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ClientPrepareBenchmark {
+
+    @Param({"select", "insert", "insertOnDuplicate", "comments"})
+    public String queryType;
+
+    private MariaDbConnection connection;
+    private String sql;
+
+    /**
+     * Create connection without server.
+     *
+     * @throws SQLException never
+     */
+    @Setup
+    public void setup() throws SQLException {
+        connection = MariaDbConnection.newConnection(BenchmarkUtils.createProtocol(), new ReentrantLock());
+        switch (queryType) {
+            case "select":
+                sql = "SELECT id, name, amount FROM customer WHERE id = ? AND name LIKE ? AND created > ?";
+                break;
+            case "insert":
+                sql = "INSERT INTO customer (id, name, amount, created, status) VALUES (?, ?, ?, ?, 'A')";
+                break;
+            case "insertOnDuplicate":
+                sql = "INSERT INTO customer (id, name, amount) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE amount = amount + 10";
+                break;
+            default:
+                sql = "/* load customer */ SELECT `id`, 'a?b' FROM customer -- comment ?\n WHERE id = ? AND name = \"x\\\"?\"";
+                break;
+        }
+    }
+
+    @Benchmark
+    public MariaDbClientPreparedStatement parse() throws SQLException {
+        return new MariaDbClientPreparedStatement(connection, sql, ResultSet.TYPE_FORWARD_ONLY);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.benchmark;
+
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query packet writes, with and without compression.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PacketOutputStreamBenchmark {
+
+    @Param({"false", "true"})
+    public boolean useCompression;
+
+    /**
+     * Query size in bytes. Compression is only used for packets bigger than 50 bytes.
+     */
+    @Param({"40", "1000", "100000"})
+    public int querySize;
+
+    private PacketOutputStream writer;
+    private String query;
+    private byte[] queryBytes;
+
+    /**
+     * Create stream and query.
+     */
+    @Setup
+    public void setup() {
+        writer = new PacketOutputStream(BenchmarkUtils.nullOutputStream());
+        writer.setMaxAllowedPacket(16 * 1024 * 1024);
+        writer.setUseCompression(useCompression);
+        StringBuilder sb = new StringBuilder("INSERT INTO t VALUES ");
+        int row = 0;
+        while (sb.length() < querySize) {
+            sb.append("(").append(row++).append(",'value").append(row).append("'),");
+        }
+        query = sb.substring(0, querySize);
+        queryBytes = query.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Send a query using sendTextPacket (Statement.execute() path).
+     *
+     * @return bytes sent
+     * @throws IOException    never
+     * @throws QueryException never
+     */
+    @Benchmark
+    public long sendTextPacket() throws IOException, QueryException {
+        writer.sendTextPacket(query);
+        return writer.getBytesSent();
+    }
+
+    /**
+     * Write a query using the buffered API (client prepared statement path).
+     *
+     * @return bytes sent
+     * @throws IOException never
+     */
+    @Benchmark
+    public long bufferedPacket() throws IOException {
+        writer.startPacket(0);
+        writer.write(0x03);
+        writer.write(queryBytes);
+        writer.finishPacket();
+        return writer.getBytesSent();
+    }
+}
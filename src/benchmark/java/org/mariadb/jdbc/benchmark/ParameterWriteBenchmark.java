@@ -0,0 +1,249 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.benchmark;
+
+import org.mariadb.jdbc.internal.packet.dao.parameters.BigDecimalParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ByteArrayParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ByteParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.DateParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.DoubleParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.FloatParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.IntParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.LongParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.NullParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ReaderParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.SerializableParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ShortParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.StreamParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.StringParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.TimeParameter;
+import org.mariadb.jdbc.internal.packet.dao.parameters.TimestampParameter;
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.util.Options;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text protocol encoding of each parameter type (ParameterHolder.writeTo), in a query packet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParameterWriteBenchmark {
+    private static final String TEXT = "customer name with 'quotes' and \\backslash, long enough to need some escaping work";
+
+    private PacketOutputStream writer;
+    private ParameterHolder intParameter;
+    private ParameterHolder longParameter;
+    private ParameterHolder shortParameter;
+    private ParameterHolder byteParameter;
+    private ParameterHolder floatParameter;
+    private ParameterHolder doubleParameter;
+    private ParameterHolder bigDecimalParameter;
+    private ParameterHolder stringParameter;
+    private ParameterHolder byteArrayParameter;
+    private ParameterHolder dateParameter;
+    private ParameterHolder timeParameter;
+    private ParameterHolder timestampParameter;
+    private ParameterHolder nullParameter;
+    private ParameterHolder serializableParameter;
+    private byte[] streamBytes;
+
+    /**
+     * Create parameters.
+     *
+     * @throws SQLException never
+     * @throws IOException  never
+     */
+    @Setup
+    public void setup() throws SQLException, IOException {
+        writer = new PacketOutputStream(BenchmarkUtils.nullOutputStream());
+        Options options = BenchmarkUtils.createProtocol().getOptions();
+        Calendar calendar = Calendar.getInstance();
+        intParameter = new IntParameter(123456);
+        longParameter = new LongParameter(1000000000001L);
+        shortParameter = new ShortParameter((short) 1234);
+        byteParameter = new ByteParameter((byte) 12);
+        floatParameter = new FloatParameter(1.25f);
+        doubleParameter = new DoubleParameter(0.125);
+        bigDecimalParameter = new BigDecimalParameter(new BigDecimal("1234.56"));
+        stringParameter = new StringParameter(TEXT, false);
+        streamBytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        byteArrayParameter = new ByteArrayParameter(streamBytes, false);
+        dateParameter = new DateParameter(Date.valueOf("2016-06-01"), calendar, options);
+        timeParameter = new TimeParameter(Time.valueOf("12:34:56"), calendar, true);
+        timestampParameter = new TimestampParameter(Timestamp.valueOf("2016-06-01 12:34:56.789"), calendar, true, options);
+        nullParameter = new NullParameter();
+        serializableParameter = new SerializableParameter(TEXT, false);
+    }
+
+    private long write(ParameterHolder parameter) throws IOException {
+        writer.startPacket(0);
+        parameter.writeTo(writer);
+        writer.finishPacket();
+        return writer.getBytesSent();
+    }
+
+    @Benchmark
+    public long intParameter() throws IOException {
+        return write(intParameter);
+    }
+
+    @Benchmark
+    public long longParameter() throws IOException {
+        return write(longParameter);
+    }
+
+    @Benchmark
+    public long shortParameter() throws IOException {
+        return write(shortParameter);
+    }
+
+    @Benchmark
+    public long byteParameter() throws IOException {
+        return write(byteParameter);
+    }
+
+    @Benchmark
+    public long floatParameter() throws IOException {
+        return write(floatParameter);
+    }
+
+    @Benchmark
+    public long doubleParameter() throws IOException {
+        return write(doubleParameter);
+    }
+
+    @Benchmark
+    public long bigDecimalParameter() throws IOException {
+        return write(bigDecimalParameter);
+    }
+
+    @Benchmark
+    public long stringParameter() throws IOException {
+        return write(stringParameter);
+    }
+
+    @Benchmark
+    public long byteArrayParameter() throws IOException {
+        return write(byteArrayParameter);
+    }
+
+    @Benchmark
+    public long dateParameter() throws IOException {
+        return write(dateParameter);
+    }
+
+    @Benchmark
+    public long timeParameter() throws IOException {
+        return write(timeParameter);
+    }
+
+    @Benchmark
+    public long timestampParameter() throws IOException {
+        return write(timestampParameter);
+    }
+
+    @Benchmark
+    public long nullParameter() throws IOException {
+        return write(nullParameter);
+    }
+
+    @Benchmark
+    public long serializableParameter() throws IOException {
+        return write(serializableParameter);
+    }
+
+    /**
+     * Stream parameter : stream is consumed when written, so parameter creation is included.
+     *
+     * @return bytes sent
+     * @throws IOException never
+     */
+    @Benchmark
+    public long streamParameter() throws IOException {
+        return write(new StreamParameter(new ByteArrayInputStream(streamBytes), false));
+    }
+
+    /**
+     * Reader parameter : reader is consumed when written, so parameter creation is included.
+     *
+     * @return bytes sent
+     * @throws IOException never
+     */
+    @Benchmark
+    public long readerParameter() throws IOException {
+        return write(new ReaderParameter(new StringReader(TEXT), false));
+    }
+}
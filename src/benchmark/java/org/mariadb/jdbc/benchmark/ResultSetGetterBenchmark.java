@@ -0,0 +1,150 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.benchmark;
+
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text protocol result set getters, on a result set positioned on its first row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResultSetGetterBenchmark {
+
+    private ResultSet resultSet;
+
+    /**
+     * Create result set.
+     *
+     * @throws SQLException never
+     */
+    @Setup
+    public void setup() throws SQLException {
+        String[] names = {"id", "amount", "name", "price", "created", "ratio", "birth", "data"};
+        MariaDbType[] types = {MariaDbType.INTEGER, MariaDbType.BIGINT, MariaDbType.VARCHAR, MariaDbType.DECIMAL, MariaDbType.DATETIME,
+            MariaDbType.DOUBLE, MariaDbType.DATE, MariaDbType.BLOB};
+        String[][] data = {{"123456", "1000000000001", "customer name", "1234.56", "2016-06-01 12:34:56.789", "0.125", "1970-01-31",
+            "some binary data"}};
+        resultSet = MariaSelectResultSet.createResultSet(names, types, data, BenchmarkUtils.createProtocol());
+        resultSet.next();
+    }
+
+    @Benchmark
+    public int getInt() throws SQLException {
+        return resultSet.getInt(1);
+    }
+
+    @Benchmark
+    public int getIntByLabel() throws SQLException {
+        return resultSet.getInt("id");
+    }
+
+    @Benchmark
+    public long getLong() throws SQLException {
+        return resultSet.getLong(2);
+    }
+
+    @Benchmark
+    public String getString() throws SQLException {
+        return resultSet.getString(3);
+    }
+
+    @Benchmark
+    public BigDecimal getBigDecimal() throws SQLException {
+        return resultSet.getBigDecimal(4);
+    }
+
+    @Benchmark
+    public Timestamp getTimestamp() throws SQLException {
+        return resultSet.getTimestamp(5);
+    }
+
+    @Benchmark
+    public double getDouble() throws SQLException {
+        return resultSet.getDouble(6);
+    }
+
+    @Benchmark
+    public Date getDate() throws SQLException {
+        return resultSet.getDate(7);
+    }
+
+    @Benchmark
+    public byte[] getBytes() throws SQLException {
+        return resultSet.getBytes(8);
+    }
+
+    @Benchmark
+    public Object getObject() throws SQLException {
+        return resultSet.getObject(1);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.benchmark;
+
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.packet.result.BinaryRowPacket;
+import org.mariadb.jdbc.internal.packet.result.TextRowPacket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row decoding of text and binary protocol result sets, reading canned row packets the way
+ * MariaSelectResultSet.readNextValue() reads them from socket.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RowDecodingBenchmark {
+    private static final int ROWS = 100;
+
+    private static final MariaDbType[] TYPES = {MariaDbType.INTEGER, MariaDbType.BIGINT, MariaDbType.VARCHAR, MariaDbType.DECIMAL,
+        MariaDbType.DATETIME, MariaDbType.DOUBLE};
+
+    private ByteArrayInputStream textStream;
+    private ReadPacketFetcher textFetcher;
+    private TextRowPacket textRowPacket;
+
+    private ByteArrayInputStream binaryStream;
+    private ReadPacketFetcher binaryFetcher;
+    private BinaryRowPacket binaryRowPacket;
+
+    /**
+     * Create canned packets.
+     */
+    @Setup
+    public void setup() {
+        ColumnInformation[] columns = new ColumnInformation[TYPES.length];
+        for (int i = 0; i < TYPES.length; i++) {
+            columns[i] = ColumnInformation.create("col" + i, TYPES[i]);
+        }
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        for (int row = 0; row < ROWS; row++) {
+            BenchmarkUtils.writeTextRowPacket(text, row + 1, String.valueOf(row), String.valueOf(1000000000000L + row),
+                    "customer name " + row, "1234.56", "2016-06-01 12:34:56", "0.125");
+            BenchmarkUtils.writePacket(binary, row + 1, binaryRow(row));
+        }
+
+        textStream = new ByteArrayInputStream(text.toByteArray());
+        textFetcher = new ReadPacketFetcher(textStream);
+        textRowPacket = new TextRowPacket(TYPES.length);
+
+        binaryStream = new ByteArrayInputStream(binary.toByteArray());
+        binaryFetcher = new ReadPacketFetcher(binaryStream);
+        binaryRowPacket = new BinaryRowPacket(columns, TYPES.length);
+    }
+
+    private static byte[] binaryRow(int row) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        payload.write(0x00); //header
+        payload.write(0x00); //null bitmap : (6 + 9) / 8 bytes
+        writeLittleEndian(payload, row, 4);
+        writeLittleEndian(payload, 1000000000000L + row, 8);
+        BenchmarkUtils.writeLengthEncodedBytes(payload, ("customer name " + row).getBytes(StandardCharsets.UTF_8));
+        BenchmarkUtils.writeLengthEncodedBytes(payload, "1234.56".getBytes(StandardCharsets.UTF_8));
+        payload.write(7); //datetime without microseconds
+        writeLittleEndian(payload, 2016, 2);
+        payload.write(6);
+        payload.write(1);
+        payload.write(12);
+        payload.write(34);
+        payload.write(56);
+        writeLittleEndian(payload, Double.doubleToLongBits(0.125), 8);
+        return payload.toByteArray();
+    }
+
+    private static void writeLittleEndian(ByteArrayOutputStream out, long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            out.write((int) (value >>> (8 * i)) & 0xff);
+        }
+    }
+
+    /**
+     * Decode text protocol rows.
+     *
+     * @param blackhole blackhole
+     * @throws IOException never
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void textRow(Blackhole blackhole) throws IOException {
+        textStream.reset();
+        InputStream inputStream = textFetcher.getInputStream();
+        for (int i = 0; i < ROWS; i++) {
+            int length = textFetcher.getPacketLength();
+            int read = inputStream.read() & 0xff;
+            blackhole.consume(textRowPacket.getRow(textFetcher, inputStream, length - 1, read));
+        }
+    }
+
+    /**
+     * Decode binary protocol rows.
+     *
+     * @param blackhole blackhole
+     * @throws IOException never
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void binaryRow(Blackhole blackhole) throws IOException {
+        binaryStream.reset();
+        InputStream inputStream = binaryFetcher.getInputStream();
+        for (int i = 0; i < ROWS; i++) {
+            int length = binaryFetcher.getPacketLength();
+            int read = inputStream.read() & 0xff;
+            blackhole.consume(binaryRowPacket.getRow(binaryFetcher, inputStream, length - 1, read));
+        }
+    }
+}
@@ -51,6 +51,7 @@ package org.mariadb.jdbc;
 
 import org.mariadb.jdbc.internal.packet.dao.parameters.*;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.dao.StatementPoolKey;
 import org.mariadb.jdbc.internal.MariaDbType;
 
 import java.io.IOException;
@@ -64,9 +65,11 @@ import java.util.Calendar;
 
 public abstract class AbstractMariaDbPrepareStatement extends MariaDbStatement implements PreparedStatement, Cloneable {
     protected boolean useFractionalSeconds;
+    protected StatementPoolKey statementPoolKey;
 
     public AbstractMariaDbPrepareStatement(MariaDbConnection connection, int resultSetScrollType) {
         super(connection, resultSetScrollType);
+        poolable = true;
     }
 
     protected abstract boolean isNoBackslashEscapes();
@@ -75,10 +78,88 @@ public abstract class AbstractMariaDbPrepareStatement extends MariaDbStatement i
 
     protected abstract Calendar cal();
 
-    public AbstractMariaDbPrepareStatement clone() throws CloneNotSupportedException {
+    /**
+     * Copy of this statement for the next borrower, sharing server side resources but with its own parameters and batch.
+     *
+     * @return statement copy
+     * @throws CloneNotSupportedException if copy fail
+     */
+    protected abstract AbstractMariaDbPrepareStatement copyForReuse() throws CloneNotSupportedException;
+
+    /**
+     * Field by field copy, without preparing statement again.
+     *
+     * @return statement copy
+     * @throws CloneNotSupportedException if copy fail
+     */
+    protected AbstractMariaDbPrepareStatement shallowCopy() throws CloneNotSupportedException {
         return (AbstractMariaDbPrepareStatement) super.clone();
     }
 
+    /**
+     * Clone statement.
+     *
+     * @return Clone statement.
+     * @throws CloneNotSupportedException if any error occur.
+     */
+    public AbstractMariaDbPrepareStatement clone() throws CloneNotSupportedException {
+        AbstractMariaDbPrepareStatement clone = (AbstractMariaDbPrepareStatement) super.clone();
+        clone.statementPoolKey = null;
+        return clone;
+    }
+
+    /**
+     * Give statement back to the statement pool of the physical connection instead of closing it.
+     * Results are closed, and a copy keeping server side resources is pooled, so that preparing the same query again
+     * returns that copy without any exchange with server. This object stays closed : a reference kept by the application
+     * cannot use the statement of the next borrower.
+     *
+     * @return true if statement is now in pool, false if it must be physically closed
+     * @throws SQLException if current results cannot be closed
+     */
+    protected boolean returnToStatementPool() throws SQLException {
+        if (closed || !poolable || statementPoolKey == null || connection == null || connection.pooledConnection == null) {
+            return false;
+        }
+        AbstractMariaDbPrepareStatement copy;
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            closeResults();
+            resetSettings();
+            try {
+                copy = copyForReuse();
+            } catch (CloneNotSupportedException cloneException) {
+                return false;
+            }
+            copy.closed = true;
+        } finally {
+            lock.unlock();
+        }
+        MariaDbPooledConnection pooledConnection = connection.pooledConnection;
+        if (pooledConnection == null || !pooledConnection.returnStatement(statementPoolKey, copy)) {
+            return false;
+        }
+        //server side resources now belong to the pooled copy
+        protocol = null;
+        statementPoolKey = null;
+        if (!pooledConnection.statementEventListeners.isEmpty()) {
+            pooledConnection.fireStatementClosed(this);
+        }
+        return true;
+    }
+
+    /**
+     * Reopen a statement borrowed from statement pool.
+     */
+    protected void reopen() {
+        protocol = connection.getProtocol();
+        closed = false;
+    }
+
     /**
      * Sets the designated parameter to the given <code>Reader</code> object, which is the given number of characters
      * long. When a very large UNICODE value is input to a <code>LONGVARCHAR</code> parameter, it may be more practical
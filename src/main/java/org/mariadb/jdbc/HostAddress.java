@@ -60,6 +60,7 @@ public class HostAddress {
     public String host;
     public int port;
     public String type = null;
+    public int weight = 1;
 
 
     public HostAddress() {
@@ -173,6 +174,11 @@ public class HostAddress {
             } else if (key.equals("type")
                     && (value.equals(ParameterConstant.TYPE_MASTER) || value.equals(ParameterConstant.TYPE_SLAVE))) {
                 result.type = value;
+            } else if (key.equals("weight")) {
+                result.weight = Integer.parseInt(value);
+                if (result.weight < 1) {
+                    throw new IllegalArgumentException("Invalid connection URL, host weight must be a positive integer, found " + value);
+                }
             }
         }
         return result;
@@ -187,7 +193,8 @@ public class HostAddress {
         String str = "";
         for (int i = 0; i < addrs.size(); i++) {
             if (addrs.get(i).type != null) {
-                str += "address=(host=" + addrs.get(i).host + ")(port=" + addrs.get(i).port + ")(type=" + addrs.get(i).type + ")";
+                str += "address=(host=" + addrs.get(i).host + ")(port=" + addrs.get(i).port + ")(type=" + addrs.get(i).type + ")"
+                        + ((addrs.get(i).weight != 1) ? "(weight=" + addrs.get(i).weight + ")" : "");
             } else {
                 boolean isIPv6 = addrs.get(i).host != null && addrs.get(i).host.contains(":");
                 String host = (isIPv6) ? ("[" + addrs.get(i).host + "]") : addrs.get(i).host;
@@ -209,7 +216,8 @@ public class HostAddress {
         String str = "";
         for (int i = 0; i < addrs.length; i++) {
             if (addrs[i].type != null) {
-                str += "address=(host=" + addrs[i].host + ")(port=" + addrs[i].port + ")(type=" + addrs[i].type + ")";
+                str += "address=(host=" + addrs[i].host + ")(port=" + addrs[i].port + ")(type=" + addrs[i].type + ")"
+                        + ((addrs[i].weight != 1) ? "(weight=" + addrs[i].weight + ")" : "");
             } else {
                 boolean isIPv6 = addrs[i].host != null && addrs[i].host.contains(":");
                 String host = (isIPv6) ? ("[" + addrs[i].host + "]") : addrs[i].host;
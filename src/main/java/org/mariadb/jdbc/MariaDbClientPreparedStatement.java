@@ -54,6 +54,7 @@ import org.mariadb.jdbc.internal.queryresults.MultiIntExecutionResult;
 import org.mariadb.jdbc.internal.queryresults.SingleExecutionResult;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.LexState;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
 import java.sql.*;
@@ -378,10 +379,21 @@ public class MariaDbClientPreparedStatement extends AbstractMariaDbPrepareStatem
         parameters = new ParameterHolder[paramCount];
     }
 
+    @Override
+    protected MariaDbClientPreparedStatement copyForReuse() throws CloneNotSupportedException {
+        MariaDbClientPreparedStatement copy = (MariaDbClientPreparedStatement) shallowCopy();
+        copy.parameters = new ParameterHolder[paramCount];
+        copy.parameterList = new ArrayList<>();
+        return copy;
+    }
+
 
     // Close prepared statement, maybe fire closed-statement events
     @Override
     public void close() throws SQLException {
+        if (returnToStatementPool()) {
+            return;
+        }
         super.close();
         if (connection == null || connection.pooledConnection == null
                 || connection.pooledConnection.statementEventListeners.isEmpty()) {
@@ -52,6 +52,7 @@ package org.mariadb.jdbc;
 
 import org.mariadb.jdbc.internal.util.*;
 import org.mariadb.jdbc.internal.util.dao.CallableStatementCacheKey;
+import org.mariadb.jdbc.internal.util.dao.StatementPoolKey;
 import org.mariadb.jdbc.internal.util.dao.CloneableCallableStatement;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.protocol.Protocol;
@@ -61,6 +62,7 @@ import java.sql.*;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -100,6 +102,10 @@ public final class MariaDbConnection implements Connection {
      */
     private Options options;
     private boolean warningsCleared;
+    private final String initialDatabase;
+    private int defaultTransactionIsolation = 0;
+    private final AtomicLong elidedValidationCount = new AtomicLong();
+    private final AtomicLong performedValidationCount = new AtomicLong();
 
     /**
      * Creates a new connection with a given protocol and query factory.
@@ -115,6 +121,7 @@ public final class MariaDbConnection implements Connection {
             callableStatementCache = CallableStatementCache.newInstance(options.callableStmtCacheSize);
         }
         this.lock = lock;
+        this.initialDatabase = protocol.getDatabase();
     }
 
     public static MariaDbConnection newConnection(Protocol protocol, ReentrantLock lock) throws SQLException {
@@ -401,6 +408,23 @@ public final class MariaDbConnection implements Connection {
     public PreparedStatement internalPrepareStatement(final String sql, final int resultSetScrollType)
             throws SQLException {
         checkConnection();
+        MariaDbPooledConnection pooled = pooledConnection;
+        if (sql == null || pooled == null || !pooled.isStatementPoolingEnabled()) {
+            return createPrepareStatement(sql, resultSetScrollType);
+        }
+
+        String database = protocol.getDatabase();
+        AbstractMariaDbPrepareStatement statement = pooled.borrowStatement(database, sql, resultSetScrollType);
+        if (statement != null) {
+            statement.reopen();
+            return statement;
+        }
+        statement = createPrepareStatement(sql, resultSetScrollType);
+        statement.statementPoolKey = new StatementPoolKey(database, sql, resultSetScrollType);
+        return statement;
+    }
+
+    private AbstractMariaDbPrepareStatement createPrepareStatement(final String sql, final int resultSetScrollType) throws SQLException {
         if (!options.allowMultiQueries && !options.rewriteBatchedStatements && options.useServerPrepStmts && checkIfPreparable(sql)) {
             try {
                 return new MariaDbServerPreparedStatement(this, sql, resultSetScrollType);
@@ -800,6 +824,10 @@ public final class MariaDbConnection implements Connection {
      * @see #getTransactionIsolation
      */
     public void setTransactionIsolation(final int level) throws SQLException {
+        if (pooledConnection != null && defaultTransactionIsolation == 0) {
+            //keep session default, to permit pool to reset connection
+            defaultTransactionIsolation = getTransactionIsolation();
+        }
         try {
             protocol.setTransactionIsolation(level);
         } catch (QueryException e) {
@@ -1063,6 +1091,11 @@ public final class MariaDbConnection implements Connection {
         if (isClosed()) {
             return false;
         }
+        if (options.pingElisionTime > 0 && protocol.isValidWithoutPing(options.pingElisionTime)) {
+            elidedValidationCount.incrementAndGet();
+            return true;
+        }
+        performedValidationCount.incrementAndGet();
         try {
             return protocol.ping();
         } catch (QueryException e) {
@@ -1070,6 +1103,24 @@ public final class MariaDbConnection implements Connection {
         }
     }
 
+    /**
+     * Number of isValid() calls that have been answered without sending a ping (see option pingElisionTime).
+     *
+     * @return elided validation number
+     */
+    public long getElidedValidationCount() {
+        return elidedValidationCount.get();
+    }
+
+    /**
+     * Number of isValid() calls that have send a ping to server.
+     *
+     * @return performed validation number
+     */
+    public long getPerformedValidationCount() {
+        return performedValidationCount.get();
+    }
+
     /**
      * <p>Sets the value of the client info property specified by name to the value specified by value.</p>
      * <p>Applications may use the <code>DatabaseMetaData.getClientInfoProperties</code> method to determine the client info properties supported by
@@ -1268,6 +1319,38 @@ public final class MariaDbConnection implements Connection {
         return protocol.getDatabase();
     }
 
+    /**
+     * Reset connection session state (transaction, autocommit, read-only, database, transaction isolation, warnings) to the state of a
+     * new connection, before reuse by a pool.
+     * Current state is known from server status flags and protocol state, so nothing is sent to server if state hasn't changed.
+     *
+     * @throws SQLException if a connection error occur
+     */
+    public void reset() throws SQLException {
+        lock.lock();
+        try {
+            if (protocol.inTransaction()) {
+                rollback();
+            }
+            if (!protocol.getAutocommit()) {
+                setAutoCommit(true);
+            }
+            if (protocol.getReadonly()) {
+                setReadOnly(false);
+            }
+            if (initialDatabase != null && !initialDatabase.isEmpty() && !initialDatabase.equals(protocol.getDatabase())) {
+                setCatalog(initialDatabase);
+            }
+            if (defaultTransactionIsolation != 0 && protocol.getTransactionIsolationLevel() != defaultTransactionIsolation) {
+                setTransactionIsolation(defaultTransactionIsolation);
+            }
+            savepointCount = 0;
+            warningsCleared = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     protected boolean getPinGlobalTxToPhysicalConnection() {
         return protocol.getPinGlobalTxToPhysicalConnection();
     }
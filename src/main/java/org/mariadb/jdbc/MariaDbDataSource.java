@@ -430,6 +430,10 @@ public class MariaDbDataSource implements DataSource, ConnectionPoolDataSource,
         return new MariaXaConnection((MariaDbConnection) getConnection(user, password));
     }
 
+    UrlParser getUrlParser() {
+        return urlParser;
+    }
+
     public Logger getParentLogger() throws SQLFeatureNotSupportedException {
         // TODO Auto-generated method stub
         return null;
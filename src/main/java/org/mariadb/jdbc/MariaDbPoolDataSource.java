@@ -0,0 +1,197 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc;
+
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.pool.Pool;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource with a built-in connection pool.
+ * <p>
+ * Pool is configured by the same url parameters as connections (options maxPoolSize, minPoolSize, maxIdleTime, poolValidMinDelay and
+ * poolName), and created when the first connection is requested: configuration changes after that are ignored.
+ * Closing a connection given by this DataSource closes its statements and gives it back to the pool, after having reset its state.
+ * The closed connection object cannot be used anymore: next borrow gets a new connection object.
+ */
+public class MariaDbPoolDataSource extends MariaDbDataSource implements Closeable {
+    private static final int DEFAULT_LOGIN_TIMEOUT = 30;
+
+    private volatile Pool pool;
+    private int loginTimeout = 0;
+
+    /**
+     * Constructor.
+     * @param hostname hostname (ipv4, ipv6, dns name)
+     * @param port server port
+     * @param database database name
+     * @throws SQLException exception if connection failed
+     */
+    public MariaDbPoolDataSource(String hostname, int port, String database) throws SQLException {
+        super(hostname, port, database);
+    }
+
+    public MariaDbPoolDataSource(String url) throws SQLException {
+        super(url);
+    }
+
+    /**
+     * Default constructor. hostname will be localhost, port 3306.
+     */
+    public MariaDbPoolDataSource() {
+        super();
+    }
+
+    private Pool getPool() throws SQLException {
+        Pool currentPool = pool;
+        if (currentPool == null) {
+            synchronized (this) {
+                currentPool = pool;
+                if (currentPool == null) {
+                    pool = currentPool = new Pool(getUrlParser());
+                }
+            }
+        }
+        if (currentPool.isClosed()) {
+            throw ExceptionMapper.getSqlException("Pool " + currentPool.getName() + " is closed");
+        }
+        return currentPool;
+    }
+
+    /**
+     * Borrow a connection from pool. Waits at most login timeout (default 30 seconds) if no connection is available.
+     *
+     * @return a connection to the data source
+     * @throws java.sql.SQLException if a database access error occurs or no connection is available in time
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getPool().getConnection(TimeUnit.SECONDS.toMillis(loginTimeout == 0 ? DEFAULT_LOGIN_TIMEOUT : loginTimeout));
+    }
+
+    /**
+     * Borrow a connection from pool. Pool connections all use the same credentials, so username and password must be the one configured.
+     *
+     * @param username the database user on whose behalf the connection is being made
+     * @param password the user's password
+     * @return a connection to the data source
+     * @throws java.sql.SQLException if a database access error occurs, or if credentials differ from pool ones.
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        UrlParser urlParser = getUrlParser();
+        if (!sameValue(username, urlParser.getUsername()) || !sameValue(password, urlParser.getPassword())) {
+            throw ExceptionMapper.getFeatureNotSupportedException("Pool connections can only use the configured user and password");
+        }
+        return getConnection();
+    }
+
+    private static boolean sameValue(String value, String other) {
+        return value == null ? other == null : value.equals(other);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        loginTimeout = seconds;
+    }
+
+    /**
+     * Close pool and its physical connections. Borrowed connections are closed when given back.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    public int getActiveConnections() {
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    public int getIdleConnections() {
+        return pool == null ? 0 : pool.getIdleConnections();
+    }
+
+    public int getTotalConnections() {
+        return pool == null ? 0 : pool.getTotalConnections();
+    }
+
+    public int getConnectionRequests() {
+        return pool == null ? 0 : pool.getConnectionRequests();
+    }
+
+    public long getAverageWaitTime() {
+        return pool == null ? 0 : pool.getAverageWaitTime();
+    }
+
+    public long getMaxWaitTime() {
+        return pool == null ? 0 : pool.getMaxWaitTime();
+    }
+
+    public double getUtilisation() {
+        return pool == null ? 0 : pool.getUtilisation();
+    }
+
+    public double getAverageUtilisation() {
+        return pool == null ? 0 : pool.getAverageUtilisation();
+    }
+}
@@ -50,6 +50,9 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc;
 
+import org.mariadb.jdbc.internal.util.StatementPool;
+import org.mariadb.jdbc.internal.util.dao.StatementPoolKey;
+
 import javax.sql.*;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -65,6 +68,7 @@ public class MariaDbPooledConnection implements PooledConnection {
     MariaDbConnection connection;
     List<ConnectionEventListener> connectionEventListeners;
     List<StatementEventListener> statementEventListeners;
+    private final StatementPool statementPool;
 
     /**
      * Constructor.
@@ -75,6 +79,8 @@ public class MariaDbPooledConnection implements PooledConnection {
         connection.pooledConnection = this;
         statementEventListeners = new ArrayList<StatementEventListener>();
         connectionEventListeners = new ArrayList<ConnectionEventListener>();
+        int statementPoolSize = connection.getOptions().statementPoolSize;
+        statementPool = (statementPoolSize > 0) ? StatementPool.newInstance(statementPoolSize) : null;
     }
 
     /**
@@ -112,9 +118,67 @@ public class MariaDbPooledConnection implements PooledConnection {
      */
     public void close() throws SQLException {
         connection.pooledConnection = null;
+        if (statementPool != null) {
+            synchronized (statementPool) {
+                statementPool.closeAll();
+            }
+        }
         connection.close();
     }
 
+    /**
+     * Indicate if poolable prepared statements are pooled on this physical connection.
+     *
+     * @return true if statement pooling is enabled
+     */
+    public boolean isStatementPoolingEnabled() {
+        return statementPool != null;
+    }
+
+    /**
+     * Borrow an idle statement from statement pool.
+     *
+     * @param database current database
+     * @param sql sql
+     * @param resultSetType result-set type
+     * @return idle statement, or null if none
+     */
+    AbstractMariaDbPrepareStatement borrowStatement(String database, String sql, int resultSetType) {
+        synchronized (statementPool) {
+            return (AbstractMariaDbPrepareStatement) statementPool.borrow(database, sql, resultSetType);
+        }
+    }
+
+    /**
+     * Give back a closed poolable statement to statement pool.
+     *
+     * @param key database, sql and result-set type
+     * @param statement statement
+     * @return true if statement has been pooled, false if statement must be physically closed
+     */
+    boolean returnStatement(StatementPoolKey key, AbstractMariaDbPrepareStatement statement) {
+        if (statementPool == null) {
+            return false;
+        }
+        synchronized (statementPool) {
+            return statementPool.putIfNone(key, statement);
+        }
+    }
+
+    /**
+     * Get number of idle statements in statement pool.
+     *
+     * @return idle statement number
+     */
+    public int getIdleStatementCount() {
+        if (statementPool == null) {
+            return 0;
+        }
+        synchronized (statementPool) {
+            return statementPool.size();
+        }
+    }
+
     /**
      * Registers the given event failover so that it will be notified
      * when an event occurs on this <code>PooledConnection</code> object.
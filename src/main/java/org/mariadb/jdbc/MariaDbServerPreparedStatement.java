@@ -299,6 +299,14 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
         currentParameterHolder = new ParameterHolder[parameterCount];
     }
 
+    @Override
+    protected MariaDbServerPreparedStatement copyForReuse() throws CloneNotSupportedException {
+        MariaDbServerPreparedStatement copy = (MariaDbServerPreparedStatement) shallowCopy();
+        copy.currentParameterHolder = new ParameterHolder[parameterCount];
+        copy.queryParameters = new ArrayList<>();
+        return copy;
+    }
+
     @Override
     public boolean execute() throws SQLException {
         return executeInternal(getFetchSize(), false);
@@ -357,6 +365,9 @@ public class MariaDbServerPreparedStatement extends AbstractMariaDbPrepareStatem
      */
     @Override
     public void close() throws SQLException {
+        if (returnToStatementPool()) {
+            return;
+        }
         lock.lock();
         try {
             closed = true;
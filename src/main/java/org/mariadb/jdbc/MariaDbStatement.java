@@ -55,8 +55,10 @@ import org.mariadb.jdbc.internal.queryresults.MultiIntExecutionResult;
 import org.mariadb.jdbc.internal.queryresults.SingleExecutionResult;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.LexState;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
+import org.mariadb.jdbc.internal.util.scheduler.TimeoutTimer;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -68,7 +70,7 @@ import java.util.concurrent.locks.ReentrantLock;
 
 public class MariaDbStatement implements Statement, Cloneable {
     //timeout scheduler
-    private static final ScheduledExecutorService timeoutScheduler = SchedulerServiceProviderHolder.getTimeoutScheduler();
+    private static final TimeoutTimer timeoutTimer = SchedulerServiceProviderHolder.getTimeoutTimer();
 
     /**
      * the protocol used to talk to the server.
@@ -96,6 +98,7 @@ public class MariaDbStatement implements Statement, Cloneable {
     protected final ReentrantLock lock;
     protected ExecutionResult executionResult = null;
     protected int resultSetScrollType;
+    protected boolean poolable;
 
     /**
      * Creates a new Statement.
@@ -155,7 +158,7 @@ public class MariaDbStatement implements Statement, Cloneable {
     protected void setTimerTask() {
         assert (timerTaskFuture == null);
 
-        timerTaskFuture = timeoutScheduler.schedule(new Runnable() {
+        timerTaskFuture = timeoutTimer.schedule(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -486,29 +489,9 @@ public class MariaDbStatement implements Statement, Cloneable {
         lock.lock();
         try {
             closed = true;
-            boolean hasMoreResult = false;
-            if (executionResult != null) {
-                hasMoreResult = executionResult.hasMoreResultAvailable();
-                if (executionResult.getFetchSize() > 0) {
-                    executionResult.close();
-                }
-                executionResult = null;
-            }
-
-            // No possible future use for the cached results, so these can be cleared
-            // This makes the cache eligible for garbage collection earlier if the statement is not
-            // immediately garbage collected
-            cachedExecutionResults.clear();
-
-            if (hasMoreResult) {
-                connection.lock.lock();
-                try {
-                    skipMoreResults();
-                } finally {
-                    protocol = null;
-                    connection.lock.unlock();
-                }
-            } else {
+            try {
+                closeResults();
+            } finally {
                 protocol = null;
             }
             if (connection == null || connection.pooledConnection == null
@@ -521,6 +504,52 @@ public class MariaDbStatement implements Statement, Cloneable {
         }
     }
 
+    /**
+     * Close current and cached results, reading remaining results from socket if any.
+     * Must have "lock" locked before invoking.
+     *
+     * @throws SQLException if remaining results cannot be read
+     */
+    protected void closeResults() throws SQLException {
+        boolean hasMoreResult = false;
+        if (executionResult != null) {
+            hasMoreResult = executionResult.hasMoreResultAvailable();
+            if (executionResult.getFetchSize() > 0) {
+                executionResult.close();
+            }
+            executionResult = null;
+        }
+
+        // No possible future use for the cached results, so these can be cleared
+        // This makes the cache eligible for garbage collection earlier if the statement is not
+        // immediately garbage collected
+        cachedExecutionResults.clear();
+
+        if (hasMoreResult) {
+            connection.lock.lock();
+            try {
+                skipMoreResults();
+            } finally {
+                connection.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reset statement settings to their initial values, so that a pooled statement is seen as a new one when reused.
+     */
+    protected void resetSettings() {
+        stopTimeoutTask();
+        batchResultSet = null;
+        isTimedout = false;
+        warningsCleared = true;
+        queryTimeout = 0;
+        fetchSize = 0;
+        maxRows = 0;
+        isRewriteable = true;
+        rewriteOffset = -1;
+    }
+
     /**
      * Retrieve the output parameter result
      * @return a resultset.
@@ -806,7 +835,7 @@ public class MariaDbStatement implements Statement, Cloneable {
      */
     @Override
     public boolean isPoolable() throws SQLException {
-        return false;
+        return poolable;
     }
 
     /**
@@ -822,6 +851,7 @@ public class MariaDbStatement implements Statement, Cloneable {
      */
     @Override
     public void setPoolable(final boolean poolable) throws SQLException {
+        this.poolable = poolable;
     }
 
     /**
@@ -1342,14 +1372,4 @@ public class MariaDbStatement implements Statement, Cloneable {
         }
         return valueIndex;
     }
-
-    enum LexState {
-        Normal, /* inside  query */
-        String, /* inside string */
-        SlashStarComment, /* inside slash-star comment */
-        Escape, /* found backslash */
-        Parameter, /* parameter placeholder found */
-        EOLComment, /* # comment, or // comment, or -- comment */
-        Backtick /* found backtick */
-    }
 }
@@ -0,0 +1,113 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc;
+
+/**
+ * Query interceptor, set with option "queryInterceptor" to the full name of a class implementing this interface, with a public
+ * no-argument constructor. Each connection has its own instance, so implementation doesn't need to be thread-safe, but callbacks
+ * are called in the execution thread : they must be fast.
+ * <p>
+ * Interceptor is called for queries, server prepare, prepared statement execution and batches. Queries and server prepare SQL can be
+ * rewritten, and queries can be answered by a cached result without being sent to server. Prepared statement executions and
+ * batches are only observed.
+ * </p>
+ */
+public interface QueryInterceptor {
+
+    enum Command {
+        QUERY, PREPARE, EXECUTE_PREPARED, BATCH
+    }
+
+    /**
+     * Called before a QUERY or PREPARE command is sent.
+     *
+     * @param command command type
+     * @param sql     SQL
+     * @return SQL to send : the given SQL, or a rewritten SQL
+     */
+    String rewrite(Command command, String sql);
+
+    /**
+     * Called before a QUERY command is sent (after rewrite).
+     *
+     * @param sql SQL
+     * @return result to use instead of executing query, or null to execute query
+     */
+    CachedResult cachedResult(String sql);
+
+    /**
+     * Called after each command has been executed (successfully or not). Timings object is reused by the connection : its values
+     * must be copied if needed after this call.
+     *
+     * @param timings command timings
+     */
+    void afterExecution(QueryTimings timings);
+
+    /**
+     * Result returned by an interceptor instead of executing a query. All columns are of type VARCHAR.
+     */
+    class CachedResult {
+        private final String[] columnNames;
+        private final String[][] rows;
+
+        public CachedResult(String[] columnNames, String[][] rows) {
+            this.columnNames = columnNames;
+            this.rows = rows;
+        }
+
+        public String[] getColumnNames() {
+            return columnNames;
+        }
+
+        public String[][] getRows() {
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc;
+
+/**
+ * Timings of a command, given to {@link QueryInterceptor#afterExecution(QueryTimings)}.
+ * <ul>
+ * <li>send time : from execution start until command has been written to socket (client and network)</li>
+ * <li>server wait time : from end of send until first byte of response (server execution and network latency)</li>
+ * <li>decode time : from first byte of response until end of execution (reading and decoding results). For batches, next
+ * commands are included.</li>
+ * </ul>
+ * For streaming result sets, only the first fetch is included.
+ */
+public class QueryTimings {
+    private QueryInterceptor.Command command;
+    private String sql;
+    private long sendNanos;
+    private long serverWaitNanos;
+    private long decodeNanos;
+    private long rows;
+    private long bytesSent;
+    private long bytesReceived;
+    private Exception error;
+
+    /**
+     * Set values of a command.
+     *
+     * @param command         command type
+     * @param sql             SQL
+     * @param sendNanos       send time in nanoseconds
+     * @param serverWaitNanos server wait time in nanoseconds
+     * @param decodeNanos     decode time in nanoseconds
+     * @param rows            number of result rows read
+     * @param bytesSent       number of bytes sent
+     * @param bytesReceived   number of bytes received
+     * @param error           error, if command failed
+     */
+    public void set(QueryInterceptor.Command command, String sql, long sendNanos, long serverWaitNanos, long decodeNanos, long rows,
+                    long bytesSent, long bytesReceived, Exception error) {
+        this.command = command;
+        this.sql = sql;
+        this.sendNanos = sendNanos;
+        this.serverWaitNanos = serverWaitNanos;
+        this.decodeNanos = decodeNanos;
+        this.rows = rows;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.error = error;
+    }
+
+    public QueryInterceptor.Command getCommand() {
+        return command;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getSendNanos() {
+        return sendNanos;
+    }
+
+    public long getServerWaitNanos() {
+        return serverWaitNanos;
+    }
+
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    public long getTotalNanos() {
+        return sendNanos + serverWaitNanos + decodeNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return command + " send=" + sendNanos / 1000 + "us, serverWait=" + serverWaitNanos / 1000 + "us, decode=" + decodeNanos / 1000
+                + "us, rows=" + rows + ", bytesSent=" + bytesSent + ", bytesReceived=" + bytesReceived
+                + ((error != null) ? ", error=" + error.getMessage() : "") + " : " + sql;
+    }
+}
@@ -72,5 +72,6 @@ public class MariaDbServerCapabilities {
     public static final int PLUGIN_AUTH = 1 << 19;      /* Client supports plugin authentication */
     public static final int CONNECT_ATTRS = 1 << 20;    /* Client send connection attributes */
     public static final int PLUGIN_AUTH_LENENC_CLIENT_DATA = 1 << 21;    /* authentication data length is a length auth integer */
+    public static final int CLIENT_SESSION_TRACK = 1 << 23; /* Server send session state changes in OK packets */
     public static final int PROGRESS = 1 << 29;         /* Client support progress indicator */
 }
\ No newline at end of file
@@ -53,18 +53,25 @@ import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.failover.thread.ConnectionValidator;
+import org.mariadb.jdbc.internal.failover.thread.HostHealthMonitor;
 import org.mariadb.jdbc.internal.queryresults.ExecutionResult;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.constant.HaMode;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.scheduler.DynamicSizedSchedulerInterface;
+import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.protocol.MasterProtocol;
 import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.failover.tools.HostCircuitBreaker;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.SQLException;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -73,11 +80,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class AbstractMastersListener implements Listener {
 
-    /**
-     * List the recent failedConnection.
-     */
-    private static final ConcurrentMap<HostAddress, Long> blacklist = new ConcurrentHashMap<>();
     private static final ConnectionValidator connectionValidationLoop = new ConnectionValidator();
+    private static final double STANDBY_MASTER_POOL_SIZE_TO_LISTENER_RATIO = 0.3d;
+    private static final DynamicSizedSchedulerInterface standbyMasterScheduler = SchedulerServiceProviderHolder.getScheduler(1);
+    private static final AtomicInteger standbyMasterListenerCount = new AtomicInteger();
 
     /* =========================== Failover variables ========================================= */
     public final UrlParser urlParser;
@@ -91,29 +97,185 @@ public abstract class AbstractMastersListener implements Listener {
     private volatile long masterHostFailNanos = 0;
     private AtomicBoolean masterHostFail = new AtomicBoolean();
     protected long lastQueryNanos = 0;
+    // pre-authenticated connection to next master candidate (option "warmStandbyMaster")
+    private volatile Protocol standbyMasterProtocol;
+    private volatile Future<?> standbyMasterTask;
+    private volatile long standbyMasterCheckNanos;
 
     protected AbstractMastersListener(UrlParser urlParser) {
         this.urlParser = urlParser;
         this.masterHostFail.set(true);
         this.lastQueryNanos = System.nanoTime();
+        if (urlParser.getOptions().warmStandbyMaster) {
+            standbyMasterScheduler.setPoolSize(
+                    SchedulerServiceProviderHolder.getFailoverPoolSize(standbyMasterListenerCount.incrementAndGet(),
+                            STANDBY_MASTER_POOL_SIZE_TO_LISTENER_RATIO));
+        }
     }
 
     /**
      * Initialize Listener.
      * This listener will be added to the connection validation loop according to option value so the connection
      * will be verified periodically. (Important for aurora, for other, connection pool often have this functionality)
+     * If option "healthCheckInterval" is set, listener subscribe to the shared host health monitor instead.
      * @throws QueryException if any exception occur.
      */
     public void initializeConnection() throws QueryException {
         long connectionTimeoutMillis = TimeUnit.SECONDS.toMillis(urlParser.getOptions().validConnectionTimeout);
         lastQueryNanos = System.nanoTime();
-        if (connectionTimeoutMillis > 0) {
+        if (urlParser.getOptions().healthCheckInterval > 0) {
+            //hosts are probed once for all listeners, instead of validating each connection
+            HostHealthMonitor.subscribe(this);
+        } else if (connectionTimeoutMillis > 0) {
             connectionValidationLoop.addListener(this, connectionTimeoutMillis);
         }
     }
 
     protected void removeListenerFromSchedulers() {
-        connectionValidationLoop.removeListener(this);
+        if (urlParser.getOptions().healthCheckInterval > 0) {
+            HostHealthMonitor.unsubscribe(this);
+        } else {
+            connectionValidationLoop.removeListener(this);
+        }
+        if (urlParser.getOptions().warmStandbyMaster) {
+            standbyMasterScheduler.setPoolSize(
+                    SchedulerServiceProviderHolder.getFailoverPoolSize(standbyMasterListenerCount.decrementAndGet(),
+                            STANDBY_MASTER_POOL_SIZE_TO_LISTENER_RATIO));
+            closeConnection(standbyMasterProtocol);
+        }
+    }
+
+    /**
+     * When option "warmStandbyMaster" is set, connect asynchronously the standby master connection to the next master candidate,
+     * if not already connected.
+     */
+    protected void connectStandbyMaster() {
+        Future<?> task = standbyMasterTask;
+        Protocol standby = standbyMasterProtocol;
+        if (!urlParser.getOptions().warmStandbyMaster || isExplicitClosed() || (task != null && !task.isDone())
+                || (standby != null && !standby.isClosed())) {
+            return;
+        }
+        standbyMasterTask = standbyMasterScheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                Set<HostAddress> openHosts = HostCircuitBreaker.getOpenHosts();
+                for (HostAddress hostAddress : getStandbyMasterCandidates()) {
+                    if (openHosts.contains(hostAddress)) {
+                        continue;
+                    }
+                    Protocol protocol = newStandbyMasterProtocol();
+                    protocol.setHostAddress(hostAddress);
+                    try {
+                        protocol.connect();
+                    } catch (QueryException queryException) {
+                        protocol.close();
+                        addToBlacklist(hostAddress);
+                        continue;
+                    }
+                    standbyMasterCheckNanos = System.nanoTime();
+                    standbyMasterProtocol = protocol;
+                    if (isExplicitClosed()) {
+                        protocol.close();
+                    }
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Keep standby master connection alive, called by connection validator or host health monitor : standby connection is
+     * validated every "validConnectionTimeout" seconds, and reconnected if failed.
+     * Validation is skipped if connection is currently used, to avoid blocking validation thread.
+     */
+    public void checkStandbyMaster() {
+        if (!urlParser.getOptions().warmStandbyMaster || isExplicitClosed() || isMasterHostFail()) {
+            return;
+        }
+        Protocol standby = standbyMasterProtocol;
+        if (standby == null || standby.isClosed()) {
+            connectStandbyMaster();
+            return;
+        }
+        if (System.nanoTime() - standbyMasterCheckNanos < TimeUnit.SECONDS.toNanos(urlParser.getOptions().validConnectionTimeout)
+                || !proxy.lock.tryLock()) {
+            return;
+        }
+        try {
+            if (standby == standbyMasterProtocol) {
+                standby.ping();
+                standbyMasterCheckNanos = System.nanoTime();
+            }
+        } catch (QueryException queryException) {
+            standby.close();
+            addToBlacklist(standby.getHostAddress());
+        } finally {
+            proxy.lock.unlock();
+        }
+    }
+
+    /**
+     * Get standby master connection (option "warmStandbyMaster").
+     *
+     * @return standby master connection, or null if not connected
+     */
+    public Protocol getStandbyMasterProtocol() {
+        return standbyMasterProtocol;
+    }
+
+    /**
+     * Take standby master connection if it is a valid master connection : a single round trip is done (ping, or master
+     * verification for aurora).
+     *
+     * @return connection to use as new master connection, or null if no valid standby master connection.
+     */
+    protected Protocol takeStandbyMaster() {
+        Protocol standby = standbyMasterProtocol;
+        standbyMasterProtocol = null;
+        if (standby == null || standby.isClosed()) {
+            return null;
+        }
+        try {
+            boolean master = (urlParser.getHaMode() == HaMode.AURORA) ? standby.checkIfMaster() : standby.ping();
+            if (master) {
+                return standby;
+            }
+        } catch (QueryException queryException) {
+            addToBlacklist(standby.getHostAddress());
+        }
+        standby.close();
+        return null;
+    }
+
+    /**
+     * Hosts that can hold standby master connection, by priority.
+     * Default to all hosts but current one, in sequence order for sequential mode, random order otherwise.
+     *
+     * @return candidate hosts
+     */
+    protected List<HostAddress> getStandbyMasterCandidates() {
+        List<HostAddress> hostAddresses = new ArrayList<>(urlParser.getHostAddresses());
+        Protocol protocol = currentProtocol;
+        int currentIndex = (protocol == null) ? -1 : hostAddresses.indexOf(protocol.getHostAddress());
+        if (urlParser.getHaMode() == HaMode.SEQUENTIAL && currentIndex != -1) {
+            Collections.rotate(hostAddresses, -currentIndex);
+        } else {
+            Collections.shuffle(hostAddresses);
+        }
+        if (protocol != null) {
+            hostAddresses.remove(protocol.getHostAddress());
+        }
+        return hostAddresses;
+    }
+
+    /**
+     * Create a not connected protocol that can become master connection.
+     *
+     * @return new protocol
+     */
+    protected Protocol newStandbyMasterProtocol() {
+        return MasterProtocol.getNewProtocol(proxy, urlParser);
     }
 
     protected void preAutoReconnect() throws QueryException {
@@ -140,7 +302,7 @@ public abstract class AbstractMastersListener implements Listener {
     }
 
     public Set<HostAddress> getBlacklistKeys() {
-        return blacklist.keySet();
+        return HostCircuitBreaker.getOpenHosts();
     }
 
     /**
@@ -157,7 +319,7 @@ public abstract class AbstractMastersListener implements Listener {
      * @return a HandleErrorResult object to indicate if query has been relaunched, and the exception if not
      * @throws Throwable when method and parameters does not exist.
      */
-    public HandleErrorResult handleFailover(Method method, Object[] args, Protocol protocol) throws Throwable {
+    public HandleErrorResult handleFailover(ProtocolCall method, Object[] args, Protocol protocol) throws Throwable {
         if (isExplicitClosed()) {
             throw new QueryException("Connection has been closed !");
         }
@@ -169,46 +331,72 @@ public abstract class AbstractMastersListener implements Listener {
     }
 
     /**
-     * After a failover, put the hostAddress in a static list so the other connection will not take this host in account for a time.
+     * After a failover, open the circuit of the hostAddress so the other connection will not take this host in account
+     * until its backoff expire.
      *
      * @param hostAddress the HostAddress to add to blacklist
      */
     public void addToBlacklist(HostAddress hostAddress) {
         if (hostAddress != null && !isExplicitClosed()) {
-            blacklist.putIfAbsent(hostAddress, System.nanoTime());
+            HostCircuitBreaker.get(hostAddress).onFailure(urlParser.getOptions().loadBalanceBlacklistInitialDelay,
+                    TimeUnit.SECONDS.toMillis(urlParser.getOptions().loadBalanceBlacklistTimeout));
         }
     }
 
     /**
-     * After a successfull connection, permit to remove a hostAddress from blacklist.
+     * After a successfull connection, permit to close the circuit of a hostAddress.
      *
      * @param hostAddress the host address tho be remove of blacklist
      */
     public void removeFromBlacklist(HostAddress hostAddress) {
         if (hostAddress != null) {
-            blacklist.remove(hostAddress);
+            HostCircuitBreaker.get(hostAddress).onSuccess();
         }
     }
 
     /**
-     * Permit to remove Host to blacklist after loadBalanceBlacklistTimeout seconds.
+     * Remove hosts which circuit is not closed from the list, and try to acquire the half-open probe of those hosts.
+     * Hosts which probe is acquired must be tried by this listener, and released after the loop with {@link #releaseProbes(List)}.
+     *
+     * @param hosts candidate hosts. Hosts with open circuit will be removed.
+     * @return hosts which this listener probes.
      */
-    public void resetOldsBlackListHosts() {
-        long currentTimeNanos = System.nanoTime();
-        Set<Map.Entry<HostAddress, Long>> entries = blacklist.entrySet();
-        for (Map.Entry<HostAddress, Long> blEntry : entries) {
-            long entryNanos = blEntry.getValue();
-            long durationSeconds = TimeUnit.NANOSECONDS.toSeconds(currentTimeNanos - entryNanos);
-            if (durationSeconds >= urlParser.getOptions().loadBalanceBlacklistTimeout) {
-                blacklist.remove(blEntry.getKey(), entryNanos);
+    protected List<HostAddress> acquireProbes(List<HostAddress> hosts) {
+        List<HostAddress> probes = new ArrayList<>();
+        Set<HostAddress> openHosts = getBlacklistKeys();
+        if (openHosts.isEmpty()) {
+            return probes;
+        }
+        long probeLeaseMillis = TimeUnit.SECONDS.toMillis(urlParser.getOptions().loadBalanceBlacklistTimeout);
+        Iterator<HostAddress> iterator = hosts.iterator();
+        while (iterator.hasNext()) {
+            HostAddress hostAddress = iterator.next();
+            if (openHosts.contains(hostAddress)) {
+                iterator.remove();
+                if (HostCircuitBreaker.get(hostAddress).tryAcquireProbe(this, probeLeaseMillis)) {
+                    probes.add(hostAddress);
+                }
             }
         }
+        return probes;
+    }
+
+    /**
+     * Release probes that have not been tried, so another connection can probe those hosts without waiting for the lease.
+     *
+     * @param probes hosts acquired with {@link #acquireProbes(List)}
+     */
+    protected void releaseProbes(List<HostAddress> probes) {
+        for (HostAddress hostAddress : probes) {
+            HostCircuitBreaker.get(hostAddress).releaseProbe(this);
+        }
     }
 
     protected void resetMasterFailoverData() {
         if (masterHostFail.compareAndSet(true, false)) {
             masterHostFailNanos = 0;
         }
+        connectStandbyMaster();
     }
 
     protected void setSessionReadOnly(boolean readOnly, Protocol protocol) throws QueryException {
@@ -260,10 +448,9 @@ public abstract class AbstractMastersListener implements Listener {
      * @param method the methode accessed
      * @param args   the parameters
      * @return An object that indicate the result or that the exception as to be thrown
-     * @throws IllegalAccessException    if the initial call is not permit
-     * @throws InvocationTargetException if there is any error relaunching initial method
+     * @throws QueryException if there is any error relaunching initial method
      */
-    public HandleErrorResult relaunchOperation(Method method, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    public HandleErrorResult relaunchOperation(ProtocolCall method, Object[] args) throws QueryException {
         HandleErrorResult handleErrorResult = new HandleErrorResult(true);
         if (method != null) {
             if ("executeQuery".equals(method.getName())) {
@@ -271,7 +458,7 @@ public abstract class AbstractMastersListener implements Listener {
                     String query = ((String) args[1]).toUpperCase();
                     if (!query.equals("ALTER SYSTEM CRASH")
                             && !query.startsWith("KILL")) {
-                        handleErrorResult.resultObject = method.invoke(currentProtocol, args);
+                        handleErrorResult.resultObject = method.invoke(currentProtocol);
                         handleErrorResult.mustThrowError = false;
                     }
                 }
@@ -286,7 +473,7 @@ public abstract class AbstractMastersListener implements Listener {
                 } catch (Exception e) {
                 }
             } else {
-                handleErrorResult.resultObject = method.invoke(currentProtocol, args);
+                handleErrorResult.resultObject = method.invoke(currentProtocol);
                 handleErrorResult.mustThrowError = false;
             }
         }
@@ -299,7 +486,7 @@ public abstract class AbstractMastersListener implements Listener {
      * @param args invoke arguments
      * @return true if can be re-executed
      */
-    public boolean isQueryRelaunchable(Method method, Object[] args) {
+    public boolean isQueryRelaunchable(ProtocolCall method, Object[] args) {
         if (method != null) {
             if ("executeQuery".equals(method.getName()) && args[1] instanceof String) {
                 return ((String) args[1]).toUpperCase().startsWith("SELECT");
@@ -316,12 +503,20 @@ public abstract class AbstractMastersListener implements Listener {
         return false;
     }
 
-    public Object invoke(Method method, Object[] args, Protocol specificProtocol) throws Throwable {
-        return method.invoke(specificProtocol, args);
+    public Object invoke(ProtocolCall method, Object[] args, Protocol specificProtocol) throws Throwable {
+        return method.invoke(specificProtocol);
     }
 
-    public Object invoke(Method method, Object[] args) throws Throwable {
-        return method.invoke(currentProtocol, args);
+    public Object invoke(ProtocolCall method, Object[] args) throws Throwable {
+        return method.invoke(currentProtocol);
+    }
+
+    public boolean isRoutingStatements() {
+        return false;
+    }
+
+    public Protocol getExecutionProtocol() {
+        return currentProtocol;
     }
 
     /**
@@ -348,6 +543,14 @@ public abstract class AbstractMastersListener implements Listener {
                 if (from.getAutocommit() != to.getAutocommit()) {
                     to.executeQuery("set autocommit=" + (from.getAutocommit() ? "1" : "0"));
                 }
+                if (urlParser.getOptions().warmupCachedStatements > 0) {
+                    //prepare most used statements of previous connection, so first executions won't have to re-prepare
+                    try {
+                        to.prepareWarmUp(from.getMostUsedPrepareStatements(urlParser.getOptions().warmupCachedStatements));
+                    } catch (QueryException queryException) {
+                        //warm-up is an optimisation, statements will be prepared on first use
+                    }
+                }
             } finally {
                 proxy.lock.unlock();
             }
@@ -387,7 +590,7 @@ public abstract class AbstractMastersListener implements Listener {
 
     public abstract void switchReadOnlyConnection(Boolean readonly) throws QueryException;
 
-    public abstract HandleErrorResult primaryFail(Method method, Object[] args) throws Throwable;
+    public abstract HandleErrorResult primaryFail(ProtocolCall method, Object[] args) throws Throwable;
 
     /**
      * Throw a human readable message after a failoverException.
@@ -442,7 +645,7 @@ public abstract class AbstractMastersListener implements Listener {
      * Clear blacklist data.
      */
     public static void clearBlacklist() {
-        blacklist.clear();
+        HostCircuitBreaker.clear();
     }
 
     public long getLastQueryNanos() {
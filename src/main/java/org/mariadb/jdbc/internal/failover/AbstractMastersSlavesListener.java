@@ -54,7 +54,6 @@ import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 
-import java.lang.reflect.Method;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -85,7 +84,7 @@ public abstract class AbstractMastersSlavesListener extends AbstractMastersListe
      * @return HandleErrorResult object to indicate if query has finally been relaunched or exception if not.
      * @throws Throwable if method with parameters doesn't exist
      */
-    public HandleErrorResult handleFailover(Method method, Object[] args, Protocol protocol) throws Throwable {
+    public HandleErrorResult handleFailover(ProtocolCall method, Object[] args, Protocol protocol) throws Throwable {
         if (isExplicitClosed()) {
             throw new QueryException("Connection has been closed !");
         }
@@ -165,7 +164,7 @@ public abstract class AbstractMastersSlavesListener extends AbstractMastersListe
         return new SearchFilter(isMasterHostFail(), isSecondaryHostFail());
     }
 
-    public abstract HandleErrorResult secondaryFail(Method method, Object[] args) throws Throwable;
+    public abstract HandleErrorResult secondaryFail(ProtocolCall method, Object[] args) throws Throwable;
 
     public abstract void foundActiveSecondary(Protocol newSecondaryProtocol) throws QueryException;
 
@@ -0,0 +1,882 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.MariaDbConnection;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.queryresults.ExecutionResult;
+import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.PrepareStatementCache;
+import org.mariadb.jdbc.internal.util.dao.PrepareResult;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.metrics.ConnectionMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Protocol used when connection has failover capabilities : each call is delegated to the listener current connection,
+ * and connection errors are handled by failover.
+ * Delegation is done with typed calls, without reflection nor parameter array on the normal path : a ProtocolCall is
+ * created only when listener route statements to another connection (option "readWriteSplitting"), or when failover
+ * has to relaunch the call.
+ */
+public class FailoverProtocol implements Protocol {
+
+    private final FailoverProxy proxy;
+    private final Listener listener;
+
+    public FailoverProtocol(FailoverProxy proxy) {
+        this.proxy = proxy;
+        this.listener = proxy.getListener();
+    }
+
+    /**
+     * Verification done by listener before query execution.
+     *
+     * @return connection error that must be handled by failover before executing query, null if none.
+     */
+    private QueryException preExecute() {
+        try {
+            listener.preExecute();
+        } catch (QueryException queryException) {
+            //handle failover only if connection error
+            //normal error can be thrown upon reconnection if there was a transaction in progress.
+            if (proxy.hasToHandleFailover(queryException)) {
+                return queryException;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Let listener execute call on the connection it choose.
+     *
+     * @param call call
+     * @param args call parameters
+     * @return call result
+     * @throws QueryException if call fail
+     */
+    private Object route(ProtocolCall call, Object... args) throws QueryException {
+        try {
+            return listener.invoke(call, args);
+        } catch (Throwable throwable) {
+            throw FailoverProxy.toQueryException(throwable);
+        }
+    }
+
+    /**
+     * Handle failover if exception is a connection error, rethrow exception otherwise.
+     *
+     * @param queryException exception
+     * @param call           call to relaunch if failover succeed
+     * @param args           call parameters
+     * @return relaunched call result
+     * @throws QueryException if exception isn't a connection error, or if failover fail
+     */
+    private Object failover(QueryException queryException, ProtocolCall call, Object... args) throws QueryException {
+        return failoverOn(listener.getCurrentProtocol(), queryException, call, args);
+    }
+
+    private Object failoverOn(Protocol protocol, QueryException queryException, ProtocolCall call, Object[] args) throws QueryException {
+        if (!proxy.hasToHandleFailover(queryException)) {
+            throw queryException;
+        }
+        return proxy.handleFailOver(queryException, call, args, protocol);
+    }
+
+    @Override
+    public PrepareResult prepare(final String sql) throws QueryException {
+        try {
+            return listener.getCurrentProtocol().prepare(sql);
+        } catch (QueryException queryException) {
+            return (PrepareResult) failover(queryException, new ProtocolCall("prepare") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    return protocol.prepare(sql);
+                }
+            }, sql);
+        }
+    }
+
+    @Override
+    public PrepareResult prepare(final String sql, final boolean forceNew, final boolean executeOnMaster) throws QueryException {
+        try {
+            return listener.getCurrentProtocol().prepare(sql, forceNew, executeOnMaster);
+        } catch (QueryException queryException) {
+            return (PrepareResult) failover(queryException, new ProtocolCall("prepare") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    return protocol.prepare(sql, forceNew, executeOnMaster);
+                }
+            }, sql, forceNew, executeOnMaster);
+        }
+    }
+
+    @Override
+    public boolean getAutocommit() {
+        return listener.getCurrentProtocol().getAutocommit();
+    }
+
+    @Override
+    public boolean noBackslashEscapes() {
+        return listener.getCurrentProtocol().noBackslashEscapes();
+    }
+
+    @Override
+    public void connect() throws QueryException {
+        try {
+            listener.getCurrentProtocol().connect();
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("connect") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.connect();
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Override
+    public UrlParser getUrlParser() {
+        return listener.getCurrentProtocol().getUrlParser();
+    }
+
+    @Override
+    public boolean inTransaction() {
+        return listener.getCurrentProtocol().inTransaction();
+    }
+
+    @Override
+    public FailoverProxy getProxy() {
+        return proxy;
+    }
+
+    @Override
+    public void setProxy(FailoverProxy proxy) {
+        listener.getCurrentProtocol().setProxy(proxy);
+    }
+
+    @Override
+    public Options getOptions() {
+        return listener.getUrlParser().getOptions();
+    }
+
+    @Override
+    public boolean hasMoreResults() {
+        return listener.getExecutionProtocol().hasMoreResults();
+    }
+
+    @Override
+    public void close() {
+        listener.getCurrentProtocol().close();
+    }
+
+    @Override
+    public void closeExplicit() {
+        try {
+            listener.preClose();
+        } catch (SQLException sqlException) {
+            //eat exception, connections are closed anyway
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return listener.isClosed();
+    }
+
+    @Override
+    public void setCatalog(final String database) throws QueryException {
+        try {
+            listener.getCurrentProtocol().setCatalog(database);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("setCatalog") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.setCatalog(database);
+                    return null;
+                }
+            }, database);
+        }
+    }
+
+    @Override
+    public String getServerVersion() {
+        return listener.getCurrentProtocol().getServerVersion();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return listener.getCurrentProtocol().isConnected();
+    }
+
+    @Override
+    public boolean getReadonly() {
+        return listener.getCurrentProtocol().getReadonly();
+    }
+
+    @Override
+    public void setReadonly(boolean readOnly) throws QueryException {
+        listener.switchReadOnlyConnection(readOnly);
+    }
+
+    @Override
+    public boolean isMasterConnection() {
+        return listener.getCurrentProtocol().isMasterConnection();
+    }
+
+    @Override
+    public boolean mustBeMasterConnection() {
+        return listener.getCurrentProtocol().mustBeMasterConnection();
+    }
+
+    @Override
+    public HostAddress getHostAddress() {
+        return listener.getCurrentProtocol().getHostAddress();
+    }
+
+    @Override
+    public void setHostAddress(HostAddress hostAddress) {
+        listener.getCurrentProtocol().setHostAddress(hostAddress);
+    }
+
+    @Override
+    public String getHost() {
+        return listener.getCurrentProtocol().getHost();
+    }
+
+    @Override
+    public int getPort() {
+        return listener.getCurrentProtocol().getPort();
+    }
+
+    @Override
+    public void rollback() {
+        listener.getCurrentProtocol().rollback();
+    }
+
+    @Override
+    public String getDatabase() {
+        return listener.getCurrentProtocol().getDatabase();
+    }
+
+    @Override
+    public String getUsername() {
+        return listener.getCurrentProtocol().getUsername();
+    }
+
+    @Override
+    public String getPassword() {
+        return listener.getCurrentProtocol().getPassword();
+    }
+
+    @Override
+    public boolean ping() throws QueryException {
+        try {
+            return listener.getCurrentProtocol().ping();
+        } catch (QueryException queryException) {
+            return (Boolean) failover(queryException, new ProtocolCall("ping") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    return protocol.ping();
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean isValidWithoutPing(int elisionTime) {
+        return listener.getCurrentProtocol().isValidWithoutPing(elisionTime);
+    }
+
+    @Override
+    public void setGtidWait(String gtid, int timeoutMillis) {
+        listener.getCurrentProtocol().setGtidWait(gtid, timeoutMillis);
+    }
+
+    @Override
+    public String getLastGtid() {
+        return listener.getCurrentProtocol().getLastGtid();
+    }
+
+    @Override
+    public void executeQuery(final String sql) throws QueryException {
+        QueryException preExecuteException = preExecute();
+        try {
+            if (preExecuteException != null) {
+                throw preExecuteException;
+            }
+            if (listener.isRoutingStatements()) {
+                route(executeQueryCall(sql), sql);
+            } else {
+                listener.getCurrentProtocol().executeQuery(sql);
+            }
+        } catch (QueryException queryException) {
+            failover(queryException, executeQueryCall(sql), sql);
+        }
+    }
+
+    private ProtocolCall executeQueryCall(final String sql) {
+        return new ProtocolCall(FailoverProxy.METHOD_EXECUTE_QUERY) {
+            @Override
+            public Object invoke(Protocol protocol) throws QueryException {
+                protocol.executeQuery(sql);
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void executeQuery(final ExecutionResult executionResult, final String sql, final int resultSetScrollType)
+            throws QueryException {
+        QueryException preExecuteException = preExecute();
+        try {
+            if (preExecuteException != null) {
+                throw preExecuteException;
+            }
+            if (listener.isRoutingStatements()) {
+                route(executeQueryCall(executionResult, sql, resultSetScrollType), executionResult, sql, resultSetScrollType);
+            } else {
+                listener.getCurrentProtocol().executeQuery(executionResult, sql, resultSetScrollType);
+            }
+        } catch (QueryException queryException) {
+            failover(queryException, executeQueryCall(executionResult, sql, resultSetScrollType), executionResult, sql,
+                    resultSetScrollType);
+        }
+    }
+
+    private ProtocolCall executeQueryCall(final ExecutionResult executionResult, final String sql, final int resultSetScrollType) {
+        return new ProtocolCall(FailoverProxy.METHOD_EXECUTE_QUERY) {
+            @Override
+            public Object invoke(Protocol protocol) throws QueryException {
+                protocol.executeQuery(executionResult, sql, resultSetScrollType);
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void executeQueries(final ExecutionResult executionResult, final List<String> queries, final int resultSetScrollType)
+            throws QueryException {
+        try {
+            if (listener.isRoutingStatements()) {
+                route(executeQueriesCall(executionResult, queries, resultSetScrollType), executionResult, queries, resultSetScrollType);
+            } else {
+                listener.getCurrentProtocol().executeQueries(executionResult, queries, resultSetScrollType);
+            }
+        } catch (QueryException queryException) {
+            failover(queryException, executeQueriesCall(executionResult, queries, resultSetScrollType), executionResult, queries,
+                    resultSetScrollType);
+        }
+    }
+
+    private ProtocolCall executeQueriesCall(final ExecutionResult executionResult, final List<String> queries,
+                                            final int resultSetScrollType) {
+        return new ProtocolCall(FailoverProxy.METHOD_EXECUTE_QUERIES) {
+            @Override
+            public Object invoke(Protocol protocol) throws QueryException {
+                protocol.executeQueries(executionResult, queries, resultSetScrollType);
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void executeQueries(final ExecutionResult executionResult, final List<String> queryParts,
+                               final List<ParameterHolder[]> parameterList, final int resultSetScrollType,
+                               final boolean isRewritable) throws QueryException {
+        try {
+            if (listener.isRoutingStatements()) {
+                route(executeQueriesCall(executionResult, queryParts, parameterList, resultSetScrollType, isRewritable),
+                        executionResult, queryParts, parameterList, resultSetScrollType, isRewritable);
+            } else {
+                listener.getCurrentProtocol().executeQueries(executionResult, queryParts, parameterList, resultSetScrollType,
+                        isRewritable);
+            }
+        } catch (QueryException queryException) {
+            failover(queryException, executeQueriesCall(executionResult, queryParts, parameterList, resultSetScrollType, isRewritable),
+                    executionResult, queryParts, parameterList, resultSetScrollType, isRewritable);
+        }
+    }
+
+    private ProtocolCall executeQueriesCall(final ExecutionResult executionResult, final List<String> queryParts,
+                                            final List<ParameterHolder[]> parameterList, final int resultSetScrollType,
+                                            final boolean isRewritable) {
+        return new ProtocolCall(FailoverProxy.METHOD_EXECUTE_QUERIES) {
+            @Override
+            public Object invoke(Protocol protocol) throws QueryException {
+                protocol.executeQueries(executionResult, queryParts, parameterList, resultSetScrollType, isRewritable);
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void executeQueriesRewrite(final ExecutionResult executionResult, final List<String> queries, final int resultSetScrollType,
+                                      final boolean isRewritable, final int rewriteOffset) throws QueryException {
+        try {
+            if (listener.isRoutingStatements()) {
+                route(executeQueriesRewriteCall(executionResult, queries, resultSetScrollType, isRewritable, rewriteOffset),
+                        executionResult, queries, resultSetScrollType, isRewritable, rewriteOffset);
+            } else {
+                listener.getCurrentProtocol().executeQueriesRewrite(executionResult, queries, resultSetScrollType, isRewritable,
+                        rewriteOffset);
+            }
+        } catch (QueryException queryException) {
+            failover(queryException, executeQueriesRewriteCall(executionResult, queries, resultSetScrollType, isRewritable, rewriteOffset),
+                    executionResult, queries, resultSetScrollType, isRewritable, rewriteOffset);
+        }
+    }
+
+    private ProtocolCall executeQueriesRewriteCall(final ExecutionResult executionResult, final List<String> queries,
+                                                   final int resultSetScrollType, final boolean isRewritable, final int rewriteOffset) {
+        return new ProtocolCall(FailoverProxy.METHOD_EXECUTE_QUERIES_REWRITE) {
+            @Override
+            public Object invoke(Protocol protocol) throws QueryException {
+                protocol.executeQueriesRewrite(executionResult, queries, resultSetScrollType, isRewritable, rewriteOffset);
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void getResult(final ExecutionResult executionResult, final int resultSetScrollType, final boolean binaryProtocol)
+            throws QueryException {
+        try {
+            listener.getCurrentProtocol().getResult(executionResult, resultSetScrollType, binaryProtocol);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("getResult") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.getResult(executionResult, resultSetScrollType, binaryProtocol);
+                    return null;
+                }
+            }, executionResult, resultSetScrollType, binaryProtocol);
+        }
+    }
+
+    @Override
+    public void cancelCurrentQuery() throws QueryException, IOException {
+        try {
+            listener.getExecutionProtocol().cancelCurrentQuery();
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("cancelCurrentQuery") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    try {
+                        protocol.cancelCurrentQuery();
+                    } catch (IOException ioException) {
+                        throw FailoverProxy.toQueryException(ioException);
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Override
+    public void skip() throws SQLException, QueryException {
+        try {
+            listener.getExecutionProtocol().skip();
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("skip") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    try {
+                        protocol.skip();
+                    } catch (SQLException sqlException) {
+                        throw FailoverProxy.toQueryException(sqlException);
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean checkIfMaster() throws QueryException {
+        try {
+            return listener.getCurrentProtocol().checkIfMaster();
+        } catch (QueryException queryException) {
+            return (Boolean) failover(queryException, new ProtocolCall("checkIfMaster") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    return protocol.checkIfMaster();
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean hasWarnings() {
+        return listener.getExecutionProtocol().hasWarnings();
+    }
+
+    @Override
+    public int getDataTypeMappingFlags() {
+        return listener.getCurrentProtocol().getDataTypeMappingFlags();
+    }
+
+    @Override
+    public void setInternalMaxRows(int max) {
+        listener.getCurrentProtocol().setInternalMaxRows(max);
+    }
+
+    @Override
+    public int getMaxRows() {
+        return listener.getCurrentProtocol().getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(final int max) throws QueryException {
+        try {
+            listener.getCurrentProtocol().setMaxRows(max);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("setMaxRows") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.setMaxRows(max);
+                    return null;
+                }
+            }, max);
+        }
+    }
+
+    @Override
+    public int getMajorServerVersion() {
+        return listener.getCurrentProtocol().getMajorServerVersion();
+    }
+
+    @Override
+    public int getMinorServerVersion() {
+        return listener.getCurrentProtocol().getMinorServerVersion();
+    }
+
+    @Override
+    public boolean versionGreaterOrEqual(int major, int minor, int patch) {
+        return listener.getCurrentProtocol().versionGreaterOrEqual(major, minor, patch);
+    }
+
+    @Override
+    public void setLocalInfileInputStream(InputStream inputStream) {
+        listener.getCurrentProtocol().setLocalInfileInputStream(inputStream);
+    }
+
+    @Override
+    public int getTimeout() throws SocketException {
+        return listener.getCurrentProtocol().getTimeout();
+    }
+
+    @Override
+    public void setTimeout(int timeout) throws SocketException {
+        listener.getCurrentProtocol().setTimeout(timeout);
+    }
+
+    @Override
+    public boolean getPinGlobalTxToPhysicalConnection() {
+        return listener.getCurrentProtocol().getPinGlobalTxToPhysicalConnection();
+    }
+
+    @Override
+    public long getServerThreadId() {
+        return listener.getCurrentProtocol().getServerThreadId();
+    }
+
+    @Override
+    public ConnectionMetrics getMetrics() {
+        return listener.getCurrentProtocol().getMetrics();
+    }
+
+    @Override
+    public void setTransactionIsolation(final int level) throws QueryException {
+        try {
+            listener.getCurrentProtocol().setTransactionIsolation(level);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("setTransactionIsolation") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.setTransactionIsolation(level);
+                    return null;
+                }
+            }, level);
+        }
+    }
+
+    @Override
+    public int getTransactionIsolationLevel() {
+        return listener.getCurrentProtocol().getTransactionIsolationLevel();
+    }
+
+    @Override
+    public boolean isExplicitClosed() {
+        return listener.isExplicitClosed();
+    }
+
+    @Override
+    public void connectWithoutProxy() throws QueryException {
+        try {
+            listener.getCurrentProtocol().connectWithoutProxy();
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("connectWithoutProxy") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.connectWithoutProxy();
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean shouldReconnectWithoutProxy() {
+        return listener.getCurrentProtocol().shouldReconnectWithoutProxy();
+    }
+
+    @Override
+    public void setHostFailedWithoutProxy() {
+        listener.getCurrentProtocol().setHostFailedWithoutProxy();
+    }
+
+    @Override
+    public void executePreparedQuery(final PrepareResult prepareResult, final ExecutionResult executionResult, final String sql,
+                                     final ParameterHolder[] parameters, final MariaDbType[] parameterTypeHeader,
+                                     final int resultSetScrollType) throws QueryException {
+        if (prepareResult.mustRePrepareOnSlave() && !listener.hasHostFail()) {
+            //PrepareStatement was to be executed on slave, but since a failover was running on master connection. Slave connection is up
+            // again, so has to be reprepared on slave
+            try {
+                listener.rePrepareOnSlave(prepareResult, sql, parameterTypeHeader);
+            } catch (QueryException q) {
+                //error during reprepare, will do executed on master.
+            }
+        }
+        Protocol specificProtocol = prepareResult.getUnProxiedProtocol();
+        try {
+            if (listener.isRoutingStatements()) {
+                try {
+                    listener.invoke(executePreparedQueryCall(prepareResult, executionResult, sql, parameters, parameterTypeHeader,
+                            resultSetScrollType), new Object[] {prepareResult, executionResult, sql, parameters, parameterTypeHeader,
+                            resultSetScrollType}, specificProtocol);
+                } catch (Throwable throwable) {
+                    throw FailoverProxy.toQueryException(throwable);
+                }
+            } else {
+                specificProtocol.executePreparedQuery(prepareResult, executionResult, sql, parameters, parameterTypeHeader,
+                        resultSetScrollType);
+            }
+        } catch (QueryException queryException) {
+            failoverOn(specificProtocol, queryException,
+                    executePreparedQueryCall(prepareResult, executionResult, sql, parameters, parameterTypeHeader, resultSetScrollType),
+                    new Object[] {prepareResult, executionResult, sql, parameters, parameterTypeHeader, resultSetScrollType});
+        }
+    }
+
+    private ProtocolCall executePreparedQueryCall(final PrepareResult prepareResult, final ExecutionResult executionResult,
+                                                  final String sql, final ParameterHolder[] parameters,
+                                                  final MariaDbType[] parameterTypeHeader, final int resultSetScrollType) {
+        return new ProtocolCall(FailoverProxy.METHOD_EXECUTE_PREPARED_QUERY) {
+            @Override
+            public Object invoke(Protocol protocol) throws QueryException {
+                protocol.executePreparedQuery(prepareResult, executionResult, sql, parameters, parameterTypeHeader, resultSetScrollType);
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void executePreparedQueryAfterFailover(final PrepareResult oldPrepareResult, final ExecutionResult executionResult,
+                                                  final String sql, final ParameterHolder[] parameters,
+                                                  final MariaDbType[] parameterTypeHeader, final int resultSetScrollType)
+            throws QueryException {
+        try {
+            listener.getCurrentProtocol().executePreparedQueryAfterFailover(oldPrepareResult, executionResult, sql, parameters,
+                    parameterTypeHeader, resultSetScrollType);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall(FailoverProxy.METHOD_EXECUTE_PREPARED_QUERY_AFTER_FAILOVER) {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.executePreparedQueryAfterFailover(oldPrepareResult, executionResult, sql, parameters,
+                            parameterTypeHeader, resultSetScrollType);
+                    return null;
+                }
+            }, oldPrepareResult, executionResult, sql, parameters, parameterTypeHeader, resultSetScrollType);
+        }
+    }
+
+    @Override
+    public void releasePrepareStatement(final PrepareResult prepareResult, final String sql) throws QueryException {
+        try {
+            listener.getCurrentProtocol().releasePrepareStatement(prepareResult, sql);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("releasePrepareStatement") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.releasePrepareStatement(prepareResult, sql);
+                    return null;
+                }
+            }, prepareResult, sql);
+        }
+    }
+
+    @Override
+    public void forceReleasePrepareStatement(final int statementId) throws QueryException {
+        try {
+            listener.getCurrentProtocol().forceReleasePrepareStatement(statementId);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("forceReleasePrepareStatement") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.forceReleasePrepareStatement(statementId);
+                    return null;
+                }
+            }, statementId);
+        }
+    }
+
+    @Override
+    public PrepareStatementCache prepareStatementCache() {
+        return listener.getCurrentProtocol().prepareStatementCache();
+    }
+
+    @Override
+    public void prepareWarmUp(final List<String> queries) throws QueryException {
+        try {
+            listener.getCurrentProtocol().prepareWarmUp(queries);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("prepareWarmUp") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.prepareWarmUp(queries);
+                    return null;
+                }
+            }, queries);
+        }
+    }
+
+    @Override
+    public List<String> getMostUsedPrepareStatements(int max) {
+        return listener.getCurrentProtocol().getMostUsedPrepareStatements(max);
+    }
+
+    @Override
+    public String getServerData(String code) {
+        return listener.getCurrentProtocol().getServerData(code);
+    }
+
+    @Override
+    public Calendar getCalendar() {
+        return listener.getCurrentProtocol().getCalendar();
+    }
+
+    @Override
+    public void prolog(ExecutionResult executionResult, int maxRows, boolean hasProxy, MariaDbConnection connection,
+                       Statement statement) throws SQLException {
+        listener.getCurrentProtocol().prolog(executionResult, maxRows, hasProxy, connection, statement);
+    }
+
+    @Override
+    public void prologProxy(PrepareResult prepareResult, ExecutionResult executionResult, int maxRows, boolean hasProxy,
+                            MariaDbConnection connection, Statement statement) throws SQLException {
+        prepareResult.getUnProxiedProtocol().prologProxy(prepareResult, executionResult, maxRows, hasProxy, connection, statement);
+    }
+
+    @Override
+    public MariaSelectResultSet getActiveStreamingResult() {
+        return listener.getCurrentProtocol().getActiveStreamingResult();
+    }
+
+    @Override
+    public void setActiveStreamingResult(MariaSelectResultSet mariaSelectResultSet) {
+        listener.getCurrentProtocol().setActiveStreamingResult(mariaSelectResultSet);
+    }
+
+    @Override
+    public ReentrantLock getLock() {
+        return listener.getCurrentProtocol().getLock();
+    }
+
+    @Override
+    public void getMoreResults(final ExecutionResult executionResult) throws QueryException {
+        try {
+            listener.getExecutionProtocol().getMoreResults(executionResult);
+        } catch (QueryException queryException) {
+            failover(queryException, new ProtocolCall("getMoreResults") {
+                @Override
+                public Object invoke(Protocol protocol) throws QueryException {
+                    protocol.getMoreResults(executionResult);
+                    return null;
+                }
+            }, executionResult);
+        }
+    }
+
+    @Override
+    public void setMoreResults(boolean moreResults, boolean moreResultsTypeBinary) {
+        listener.getExecutionProtocol().setMoreResults(moreResults, moreResultsTypeBinary);
+    }
+
+    @Override
+    public void setHasWarnings(boolean hasWarnings) {
+        listener.getCurrentProtocol().setHasWarnings(hasWarnings);
+    }
+}
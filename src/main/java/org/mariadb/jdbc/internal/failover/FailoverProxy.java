@@ -50,30 +50,21 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.failover;
 
 import org.mariadb.jdbc.HostAddress;
-import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
-import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.jfr.JfrEvent;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.SQLException;
 import java.util.concurrent.locks.ReentrantLock;
 
 
-public class FailoverProxy implements InvocationHandler {
-    public static final String METHOD_IS_EXPLICIT_CLOSED = "isExplicitClosed";
-    public static final String METHOD_GET_OPTIONS = "getOptions";
-    public static final String METHOD_GET_PROXY = "getProxy";
+public class FailoverProxy {
     public static final String METHOD_EXECUTE_QUERY = "executeQuery";
-    public static final String METHOD_SET_READ_ONLY = "setReadonly";
-    public static final String METHOD_IS_READ_ONLY = "isReadOnly";
-    public static final String METHOD_CLOSED_EXPLICIT = "closeExplicit";
-    public static final String METHOD_IS_CLOSED = "isClosed";
+    public static final String METHOD_EXECUTE_QUERIES = "executeQueries";
+    public static final String METHOD_EXECUTE_QUERIES_REWRITE = "executeQueriesRewrite";
     public static final String METHOD_EXECUTE_PREPARED_QUERY = "executePreparedQuery";
-    public static final String METHOD_PROLOG_PROXY = "prologProxy";
+    public static final String METHOD_EXECUTE_PREPARED_QUERY_AFTER_FAILOVER = "executePreparedQueryAfterFailover";
 
 
     public final ReentrantLock lock;
@@ -94,111 +85,68 @@ public class FailoverProxy implements InvocationHandler {
     }
 
     /**
-     * Proxy that catch Protocol call, to permit to catch errors and handle failover when multiple hosts.
+     * After a connection exception, launch failover.
      *
-     * @param proxy  the current protocol
-     * @param method the called method on the protocol
-     * @param args   methods parameters
-     * @return protocol method result
-     * @throws Throwable the method throwed error if not catch by failover
+     * @param qe       the exception thrown
+     * @param call     the method to call if failover works well
+     * @param args     the arguments of the method
+     * @param protocol the protocol on which exception occur
+     * @return the object return from the method
+     * @throws QueryException if failover fail, or if relaunched method throw an exception
      */
-    @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        String methodName = method.getName();
-        switch (methodName) {
-            case METHOD_IS_EXPLICIT_CLOSED:
-                return listener.isExplicitClosed();
-            case METHOD_GET_OPTIONS:
-                return listener.getUrlParser().getOptions();
-            case METHOD_GET_PROXY:
-                return this;
-            case METHOD_IS_CLOSED:
-                return listener.isClosed();
-            case METHOD_EXECUTE_QUERY:
-                try {
-                    this.listener.preExecute();
-                } catch (QueryException e) {
-                    //handle failover only if connection error
-                    //normal error can be thrown upon reconnection if there was a transaction in progress.
-                    if (hasToHandleFailover(e)) {
-                        return handleFailOver(e, method, args, listener.getCurrentProtocol());
-                    }
-                }
-                break;
-            case METHOD_SET_READ_ONLY:
-                this.listener.switchReadOnlyConnection((Boolean) args[0]);
-                return null;
-            case METHOD_IS_READ_ONLY:
-                return this.listener.isReadOnly();
-            case METHOD_CLOSED_EXPLICIT:
-                this.listener.preClose();
-                return null;
-            case METHOD_EXECUTE_PREPARED_QUERY:
-                if (((PrepareResult) args[0]).mustRePrepareOnSlave() && !this.listener.hasHostFail()) {
-                    //PrepareStatement was to be executed on slave, but since a failover was running on master connection. Slave connection is up
-                    // again, so has to be reprepared on slave
-                    try {
-                        this.listener.rePrepareOnSlave(((PrepareResult) args[0]), (String) args[2], (MariaDbType[]) args[4]);
-                    } catch (QueryException q) {
-                        //error during reprepare, will do executed on master.
-                    }
-                }
-                //No break, must continue
-            case METHOD_PROLOG_PROXY:
-                try {
-                    return listener.invoke(method, args, ((PrepareResult) args[0]).getUnProxiedProtocol());
-                } catch (InvocationTargetException e) {
-                    if (e.getTargetException() != null) {
-                        if (e.getTargetException() instanceof QueryException) {
-                            if (hasToHandleFailover((QueryException) e.getTargetException())) {
-                                return handleFailOver((QueryException) e.getTargetException(), method, args,
-                                        ((PrepareResult) args[0]).getUnProxiedProtocol());
-                            }
-                        }
-                        throw e.getTargetException();
-                    }
-                    throw e;
-                }
-
-            default:
+    public Object handleFailOver(QueryException qe, ProtocolCall call, Object[] args, Protocol protocol) throws QueryException {
+        HostAddress failHostAddress = null;
+        boolean failIsMaster = true;
+        if (protocol != null) {
+            failHostAddress = protocol.getHostAddress();
+            failIsMaster = protocol.isMasterConnection();
+            if (protocol.getMetrics() != null) {
+                protocol.getMetrics().failover();
+            }
         }
+        Object event = JfrEvent.FAILOVER.begin();
+        String detail = "failover failed";
         try {
-            return listener.invoke(method, args);
-        } catch (InvocationTargetException e) {
-            if (e.getTargetException() != null) {
-                if (e.getTargetException() instanceof QueryException) {
-                    if (hasToHandleFailover((QueryException) e.getTargetException())) {
-                        return handleFailOver((QueryException) e.getTargetException(), method, args, listener.getCurrentProtocol());
-                    }
-                }
-                throw e.getTargetException();
+            HandleErrorResult handleErrorResult = listener.handleFailover(call, args, protocol);
+            detail = handleErrorResult.isReconnected ? "failover, reconnected" : "failover, not reconnected";
+            if (handleErrorResult.mustThrowError) {
+                listener.throwFailoverMessage(failHostAddress, failIsMaster, qe, handleErrorResult.isReconnected);
+            }
+            return handleErrorResult.resultObject;
+        } catch (Throwable throwable) {
+            throw toQueryException(throwable);
+        } finally {
+            if (event != null) {
+                JfrEvent.FAILOVER.commit(event, hostDescription(failHostAddress), detail, null, 0, 0);
             }
-            throw e;
         }
     }
 
+    private static String hostDescription(HostAddress hostAddress) {
+        return (hostAddress == null) ? null : hostAddress.host + ":" + hostAddress.port;
+    }
 
     /**
-     * After a connection exception, launch failover.
+     * Listener methods may throw any exception : rethrow unchecked ones, and return checked ones as QueryException.
      *
-     * @param qe     the exception thrown
-     * @param method the method to call if failover works well
-     * @param args   the arguments of the method
-     * @return the object return from the method
-     * @throws Throwable throwable
+     * @param throwable exception thrown by listener
+     * @return QueryException to throw
      */
-    private Object handleFailOver(QueryException qe, Method method, Object[] args, Protocol protocol) throws Throwable {
-        HostAddress failHostAddress = null;
-        boolean failIsMaster = true;
-        if (protocol != null) {
-            failHostAddress = protocol.getHostAddress();
-            failIsMaster = protocol.isMasterConnection();
+    public static QueryException toQueryException(Throwable throwable) {
+        if (throwable instanceof QueryException) {
+            return (QueryException) throwable;
+        }
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
         }
-        HandleErrorResult handleErrorResult = listener.handleFailover(method, args, protocol);
-        if (handleErrorResult.mustThrowError) {
-            listener.throwFailoverMessage(failHostAddress, failIsMaster, qe, handleErrorResult.isReconnected);
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
         }
-        return handleErrorResult.resultObject;
+        if (throwable instanceof SQLException) {
+            SQLException sqlException = (SQLException) throwable;
+            return new QueryException(sqlException.getMessage(), sqlException.getErrorCode(), sqlException.getSQLState(), sqlException);
+        }
+        return new QueryException(throwable.getMessage(), -1, "HY0000", throwable);
     }
 
     /**
@@ -229,10 +177,18 @@ public class FailoverProxy implements InvocationHandler {
      * @throws SQLException exception
      */
     public void reconnect() throws SQLException {
+        Object event = JfrEvent.FAILOVER.begin();
+        String detail = "reconnect failed";
         try {
             listener.reconnect();
+            detail = "reconnect";
         } catch (QueryException e) {
             ExceptionMapper.throwException(e, null, null);
+        } finally {
+            if (event != null) {
+                Protocol protocol = listener.getCurrentProtocol();
+                JfrEvent.FAILOVER.commit(event, (protocol == null) ? null : hostDescription(protocol.getHostAddress()), detail, null, 0, 0);
+            }
         }
     }
 
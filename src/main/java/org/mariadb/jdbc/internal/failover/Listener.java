@@ -57,7 +57,6 @@ import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 
-import java.lang.reflect.Method;
 import java.sql.SQLException;
 import java.util.Set;
 
@@ -76,13 +75,17 @@ public interface Listener {
 
     void switchReadOnlyConnection(Boolean readonly) throws QueryException;
 
-    HandleErrorResult primaryFail(Method method, Object[] args) throws Throwable;
+    HandleErrorResult primaryFail(ProtocolCall method, Object[] args) throws Throwable;
 
-    Object invoke(Method method, Object[] args, Protocol specificProtocol) throws Throwable ;
+    Object invoke(ProtocolCall method, Object[] args, Protocol specificProtocol) throws Throwable ;
 
-    Object invoke(Method method, Object[] args) throws Throwable;
+    Object invoke(ProtocolCall method, Object[] args) throws Throwable;
 
-    HandleErrorResult handleFailover(Method method, Object[] args, Protocol protocol) throws Throwable;
+    boolean isRoutingStatements();
+
+    Protocol getExecutionProtocol();
+
+    HandleErrorResult handleFailover(ProtocolCall method, Object[] args, Protocol protocol) throws Throwable;
 
     void foundActiveMaster(Protocol protocol) throws QueryException;
 
@@ -129,5 +132,7 @@ public interface Listener {
 
     boolean checkMasterStatus(SearchFilter searchFilter);
 
+    void checkStandbyMaster();
+
     void rePrepareOnSlave(PrepareResult oldPrepareResult, String sql, MariaDbType[] parameterTypeHeader) throws QueryException;
 }
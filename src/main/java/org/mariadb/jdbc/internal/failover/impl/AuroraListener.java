@@ -51,6 +51,7 @@ package org.mariadb.jdbc.internal.failover.impl;
 
 import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.failover.tools.HostScore;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 import org.mariadb.jdbc.internal.queryresults.SingleExecutionResult;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
@@ -112,18 +113,20 @@ public class AuroraListener extends MastersSlavesListener {
 
         currentConnectionAttempts.incrementAndGet();
 
-        resetOldsBlackListHosts();
-
         //put the list in the following order
-        // - random order not connected host and not blacklisted
-        // - random blacklisted host
+        // - random order (or latency aware order) not connected host with closed circuit
+        // - random order host with half-open circuit this connection probes (host with open circuit are skipped)
         // - connected host at end.
         List<HostAddress> loopAddress = new LinkedList<>(urlParser.getHostAddresses());
-        loopAddress.removeAll(getBlacklistKeys());
-        Collections.shuffle(loopAddress);
-        List<HostAddress> blacklistShuffle = new LinkedList<>(getBlacklistKeys());
-        Collections.shuffle(blacklistShuffle);
-        loopAddress.addAll(blacklistShuffle);
+        List<HostAddress> probes = acquireProbes(loopAddress);
+        if (urlParser.getOptions().latencyAwareSelection) {
+            HostScore.powerOfTwoChoicesOrder(loopAddress);
+        } else {
+            Collections.shuffle(loopAddress);
+        }
+        Collections.shuffle(probes);
+        loopAddress.addAll(probes);
+        moveLaggingHostsToEnd(loopAddress);
 
         //put connected at end
         if (masterProtocol != null && !isMasterHostFail()) {
@@ -143,16 +146,22 @@ public class AuroraListener extends MastersSlavesListener {
             //while permit to avoid case when succeeded creating a new Master connection
             //and ping master connection fail a few millissecond after,
             //resulting a masterConnection not initialized.
-            do {
-                AuroraProtocol.loop(this, loopAddress, searchFilter);
-                if (!searchFilter.isFailoverLoop()) {
-                    try {
-                        checkWaitingConnection();
-                    } catch (ReconnectDuringTransactionException e) {
-                        //don't throw an exception for this specific exception
+            try {
+                do {
+                    AuroraProtocol.loop(this, loopAddress, searchFilter);
+                    if (!searchFilter.isFailoverLoop()) {
+                        try {
+                            checkWaitingConnection();
+                        } catch (ReconnectDuringTransactionException e) {
+                            //don't throw an exception for this specific exception
+                        }
                     }
-                }
-            } while (searchFilter.isInitialConnection() && masterProtocol == null);
+                } while (searchFilter.isInitialConnection() && masterProtocol == null);
+            } finally {
+                releaseProbes(probes);
+            }
+        } else {
+            releaseProbes(probes);
         }
     }
 
@@ -259,4 +268,27 @@ public class AuroraListener extends MastersSlavesListener {
         return false;
     }
 
+    /**
+     * Any aurora instance may be promoted writer : standby master candidates are all hosts but current master.
+     *
+     * @return candidate hosts
+     */
+    @Override
+    protected List<HostAddress> getStandbyMasterCandidates() {
+        List<HostAddress> hostAddresses = new LinkedList<>(urlParser.getHostAddresses());
+        Protocol master = masterProtocol;
+        if (master != null) {
+            hostAddresses.remove(master.getHostAddress());
+        }
+        Collections.shuffle(hostAddresses);
+        return hostAddresses;
+    }
+
+    @Override
+    protected Protocol newStandbyMasterProtocol() {
+        AuroraProtocol protocol = AuroraProtocol.getNewProtocol(proxy, urlParser);
+        protocol.setMustBeMasterConnection(true);
+        return protocol;
+    }
+
 }
@@ -54,6 +54,7 @@ import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.failover.AbstractMastersListener;
 import org.mariadb.jdbc.internal.failover.HandleErrorResult;
+import org.mariadb.jdbc.internal.failover.ProtocolCall;
 import org.mariadb.jdbc.internal.failover.thread.FailoverLoop;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
@@ -63,7 +64,6 @@ import org.mariadb.jdbc.internal.protocol.MasterProtocol;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.util.dao.ReconnectDuringTransactionException;
 
-import java.lang.reflect.Method;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -125,7 +125,7 @@ public class MastersFailoverListener extends AbstractMastersListener {
     }
 
     @Override
-    public HandleErrorResult primaryFail(Method method, Object[] args) throws Throwable {
+    public HandleErrorResult primaryFail(ProtocolCall method, Object[] args) throws Throwable {
         boolean alreadyClosed = !currentProtocol.isConnected();
         boolean inTransaction = currentProtocol != null && currentProtocol.inTransaction();
 
@@ -152,7 +152,13 @@ public class MastersFailoverListener extends AbstractMastersListener {
         }
 
         try {
-            reconnectFailedConnection(new SearchFilter(true, false));
+            Protocol standby = takeStandbyMaster();
+            if (standby != null) {
+                //warm standby connection become master connection without reconnection delay
+                foundActiveMaster(standby);
+            } else {
+                reconnectFailedConnection(new SearchFilter(true, false));
+            }
             handleFailLoop();
             if (alreadyClosed || (!alreadyClosed && !inTransaction && isQueryRelaunchable(method, args))) {
                 return relaunchOperation(method, args);
@@ -181,24 +187,19 @@ public class MastersFailoverListener extends AbstractMastersListener {
             }
 
             currentConnectionAttempts.incrementAndGet();
-            resetOldsBlackListHosts();
 
             List<HostAddress> loopAddress = new LinkedList<>(urlParser.getHostAddresses());
+            List<HostAddress> probes = acquireProbes(loopAddress);
             if (HaMode.FAILOVER.equals(mode)) {
                 //put the list in the following order
-                // - random order not connected host
-                // - random order blacklist host
+                // - random order not connected host with closed circuit
+                // - random order host with half-open circuit this connection probes (host with open circuit are skipped)
                 // - random order connected host
-                loopAddress.removeAll(getBlacklistKeys());
                 Collections.shuffle(loopAddress);
-                List<HostAddress> blacklistShuffle = new LinkedList<>(getBlacklistKeys());
-                Collections.shuffle(blacklistShuffle);
-                loopAddress.addAll(blacklistShuffle);
-            } else {
-                //order in sequence
-                loopAddress.removeAll(getBlacklistKeys());
-                loopAddress.addAll(getBlacklistKeys());
+                Collections.shuffle(probes);
             }
+            //else order in sequence, host with half-open circuit this connection probes at end
+            loopAddress.addAll(probes);
 
             //put connected at end
             if (currentProtocol != null && !isMasterHostFail()) {
@@ -206,7 +207,11 @@ public class MastersFailoverListener extends AbstractMastersListener {
                 //loopAddress.add(currentProtocol.getHostAddress());
             }
 
-            MasterProtocol.loop(this, loopAddress, searchFilter);
+            try {
+                MasterProtocol.loop(this, loopAddress, searchFilter);
+            } finally {
+                releaseProbes(probes);
+            }
             //close loop if all connection are retrieved
             if (!isMasterHostFail()) {
                 FailoverLoop.removeListener(this);
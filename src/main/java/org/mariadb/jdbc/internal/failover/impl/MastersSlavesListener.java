@@ -54,21 +54,40 @@ import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.failover.AbstractMastersSlavesListener;
 import org.mariadb.jdbc.internal.failover.thread.FailoverLoop;
+import org.mariadb.jdbc.internal.failover.thread.HostHealthMonitor;
+import org.mariadb.jdbc.internal.util.constant.HaMode;
+import org.mariadb.jdbc.internal.util.constant.ParameterConstant;
+import org.mariadb.jdbc.internal.util.dao.GtidWaitTimeoutException;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.util.dao.ReconnectDuringTransactionException;
 import org.mariadb.jdbc.internal.util.scheduler.DynamicSizedSchedulerInterface;
 import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.failover.HandleErrorResult;
+import org.mariadb.jdbc.internal.failover.ProtocolCall;
+import org.mariadb.jdbc.internal.protocol.AuroraProtocol;
+import org.mariadb.jdbc.internal.protocol.MasterProtocol;
 import org.mariadb.jdbc.internal.protocol.MastersSlavesProtocol;
 import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.failover.tools.HedgedReadPolicy;
+import org.mariadb.jdbc.internal.failover.tools.HostCircuitBreaker;
+import org.mariadb.jdbc.internal.failover.tools.HostScore;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
-
-import java.lang.reflect.Method;
+import org.mariadb.jdbc.internal.failover.tools.StatementClassifier;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
+import org.mariadb.jdbc.internal.queryresults.ExecutionResult;
+import org.mariadb.jdbc.internal.queryresults.SingleExecutionResult;
+import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
+
+import java.io.IOException;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 /**
@@ -80,8 +99,35 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
 
     protected Protocol masterProtocol;
     protected Protocol secondaryProtocol;
+    // protocol that has executed last statement when read/write splitting is enabled, to read following results on it
+    private volatile Protocol executionProtocol;
+    // GTID position of last writes on master, that secondary connection must have reached before reading (option "gtidWaitTimeout")
+    private volatile boolean masterWritePending;
+    private volatile String masterGtid;
+    private volatile Protocol gtidReachedProtocol;
+    private volatile boolean lastGtidUnsupported;
+    // session state changes done by application on master, replayed on replica connections before routing reads to them
+    private volatile SessionState sessionState = SessionState.EMPTY;
+    private final Map<Protocol, SessionState> appliedSessionStates =
+            Collections.synchronizedMap(new WeakHashMap<Protocol, SessionState>());
+    // second replica connection on which slow reads are hedged (option "hedgedReadPercentile")
+    private volatile Protocol hedgeProtocol;
+    // additional live secondary connections (option "secondaryConnections"), used for reads and promoted on secondary failure
+    private final List<Protocol> standbySecondaries = new CopyOnWriteArrayList<>();
+    private Future<?> standbyConnectTask;
+    private long standbyRetryNanos;
+    private int routingIndex;
+    // hedge connection task and last hedged read : a single one at a time use hedgeProtocol
+    private Future<?> hedgeConnectTask;
+    private HedgedRead lastHedgedRead;
     private static final DynamicSizedSchedulerInterface dynamicSizedScheduler;
+    private static final DynamicSizedSchedulerInterface replicaTaskScheduler = SchedulerServiceProviderHolder.getScheduler(1);
+    // hedged reads and their cancellation don't wait behind blocking replica connections
+    private static final DynamicSizedSchedulerInterface hedgeScheduler = SchedulerServiceProviderHolder.getScheduler(1);
     private static final AtomicInteger listenerCount = new AtomicInteger();
+    private static final AtomicInteger replicaTaskListenerCount = new AtomicInteger();
+    private static final AtomicInteger hedgeListenerCount = new AtomicInteger();
+    private static final long STANDBY_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
 
     static {
         dynamicSizedScheduler = SchedulerServiceProviderHolder.getScheduler(1);
@@ -90,7 +136,8 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
         dynamicSizedScheduler.scheduleWithFixedDelay(new Runnable() {
             @Override
             public void run() {
-                dynamicSizedScheduler.setPoolSize((int) Math.ceil(listenerCount.get() * POOL_SIZE_TO_LISTENER_RATIO));
+                dynamicSizedScheduler.setPoolSize(
+                        SchedulerServiceProviderHolder.getFailoverPoolSize(listenerCount.get(), POOL_SIZE_TO_LISTENER_RATIO));
             }
         }, 2, 2, TimeUnit.HOURS);
 
@@ -100,7 +147,9 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
 
             @Override
             public void run() {
-                int desiredFailCount = (int) Math.ceil(listenerCount.get() * FAIL_LOOP_TO_LISTENER_RATIO);
+                //failed connections are shared by fail loops, whose number is bounded like pool size
+                int desiredFailCount = SchedulerServiceProviderHolder.getFailoverPoolSize(listenerCount.get(),
+                        FAIL_LOOP_TO_LISTENER_RATIO);
                 int countChange = desiredFailCount - failoverLoops.size();
                 if (countChange > 0) {
                     // start fail loops
@@ -133,7 +182,16 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
      */
     public MastersSlavesListener(final UrlParser urlParser) {
         super(urlParser);
-        dynamicSizedScheduler.setPoolSize((int) Math.ceil(listenerCount.incrementAndGet() * POOL_SIZE_TO_LISTENER_RATIO));
+        dynamicSizedScheduler.setPoolSize(
+                SchedulerServiceProviderHolder.getFailoverPoolSize(listenerCount.incrementAndGet(), POOL_SIZE_TO_LISTENER_RATIO));
+        if (usesReplicaTasks()) {
+            replicaTaskScheduler.setPoolSize(
+                    SchedulerServiceProviderHolder.getFailoverPoolSize(replicaTaskListenerCount.incrementAndGet(), POOL_SIZE_TO_LISTENER_RATIO));
+        }
+        if (urlParser.getOptions().hedgedReadPercentile > 0) {
+            hedgeScheduler.setPoolSize(
+                    SchedulerServiceProviderHolder.getFailoverPoolSize(hedgeListenerCount.incrementAndGet(), POOL_SIZE_TO_LISTENER_RATIO));
+        }
         masterProtocol = null;
         secondaryProtocol = null;
         setMasterHostFail();
@@ -142,8 +200,19 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
 
     protected void removeListenerFromSchedulers() {
         super.removeListenerFromSchedulers();
+        if (urlParser.getOptions().maxReplicationLag > 0 && urlParser.getOptions().healthCheckInterval == 0) {
+            HostHealthMonitor.unsubscribe(this);
+        }
         FailoverLoop.removeListener(this);
         listenerCount.addAndGet(-1);
+        if (usesReplicaTasks()) {
+            replicaTaskScheduler.setPoolSize(
+                    SchedulerServiceProviderHolder.getFailoverPoolSize(replicaTaskListenerCount.decrementAndGet(), POOL_SIZE_TO_LISTENER_RATIO));
+        }
+        if (urlParser.getOptions().hedgedReadPercentile > 0) {
+            hedgeScheduler.setPoolSize(
+                    SchedulerServiceProviderHolder.getFailoverPoolSize(hedgeListenerCount.decrementAndGet(), POOL_SIZE_TO_LISTENER_RATIO));
+        }
     }
 
     /**
@@ -154,6 +223,10 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
     @Override
     public void initializeConnection() throws QueryException {
         super.initializeConnection();
+        if (urlParser.getOptions().maxReplicationLag > 0 && urlParser.getOptions().healthCheckInterval == 0) {
+            //replication lag is monitored by the shared host monitor
+            HostHealthMonitor.subscribe(this);
+        }
         try {
             reconnectFailedConnection(new SearchFilter(true));
         } catch (QueryException e) {
@@ -197,6 +270,11 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
                 closeConnection(waitNewMasterProtocol.getAndSet(null));
                 closeConnection(masterProtocol);
                 closeConnection(secondaryProtocol);
+                closeConnection(hedgeProtocol);
+                for (Protocol standby : standbySecondaries) {
+                    closeConnection(standby);
+                }
+                standbySecondaries.clear();
             } finally {
                 proxy.lock.unlock();
             }
@@ -207,6 +285,8 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
     public void preExecute() throws QueryException {
         lastQueryNanos = System.nanoTime();
         checkWaitingConnection();
+        checkSecondaryLag();
+        checkStandbySecondaries();
         //if connection is closed or failed on slave
         if (this.currentProtocol != null
                 && (this.currentProtocol.isClosed() || (!currentReadOnlyAsked && !currentProtocol.isMasterConnection()))) {
@@ -279,18 +359,21 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
 
 
         currentConnectionAttempts.incrementAndGet();
-        resetOldsBlackListHosts();
 
         //put the list in the following order
-        // - random order not blacklist and not connected host
-        // - random order blacklist host
+        // - random order (or latency aware order) not connected host with closed circuit
+        // - random order host with half-open circuit this connection probes (host with open circuit are skipped)
         // - connected host
         List<HostAddress> loopAddress = new LinkedList<>(urlParser.getHostAddresses());
-        loopAddress.removeAll(getBlacklistKeys());
-        Collections.shuffle(loopAddress);
-        List<HostAddress> blacklistShuffle = new LinkedList<>(getBlacklistKeys());
-        Collections.shuffle(blacklistShuffle);
-        loopAddress.addAll(blacklistShuffle);
+        List<HostAddress> probes = acquireProbes(loopAddress);
+        if (urlParser.getOptions().latencyAwareSelection) {
+            HostScore.powerOfTwoChoicesOrder(loopAddress);
+        } else {
+            Collections.shuffle(loopAddress);
+        }
+        Collections.shuffle(probes);
+        loopAddress.addAll(probes);
+        moveLaggingHostsToEnd(loopAddress);
 
         //put connected at end
         if (masterProtocol != null && !isMasterHostFail()) {
@@ -308,19 +391,246 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
             //while permit to avoid case when succeeded creating a new Master connection
             //and ping master connection fail a few millissecond after,
             //resulting a masterConnection not initialized.
-            do {
-                MastersSlavesProtocol.loop(this, loopAddress, searchFilter);
-                //close loop if all connection are retrieved
-                if (!searchFilter.isFailoverLoop()) {
-                    try {
-                        checkWaitingConnection();
-                    } catch (ReconnectDuringTransactionException e) {
-                        //don't throw an exception for this specific exception
+            try {
+                do {
+                    MastersSlavesProtocol.loop(this, loopAddress, searchFilter);
+                    //close loop if all connection are retrieved
+                    if (!searchFilter.isFailoverLoop()) {
+                        try {
+                            checkWaitingConnection();
+                        } catch (ReconnectDuringTransactionException e) {
+                            //don't throw an exception for this specific exception
+                        }
                     }
+                } while (searchFilter.isInitialConnection() && masterProtocol == null);
+            } finally {
+                releaseProbes(probes);
+            }
+        } else {
+            releaseProbes(probes);
+        }
+
+    }
+
+    /**
+     * Indicate if replica replication lag exceeds option "maxReplicationLag".
+     *
+     * @param hostAddress replica host
+     * @return true if replica must not be used when another one is available
+     */
+    protected boolean isLagging(HostAddress hostAddress) {
+        int maxReplicationLag = urlParser.getOptions().maxReplicationLag;
+        return maxReplicationLag > 0 && HostHealthMonitor.getReplicationLag(this, hostAddress) > maxReplicationLag;
+    }
+
+    /**
+     * Move lagging replicas at the end of hosts to try, so they are used only if no other replica is available.
+     *
+     * @param loopAddress hosts to try
+     */
+    protected void moveLaggingHostsToEnd(List<HostAddress> loopAddress) {
+        if (urlParser.getOptions().maxReplicationLag > 0) {
+            List<HostAddress> laggingHosts = new ArrayList<>();
+            Iterator<HostAddress> iterator = loopAddress.iterator();
+            while (iterator.hasNext()) {
+                HostAddress hostAddress = iterator.next();
+                if (isLagging(hostAddress)) {
+                    iterator.remove();
+                    laggingHosts.add(hostAddress);
                 }
-            } while (searchFilter.isInitialConnection() && masterProtocol == null);
+            }
+            loopAddress.addAll(laggingHosts);
         }
+    }
 
+    /**
+     * When secondary connection replica lag exceeds option "maxReplicationLag" and another replica is up and not lagging,
+     * launch a secondary reconnection. Current secondary connection is used until replaced.
+     */
+    private void checkSecondaryLag() {
+        Protocol secondary = secondaryProtocol;
+        if (secondary == null || isSecondaryHostFail() || !isLagging(secondary.getHostAddress())) {
+            return;
+        }
+        if (promoteStandbySecondary()) {
+            return;
+        }
+        for (HostAddress hostAddress : urlParser.getHostAddresses()) {
+            if (!hostAddress.equals(secondary.getHostAddress())
+                    && HostHealthMonitor.getStatus(this, hostAddress) == HostHealthMonitor.Status.UP
+                    && !HostHealthMonitor.isMaster(this, hostAddress)
+                    && HostHealthMonitor.getReplicationLag(this, hostAddress) >= 0
+                    && !isLagging(hostAddress)) {
+                if (setSecondaryHostFail()) {
+                    FailoverLoop.addListener(this);
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean usesReplicaTasks() {
+        return urlParser.getOptions().hedgedReadPercentile > 0 || urlParser.getOptions().secondaryConnections > 1;
+    }
+
+    /**
+     * When option "secondaryConnections" is set, connect asynchronously missing standby secondary connections, to other replicas
+     * than those already used.
+     */
+    private void checkStandbySecondaries() {
+        final int missing = urlParser.getOptions().secondaryConnections - 1 - standbySecondaries.size();
+        final Protocol secondary = secondaryProtocol;
+        if (missing <= 0 || secondary == null || isSecondaryHostFail() || isExplicitClosed()
+                || (standbyConnectTask != null && !standbyConnectTask.isDone()) || System.nanoTime() < standbyRetryNanos) {
+            return;
+        }
+        standbyRetryNanos = System.nanoTime() + STANDBY_RETRY_NANOS;
+        standbyConnectTask = replicaTaskScheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                Set<HostAddress> usedHosts = new HashSet<>();
+                usedHosts.add(secondary.getHostAddress());
+                for (Protocol standby : standbySecondaries) {
+                    usedHosts.add(standby.getHostAddress());
+                }
+                for (int i = 0; i < missing; i++) {
+                    Protocol standby = connectReplica(usedHosts, true);
+                    if (standby == null) {
+                        return;
+                    }
+                    usedHosts.add(standby.getHostAddress());
+                    standbySecondaries.add(standby);
+                    if (isExplicitClosed()) {
+                        standbySecondaries.remove(standby);
+                        standby.close();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Standby master candidates : other hosts declared as master.
+     *
+     * @return candidate hosts
+     */
+    @Override
+    protected List<HostAddress> getStandbyMasterCandidates() {
+        List<HostAddress> hostAddresses = new ArrayList<>();
+        Protocol master = masterProtocol;
+        for (HostAddress hostAddress : urlParser.getHostAddresses()) {
+            if (ParameterConstant.TYPE_MASTER.equals(hostAddress.type)
+                    && (master == null || !hostAddress.equals(master.getHostAddress()))) {
+                hostAddresses.add(hostAddress);
+            }
+        }
+        Collections.shuffle(hostAddresses);
+        return hostAddresses;
+    }
+
+    @Override
+    protected Protocol newStandbyMasterProtocol() {
+        MastersSlavesProtocol protocol = MastersSlavesProtocol.getNewProtocol(proxy, urlParser);
+        protocol.setMustBeMasterConnection(true);
+        return protocol;
+    }
+
+    /**
+     * Replace secondary connection by a live standby secondary connection, without reconnection delay.
+     *
+     * @return true if a standby secondary connection has been promoted
+     */
+    private boolean promoteStandbySecondary() {
+        for (Protocol standby : standbySecondaries) {
+            standbySecondaries.remove(standby);
+            if (!isLagging(standby.getHostAddress())) {
+                proxy.lock.lock();
+                try {
+                    if (standby.isConnected() && standby.ping()) {
+                        lockAndSwitchSecondary(standby);
+                        return true;
+                    }
+                } catch (QueryException queryException) {
+                    //standby connection is down too
+                } finally {
+                    proxy.lock.unlock();
+                }
+            }
+            standby.close();
+        }
+        return false;
+    }
+
+    /**
+     * Secondary connection on which next routed statement is executed : secondary and standby secondary connections
+     * are used in turn.
+     *
+     * @return secondary connection
+     */
+    private Protocol nextRoutingSecondary() {
+        Protocol secondary = secondaryProtocol;
+        int standbyCount = standbySecondaries.size();
+        if (standbyCount > 0) {
+            routingIndex = (routingIndex + 1) % (standbyCount + 1);
+            if (routingIndex > 0) {
+                try {
+                    Protocol standby = standbySecondaries.get(routingIndex - 1);
+                    if (!standby.isClosed() && !isLagging(standby.getHostAddress())) {
+                        return standby;
+                    }
+                } catch (IndexOutOfBoundsException exception) {
+                    //standby has been removed meanwhile
+                }
+            }
+        }
+        return secondary;
+    }
+
+    /**
+     * Connect to a replica, other than excluded hosts, hosts with open circuit and lagging replicas.
+     *
+     * @param excludedHosts hosts not to use
+     * @param standby       if true, connection can become secondary connection and use proxy lock, if false connection has its own lock
+     * @return connected protocol, or null if no replica is available
+     */
+    private Protocol connectReplica(Set<HostAddress> excludedHosts, boolean standby) {
+        List<HostAddress> hostAddresses = new ArrayList<>(urlParser.getHostAddresses());
+        Collections.shuffle(hostAddresses);
+        Set<HostAddress> openHosts = HostCircuitBreaker.getOpenHosts();
+        for (HostAddress hostAddress : hostAddresses) {
+            if (excludedHosts.contains(hostAddress) || openHosts.contains(hostAddress) || isLagging(hostAddress)) {
+                continue;
+            }
+            Protocol protocol;
+            if (standby) {
+                MastersSlavesProtocol replicaProtocol = (urlParser.getHaMode() == HaMode.AURORA)
+                        ? AuroraProtocol.getNewProtocol(proxy, urlParser)
+                        : MastersSlavesProtocol.getNewProtocol(proxy, urlParser);
+                replicaProtocol.setMustBeMasterConnection(false);
+                protocol = replicaProtocol;
+            } else {
+                protocol = (urlParser.getHaMode() == HaMode.AURORA)
+                        ? new AuroraProtocol(urlParser, new ReentrantLock())
+                        : new MasterProtocol(urlParser, new ReentrantLock());
+            }
+            protocol.setHostAddress(hostAddress);
+            try {
+                protocol.connect();
+                if (protocol.isMasterConnection()) {
+                    protocol.close();
+                    continue;
+                }
+                if (urlParser.getOptions().assureReadOnly) {
+                    setSessionReadOnly(true, protocol);
+                }
+                return protocol;
+            } catch (QueryException queryException) {
+                protocol.close();
+                addToBlacklist(hostAddress);
+            }
+        }
+        return null;
     }
 
     /**
@@ -531,7 +841,7 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
      * @return an object to indicate if the previous Exception must be thrown, or the object resulting if a failover worked
      * @throws Throwable if failover has not been catch
      */
-    public HandleErrorResult primaryFail(Method method, Object[] args) throws Throwable {
+    public HandleErrorResult primaryFail(ProtocolCall method, Object[] args) throws Throwable {
         boolean alreadyClosed = !masterProtocol.isConnected();
         boolean inTransaction = masterProtocol != null && masterProtocol.inTransaction();
         //try to reconnect automatically only time before looping
@@ -556,6 +866,23 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
             }
         }
 
+        Protocol standby = takeStandbyMaster();
+        if (standby != null) {
+            //warm standby connection become master connection without reconnection delay
+            proxy.lock.lock();
+            try {
+                lockAndSwitchMaster(standby);
+            } catch (ReconnectDuringTransactionException e) {
+                //client will be informed below
+            } finally {
+                proxy.lock.unlock();
+            }
+            if (currentReadOnlyAsked || alreadyClosed || (!inTransaction && isQueryRelaunchable(method, args))) {
+                return relaunchOperation(method, args);
+            }
+            return new HandleErrorResult(true);
+        }
+
         //fail on slave if parameter permit so
         if (urlParser.getOptions().failOnReadOnly && !isSecondaryHostFail()) {
             try {
@@ -664,11 +991,16 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
      * @return an object to indicate if the previous Exception must be thrown, or the object resulting if a failover worked
      * @throws Throwable if failover has not catch error
      */
-    public HandleErrorResult secondaryFail(Method method, Object[] args) throws Throwable {
+    public HandleErrorResult secondaryFail(ProtocolCall method, Object[] args) throws Throwable {
         if (pingSecondaryProtocol(this.secondaryProtocol)) {
             return relaunchOperation(method, args);
         }
 
+        if (promoteStandbySecondary()) {
+            //standby secondary connection is now secondary connection
+            return relaunchOperation(method, args);
+        }
+
         if (!isMasterHostFail()) {
             try {
                 if (masterProtocol != null) {
@@ -728,6 +1060,552 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
         return masterProtocol != null && masterProtocol.isConnected();
     }
 
+    /**
+     * Execute protocol method on current protocol.
+     * When option "readWriteSplitting" is set and read-only hasn't been asked, statements outside transaction that can be executed on a
+     * replica are executed on secondary connection, all others on master.
+     *
+     * @param method protocol method
+     * @param args method parameters
+     * @return method result
+     * @throws Throwable if method throws an exception
+     */
+    @Override
+    public Object invoke(ProtocolCall method, Object[] args) throws Throwable {
+        if (urlParser.getOptions().readWriteSplitting && !currentReadOnlyAsked) {
+            switch (method.getName()) {
+                case "executeQuery":
+                    if (args.length == 3) {
+                        return routeStatement(method, args, StatementClassifier.isRoutableToReplica((String) args[1]));
+                    }
+                    masterWritePending = true;
+                    break;
+                case "executeQueries":
+                    //client side prepared statement
+                    if (args.length == 5 && ((List<?>) args[2]).size() == 1) {
+                        @SuppressWarnings("unchecked")
+                        List<String> queryParts = (List<String>) args[1];
+                        return routeStatement(method, args, StatementClassifier.isRoutableToReplica(queryParts));
+                    }
+                    masterWritePending = true;
+                    break;
+                case "executeQueriesRewrite":
+                    masterWritePending = true;
+                    break;
+                default:
+                    return method.invoke(currentProtocol);
+            }
+            Object result = method.invoke(currentProtocol);
+            recordSessionChange(method, args);
+            return result;
+        }
+        return method.invoke(currentProtocol);
+    }
+
+    @Override
+    public boolean isRoutingStatements() {
+        return urlParser.getOptions().readWriteSplitting;
+    }
+
+    /**
+     * Connection on which last statement has been executed, to read its results.
+     *
+     * @return secondary connection if last statement has been routed to it, current connection otherwise
+     */
+    @Override
+    public Protocol getExecutionProtocol() {
+        if (urlParser.getOptions().readWriteSplitting && !currentReadOnlyAsked) {
+            Protocol protocol = executionProtocol;
+            if (protocol != null && protocol != currentProtocol && !protocol.isClosed()) {
+                return protocol;
+            }
+        }
+        return currentProtocol;
+    }
+
+    /**
+     * Execute protocol method on a specific protocol.
+     * Server side prepared statements are bound to the connection they have been prepared on (master when read-only hasn't been asked).
+     * When option "readWriteSplitting" is set, statements that can be executed on a replica are executed on secondary connection
+     * using its own prepared statement cache.
+     *
+     * @param method protocol method
+     * @param args method parameters
+     * @param specificProtocol protocol on which prepare has been done
+     * @return method result
+     * @throws Throwable if method throws an exception
+     */
+    @Override
+    public Object invoke(ProtocolCall method, Object[] args, Protocol specificProtocol) throws Throwable {
+        if (urlParser.getOptions().readWriteSplitting && "executePreparedQuery".equals(method.getName())) {
+            if (!currentReadOnlyAsked && urlParser.getOptions().cachePrepStmts && specificProtocol == masterProtocol
+                    && canRouteToSecondary() && StatementClassifier.isRoutableToReplica((String) args[2])) {
+                Protocol secondary = nextRoutingSecondary();
+                String sql = (String) args[2];
+                ParameterHolder[] parameters = (ParameterHolder[]) args[3];
+                try {
+                    prologOnSecondary(secondary, (ExecutionResult) args[1]);
+                    PrepareResult prepareResult = secondary.prepare(sql, false, false);
+                    try {
+                        if (prepareGtidWait(secondary)) {
+                            executionProtocol = secondary;
+                            //parameters type must be send for this statement id
+                            secondary.executePreparedQuery(prepareResult, (ExecutionResult) args[1], sql, parameters,
+                                    new MariaDbType[parameters.length], (Integer) args[5]);
+                            gtidReachedProtocol = secondary;
+                            return null;
+                        }
+                    } finally {
+                        try {
+                            secondary.releasePrepareStatement(prepareResult, sql);
+                        } catch (QueryException queryException) {
+                            //connection error will be detected on next use
+                        }
+                    }
+                } catch (GtidWaitTimeoutException timeoutException) {
+                    //replica hasn't reached master position : read on master
+                    executionProtocol = null;
+                } catch (QueryException | SQLException exception) {
+                    secondaryRoutingFail(secondary, exception);
+                }
+            } else if (!StatementClassifier.isRoutableToReplica((String) args[2])) {
+                masterWritePending = true;
+            }
+            executionProtocol = specificProtocol;
+            Object result = method.invoke(specificProtocol);
+            if (specificProtocol == masterProtocol) {
+                recordSessionChange(method, args);
+            }
+            return result;
+        }
+        return method.invoke(specificProtocol);
+    }
+
+    /**
+     * Execute statement on secondary connection if possible, on master if not or if execution on secondary fail.
+     */
+    private Object routeStatement(ProtocolCall method, Object[] args, boolean readStatement) throws Throwable {
+        Protocol protocol = currentProtocol;
+        if (readStatement && protocol == masterProtocol && canRouteToSecondary()) {
+            Protocol secondary = nextRoutingSecondary();
+            try {
+                prologOnSecondary(secondary, (ExecutionResult) args[0]);
+                if (prepareGtidWait(secondary)) {
+                    executionProtocol = secondary;
+                    Object result;
+                    if (urlParser.getOptions().hedgedReadPercentile > 0 && args.length == 3 && !gtidWaitPending(secondary)) {
+                        result = executeHedged(secondary, (ExecutionResult) args[0], (String) args[1], (Integer) args[2]);
+                    } else {
+                        result = method.invoke(secondary);
+                    }
+                    gtidReachedProtocol = secondary;
+                    return result;
+                }
+            } catch (GtidWaitTimeoutException timeoutException) {
+                //replica hasn't reached master position : read on master
+                executionProtocol = null;
+            } catch (QueryException | SQLException exception) {
+                secondaryRoutingFail(secondary, exception);
+            }
+        }
+        if (!readStatement) {
+            masterWritePending = true;
+        }
+        executionProtocol = protocol;
+        Object result = method.invoke(protocol);
+        if (!readStatement) {
+            recordSessionChange(method, args);
+        }
+        return result;
+    }
+
+    /**
+     * Record session state changes (SET statements) successfully executed on master, to replay them on replica connections.
+     * Statements with parameters are not replayed : reads aren't routed anymore if they change session state.
+     *
+     * @param method protocol method executed on master
+     * @param args   method parameters
+     */
+    @SuppressWarnings("unchecked")
+    private void recordSessionChange(ProtocolCall method, Object[] args) {
+        SessionState state = sessionState;
+        switch (method.getName()) {
+            case "executeQuery":
+                state = state.record((String) args[args.length == 1 ? 0 : 1]);
+                break;
+            case "executeQueries":
+                if (args.length == 3) {
+                    for (String query : (List<String>) args[1]) {
+                        state = state.record(query);
+                    }
+                } else {
+                    StringBuilder sb = new StringBuilder();
+                    for (String part : (List<String>) args[1]) {
+                        sb.append(part).append('?');
+                    }
+                    state = state.record(sb.toString());
+                }
+                break;
+            case "executeQueriesRewrite":
+                for (String query : (List<String>) args[1]) {
+                    state = state.record(query);
+                }
+                break;
+            case "executePreparedQuery":
+                state = state.record((String) args[2]);
+                break;
+            default:
+        }
+        sessionState = state;
+    }
+
+    /**
+     * Apply to a replica connection the session state of master : SET statements executed by application since last use of
+     * this connection, and transaction isolation.
+     *
+     * @param protocol       replica connection
+     * @param isolationLevel master transaction isolation level, 0 if never set
+     * @throws QueryException if a statement fail
+     */
+    private void syncSessionState(Protocol protocol, int isolationLevel) throws QueryException {
+        SessionState state = sessionState;
+        SessionState applied = appliedSessionStates.get(protocol);
+        if (applied != state) {
+            for (int i = state.replayFrom(applied); i < state.statements.length; i++) {
+                protocol.executeQuery(state.statements[i]);
+            }
+            appliedSessionStates.put(protocol, state);
+        }
+        if (isolationLevel != 0 && protocol.getTransactionIsolationLevel() != isolationLevel) {
+            protocol.setTransactionIsolation(isolationLevel);
+        }
+    }
+
+    /**
+     * Execute a read on secondary connection. If read hasn't returned after the "hedgedReadPercentile" latency of replica reads,
+     * the same read is executed on hedge connection (another replica) : first result is used, other query is killed.
+     * Reads with a fetch size (streaming) are never hedged.
+     *
+     * @param secondary           secondary connection
+     * @param executionResult     execution result
+     * @param sql                 query
+     * @param resultSetScrollType result-set scroll type
+     * @return null
+     * @throws QueryException if read fail on secondary connection and hedged read hasn't succeeded
+     */
+    private Object executeHedged(Protocol secondary, ExecutionResult executionResult, String sql, int resultSetScrollType)
+            throws QueryException {
+        HedgedRead hedgedRead = null;
+        Protocol hedge = hedgeProtocol;
+        if (executionResult.getFetchSize() == 0 && (hedgeConnectTask == null || hedgeConnectTask.isDone())
+                && (lastHedgedRead == null || lastHedgedRead.isDone())) {
+            if (hedge == null || hedge.isClosed()) {
+                connectHedgeProtocol(secondary.getHostAddress());
+            } else if (!hedge.getHostAddress().equals(secondary.getHostAddress())) {
+                long delayNanos = HedgedReadPolicy.getReplicaReads().hedgeDelayNanos(urlParser.getOptions().hedgedReadPercentile);
+                if (delayNanos >= 0) {
+                    hedgedRead = new HedgedRead(this, secondary, hedge, executionResult, sql, resultSetScrollType,
+                            masterProtocol.getDatabase(), masterProtocol.getMaxRows(), masterProtocol.getTransactionIsolationLevel(),
+                            urlParser.getOptions().hedgedReadBudget);
+                    hedgedRead.schedule(delayNanos);
+                    lastHedgedRead = hedgedRead;
+                }
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            secondary.executeQuery(executionResult, sql, resultSetScrollType);
+        } catch (QueryException queryException) {
+            //primaryDone() must be called before secondary connection is used again, even if hedged read has won
+            if (hedgedRead != null && !hedgedRead.primaryDone()) {
+                hedgedRead.transferResult(executionResult);
+                return null;
+            }
+            throw queryException;
+        }
+        HedgedReadPolicy.getReplicaReads().recordRead(System.nanoTime() - startNanos);
+        if (hedgedRead != null) {
+            hedgedRead.primaryDone();
+        }
+        return null;
+    }
+
+    /**
+     * Connect hedge connection asynchronously to a replica other than the secondary connection one.
+     *
+     * @param secondaryHost secondary connection host
+     */
+    private void connectHedgeProtocol(final HostAddress secondaryHost) {
+        hedgeConnectTask = replicaTaskScheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+                Protocol protocol = connectReplica(Collections.singleton(secondaryHost), false);
+                if (protocol != null) {
+                    hedgeProtocol = protocol;
+                    if (isExplicitClosed()) {
+                        protocol.close();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * A read executed on secondary connection, hedged on another replica connection when delay expires.
+     * First successful execution wins : hedged read kills secondary connection query when winning, and secondary connection
+     * kills hedged read query if finishing first.
+     * Killing secondary connection query is done holding this object monitor, and secondary connection marks its execution done
+     * with the same monitor : KILL cannot reach a following statement of the secondary connection.
+     */
+    private static class HedgedRead implements Runnable {
+        private static final int RUNNING = 0;
+        private static final int PRIMARY_DONE = 1;
+        private static final int HEDGE_WON = 2;
+
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private volatile boolean hedgeStarted;
+        private volatile Future<?> future;
+        private volatile Future<?> cancelFuture;
+        private final Protocol primary;
+        private final Protocol hedge;
+        private final SingleExecutionResult hedgeResult;
+        private final String sql;
+        private final int resultSetScrollType;
+        private final String database;
+        private final int maxRows;
+        private final int isolationLevel;
+        private final int budget;
+        private final MastersSlavesListener listener;
+
+        public HedgedRead(MastersSlavesListener listener, Protocol primary, Protocol hedge, ExecutionResult executionResult, String sql,
+                          int resultSetScrollType, String database, int maxRows, int isolationLevel, int budget) {
+            this.listener = listener;
+            this.primary = primary;
+            this.hedge = hedge;
+            this.hedgeResult = new SingleExecutionResult(executionResult.getStatement(), 0, true, false);
+            this.sql = sql;
+            this.resultSetScrollType = resultSetScrollType;
+            this.database = database;
+            this.maxRows = maxRows;
+            this.isolationLevel = isolationLevel;
+            this.budget = budget;
+        }
+
+        public void schedule(long delayNanos) {
+            future = hedgeScheduler.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            if (state.get() != RUNNING || !HedgedReadPolicy.getReplicaReads().tryAcquireHedge(budget)) {
+                return;
+            }
+            hedgeStarted = true;
+            if (state.get() != RUNNING) {
+                return;
+            }
+            try {
+                if (database != null && !database.isEmpty() && !database.equals(hedge.getDatabase())) {
+                    hedge.setCatalog(database);
+                }
+                hedge.prolog(hedgeResult, maxRows, true, null, null);
+                listener.syncSessionState(hedge, isolationLevel);
+                hedge.executeQuery(hedgeResult, sql, resultSetScrollType);
+            } catch (QueryException | SQLException exception) {
+                if (hedge.isConnected() && (exception instanceof QueryException)
+                        && ((QueryException) exception).getSqlState() != null
+                        && ((QueryException) exception).getSqlState().startsWith("08")) {
+                    hedge.close();
+                }
+                return;
+            }
+            synchronized (this) {
+                //primaryDone() hasn't been called : secondary connection is still reading this statement result
+                if (state.compareAndSet(RUNNING, HEDGE_WON)) {
+                    cancel(primary);
+                }
+            }
+        }
+
+        /**
+         * Secondary connection execution is finished : kill hedged read if running, or cancel it if not started.
+         * Waits for a running kill of secondary connection query, so that it cannot reach the next statement.
+         *
+         * @return false if hedged read has won
+         */
+        public synchronized boolean primaryDone() {
+            if (state.compareAndSet(RUNNING, PRIMARY_DONE)) {
+                if (hedgeStarted) {
+                    cancelFuture = hedgeScheduler.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            cancel(hedge);
+                        }
+                    });
+                } else {
+                    future.cancel(false);
+                }
+                return true;
+            }
+            return state.get() != HEDGE_WON;
+        }
+
+        /**
+         * Indicate if hedge connection can be used again.
+         *
+         * @return true if hedged read and its cancellation are finished
+         */
+        public boolean isDone() {
+            return future.isDone() && (cancelFuture == null || cancelFuture.isDone());
+        }
+
+        /**
+         * Use hedged read result as statement result.
+         *
+         * @param executionResult statement execution result
+         */
+        public void transferResult(ExecutionResult executionResult) {
+            if (hedgeResult.getResult() != null) {
+                executionResult.addResult(hedgeResult.getResult(), false);
+            } else {
+                executionResult.addStats(hedgeResult.getAffectedRows(), hedgeResult.getInsertId(), false);
+            }
+        }
+
+        private static void cancel(Protocol protocol) {
+            try {
+                protocol.cancelCurrentQuery();
+            } catch (QueryException | IOException exception) {
+                //query will finish normally
+            }
+        }
+    }
+
+    /**
+     * When option "gtidWaitTimeout" is set and writes have been done on master, set the master GTID position that secondary
+     * connection must reach before executing next statement.
+     * Position is reported by server in OK packets when session tracking is supported (MariaDB 10.3.1+), and is read otherwise
+     * from master session "@@last_gtid" only once after writes.
+     *
+     * @param secondary secondary connection that will execute next statement
+     * @return false if position cannot be known, so statement must be executed on master
+     */
+    private boolean prepareGtidWait(Protocol secondary) {
+        int gtidWaitTimeout = urlParser.getOptions().gtidWaitTimeout;
+        if (gtidWaitTimeout == 0) {
+            return true;
+        }
+        if (masterWritePending) {
+            Protocol master = masterProtocol;
+            String trackedGtid = master.getLastGtid();
+            if (trackedGtid != null) {
+                //position reported by server in OK packets
+                masterWritePending = false;
+                if (!trackedGtid.equals(masterGtid)) {
+                    masterGtid = trackedGtid;
+                    gtidReachedProtocol = null;
+                }
+            } else if (lastGtidUnsupported || !readMasterGtid(master)) {
+                return false;
+            }
+        }
+        String gtid = masterGtid;
+        if (gtid != null && !gtid.isEmpty() && gtidReachedProtocol != secondary) {
+            secondary.setGtidWait(gtid, gtidWaitTimeout);
+        }
+        return true;
+    }
+
+    /**
+     * Read master GTID position with "SELECT @@last_gtid", when server doesn't report it in OK packets.
+     *
+     * @param master master connection
+     * @return false if position cannot be known
+     */
+    private boolean readMasterGtid(Protocol master) {
+        try {
+            SingleExecutionResult executionResult = new SingleExecutionResult(null, 0, true, false);
+            master.prolog(executionResult, master.getMaxRows(), true, null, null);
+            master.executeQuery(executionResult, "SELECT @@last_gtid", ResultSet.TYPE_FORWARD_ONLY);
+            MariaSelectResultSet queryResult = executionResult.getResult();
+            masterGtid = (queryResult != null && queryResult.next()) ? queryResult.getString(1) : null;
+            masterWritePending = false;
+            gtidReachedProtocol = null;
+        } catch (QueryException queryException) {
+            //on connection error, master failover will be handled when executing statement on master
+            if (!proxy.hasToHandleFailover(queryException)) {
+                lastGtidUnsupported = true;
+            }
+            return false;
+        } catch (SQLException sqle) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Will next statement on secondary connection wait for master GTID position.
+     * Hedged reads are not sent then, since hedge connection doesn't wait for this position.
+     *
+     * @param secondary secondary connection
+     * @return true if a GTID wait has been set
+     */
+    private boolean gtidWaitPending(Protocol secondary) {
+        String gtid = masterGtid;
+        return urlParser.getOptions().gtidWaitTimeout > 0 && gtid != null && !gtid.isEmpty() && gtidReachedProtocol != secondary;
+    }
+
+    /**
+     * Statement can be executed on secondary connection only if connected, not lagging and master isn't in a transaction : after first
+     * write of a transaction, all statements are executed on master until commit/rollback.
+     * Session state changes that cannot be replayed on replica connections disable routing.
+     */
+    private boolean canRouteToSecondary() {
+        Protocol master = masterProtocol;
+        Protocol secondary = secondaryProtocol;
+        return master != null && secondary != null && !isMasterHostFail() && !isSecondaryHostFail() && !secondary.isClosed()
+                && master.getAutocommit() && !master.inTransaction() && !sessionState.unknown && !isLagging(secondary.getHostAddress());
+    }
+
+    /**
+     * Prepare secondary connection like statement prolog has been done on master : same database, session state and max rows,
+     * and read pending results.
+     */
+    private void prologOnSecondary(Protocol secondary, ExecutionResult executionResult) throws QueryException, SQLException {
+        String database = masterProtocol.getDatabase();
+        if (database != null && !"".equals(database) && !database.equals(secondary.getDatabase())) {
+            secondary.setCatalog(database);
+        }
+        secondary.prolog(executionResult, masterProtocol.getMaxRows(), true, null, null);
+        syncSessionState(secondary, masterProtocol.getTransactionIsolationLevel());
+    }
+
+    /**
+     * Routing on secondary connection failed, statement will be executed on master.
+     * On connection error, a failing standby secondary connection is discarded, and a failing secondary connection is replaced
+     * by a standby one if any, or secondary failover is launched.
+     */
+    private void secondaryRoutingFail(Protocol secondary, Exception exception) {
+        executionProtocol = null;
+        boolean connectionError = (exception instanceof QueryException)
+                ? proxy.hasToHandleFailover((QueryException) exception)
+                : exception instanceof SQLException && ((SQLException) exception).getSQLState() != null
+                        && ((SQLException) exception).getSQLState().startsWith("08");
+        if (!connectionError) {
+            return;
+        }
+        if (standbySecondaries.remove(secondary)) {
+            secondary.close();
+            addToBlacklist(secondary.getHostAddress());
+        } else if (setSecondaryHostFail()) {
+            addToBlacklist(secondary.getHostAddress());
+            if (!promoteStandbySecondary()) {
+                FailoverLoop.addListener(this);
+            }
+        }
+    }
+
     /**
      * Check master status.
      *
@@ -778,4 +1656,77 @@ public class MastersSlavesListener extends AbstractMastersSlavesListener {
             oldPrepareResult.failover(prepareResult.getStatementId(), secondaryProtocol);
         }
     }
+
+    /**
+     * Session state changes (SET statements) done by application on master. Immutable : a change creates a new state, linked to
+     * the previous one when statement has only been appended, so a replica connection only replays statements it hasn't executed.
+     * A statement already recorded is moved at the end, to keep the list bounded when the same statements are executed again,
+     * for example by a pool on each borrow.
+     */
+    private static final class SessionState {
+        private static final int MAX_STATEMENTS = 64;
+        private static final SessionState EMPTY = new SessionState(new String[0], null, false);
+
+        private final String[] statements;
+        private final SessionState appendedTo;
+        private final boolean unknown;
+
+        private SessionState(String[] statements, SessionState appendedTo, boolean unknown) {
+            this.statements = statements;
+            this.appendedTo = appendedTo;
+            this.unknown = unknown;
+        }
+
+        /**
+         * New state after a statement executed on master.
+         *
+         * @param sql statement
+         * @return new state, or this state if statement doesn't change it
+         */
+        public SessionState record(String sql) {
+            if (unknown) {
+                return this;
+            }
+            switch (StatementClassifier.getSessionEffect(sql)) {
+                case NONE:
+                    return this;
+                case UNKNOWN:
+                    return new SessionState(statements, null, true);
+                default:
+            }
+            int length = statements.length;
+            if (length > 0 && statements[length - 1].equals(sql)) {
+                return this;
+            }
+            int index = Arrays.asList(statements).indexOf(sql);
+            if (index == -1) {
+                if (length >= MAX_STATEMENTS) {
+                    return new SessionState(statements, null, true);
+                }
+                String[] newStatements = Arrays.copyOf(statements, length + 1);
+                newStatements[length] = sql;
+                return new SessionState(newStatements, this, false);
+            }
+            String[] newStatements = new String[length];
+            System.arraycopy(statements, 0, newStatements, 0, index);
+            System.arraycopy(statements, index + 1, newStatements, index, length - index - 1);
+            newStatements[length - 1] = sql;
+            return new SessionState(newStatements, null, false);
+        }
+
+        /**
+         * Index of first statement to execute on a connection that has applied another state.
+         *
+         * @param applied state applied on connection, null if none
+         * @return number of statements already executed on connection
+         */
+        public int replayFrom(SessionState applied) {
+            for (SessionState state = this; state != null; state = state.appendedTo) {
+                if (state == applied) {
+                    return applied.statements.length;
+                }
+            }
+            return 0;
+        }
+    }
 }
@@ -138,6 +138,7 @@ public class ConnectionValidator  {
             while (tmpQueue.hasNext()) {
                 listener = tmpQueue.next();
                 if (!listener.isExplicitClosed()) {
+                    listener.checkStandbyMaster();
                     long durationNanos = (now == -1 ? now = System.nanoTime() : now) - listener.getLastQueryNanos();
                     long durationSeconds = TimeUnit.NANOSECONDS.toSeconds(durationNanos);
                     if (durationSeconds >= listener.getUrlParser().getOptions().validConnectionTimeout
@@ -52,6 +52,8 @@ package org.mariadb.jdbc.internal.failover.thread;
 import org.mariadb.jdbc.internal.failover.Listener;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -75,9 +77,16 @@ public class FailoverLoop extends TerminatableRunnable {
     @Override
     protected void doRun() {
         Listener listener;
+        List<Listener> unreachableListeners = null;
         while (!isUnschedule() && (listener = queue.poll()) != null) {
             if (!listener.isExplicitClosed() && listener.hasHostFail()) {
-                if (listener.canRetryFailLoop()) {
+                if (!HostHealthMonitor.isReachable(listener)) {
+                    //shared health check indicate all hosts are down : wait for one to be up before trying to reconnect
+                    if (unreachableListeners == null) {
+                        unreachableListeners = new ArrayList<>();
+                    }
+                    unreachableListeners.add(listener);
+                } else if (listener.canRetryFailLoop()) {
                     try {
                         SearchFilter filter = listener.getFilterForFailedHost();
                         filter.setFailoverLoop(true);
@@ -94,6 +103,9 @@ public class FailoverLoop extends TerminatableRunnable {
                 }
             }
         }
+        if (unreachableListeners != null) {
+            queue.addAll(unreachableListeners);
+        }
     }
 
 }
@@ -0,0 +1,389 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+package org.mariadb.jdbc.internal.failover.thread;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.failover.Listener;
+import org.mariadb.jdbc.internal.failover.tools.HostCircuitBreaker;
+import org.mariadb.jdbc.internal.protocol.AuroraProtocol;
+import org.mariadb.jdbc.internal.protocol.MasterProtocol;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.queryresults.SingleExecutionResult;
+import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
+import org.mariadb.jdbc.internal.util.constant.HaMode;
+import org.mariadb.jdbc.internal.util.dao.HostConnectionKey;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.scheduler.DynamicSizedSchedulerInterface;
+import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
+
+import java.net.SocketException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM-wide host health service.
+ * Each distinct host is probed once per "healthCheckInterval" with a dedicated connection, whatever the number of listeners
+ * using this host with the same connection settings, and up/down/role state is published to subscribed listeners :
+ * <ul>
+ * <li>when a host goes down or change role, subscribed listeners verify their master connection,</li>
+ * <li>failover loops only try to reconnect a listener when one of its hosts is reachable.</li>
+ * </ul>
+ * Probes are keyed by host and connection settings (credentials, SSL, socket options, health check interval, replication lag
+ * query...), so a listener only gets answers computed with its own settings.
+ * Each host is probed by its own task, with a socket timeout, and subscribed listeners are verified by independent tasks on another
+ * scheduler, so a hung host or connection doesn't delay checks of other hosts.
+ * Host state is also reported to host circuit breakers.
+ * When option "maxReplicationLag" is set, replication lag of non-master hosts is measured on each probe.
+ */
+public class HostHealthMonitor {
+
+    public enum Status {
+        UNKNOWN, UP, DOWN
+    }
+
+    private static final int DEFAULT_LAG_CHECK_INTERVAL = 1000;
+    private static final int MIN_PROBE_TIMEOUT = 1000;
+    private static final double SUBSCRIBER_POOL_SIZE_TO_LISTENER_RATIO = 0.3d;
+    private static final DynamicSizedSchedulerInterface probeScheduler = SchedulerServiceProviderHolder.getScheduler(1);
+    private static final DynamicSizedSchedulerInterface subscriberScheduler = SchedulerServiceProviderHolder.getScheduler(1);
+    private static final ConcurrentMap<HostConnectionKey, HostProbe> probes = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Listener, Map<HostAddress, HostProbe>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribe listener to the state of its hosts, probing hosts that aren't already with the same connection settings.
+     *
+     * @param listener listener
+     */
+    public static void subscribe(Listener listener) {
+        UrlParser urlParser = listener.getUrlParser();
+        Map<HostAddress, HostProbe> listenerProbes = new HashMap<>();
+        synchronized (probes) {
+            for (HostAddress hostAddress : urlParser.getHostAddresses()) {
+                HostConnectionKey key = new HostConnectionKey(hostAddress, urlParser);
+                HostProbe probe = probes.get(key);
+                if (probe == null) {
+                    probe = new HostProbe(key, urlParser);
+                    probes.put(key, probe);
+                    probeScheduler.setPoolSize(Math.min(probes.size(), SchedulerServiceProviderHolder.FAILOVER_MAX_THREADS));
+                    probe.start();
+                }
+                probe.subscribers.add(listener);
+                listenerProbes.put(hostAddress, probe);
+            }
+            subscriptions.put(listener, Collections.unmodifiableMap(listenerProbes));
+            subscriberScheduler.setPoolSize(SchedulerServiceProviderHolder.getFailoverPoolSize(subscriptions.size(),
+                    SUBSCRIBER_POOL_SIZE_TO_LISTENER_RATIO));
+        }
+    }
+
+    /**
+     * Unsubscribe listener. Hosts without subscriber are not probed anymore.
+     *
+     * @param listener listener
+     */
+    public static void unsubscribe(Listener listener) {
+        List<HostProbe> stoppedProbes = new ArrayList<>();
+        synchronized (probes) {
+            Map<HostAddress, HostProbe> listenerProbes = subscriptions.remove(listener);
+            if (listenerProbes == null) {
+                return;
+            }
+            for (HostProbe probe : listenerProbes.values()) {
+                if (probe.subscribers.remove(listener) && probe.subscribers.isEmpty()) {
+                    probes.remove(probe.key);
+                    stoppedProbes.add(probe);
+                }
+            }
+            if (!stoppedProbes.isEmpty()) {
+                probeScheduler.setPoolSize(
+                        Math.max(1, Math.min(probes.size(), SchedulerServiceProviderHolder.FAILOVER_MAX_THREADS)));
+            }
+            subscriberScheduler.setPoolSize(SchedulerServiceProviderHolder.getFailoverPoolSize(subscriptions.size(),
+                    SUBSCRIBER_POOL_SIZE_TO_LISTENER_RATIO));
+        }
+        for (HostProbe probe : stoppedProbes) {
+            probe.stop();
+        }
+    }
+
+    private static HostProbe getProbe(Listener listener, HostAddress hostAddress) {
+        Map<HostAddress, HostProbe> listenerProbes = subscriptions.get(listener);
+        return (listenerProbes == null) ? null : listenerProbes.get(hostAddress);
+    }
+
+    /**
+     * Last known status of host, probed with listener settings.
+     *
+     * @param listener    subscribed listener
+     * @param hostAddress host
+     * @return status, UNKNOWN if host isn't probed for this listener.
+     */
+    public static Status getStatus(Listener listener, HostAddress hostAddress) {
+        HostProbe probe = getProbe(listener, hostAddress);
+        return (probe == null) ? Status.UNKNOWN : probe.status;
+    }
+
+    /**
+     * Last known role of host, probed with listener settings.
+     *
+     * @param listener    subscribed listener
+     * @param hostAddress host
+     * @return true if host was master when last probed.
+     */
+    public static boolean isMaster(Listener listener, HostAddress hostAddress) {
+        HostProbe probe = getProbe(listener, hostAddress);
+        return probe != null && probe.master;
+    }
+
+    /**
+     * Last replication lag of host, measured with listener settings and replication lag query.
+     *
+     * @param listener    subscribed listener
+     * @param hostAddress host
+     * @return lag in seconds, Integer.MAX_VALUE if replication is stopped, -1 if unknown (host not monitored, down or master).
+     */
+    public static long getReplicationLag(Listener listener, HostAddress hostAddress) {
+        HostProbe probe = getProbe(listener, hostAddress);
+        return (probe == null) ? -1 : probe.replicationLag;
+    }
+
+    /**
+     * Indicate if host is probed, whatever the connection settings.
+     *
+     * @param hostAddress host
+     * @return true if at least one probe is running for this host
+     */
+    public static boolean isProbed(HostAddress hostAddress) {
+        for (HostConnectionKey key : probes.keySet()) {
+            if (key.getHostAddress().equals(hostAddress)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicate if a reconnection of the listener may succeed : at least one of its host isn't known to be down.
+     * Always true when listener doesn't use the shared health check.
+     *
+     * @param listener listener
+     * @return true if a reconnection can be tried.
+     */
+    public static boolean isReachable(Listener listener) {
+        Map<HostAddress, HostProbe> listenerProbes = subscriptions.get(listener);
+        if (listenerProbes == null) {
+            return true;
+        }
+        for (HostProbe probe : listenerProbes.values()) {
+            if (probe.status != Status.DOWN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class HostProbe implements Runnable {
+        private final HostConnectionKey key;
+        private final HostAddress hostAddress;
+        private final UrlParser urlParser;
+        private final Set<Listener> subscribers = new CopyOnWriteArraySet<>();
+        private final boolean lagMonitored;
+        private final String lagQuery;
+        private final long intervalMillis;
+        private volatile Status status = Status.UNKNOWN;
+        private volatile boolean master;
+        private volatile long replicationLag = -1;
+        private boolean stopped;
+        private Protocol protocol;
+        private ScheduledFuture<?> scheduledFuture;
+
+        public HostProbe(HostConnectionKey key, UrlParser urlParser) {
+            this.key = key;
+            this.hostAddress = key.getHostAddress();
+            this.urlParser = urlParser;
+            this.lagMonitored = urlParser.getOptions().maxReplicationLag > 0;
+            this.lagQuery = urlParser.getOptions().replicationLagQuery;
+            this.intervalMillis = (urlParser.getOptions().healthCheckInterval > 0)
+                    ? urlParser.getOptions().healthCheckInterval : DEFAULT_LAG_CHECK_INTERVAL;
+        }
+
+        public synchronized void start() {
+            scheduledFuture = probeScheduler.scheduleWithFixedDelay(this, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Stop probing, and close probe connection.
+         */
+        public synchronized void stop() {
+            stopped = true;
+            scheduledFuture.cancel(false);
+            closeProtocol();
+        }
+
+        @Override
+        public void run() {
+            Status previousStatus;
+            boolean previousMaster;
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                previousStatus = status;
+                previousMaster = master;
+                try {
+                    if (protocol == null || protocol.isClosed()) {
+                        protocol = (urlParser.getHaMode() == HaMode.AURORA)
+                                ? new AuroraProtocol(urlParser, new ReentrantLock())
+                                : new MasterProtocol(urlParser, new ReentrantLock());
+                        protocol.setHostAddress(hostAddress);
+                        protocol.connect();
+                        //a hung host must not hold a probe thread more than an interval
+                        protocol.setTimeout((int) Math.max(MIN_PROBE_TIMEOUT, intervalMillis));
+                    } else if (!protocol.ping()) {
+                        throw new QueryException("Could not ping " + hostAddress);
+                    } else if (urlParser.getHaMode() == HaMode.AURORA) {
+                        protocol.checkIfMaster();
+                    }
+                    master = protocol.isMasterConnection();
+                    replicationLag = (lagMonitored && !master) ? readReplicationLag() : -1;
+                    status = Status.UP;
+                } catch (QueryException | SocketException e) {
+                    closeProtocol();
+                    replicationLag = -1;
+                    status = Status.DOWN;
+                }
+            }
+
+            if (status == Status.UP) {
+                if (previousStatus != Status.UP) {
+                    HostCircuitBreaker.get(hostAddress).onSuccess();
+                }
+            } else if (previousStatus != Status.DOWN) {
+                HostCircuitBreaker.get(hostAddress).onFailure(urlParser.getOptions().loadBalanceBlacklistInitialDelay,
+                        TimeUnit.SECONDS.toMillis(urlParser.getOptions().loadBalanceBlacklistTimeout));
+            }
+
+            final boolean stateChanged = (previousStatus == Status.UP && status == Status.DOWN)
+                    || (previousStatus == Status.UP && previousMaster != master);
+            for (final Listener listener : subscribers) {
+                if (stateChanged || listener.getUrlParser().getOptions().warmStandbyMaster) {
+                    subscriberScheduler.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            checkSubscriber(listener, stateChanged);
+                        }
+                    });
+                }
+            }
+        }
+
+        /**
+         * Verify a subscribed listener, in its own task : when host has gone down or changed role, listener verify its master
+         * connection (once per state change, not once per interval). Standby master connection is kept alive.
+         *
+         * @param listener     subscribed listener
+         * @param stateChanged host state has changed since last probe
+         */
+        private void checkSubscriber(Listener listener, boolean stateChanged) {
+            if (stateChanged && !listener.isExplicitClosed() && !listener.isMasterHostFail() && listener.isMasterConnected()) {
+                listener.checkMasterStatus(null);
+            }
+            listener.checkStandbyMaster();
+        }
+
+        /**
+         * Read replication lag, using option "replicationLagQuery" first column, or the biggest "Seconds_Behind_Master"
+         * of "SHOW SLAVE STATUS" (multi-source replication has one row per source).
+         *
+         * @return lag in seconds, Integer.MAX_VALUE if replication is stopped, -1 if lag cannot be read
+         * @throws QueryException if a connection error occur
+         */
+        private long readReplicationLag() throws QueryException {
+            String query = lagQuery;
+            try {
+                SingleExecutionResult executionResult = new SingleExecutionResult(null, 0, true, false);
+                protocol.executeQuery(executionResult, (query != null) ? query : "SHOW SLAVE STATUS", ResultSet.TYPE_FORWARD_ONLY);
+                MariaSelectResultSet queryResult = executionResult.getResult();
+                long lag = -1;
+                while (queryResult != null && queryResult.next()) {
+                    String value = (query != null) ? queryResult.getString(1) : queryResult.getString("Seconds_Behind_Master");
+                    lag = Math.max(lag, (value == null) ? Integer.MAX_VALUE : (long) Math.ceil(Double.parseDouble(value)));
+                }
+                return lag;
+            } catch (QueryException queryException) {
+                if (queryException.getSqlState() != null && queryException.getSqlState().startsWith("08")) {
+                    throw queryException;
+                }
+                return -1;
+            } catch (SQLException | NumberFormatException exception) {
+                return -1;
+            }
+        }
+
+        private void closeProtocol() {
+            if (protocol != null) {
+                protocol.close();
+                protocol = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.protocol.AbstractConnectProtocol;
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.scheduler.DynamicSizedSchedulerInterface;
+import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Give hosts to connect to the failover loops.
+ *
+ * <p>When option connectRaceDelay is set, sockets to candidate hosts are connected concurrently, "happy eyeballs" style:
+ * a new host is tried each connectRaceDelay milliseconds, or as soon as an attempt fails.
+ * Loop then handshakes hosts in the order their socket got connected, so a black-holed host doesn't cost a whole connectTimeout
+ * before trying the next one. Sockets that are not used when the race is closed are closed.</p>
+ *
+ * <p>Only TCP connection is raced : handshake is done by the loop thread, that hold the connection lock.
+ * Connecting threads are shared by all races, and bounded by {@link SchedulerServiceProviderHolder#FAILOVER_MAX_THREADS}.</p>
+ */
+public class ConnectionRace implements Closeable {
+    private static final DynamicSizedSchedulerInterface connectScheduler = SchedulerServiceProviderHolder.getScheduler(1);
+    private static final AtomicInteger connectingSockets = new AtomicInteger();
+    private static final double THREAD_TO_SOCKET_RATIO = 1d;
+
+    private final UrlParser urlParser;
+    private final int raceDelay;
+    private final LinkedBlockingQueue<Attempt> completedAttempts = new LinkedBlockingQueue<>();
+    private final ArrayDeque<HostAddress> waitingHosts = new ArrayDeque<>();
+    private ScheduledFuture<?> nextStart;
+    private int pendingAttempts;
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param urlParser connection URL infos
+     */
+    public ConnectionRace(UrlParser urlParser) {
+        this.urlParser = urlParser;
+        Options options = urlParser.getOptions();
+        if (options.pipe != null || options.localSocket != null || options.sharedMemory != null) {
+            this.raceDelay = 0;
+        } else {
+            this.raceDelay = options.connectRaceDelay;
+        }
+    }
+
+    /**
+     * Has some attempts not yet given to the loop.
+     *
+     * @return true if some attempts are pending
+     */
+    public synchronized boolean hasPendingAttempts() {
+        return pendingAttempts > 0;
+    }
+
+    /**
+     * Connect protocol to next host.
+     * Without race, next host is the first host of loopAddresses.
+     * With race, if no attempt is pending, a race is started with all loopAddresses, and protocol is connected to the first
+     * host whose socket connected.
+     * In both cases, if loopAddresses is empty, all hosts of connection string are used.
+     *
+     * @param protocol protocol to connect
+     * @param loopAddresses addresses to try
+     * @throws QueryException if connection failed. protocol host is then set to the host that failed.
+     */
+    public void connect(AbstractConnectProtocol protocol, ArrayDeque<HostAddress> loopAddresses) throws QueryException {
+        if (raceDelay <= 0) {
+            HostAddress host = loopAddresses.pollFirst();
+            if (host == null) {
+                loopAddresses.addAll(urlParser.getHostAddresses());
+                host = loopAddresses.pollFirst();
+            }
+            protocol.setHostAddress(host);
+            protocol.connect();
+            return;
+        }
+
+        if (!hasPendingAttempts()) {
+            if (loopAddresses.isEmpty()) {
+                loopAddresses.addAll(urlParser.getHostAddresses());
+            }
+            start(loopAddresses);
+            loopAddresses.clear();
+        }
+
+        Attempt attempt;
+        try {
+            attempt = completedAttempts.take();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new QueryException("Interrupted while connecting", -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), interruptedException);
+        }
+        synchronized (this) {
+            pendingAttempts--;
+        }
+
+        protocol.setHostAddress(attempt.host);
+        if (attempt.socket == null) {
+            throw new QueryException("Could not connect to " + attempt.host + "." + attempt.exception.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), attempt.exception);
+        }
+        protocol.connect(attempt.socket);
+    }
+
+    private synchronized void start(ArrayDeque<HostAddress> hosts) {
+        waitingHosts.addAll(hosts);
+        pendingAttempts += hosts.size();
+        startNext();
+    }
+
+    //must hold this monitor
+    private void startNext() {
+        if (nextStart != null) {
+            nextStart.cancel(false);
+            nextStart = null;
+        }
+        final HostAddress host = waitingHosts.pollFirst();
+        if (host == null || closed) {
+            return;
+        }
+
+        //one thread per connecting socket, plus one for the staggering timer, up to FAILOVER_MAX_THREADS :
+        //additional attempts wait in scheduler queue
+        connectScheduler.setPoolSize(
+                SchedulerServiceProviderHolder.getFailoverPoolSize(connectingSockets.incrementAndGet() + 1, THREAD_TO_SOCKET_RATIO));
+        connectScheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                attempt(host);
+            }
+        });
+
+        if (!waitingHosts.isEmpty()) {
+            nextStart = connectScheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (ConnectionRace.this) {
+                        startNext();
+                    }
+                }
+            }, raceDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void attempt(HostAddress host) {
+        Socket socket = null;
+        IOException exception = null;
+        try {
+            socket = AbstractConnectProtocol.createConnectedSocket(urlParser, host.host, host.port);
+        } catch (IOException ioException) {
+            exception = ioException;
+        } finally {
+            connectScheduler.setPoolSize(
+                    SchedulerServiceProviderHolder.getFailoverPoolSize(connectingSockets.decrementAndGet() + 1, THREAD_TO_SOCKET_RATIO));
+        }
+
+        synchronized (this) {
+            if (closed) {
+                closeSocket(socket);
+                return;
+            }
+            completedAttempts.add(new Attempt(host, socket, exception));
+            if (socket == null) {
+                //no need to wait for the delay when an attempt fails
+                startNext();
+            }
+        }
+    }
+
+    /**
+     * Stop race : hosts not tried yet won't be, and sockets not given to the loop are closed.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (nextStart != null) {
+            nextStart.cancel(false);
+            nextStart = null;
+        }
+        waitingHosts.clear();
+        pendingAttempts = 0;
+        Attempt attempt;
+        while ((attempt = completedAttempts.poll()) != null) {
+            closeSocket(attempt.socket);
+        }
+    }
+
+    private static void closeSocket(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ioException) {
+                //eat exception
+            }
+        }
+    }
+
+    private static class Attempt {
+        private final HostAddress host;
+        private final Socket socket;
+        private final IOException exception;
+
+        Attempt(HostAddress host, Socket socket, IOException exception) {
+            this.host = host;
+            this.socket = socket;
+            this.exception = exception;
+        }
+    }
+}
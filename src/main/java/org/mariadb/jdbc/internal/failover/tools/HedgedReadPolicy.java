@@ -0,0 +1,171 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+package org.mariadb.jdbc.internal.failover.tools;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hedged read decision : latency distribution of reads executed on replicas, and hedge budget.
+ * Latencies are recorded in an histogram with logarithmic buckets (4 buckets per power of 2, starting at 100 microseconds),
+ * halved every DECAY_SAMPLES samples so that distribution follows recent traffic.
+ * A read is hedged when it last longer than the configured percentile, as long as hedges represent less than the
+ * configured percentage of reads.
+ */
+public class HedgedReadPolicy {
+
+    private static final HedgedReadPolicy replicaReads = new HedgedReadPolicy();
+
+    static final int BUCKETS = 64;
+    static final long MIN_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    static final int MIN_SAMPLES = 100;
+    static final int DECAY_SAMPLES = 10000;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+
+    /**
+     * JVM-wide policy of reads executed on replicas.
+     *
+     * @return policy
+     */
+    public static HedgedReadPolicy getReplicaReads() {
+        return replicaReads;
+    }
+
+    /**
+     * Record a read latency.
+     *
+     * @param nanos read duration in nanoseconds
+     */
+    public void recordRead(long nanos) {
+        buckets.incrementAndGet(bucketIndex(nanos));
+        reads.incrementAndGet();
+        if (samples.incrementAndGet() >= DECAY_SAMPLES) {
+            decay();
+        }
+    }
+
+    /**
+     * Delay after which a read must be hedged.
+     *
+     * @param percentile latency percentile (1 to 99)
+     * @return delay in nanoseconds, or -1 if not enough reads have been recorded to know latency distribution
+     */
+    public long hedgeDelayNanos(int percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total < MIN_SAMPLES) {
+            return -1;
+        }
+        long target = (total * percentile + 99) / 100;
+        long cumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulated += counts[i];
+            if (cumulated >= target) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Reserve a hedge if budget permit it.
+     *
+     * @param budgetPercent maximum percentage of reads that can be hedged
+     * @return true if read can be hedged
+     */
+    public boolean tryAcquireHedge(int budgetPercent) {
+        long hedgeCount = hedges.get();
+        while ((hedgeCount + 1) * 100 <= reads.get() * budgetPercent) {
+            if (hedges.compareAndSet(hedgeCount, hedgeCount + 1)) {
+                return true;
+            }
+            hedgeCount = hedges.get();
+        }
+        return false;
+    }
+
+    /**
+     * Halve all counters, so old samples weigh less than recent ones.
+     */
+    private synchronized void decay() {
+        if (samples.get() < DECAY_SAMPLES) {
+            return;
+        }
+        samples.set(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = buckets.get(i);
+            buckets.addAndGet(i, -(count / 2));
+        }
+        long readCount = reads.get();
+        reads.addAndGet(-(readCount / 2));
+        long hedgeCount = hedges.get();
+        hedges.addAndGet(-(hedgeCount / 2));
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos <= MIN_LATENCY_NANOS) {
+            return 0;
+        }
+        int index = (int) Math.floor(4 * Math.log((double) nanos / MIN_LATENCY_NANOS) / Math.log(2));
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    static long bucketUpperBound(int index) {
+        return (long) (MIN_LATENCY_NANOS * Math.pow(2, (index + 1) / 4d));
+    }
+}
@@ -0,0 +1,271 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+package org.mariadb.jdbc.internal.failover.tools;
+
+import org.mariadb.jdbc.HostAddress;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM-wide circuit breaker of a host, replacing the failover blacklist.
+ * <ul>
+ * <li>CLOSED : host is used normally.</li>
+ * <li>OPEN : connection to host has failed, host is not used until an exponential backoff (with jitter) expires.</li>
+ * <li>HALF_OPEN : backoff has expired, a single connection is permitted to probe the host. Probe success closes the circuit,
+ * probe failure re-opens it with a doubled backoff.</li>
+ * </ul>
+ * So when a server is sick, only one connection of the JVM will try to reach it at a time, not every pooled connection.
+ */
+public class HostCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Listener of circuit state transitions.
+     */
+    public interface StateListener {
+        void stateChanged(HostAddress hostAddress, State previous, State current);
+    }
+
+    private static final ConcurrentMap<HostAddress, HostCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private static final List<StateListener> stateListeners = new CopyOnWriteArrayList<>();
+
+    private final HostAddress hostAddress;
+    private volatile State state = State.CLOSED;
+    private int failures;
+    private long openUntilNanos;
+    private long probeDeadlineNanos;
+    private Object probeOwner;
+
+    private HostCircuitBreaker(HostAddress hostAddress) {
+        this.hostAddress = hostAddress;
+    }
+
+    /**
+     * Get circuit breaker of a host, creating it if needed.
+     *
+     * @param hostAddress host
+     * @return host circuit breaker
+     */
+    public static HostCircuitBreaker get(HostAddress hostAddress) {
+        HostCircuitBreaker breaker = breakers.get(hostAddress);
+        if (breaker == null) {
+            breaker = new HostCircuitBreaker(hostAddress);
+            HostCircuitBreaker existing = breakers.putIfAbsent(hostAddress, breaker);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * List hosts which circuit is not closed.
+     *
+     * @return hosts with open or half-open circuit
+     */
+    public static Set<HostAddress> getOpenHosts() {
+        Set<HostAddress> openHosts = new HashSet<>();
+        for (Map.Entry<HostAddress, HostCircuitBreaker> entry : breakers.entrySet()) {
+            if (entry.getValue().state != State.CLOSED) {
+                openHosts.add(entry.getKey());
+            }
+        }
+        return openHosts;
+    }
+
+    /**
+     * Reset all circuits.
+     */
+    public static void clear() {
+        breakers.clear();
+    }
+
+    public static void addStateListener(StateListener listener) {
+        stateListeners.add(listener);
+    }
+
+    public static void removeStateListener(StateListener listener) {
+        stateListeners.remove(listener);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public HostAddress getHostAddress() {
+        return hostAddress;
+    }
+
+    /**
+     * Connection to host succeeded : close circuit.
+     */
+    public void onSuccess() {
+        State previous;
+        synchronized (this) {
+            previous = state;
+            failures = 0;
+            probeOwner = null;
+            state = State.CLOSED;
+        }
+        fireStateChanged(previous, State.CLOSED);
+    }
+
+    /**
+     * Connection to host failed : open circuit.
+     * Failures reported while circuit is already open (other connections discovering the same failure) don't extend the backoff,
+     * only the failure of the closed circuit or of the half-open probe does.
+     *
+     * @param initialDelayMillis backoff of the first failure in milliseconds
+     * @param maxDelayMillis maximum backoff in milliseconds
+     */
+    public void onFailure(long initialDelayMillis, long maxDelayMillis) {
+        State previous;
+        synchronized (this) {
+            previous = state;
+            if (previous == State.OPEN) {
+                return;
+            }
+            failures++;
+            openUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff(failures, initialDelayMillis, maxDelayMillis));
+            probeOwner = null;
+            state = State.OPEN;
+        }
+        fireStateChanged(previous, State.OPEN);
+    }
+
+    /**
+     * Try to become the single probe of an open circuit which backoff has expired.
+     * A probe that is neither reported nor released in probeLeaseMillis can be acquired by another connection.
+     *
+     * @param owner probe owner
+     * @param probeLeaseMillis probe lease in milliseconds
+     * @return true if owner has acquired the probe.
+     */
+    public boolean tryAcquireProbe(Object owner, long probeLeaseMillis) {
+        State previous;
+        synchronized (this) {
+            previous = state;
+            long now = System.nanoTime();
+            if (previous == State.CLOSED
+                    || (previous == State.OPEN && now - openUntilNanos < 0)
+                    || (previous == State.HALF_OPEN && now - probeDeadlineNanos < 0)) {
+                return false;
+            }
+            probeOwner = owner;
+            probeDeadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(probeLeaseMillis);
+            state = State.HALF_OPEN;
+        }
+        fireStateChanged(previous, State.HALF_OPEN);
+        return true;
+    }
+
+    /**
+     * Release a probe that has not been tried, so another connection can acquire it immediately.
+     *
+     * @param owner probe owner
+     */
+    public void releaseProbe(Object owner) {
+        synchronized (this) {
+            if (state != State.HALF_OPEN || probeOwner != owner) {
+                return;
+            }
+            probeOwner = null;
+            openUntilNanos = System.nanoTime();
+            state = State.OPEN;
+        }
+        fireStateChanged(State.HALF_OPEN, State.OPEN);
+    }
+
+    /**
+     * Exponential backoff with "equal jitter" : half the delay is fixed, the other half random,
+     * so that connections of different JVMs doesn't retry a host at the same rhythm.
+     *
+     * @param failures number of consecutive failures
+     * @param initialDelayMillis delay after first failure
+     * @param maxDelayMillis maximum delay
+     * @return delay in milliseconds
+     */
+    static long backoff(int failures, long initialDelayMillis, long maxDelayMillis) {
+        long delay = initialDelayMillis;
+        for (int i = 1; i < failures && delay < maxDelayMillis; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, maxDelayMillis);
+        if (delay <= 1) {
+            return Math.max(delay, 0);
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    private void fireStateChanged(State previous, State current) {
+        if (previous == current) {
+            return;
+        }
+        for (StateListener listener : stateListeners) {
+            try {
+                listener.stateChanged(hostAddress, previous, current);
+            } catch (RuntimeException e) {
+                //listener error must not disturb failover
+            }
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import org.mariadb.jdbc.HostAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JVM-wide latency score of a host.
+ * Score is computed from exponentially weighted moving averages of connection time, ping round trip (connection validation) and
+ * query latency (time to first response packet), so that hosts in a nearby availability zone are preferred.
+ */
+public class HostScore {
+    private static final ConcurrentMap<String, HostScore> scores = new ConcurrentHashMap<>();
+    private static final double ALPHA = 0.3;
+
+    private double connectMicros = -1;
+    private double pingMicros = -1;
+    private double queryMicros = -1;
+    private volatile double score;
+
+    /**
+     * Get score of a host, creating it if needed.
+     *
+     * @param hostAddress host
+     * @return host score
+     */
+    public static HostScore get(HostAddress hostAddress) {
+        String key = hostAddress.host + ":" + hostAddress.port;
+        HostScore hostScore = scores.get(key);
+        if (hostScore == null) {
+            HostScore newScore = new HostScore();
+            hostScore = scores.putIfAbsent(key, newScore);
+            if (hostScore == null) {
+                hostScore = newScore;
+            }
+        }
+        return hostScore;
+    }
+
+    public static void clear() {
+        scores.clear();
+    }
+
+    /**
+     * Order hosts using "power of two choices": two hosts are randomly picked among remaining hosts, the one with the best score
+     * (lowest latency divided by host weight) is taken first. Random picking avoids all clients to choose the same host, and the
+     * comparison avoids slow hosts.
+     *
+     * @param hosts hosts to order
+     */
+    public static void powerOfTwoChoicesOrder(List<HostAddress> hosts) {
+        List<HostAddress> remaining = new ArrayList<>(hosts);
+        hosts.clear();
+        Random random = ThreadLocalRandom.current();
+        while (remaining.size() > 1) {
+            int first = random.nextInt(remaining.size());
+            int second = random.nextInt(remaining.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            int chosen = (weightedScore(remaining.get(first)) <= weightedScore(remaining.get(second))) ? first : second;
+            hosts.add(remaining.remove(chosen));
+        }
+        hosts.addAll(remaining);
+    }
+
+    private static double weightedScore(HostAddress hostAddress) {
+        HostScore hostScore = scores.get(hostAddress.host + ":" + hostAddress.port);
+        return (hostScore == null) ? 0 : hostScore.score / Math.max(1, hostAddress.weight);
+    }
+
+    /**
+     * Add a connection time sample.
+     *
+     * @param nanos connection time in nanoseconds
+     */
+    public synchronized void addConnectTime(long nanos) {
+        connectMicros = ewma(connectMicros, nanos / 1000d);
+        updateScore();
+    }
+
+    /**
+     * Add a ping round trip sample.
+     *
+     * @param nanos ping time in nanoseconds
+     */
+    public synchronized void addPingTime(long nanos) {
+        pingMicros = ewma(pingMicros, nanos / 1000d);
+        updateScore();
+    }
+
+    /**
+     * Add a query latency sample.
+     *
+     * @param nanos time between sending query and receiving first response packet in nanoseconds
+     */
+    public synchronized void addQueryTime(long nanos) {
+        queryMicros = ewma(queryMicros, nanos / 1000d);
+        updateScore();
+    }
+
+    /**
+     * Latency estimation in microseconds: average of known moving averages. 0 if there is no sample yet, so that
+     * unknown hosts are tried.
+     *
+     * @return score
+     */
+    public double getScore() {
+        return score;
+    }
+
+    private static double ewma(double average, double sample) {
+        return (average < 0) ? sample : average + ALPHA * (sample - average);
+    }
+
+    private void updateScore() {
+        double sum = 0;
+        int known = 0;
+        if (connectMicros >= 0) {
+            sum += connectMicros;
+            known++;
+        }
+        if (pingMicros >= 0) {
+            sum += pingMicros;
+            known++;
+        }
+        if (queryMicros >= 0) {
+            sum += queryMicros;
+            known++;
+        }
+        score = (known == 0) ? 0 : sum / known;
+    }
+}
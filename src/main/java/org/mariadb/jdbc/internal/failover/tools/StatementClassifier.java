@@ -0,0 +1,298 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+package org.mariadb.jdbc.internal.failover.tools;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Classify statements for read/write splitting : only plain SELECT can be executed on a replica.
+ * Locking reads, SELECT INTO, statements using user variables or session dependant functions, and multi-statements
+ * are executed on master.
+ * SET statements changing session state are identified, so that they can be replayed on replica connections.
+ */
+public class StatementClassifier {
+
+    /**
+     * Effect of a statement on session state.
+     */
+    public enum SessionEffect {
+        /** Session state isn't changed. */
+        NONE,
+        /** Session state is changed, and statement can be executed again on another connection to get the same state. */
+        REPLAYABLE,
+        /** Session state is changed in a way that cannot be reproduced on another connection. */
+        UNKNOWN
+    }
+
+    //SET statements that don't change session state, or only for next transaction / statement
+    private static final Set<String> TRANSIENT_SET_WORDS = new HashSet<>(Arrays.asList(
+            "GLOBAL", "PASSWORD", "TRANSACTION", "STATEMENT", "DEFAULT"));
+    //autocommit is tracked by driver using server status
+    private static final Pattern AUTOCOMMIT_SET = Pattern.compile("SET\\s+(@@(SESSION\\.)?|SESSION\\s+)?AUTOCOMMIT\\s*=\\s*\\w+\\s*;?\\s*",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Set<String> MASTER_ONLY_WORDS = new HashSet<>(Arrays.asList(
+            "UPDATE", "SHARE", "INTO", "LOCK",
+            "GET_LOCK", "RELEASE_LOCK", "RELEASE_ALL_LOCKS", "IS_FREE_LOCK", "IS_USED_LOCK",
+            "LAST_INSERT_ID", "FOUND_ROWS", "ROW_COUNT", "CONNECTION_ID",
+            "NEXTVAL", "LASTVAL", "SETVAL", "MASTER_POS_WAIT", "MASTER_GTID_WAIT"));
+
+    /**
+     * Indicate if statement can be executed on a replica.
+     *
+     * @param sql statement
+     * @return true if statement is a plain SELECT
+     */
+    public static boolean isRoutableToReplica(String sql) {
+        if (sql == null) {
+            return false;
+        }
+        int length = sql.length();
+        boolean firstWord = true;
+        int pos = 0;
+        while (pos < length) {
+            char car = sql.charAt(pos);
+            switch (car) {
+                case '\'':
+                case '"':
+                case '`':
+                    pos = skipQuoted(sql, pos, car);
+                    break;
+                case '/':
+                    if (pos + 2 < length && sql.charAt(pos + 1) == '*' && sql.charAt(pos + 2) == '!') {
+                        //executable comment content is parsed
+                        pos += 3;
+                        while (pos < length && Character.isDigit(sql.charAt(pos))) {
+                            pos++;
+                        }
+                    } else if (pos + 1 < length && sql.charAt(pos + 1) == '*') {
+                        int end = sql.indexOf("*/", pos + 2);
+                        pos = (end == -1) ? length : end + 2;
+                    } else {
+                        pos++;
+                    }
+                    break;
+                case '-':
+                    if (pos + 1 < length && sql.charAt(pos + 1) == '-') {
+                        pos = skipLine(sql, pos);
+                    } else {
+                        pos++;
+                    }
+                    break;
+                case '#':
+                    pos = skipLine(sql, pos);
+                    break;
+                case '@':
+                    return false;
+                case ';':
+                    //multi-statement
+                    for (int i = pos + 1; i < length; i++) {
+                        if (!Character.isWhitespace(sql.charAt(i))) {
+                            return false;
+                        }
+                    }
+                    return !firstWord;
+                default:
+                    if (Character.isLetter(car) || car == '_') {
+                        int start = pos;
+                        while (pos < length && (Character.isLetterOrDigit(sql.charAt(pos)) || sql.charAt(pos) == '_')) {
+                            pos++;
+                        }
+                        String word = sql.substring(start, pos).toUpperCase();
+                        if (firstWord) {
+                            if (!"SELECT".equals(word)) {
+                                return false;
+                            }
+                            firstWord = false;
+                        } else if (MASTER_ONLY_WORDS.contains(word)) {
+                            return false;
+                        }
+                    } else if (firstWord && car != '(' && !Character.isWhitespace(car)) {
+                        return false;
+                    } else if (Character.isLetterOrDigit(car)) {
+                        //digits : skip whole token so that "1e10" isn't read as a word
+                        while (pos < length && (Character.isLetterOrDigit(sql.charAt(pos)) || sql.charAt(pos) == '_')) {
+                            pos++;
+                        }
+                    } else {
+                        pos++;
+                    }
+            }
+        }
+        return !firstWord;
+    }
+
+    /**
+     * Indicate if a client side prepared statement can be executed on a replica.
+     *
+     * @param queryParts query parts, separated by parameters
+     * @return true if statement is a plain SELECT
+     */
+    public static boolean isRoutableToReplica(List<String> queryParts) {
+        if (queryParts.size() == 1) {
+            return isRoutableToReplica(queryParts.get(0));
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String part : queryParts) {
+            sb.append(part).append('?');
+        }
+        return isRoutableToReplica(sb.toString());
+    }
+
+    /**
+     * Indicate how statement changes session state : only SET statements are considered (USE is tracked as database).
+     * SET statements with parameters, sub-queries, global variables or multiple statements cannot be replayed.
+     *
+     * @param sql statement
+     * @return session effect
+     */
+    public static SessionEffect getSessionEffect(String sql) {
+        if (sql == null) {
+            return SessionEffect.NONE;
+        }
+        int pos = skipBlanksAndComments(sql, 0);
+        if (!startsWithWord(sql, pos, "SET")) {
+            return SessionEffect.NONE;
+        }
+        int next = skipBlanksAndComments(sql, pos + 3);
+        int end = next;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        if (TRANSIENT_SET_WORDS.contains(sql.substring(next, end).toUpperCase(Locale.ROOT))) {
+            return SessionEffect.NONE;
+        }
+        String statement = sql.substring(pos);
+        if (AUTOCOMMIT_SET.matcher(statement).matches()) {
+            return SessionEffect.NONE;
+        }
+        String upper = statement.toUpperCase(Locale.ROOT);
+        if (upper.indexOf('?') != -1 || upper.contains("SELECT") || upper.contains("@@GLOBAL") || upper.contains("AUTOCOMMIT")
+                || hasMultipleStatements(statement)) {
+            return SessionEffect.UNKNOWN;
+        }
+        return SessionEffect.REPLAYABLE;
+    }
+
+    private static boolean startsWithWord(String sql, int pos, String word) {
+        int end = pos + word.length();
+        return sql.regionMatches(true, pos, word, 0, word.length())
+                && (end == sql.length() || !Character.isLetterOrDigit(sql.charAt(end)) && sql.charAt(end) != '_');
+    }
+
+    private static int skipBlanksAndComments(String sql, int pos) {
+        int length = sql.length();
+        while (pos < length) {
+            char car = sql.charAt(pos);
+            if (Character.isWhitespace(car)) {
+                pos++;
+            } else if (car == '#' || (car == '-' && pos + 1 < length && sql.charAt(pos + 1) == '-')) {
+                pos = skipLine(sql, pos);
+            } else if (car == '/' && pos + 2 < length && sql.charAt(pos + 1) == '*' && sql.charAt(pos + 2) == '!') {
+                //executable comment content is parsed
+                pos += 3;
+                while (pos < length && Character.isDigit(sql.charAt(pos))) {
+                    pos++;
+                }
+            } else if (car == '/' && pos + 1 < length && sql.charAt(pos + 1) == '*') {
+                int end = sql.indexOf("*/", pos + 2);
+                pos = (end == -1) ? length : end + 2;
+            } else {
+                return pos;
+            }
+        }
+        return pos;
+    }
+
+    private static boolean hasMultipleStatements(String sql) {
+        int length = sql.length();
+        int pos = 0;
+        while (pos < length) {
+            char car = sql.charAt(pos);
+            if (car == '\'' || car == '"' || car == '`') {
+                pos = skipQuoted(sql, pos, car);
+            } else if (car == ';') {
+                return skipBlanksAndComments(sql, pos + 1) < length;
+            } else {
+                pos++;
+            }
+        }
+        return false;
+    }
+
+    private static int skipQuoted(String sql, int pos, char quote) {
+        int length = sql.length();
+        pos++;
+        while (pos < length) {
+            char car = sql.charAt(pos);
+            if (car == '\\' && quote != '`') {
+                pos += 2;
+            } else if (car == quote) {
+                if (pos + 1 < length && sql.charAt(pos + 1) == quote) {
+                    pos += 2;
+                } else {
+                    return pos + 1;
+                }
+            } else {
+                pos++;
+            }
+        }
+        return length;
+    }
+
+    private static int skipLine(String sql, int pos) {
+        int end = sql.indexOf('\n', pos);
+        return (end == -1) ? sql.length() : end + 1;
+    }
+}
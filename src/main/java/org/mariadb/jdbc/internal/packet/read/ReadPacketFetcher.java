@@ -51,6 +51,7 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.read;
 
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
+import org.mariadb.jdbc.internal.util.metrics.ConnectionMetrics;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -62,11 +63,28 @@ public class ReadPacketFetcher {
     private byte[] headerBuffer = new byte[4];
     private byte[] reusableBuffer = new byte[AVOID_CREATE_BUFFER_LENGTH];
     private int lastPacketSeq;
+    private ConnectionMetrics metrics;
+    private long bytesReceived;
 
     public ReadPacketFetcher(final InputStream is) {
         this.inputStream = is;
     }
 
+    public void setMetrics(ConnectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    private void packetReceived(int bytes) {
+        bytesReceived += bytes;
+        if (metrics != null) {
+            metrics.packetReceived(bytes);
+        }
+    }
+
     /**
      * Get next packet length.
      *
@@ -82,7 +100,9 @@ public class ReadPacketFetcher {
             }
             read += count;
         } while (read < 4);
-        return (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+        int length = (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+        packetReceived(length + 4);
+        return length;
     }
 
     /**
@@ -104,6 +124,7 @@ public class ReadPacketFetcher {
         } while (remaining > 0);
         lastPacketSeq = headerBuffer[3];
         int length = (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+        packetReceived(length + 4);
         byte[] rawBytes = new byte[length];
 
         remaining = length;
@@ -173,6 +194,7 @@ public class ReadPacketFetcher {
         lastPacketSeq = headerBuffer[3];
 
         int length = (headerBuffer[0] & 0xff) + ((headerBuffer[1] & 0xff) << 8) + ((headerBuffer[2] & 0xff) << 16);
+        packetReceived(length + 4);
         byte[] rawBytes;
 
         if (length < ReadPacketFetcher.AVOID_CREATE_BUFFER_LENGTH) {
@@ -196,6 +218,96 @@ public class ReadPacketFetcher {
     }
 
 
+    /**
+     * Read a packet in shared array, without creating any object.
+     * Used when only the packet type is needed (answer to a ping for example).
+     *
+     * @return packet first byte
+     * @throws IOException if any
+     */
+    public byte readPacketFirstByte() throws IOException {
+        int remaining = getPacketLength();
+        lastPacketSeq = headerBuffer[3];
+        if (remaining == 0) {
+            throw new EOFException("unexpected empty packet");
+        }
+        byte firstByte = 0;
+        boolean first = true;
+        while (remaining > 0) {
+            int count = inputStream.read(reusableBuffer, 0, Math.min(remaining, reusableBuffer.length));
+            if (count < 0) {
+                throw new EOFException("unexpected end of stream, " + remaining + " bytes remaining");
+            }
+            if (first && count > 0) {
+                firstByte = reusableBuffer[0];
+                first = false;
+            }
+            remaining -= count;
+        }
+        return firstByte;
+    }
+
+    /**
+     * Read next packet of a result set, skipping row content without copy nor decoding.
+     * Rows bigger than 16M (split in multiple packets) are skipped entirely.
+     *
+     * @return buffer containing the packet if packet is an ERROR or EOF packet, null if a row has been skipped
+     * @throws IOException if any
+     */
+    public Buffer skipRowPacket() throws IOException {
+        int length = getPacketLength();
+        lastPacketSeq = headerBuffer[3];
+        if (length == 0) {
+            return null;
+        }
+        int firstByte = inputStream.read();
+        if (firstByte < 0) {
+            throw new EOFException("unexpected end of stream, read 0 bytes from " + length);
+        }
+        if (firstByte == 0xff || (firstByte == 0xfe && length < 9)) {
+            byte[] rawBytes = (length <= reusableBuffer.length) ? reusableBuffer : new byte[length];
+            rawBytes[0] = (byte) firstByte;
+            int reads = 1;
+            while (reads < length) {
+                int count = inputStream.read(rawBytes, reads, length - reads);
+                if (count < 0) {
+                    throw new EOFException("unexpected end of stream, read " + reads + " bytes from " + length);
+                }
+                reads += count;
+            }
+            return new Buffer(rawBytes, length);
+        }
+        skipFully(length - 1);
+        while (length == 0xffffff) {
+            length = getPacketLength();
+            lastPacketSeq = headerBuffer[3];
+            skipFully(length);
+        }
+        return null;
+    }
+
+    private void skipFully(int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int count = inputStream.read(reusableBuffer, 0, Math.min(remaining, reusableBuffer.length));
+            if (count < 0) {
+                throw new EOFException("unexpected end of stream, " + remaining + " bytes remaining");
+            }
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Number of bytes that can be read without blocking.
+     * When no command is running, any available byte is unexpected (server error packet before closing connection).
+     *
+     * @return number of available bytes
+     * @throws IOException if any
+     */
+    public int available() throws IOException {
+        return inputStream.available();
+    }
+
     public int getLastPacketSeq() {
         return lastPacketSeq;
     }
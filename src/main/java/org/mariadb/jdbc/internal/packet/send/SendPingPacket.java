@@ -56,6 +56,10 @@ import java.io.OutputStream;
 
 
 public class SendPingPacket implements InterfaceSendPacket {
+    /**
+     * Packet has no state, so a single instance can be shared.
+     */
+    public static final SendPingPacket INSTANCE = new SendPingPacket();
 
     /**
      * Send a Mysql protocol "ping" to check connection is alive.
@@ -65,7 +69,7 @@ public class SendPingPacket implements InterfaceSendPacket {
     public void send(final OutputStream os) throws IOException {
         PacketOutputStream pos = (PacketOutputStream) os;
         pos.startPacket(0);
-        pos.write(0x0e);
+        pos.writeByte((byte) 0x0e);
         pos.finishPacket();
     }
 }
\ No newline at end of file
@@ -53,10 +53,12 @@ OF SUCH DAMAGE.
 
 import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.MariaDbConnection;
+import org.mariadb.jdbc.QueryInterceptor;
 import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.MariaDbServerCapabilities;
 import org.mariadb.jdbc.internal.MyX509TrustManager;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
+import org.mariadb.jdbc.internal.failover.tools.HostScore;
 import org.mariadb.jdbc.internal.packet.read.Packet;
 import org.mariadb.jdbc.internal.packet.read.ReadInitialConnectPacket;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
@@ -73,12 +75,16 @@ import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.PrepareStatementCache;
+import org.mariadb.jdbc.internal.util.ServerDataCache;
 import org.mariadb.jdbc.internal.util.Utils;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
 import org.mariadb.jdbc.internal.util.constant.HaMode;
 import org.mariadb.jdbc.internal.util.constant.ParameterConstant;
 import org.mariadb.jdbc.internal.util.constant.ServerStatus;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.jfr.JfrEvent;
+import org.mariadb.jdbc.internal.util.metrics.ConnectionMetrics;
+import org.mariadb.jdbc.internal.util.metrics.DigestStatistics;
 
 import javax.net.ssl.*;
 import java.io.BufferedInputStream;
@@ -120,6 +126,19 @@ public abstract class AbstractConnectProtocol implements Protocol {
     protected long serverThreadId;
     protected PrepareStatementCache prepareStatementCache;
     protected boolean moreResults = false;
+    protected long lastExchangeNanos;
+    protected HostScore hostScore;
+    //null when metrics are disabled
+    protected ConnectionMetrics metrics;
+    protected QueryInterceptor queryInterceptor;
+    protected DigestStatistics digestStatistics;
+    // session state changes are sent by server in OK packets
+    protected boolean sessionTrack;
+    // GTID of session last transaction, reported in OK packets. null if server doesn't track "last_gtid"
+    protected String lastGtid;
+    private List<String> lastMostUsedPrepareStatements;
+    // connection only used to send administration commands : session isn't initialized after authentication
+    private boolean adminConnection;
 
     public boolean moreResultsTypeBinary = false;
     public boolean hasWarnings = false;
@@ -179,6 +198,9 @@ public abstract class AbstractConnectProtocol implements Protocol {
         if (lock != null) {
             lock.lock();
         }
+        if (connected && metrics != null) {
+            metrics.connectionClosed();
+        }
         this.connected = false;
         try {
             /* If a streaming result set is open, close it.*/
@@ -188,6 +210,10 @@ public abstract class AbstractConnectProtocol implements Protocol {
         }
         try {
             if (options.cachePrepStmts) {
+                if (options.warmupCachedStatements > 0 && !prepareStatementCache.isEmpty()) {
+                    //keep most used queries, so they can be prepared on the connection replacing this one
+                    lastMostUsedPrepareStatements = prepareStatementCache.mostRecentlyUsed(database, options.warmupCachedStatements);
+                }
                 prepareStatementCache.clear();
             }
             close(packetFetcher, writer, socket);
@@ -280,7 +306,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
     /**
      * InitializeSocketOption.
      */
-    private void initializeSocketOption() {
+    private static void initializeSocketOption(Socket socket, Options options) {
         try {
             if (options.tcpNoDelay) {
                 socket.setTcpNoDelay(options.tcpNoDelay);
@@ -315,7 +341,9 @@ public abstract class AbstractConnectProtocol implements Protocol {
             close();
         }
         try {
+            long startNanos = System.nanoTime();
             connect(currentHost.host, currentHost.port);
+            recordConnectTime(startNanos);
             return;
         } catch (IOException e) {
             throw new QueryException("Could not connect to " + currentHost + "." + e.getMessage(), -1,
@@ -330,25 +358,93 @@ public abstract class AbstractConnectProtocol implements Protocol {
      * @throws IOException : connection error (host/port not available)
      */
     private void connect(String host, int port) throws QueryException, IOException {
+        Object event = JfrEvent.CONNECT.begin();
+        Socket connectedSocket;
+        try {
+            connectedSocket = createConnectedSocket(urlParser, host, port);
+        } finally {
+            commitConnectEvent(event, "socket", 0, 0);
+        }
+        initializeConnection(connectedSocket);
+    }
 
-        socket = Utils.createSocket(urlParser, host);
-        initializeSocketOption();
+    private void commitConnectEvent(Object event, String phase, long initialBytesSent, long initialBytesReceived) {
+        if (event != null) {
+            JfrEvent.CONNECT.commit(event, currentHost.host + ":" + currentHost.port, phase, null,
+                    (writer == null) ? 0 : writer.getBytesSent() - initialBytesSent,
+                    (packetFetcher == null) ? 0 : packetFetcher.getBytesReceived() - initialBytesReceived);
+        }
+    }
 
-        // Bind the socket to a particular interface if the connection property
-        // localSocketAddress has been defined.
-        if (options.localSocketAddress != null) {
-            InetSocketAddress localAddress = new InetSocketAddress(options.localSocketAddress, 0);
-            socket.bind(localAddress);
+    /**
+     * Connect to currentHost, using a socket already connected to it.
+     *
+     * @param connectedSocket socket connected to currentHost
+     * @throws QueryException exception
+     */
+    public void connect(Socket connectedSocket) throws QueryException {
+        if (!isClosed()) {
+            close();
         }
+        try {
+            long startNanos = System.nanoTime();
+            initializeConnection(connectedSocket);
+            recordConnectTime(startNanos);
+        } catch (IOException e) {
+            throw new QueryException("Could not connect to " + currentHost + "." + e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        }
+    }
 
-        if (!socket.isConnected()) {
-            InetSocketAddress sockAddr = new InetSocketAddress(host, port);
-            if (options.connectTimeout != null) {
-                socket.connect(sockAddr, options.connectTimeout);
-            } else {
-                socket.connect(sockAddr);
+    private void recordConnectTime(long startNanos) {
+        if (options.latencyAwareSelection) {
+            hostScore = HostScore.get(currentHost);
+            hostScore.addConnectTime(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Create a socket, and connect it to host.
+     *
+     * @param urlParser connection URL infos
+     * @param host host
+     * @param port port
+     * @return connected socket
+     * @throws IOException if socket cannot be connected
+     */
+    public static Socket createConnectedSocket(UrlParser urlParser, String host, int port) throws IOException {
+        Options options = urlParser.getOptions();
+        Socket socket = Utils.createSocket(urlParser, host);
+        initializeSocketOption(socket, options);
+        try {
+            // Bind the socket to a particular interface if the connection property
+            // localSocketAddress has been defined.
+            if (options.localSocketAddress != null) {
+                InetSocketAddress localAddress = new InetSocketAddress(options.localSocketAddress, 0);
+                socket.bind(localAddress);
+            }
+
+            if (!socket.isConnected()) {
+                InetSocketAddress sockAddr = new InetSocketAddress(host, port);
+                if (options.connectTimeout != null) {
+                    socket.connect(sockAddr, options.connectTimeout);
+                } else {
+                    socket.connect(sockAddr);
+                }
             }
+        } catch (IOException ioException) {
+            try {
+                socket.close();
+            } catch (IOException closeException) {
+                //eat exception
+            }
+            throw ioException;
         }
+        return socket;
+    }
+
+    private void initializeConnection(Socket connectedSocket) throws QueryException, IOException {
+        socket = connectedSocket;
 
         // Extract socketTimeout URL parameter
         if (options.socketTimeout != null) {
@@ -362,7 +458,28 @@ public abstract class AbstractConnectProtocol implements Protocol {
             packetFetcher = new ReadPacketFetcher(new DecompressInputStream(socket.getInputStream()));
         }
         connected = true;
+        if (options.enableMetrics) {
+            metrics = ConnectionMetrics.get(currentHost, options.poolName);
+            metrics.connectionOpened();
+            writer.setMetrics(metrics);
+            packetFetcher.setMetrics(metrics);
+        }
+        if (adminConnection) {
+            lastExchangeNanos = System.nanoTime();
+            return;
+        }
+
+        Object event = JfrEvent.CONNECT.begin();
+        long initialBytesSent = writer.getBytesSent();
+        long initialBytesReceived = packetFetcher.getBytesReceived();
+        try {
+            bootstrap();
+        } finally {
+            commitConnectEvent(event, "bootstrap", initialBytesSent, initialBytesReceived);
+        }
+    }
 
+    private void bootstrap() throws QueryException, IOException {
         loadServerData();
         setSessionOptions();
         writer.setMaxAllowedPacket(Integer.parseInt(serverData.get("max_allowed_packet")));
@@ -375,6 +492,61 @@ public abstract class AbstractConnectProtocol implements Protocol {
         moreResults = false;
         hasWarnings = false;
         hostFailed = false;
+
+        //connection initialization queries are not intercepted
+        if (options.queryInterceptor != null) {
+            if (queryInterceptor == null) {
+                queryInterceptor = Utils.createQueryInterceptor(options.queryInterceptor);
+            }
+            writer.setRecordSendTime(true);
+        }
+        if (options.digestStatisticsSize > 0) {
+            digestStatistics = DigestStatistics.get((options.poolName != null) ? options.poolName : "default", options.digestStatisticsSize);
+        }
+
+        if (options.warmupStatements != null && options.cachePrepStmts && options.useServerPrepStmts) {
+            prepareWarmUp(parseWarmupStatements(options.warmupStatements));
+        }
+        lastExchangeNanos = System.nanoTime();
+    }
+
+    private static List<String> parseWarmupStatements(String warmupStatements) {
+        List<String> queries = new ArrayList<>();
+        for (String query : warmupStatements.split(";")) {
+            String trimmedQuery = query.trim();
+            if (!trimmedQuery.isEmpty()) {
+                queries.add(trimmedQuery);
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Get the queries of the most recently used prepared statements of this connection, or of the last closed connection of this
+     * protocol object.
+     *
+     * @param max maximum number of queries
+     * @return query list, most recent first
+     */
+    public List<String> getMostUsedPrepareStatements(int max) {
+        if (options.cachePrepStmts && !prepareStatementCache.isEmpty()) {
+            return prepareStatementCache.mostRecentlyUsed(database, max);
+        }
+        List<String> lastQueries = lastMostUsedPrepareStatements;
+        if (lastQueries == null) {
+            return Collections.emptyList();
+        }
+        return (lastQueries.size() > max) ? lastQueries.subList(0, max) : lastQueries;
+    }
+
+    /**
+     * Connection will only send administration commands (like KILL) : connection is authenticated, but server data isn't loaded
+     * and session isn't initialized, saving round trips.
+     *
+     * @param adminConnection is connection an administration connection
+     */
+    public void setAdminConnection(boolean adminConnection) {
+        this.adminConnection = adminConnection;
     }
 
     /**
@@ -402,14 +574,24 @@ public abstract class AbstractConnectProtocol implements Protocol {
                 }
             }
         }
+        // have last transaction GTID reported in OK packets, so read-your-writes doesn't need "SELECT @@last_gtid"
+        boolean trackGtid = sessionTrack && version.contains("MariaDB") && versionGreaterOrEqual(10, 3, 1);
+        if (trackGtid) {
+            sessionOption += ",session_track_system_variables=CONCAT_WS(',', NULLIF(@@session_track_system_variables, ''), 'last_gtid')";
+        }
         if (options.sessionVariables != null) {
             sessionOption += "," + options.sessionVariables;
         }
         executeQuery("set session " + sessionOption);
+        if (trackGtid) {
+            lastGtid = "";
+        }
     }
 
     private void handleConnectionPhases() throws QueryException {
         InputStream reader = null;
+        Object event = JfrEvent.CONNECT.begin();
+        String phase = "handshake";
         try {
             reader = new BufferedInputStream(socket.getInputStream(), 16384);
             packetFetcher = new ReadPacketFetcher(reader);
@@ -420,6 +602,11 @@ public abstract class AbstractConnectProtocol implements Protocol {
             this.version = greetingPacket.getServerVersion();
             parseVersion();
             int clientCapabilities = initializeClientCapabilities();
+            if (options.gtidWaitTimeout > 0
+                    && (greetingPacket.getServerCapabilities() & MariaDbServerCapabilities.CLIENT_SESSION_TRACK) != 0) {
+                clientCapabilities |= MariaDbServerCapabilities.CLIENT_SESSION_TRACK;
+                sessionTrack = true;
+            }
 
             byte packetSeq = 1;
             if (options.useSsl && (greetingPacket.getServerCapabilities() & MariaDbServerCapabilities.SSL) != 0) {
@@ -444,8 +631,20 @@ public abstract class AbstractConnectProtocol implements Protocol {
                 throw new QueryException("Trying to connect with ssl, but ssl not enabled in the server");
             }
 
-            authentication(greetingPacket.getServerLanguage(), clientCapabilities, greetingPacket.getSeed(), packetSeq,
-                    greetingPacket.getPluginName(), greetingPacket.getServerCapabilities());
+            if (event != null) {
+                commitConnectEvent(event, phase, 0, 0);
+                event = JfrEvent.CONNECT.begin();
+            }
+            phase = "authentication";
+            long initialBytesSent = writer.getBytesSent();
+            long initialBytesReceived = packetFetcher.getBytesReceived();
+            try {
+                authentication(greetingPacket.getServerLanguage(), clientCapabilities, greetingPacket.getSeed(), packetSeq,
+                        greetingPacket.getPluginName(), greetingPacket.getServerCapabilities());
+            } finally {
+                commitConnectEvent(event, phase, initialBytesSent, initialBytesReceived);
+                event = null;
+            }
 
         } catch (IOException e) {
             if (reader != null) {
@@ -457,6 +656,9 @@ public abstract class AbstractConnectProtocol implements Protocol {
             }
             throw new QueryException("Could not connect to " + currentHost.host + ":" + currentHost.port + ": " + e.getMessage(), -1,
                     ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        } finally {
+            //handshake failure
+            commitConnectEvent(event, phase, 0, 0);
         }
     }
 
@@ -589,6 +791,16 @@ public abstract class AbstractConnectProtocol implements Protocol {
     }
 
     private void loadServerData() throws QueryException, IOException {
+        String cacheKey = null;
+        if (options.serverDataCacheTtl > 0) {
+            cacheKey = ServerDataCache.key(currentHost.host, currentHost.port, username);
+            Map<String, String> cachedData = ServerDataCache.get(cacheKey, version, serverThreadId);
+            if (cachedData != null) {
+                serverData = cachedData;
+                return;
+            }
+        }
+
         serverData = new TreeMap<>();
         SingleExecutionResult qr = new SingleExecutionResult(null, 0, true, false);
         try {
@@ -602,6 +814,9 @@ public abstract class AbstractConnectProtocol implements Protocol {
             while (resultSet.next()) {
                 serverData.put(resultSet.getString(1), resultSet.getString(2));
             }
+            if (cacheKey != null) {
+                ServerDataCache.put(cacheKey, version, serverThreadId, serverData, options.serverDataCacheTtl);
+            }
         } catch (SQLException sqle) {
             throw new QueryException("could not load system variables", -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), sqle);
         }
@@ -878,6 +1093,19 @@ public abstract class AbstractConnectProtocol implements Protocol {
         return serverThreadId;
     }
 
+    /**
+     * GTID of this session last transaction, as reported by server session state tracking.
+     *
+     * @return last GTID, empty if no transaction has been written, or null if server doesn't report it
+     */
+    public String getLastGtid() {
+        return lastGtid;
+    }
+
+    public ConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
     public int getDataTypeMappingFlags() {
         return dataTypeMappingFlags;
     }
@@ -1,6 +1,8 @@
 package org.mariadb.jdbc.internal.protocol;
 
 import org.mariadb.jdbc.MariaDbConnection;
+import org.mariadb.jdbc.QueryInterceptor;
+import org.mariadb.jdbc.QueryTimings;
 import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.packet.result.*;
 import org.mariadb.jdbc.internal.packet.send.*;
@@ -9,7 +11,10 @@ import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
 import org.mariadb.jdbc.internal.stream.MaxAllowedPacketException;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.PrepareStatementCache;
+import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.dao.GtidWaitTimeoutException;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.jfr.JfrEvent;
 import org.mariadb.jdbc.internal.util.constant.ServerStatus;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
 import org.mariadb.jdbc.internal.packet.read.Packet;
@@ -29,7 +34,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /*
@@ -84,9 +93,26 @@ OF SUCH DAMAGE.
 
 public class AbstractQueryProtocol extends AbstractConnectProtocol implements Protocol {
 
+    private static final byte SESSION_TRACK_SYSTEM_VARIABLES = 0;
+    //warm-up responses are read after this number of prepares or of sql characters sent, so socket buffers cannot fill up
+    private static final int WARM_UP_WINDOW_QUERIES = 32;
+    private static final int WARM_UP_WINDOW_CHARS = 16 * 1024;
     private int transactionIsolationLevel = 0;
     private InputStream localInfileInputStream;
     private int maxRows;  /* max rows returned by a statement */
+    private long queryStartNanos;
+    //query interceptor timings
+    private QueryTimings queryTimings;
+    private long interceptStartNanos;
+    private long interceptStartBytesSent;
+    private long interceptStartBytesReceived;
+    private long sendEndNanos;
+    private long firstResponseNanos;
+    private String gtidWaitQuery;
+    //parts of last executed client side prepared statement, with their SQL and digest
+    private List<String> lastQueryParts;
+    private String lastQueryPartsSql;
+    private String lastQueryPartsDigest;
 
     /**
      * Get a protocol instance.
@@ -148,6 +174,23 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      */
     @Override
     public PrepareResult prepare(String sql, boolean forceNew, boolean executeOnMaster) throws QueryException {
+        if (!mustIntercept()) {
+            return internalPrepare(sql, forceNew, executeOnMaster);
+        }
+        String query = (queryInterceptor == null) ? sql : queryInterceptor.rewrite(QueryInterceptor.Command.PREPARE, sql);
+        Object event = interceptStart();
+        QueryException error = null;
+        try {
+            return internalPrepare(query, forceNew, executeOnMaster);
+        } catch (QueryException queryException) {
+            error = queryException;
+            throw queryException;
+        } finally {
+            interceptEnd(event, QueryInterceptor.Command.PREPARE, query, digest(event, query), null, error);
+        }
+    }
+
+    private PrepareResult internalPrepare(String sql, boolean forceNew, boolean executeOnMaster) throws QueryException {
         lock.lock();
         try {
 
@@ -162,52 +205,114 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                 key = new StringBuilder(database).append("-").append(sql).toString();
                 PrepareResult pr = prepareStatementCache.get(key);
                 if (pr != null && pr.incrementShareCounter()) {
+                    if (metrics != null) {
+                        metrics.prepareCacheHit();
+                    }
                     return pr;
                 }
+                if (metrics != null) {
+                    metrics.prepareCacheMiss();
+                }
             }
 
+            long startNanos = (metrics != null) ? System.nanoTime() : 0;
             writer.sendPreparePacket(sql);
+            PrepareResult prepareResult = readPrepareResult(sql, key, forceNew, executeOnMaster);
+            if (metrics != null) {
+                metrics.prepareLatency(System.nanoTime() - startNanos);
+            }
+            return prepareResult;
+        } catch (IOException e) {
+            throw new QueryException(e.getMessage(), -1,
+                    ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(),
+                    e);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            Buffer buffer = packetFetcher.getReusableBuffer();
-            byte firstByte = buffer.getByteAt(0);
+    // must have "lock" locked before invoking
+    private PrepareResult readPrepareResult(String sql, String key, boolean forceNew, boolean executeOnMaster) throws QueryException, IOException {
+        Buffer buffer = packetFetcher.getReusableBuffer();
+        lastExchangeNanos = System.nanoTime();
+        byte firstByte = buffer.getByteAt(0);
 
-            if (firstByte == Packet.ERROR) {
-                ErrorPacket ep = new ErrorPacket(buffer);
-                String message = ep.getMessage();
-                throw new QueryException("Error preparing query: " + message, ep.getErrorNumber(), ep.getSqlState());
-            }
+        if (firstByte == Packet.ERROR) {
+            ErrorPacket ep = new ErrorPacket(buffer);
+            String message = ep.getMessage();
+            throw new QueryException("Error preparing query: " + message, ep.getErrorNumber(), ep.getSqlState());
+        }
 
-            if (firstByte == Packet.OK) {
-                /* Prepared Statement OK */
-                buffer.readByte(); /* skip field count */
-                final int statementId = buffer.readInt();
-                final int numColumns = buffer.readShort() & 0xffff;
-                final int numParams = buffer.readShort() & 0xffff;
-                buffer.readByte(); // reserved
-                this.hasWarnings = buffer.readShort() > 0;
-                ColumnInformation[] params = new ColumnInformation[numParams];
-                if (numParams > 0) {
-                    for (int i = 0; i < numParams; i++) {
-                        params[i] = new ColumnInformation(packetFetcher.getPacket());
-                    }
-                    readEofPacket();
+        if (firstByte == Packet.OK) {
+            /* Prepared Statement OK */
+            buffer.readByte(); /* skip field count */
+            final int statementId = buffer.readInt();
+            final int numColumns = buffer.readShort() & 0xffff;
+            final int numParams = buffer.readShort() & 0xffff;
+            buffer.readByte(); // reserved
+            this.hasWarnings = buffer.readShort() > 0;
+            ColumnInformation[] params = new ColumnInformation[numParams];
+            if (numParams > 0) {
+                for (int i = 0; i < numParams; i++) {
+                    params[i] = new ColumnInformation(packetFetcher.getPacket());
                 }
-                ColumnInformation[] columns = new ColumnInformation[numColumns];
-                if (numColumns > 0) {
-                    for (int i = 0; i < numColumns; i++) {
-                        columns[i] = new ColumnInformation(packetFetcher.getPacket());
-                    }
-                    readEofPacket();
+                readEofPacket();
+            }
+            ColumnInformation[] columns = new ColumnInformation[numColumns];
+            if (numColumns > 0) {
+                for (int i = 0; i < numColumns; i++) {
+                    columns[i] = new ColumnInformation(packetFetcher.getPacket());
                 }
-                PrepareResult prepareResult = new PrepareResult(statementId, columns, params, this, executeOnMaster);
-                if (options.cachePrepStmts && sql != null && sql.length() < options.prepStmtCacheSqlLimit) {
-                    PrepareResult cachedPrepareResult = prepareStatementCache.put(key, prepareResult, forceNew);
-                    return cachedPrepareResult != null ? cachedPrepareResult : prepareResult;
+                readEofPacket();
+            }
+            PrepareResult prepareResult = new PrepareResult(statementId, columns, params, this, executeOnMaster);
+            if (options.cachePrepStmts && sql != null && sql.length() < options.prepStmtCacheSqlLimit) {
+                PrepareResult cachedPrepareResult = prepareStatementCache.put(key, prepareResult, forceNew);
+                return cachedPrepareResult != null ? cachedPrepareResult : prepareResult;
+            }
+            return prepareResult;
+        } else {
+            throw new QueryException("Unexpected packet returned by server, first byte " + firstByte);
+        }
+    }
+
+    /**
+     * Prepare queries in pipelined bursts, so they are in prepare cache when first executed:
+     * COM_STMT_PREPARE are sent by windows of bounded size, responses of a window being read before sending next one.
+     * Queries already in cache, or that cannot be cached, are skipped. A query the server cannot prepare is skipped as well.
+     *
+     * @param queries queries to prepare
+     * @throws QueryException if a connection error occur
+     */
+    @Override
+    public void prepareWarmUp(List<String> queries) throws QueryException {
+        if (!options.cachePrepStmts || queries.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            checkClose();
+            if (activeStreamingResult != null) {
+                return;
+            }
+            Set<String> seen = new HashSet<>();
+            List<String> keys = new ArrayList<>(Math.min(queries.size(), WARM_UP_WINDOW_QUERIES));
+            List<String> sent = new ArrayList<>(Math.min(queries.size(), WARM_UP_WINDOW_QUERIES));
+            int windowChars = 0;
+            for (String sql : queries) {
+                String key = new StringBuilder(database).append("-").append(sql).toString();
+                if (sql.length() < options.prepStmtCacheSqlLimit && !prepareStatementCache.containsKey(key) && seen.add(key)) {
+                    writer.sendPreparePacket(sql);
+                    keys.add(key);
+                    sent.add(sql);
+                    windowChars += sql.length();
+                    if (sent.size() >= WARM_UP_WINDOW_QUERIES || windowChars >= WARM_UP_WINDOW_CHARS) {
+                        readWarmUpResults(sent, keys);
+                        windowChars = 0;
+                    }
                 }
-                return prepareResult;
-            } else {
-                throw new QueryException("Unexpected packet returned by server, first byte " + firstByte);
             }
+            readWarmUpResults(sent, keys);
         } catch (IOException e) {
             throw new QueryException(e.getMessage(), -1,
                     ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(),
@@ -217,6 +322,26 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         }
     }
 
+    /**
+     * Read prepare responses of a warm-up window, then clear the window.
+     *
+     * @param sent queries sent
+     * @param keys cache keys of queries sent
+     * @throws IOException if a connection error occur
+     */
+    private void readWarmUpResults(List<String> sent, List<String> keys) throws IOException {
+        for (int i = 0; i < sent.size(); i++) {
+            try {
+                //no statement use this prepare yet : only the cache hold it
+                readPrepareResult(sent.get(i), keys.get(i), false, isMasterConnection()).decrementShareCounter();
+            } catch (QueryException queryException) {
+                //query cannot be prepared, continue with next responses
+            }
+        }
+        sent.clear();
+        keys.clear();
+    }
+
     @Override
     public boolean getAutocommit() {
         lock.lock();
@@ -288,11 +413,17 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         lock.lock();
         try {
             checkClose();
-            final SendPingPacket pingPacket = new SendPingPacket();
             try {
-                pingPacket.send(writer);
-                Buffer buffer = packetFetcher.getReusableBuffer();
-                return buffer.getByteAt(0) == Packet.OK;
+                long startNanos = System.nanoTime();
+                SendPingPacket.INSTANCE.send(writer);
+                if (packetFetcher.readPacketFirstByte() == Packet.OK) {
+                    lastExchangeNanos = System.nanoTime();
+                    if (hostScore != null) {
+                        hostScore.addPingTime(lastExchangeNanos - startNanos);
+                    }
+                    return true;
+                }
+                return false;
             } catch (IOException e) {
                 throw new QueryException("Could not ping: " + e.getMessage(), -1,
                         ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
@@ -302,6 +433,27 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         }
     }
 
+    /**
+     * Indicate if connection can be considered valid without sending a ping: a successful exchange with server occurred less than
+     * elisionTime milliseconds ago, and no unexpected data (like an error packet sent by server before closing connection) is waiting
+     * on socket.
+     *
+     * @param elisionTime time in milliseconds
+     * @return true if connection is considered valid without ping
+     */
+    @Override
+    public boolean isValidWithoutPing(int elisionTime) {
+        if (!connected || activeStreamingResult != null || socket == null
+                || System.nanoTime() - lastExchangeNanos > TimeUnit.MILLISECONDS.toNanos(elisionTime)) {
+            return false;
+        }
+        try {
+            return !socket.isClosed() && !socket.isInputShutdown() && packetFetcher.available() == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private void sendLocalFile(ExecutionResult executionResult, String fileName) throws IOException, QueryException {
         // Server request the local file (LOCAL DATA LOCAL INFILE)
         // We do accept general URLs, too. If the localInfileStream is
@@ -342,7 +494,8 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     public void executePreparedQueryAfterFailover(PrepareResult oldPrepareResult, ExecutionResult executionResult, String sql,
                                                   ParameterHolder[] parameters, MariaDbType[] parameterTypeHeader, int resultSetScrollType)
             throws QueryException {
-        PrepareResult prepareResult = prepare(sql, true, oldPrepareResult.isExecuteOnMaster());
+        //a prepare done on this connection, like a warm-up one, can be used
+        PrepareResult prepareResult = prepare(sql, false, oldPrepareResult.isExecuteOnMaster());
         //reset header status
         for (int i = 0; i < parameterTypeHeader.length; i++) {
             parameterTypeHeader[i] = null;
@@ -354,9 +507,29 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     @Override
     public void executePreparedQuery(PrepareResult prepareResult, ExecutionResult executionResult, String sql, ParameterHolder[] parameters,
                                                     MariaDbType[] parameterTypeHeader, int resultSetScrollType) throws QueryException {
+        if (!mustIntercept()) {
+            internalExecutePreparedQuery(prepareResult, executionResult, sql, parameters, parameterTypeHeader, resultSetScrollType);
+            return;
+        }
+        Object event = interceptStart();
+        QueryException error = null;
+        try {
+            internalExecutePreparedQuery(prepareResult, executionResult, sql, parameters, parameterTypeHeader, resultSetScrollType);
+        } catch (QueryException queryException) {
+            error = queryException;
+            throw queryException;
+        } finally {
+            interceptEnd(event, QueryInterceptor.Command.EXECUTE_PREPARED, sql, digest(event, prepareResult, sql), executionResult, error);
+        }
+    }
+
+    private void internalExecutePreparedQuery(PrepareResult prepareResult, ExecutionResult executionResult, String sql,
+                                              ParameterHolder[] parameters, MariaDbType[] parameterTypeHeader, int resultSetScrollType)
+            throws QueryException {
         checkClose();
         this.moreResults = false;
         try {
+            boolean gtidWait = sendGtidWait();
             int parameterCount = parameters.length;
             //send binary data in a separate stream
             for (int i = 0; i < parameterCount; i++) {
@@ -374,6 +547,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             SendExecutePrepareStatementPacket packet = new SendExecutePrepareStatementPacket(prepareResult.getStatementId(), parameters,
                     parameterCount, parameterTypeHeader);
             packet.send(writer);
+            if (gtidWait) {
+                readGtidWait(resultSetScrollType, true);
+            }
             getResult(executionResult, resultSetScrollType, true);
 
         } catch (QueryException qex) {
@@ -443,19 +619,15 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     }
 
     /**
-     * Cancels the current query - clones the current protocol and executes a query using the new connection.
+     * Cancels the current query - executes a KILL QUERY using the cached administration connection of the host.
      *
      * @throws QueryException never thrown
      * @throws IOException    if Host is not responding
      */
     @Override
     public void cancelCurrentQuery() throws QueryException, IOException {
-        MasterProtocol copiedProtocol = new MasterProtocol(urlParser, new ReentrantLock());
-        copiedProtocol.setHostAddress(getHostAddress());
-        copiedProtocol.connect();
-        //no lock, because there is already a query running that possessed the lock.
-        copiedProtocol.executeQuery("KILL QUERY " + serverThreadId);
-        copiedProtocol.close();
+        //KILL is sent on the cached administration connection of the host
+        AdminConnectionPool.killQuery(urlParser, getHostAddress(), serverThreadId);
     }
 
     @Override
@@ -585,6 +757,138 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         return prepareStatementCache;
     }
 
+    /**
+     * Set a GTID position that server must have reached before executing next statement (executeQuery, client or server
+     * side prepared statement).
+     * A "MASTER_GTID_WAIT" command is sent just before next statement without waiting for its result, so this cost no additional
+     * round trip. If position isn't reached before timeout, statement result is discarded and a GtidWaitTimeoutException
+     * is thrown.
+     *
+     * @param gtid          GTID position, like "0-1-100"
+     * @param timeoutMillis maximum waiting time in milliseconds
+     */
+    @Override
+    public void setGtidWait(String gtid, int timeoutMillis) {
+        for (int i = 0; i < gtid.length(); i++) {
+            char car = gtid.charAt(i);
+            if ((car < '0' || car > '9') && car != '-' && car != ',' && car != ' ') {
+                throw new IllegalArgumentException("wrong GTID position format : " + gtid);
+            }
+        }
+        gtidWaitQuery = "SELECT MASTER_GTID_WAIT('" + gtid + "', " + (timeoutMillis / 1000) + "."
+                + String.format("%03d", timeoutMillis % 1000) + ")";
+    }
+
+    /**
+     * Read session state changes of an OK packet, keeping "last_gtid" system variable value.
+     *
+     * @param buffer OK packet, positioned after warning count
+     */
+    private void readSessionStateChanges(Buffer buffer) {
+        buffer.skipLengthEncodedBytes(); //info
+        int end = (int) buffer.getLengthEncodedBinary() + buffer.position;
+        while (buffer.position < end) {
+            byte type = buffer.readByte();
+            int dataEnd = (int) buffer.getLengthEncodedBinary() + buffer.position;
+            if (type == SESSION_TRACK_SYSTEM_VARIABLES) {
+                byte[] name = buffer.getLengthEncodedBytesWithLength(buffer.getLengthEncodedBinary());
+                if ("last_gtid".equals(new String(name, StandardCharsets.UTF_8))) {
+                    lastGtid = new String(buffer.getLengthEncodedBytesWithLength(buffer.getLengthEncodedBinary()), StandardCharsets.UTF_8);
+                }
+            }
+            buffer.position = dataEnd;
+        }
+    }
+
+    /**
+     * Send pending GTID wait command, if any.
+     *
+     * @return true if a command has been sent, and its result must be read using {@link #readGtidWait(int, boolean)}
+     * @throws IOException    if any socket error occur
+     * @throws QueryException if command is bigger than max_allowed_packet
+     */
+    private boolean sendGtidWait() throws IOException, QueryException {
+        if (gtidWaitQuery == null) {
+            return false;
+        }
+        String query = gtidWaitQuery;
+        gtidWaitQuery = null;
+        writer.sendTextPacket(query);
+        return true;
+    }
+
+    /**
+     * Read GTID wait result. MASTER_GTID_WAIT returns 0 when position has been reached, -1 on timeout, and NULL on error.
+     * If position hasn't been reached, read and discard result of following statement.
+     *
+     * @param resultSetScrollType following statement result type
+     * @param binaryProtocol      following statement use binary protocol
+     * @throws GtidWaitTimeoutException if position hasn't been reached, so statement must be executed on master
+     * @throws QueryException if any connection error occur
+     */
+    private void readGtidWait(int resultSetScrollType, boolean binaryProtocol) throws QueryException {
+        String waitResult = readGtidWaitResult();
+        if (!"0".equals(waitResult)) {
+            try {
+                getResult(new SingleExecutionResult(null, 0, true, false), resultSetScrollType, binaryProtocol);
+            } catch (QueryException queryException) {
+                if (queryException.getSqlState() != null && queryException.getSqlState().startsWith("08")) {
+                    throw queryException;
+                }
+            }
+            throw gtidWaitTimeout(waitResult);
+        }
+    }
+
+    /**
+     * Wait for pending GTID position, if any, without a following statement.
+     *
+     * @throws GtidWaitTimeoutException if position hasn't been reached
+     * @throws QueryException if any connection error occur
+     */
+    private void waitGtid() throws QueryException {
+        try {
+            if (sendGtidWait()) {
+                String waitResult = readGtidWaitResult();
+                if (!"0".equals(waitResult)) {
+                    throw gtidWaitTimeout(waitResult);
+                }
+            }
+        } catch (IOException e) {
+            throw new QueryException("Could not send query: " + e.getMessage(), -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
+        }
+    }
+
+    /**
+     * Read MASTER_GTID_WAIT result.
+     *
+     * @return result : "0" if position has been reached, "-1" on timeout, null on error
+     * @throws QueryException if any connection error occur
+     */
+    private String readGtidWaitResult() throws QueryException {
+        try {
+            SingleExecutionResult waitExecution = new SingleExecutionResult(null, 0, true, false);
+            getResult(waitExecution, ResultSet.TYPE_FORWARD_ONLY, false);
+            MariaSelectResultSet queryResult = waitExecution.getResult();
+            if (queryResult != null && queryResult.next()) {
+                return queryResult.getString(1);
+            }
+        } catch (QueryException queryException) {
+            if (queryException.getSqlState() != null && queryException.getSqlState().startsWith("08")) {
+                throw queryException;
+            }
+        } catch (SQLException sqle) {
+            //position considered not reached
+        }
+        return null;
+    }
+
+    private GtidWaitTimeoutException gtidWaitTimeout(String waitResult) {
+        return new GtidWaitTimeoutException("Server " + getHostAddress() + " hasn't reached GTID position "
+                + ("-1".equals(waitResult) ? "before timeout" : "(wait result: " + waitResult + ")"), -1,
+                ExceptionMapper.SqlStates.TIMEOUT_EXCEPTION.getSqlState());
+    }
+
     public void executeQuery(final String sql) throws QueryException {
         executeQuery(new SingleExecutionResult(null, 0, false, false), sql, ResultSet.TYPE_FORWARD_ONLY);
     }
@@ -598,9 +902,44 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      */
     @Override
     public void executeQuery(ExecutionResult executionResult, final String sql, int resultSetScrollType) throws QueryException {
+        if (!mustIntercept()) {
+            executeTextQuery(executionResult, sql, resultSetScrollType);
+            return;
+        }
+        String query = (queryInterceptor == null) ? sql : queryInterceptor.rewrite(QueryInterceptor.Command.QUERY, sql);
+        QueryInterceptor.CachedResult cachedResult = (queryInterceptor == null) ? null : queryInterceptor.cachedResult(query);
+        if (cachedResult != null) {
+            //cached result is given like a server result : connection must be open, and have reached GTID position
+            checkClose();
+            waitGtid();
+            String[] columnNames = cachedResult.getColumnNames();
+            MariaDbType[] columnTypes = new MariaDbType[columnNames.length];
+            Arrays.fill(columnTypes, MariaDbType.VARCHAR);
+            this.moreResults = false;
+            executionResult.addResult((MariaSelectResultSet) MariaSelectResultSet.createResultSet(columnNames, columnTypes,
+                    cachedResult.getRows(), this), false);
+            return;
+        }
+        Object event = interceptStart();
+        QueryException error = null;
+        try {
+            executeTextQuery(executionResult, query, resultSetScrollType);
+        } catch (QueryException queryException) {
+            error = queryException;
+            throw queryException;
+        } finally {
+            interceptEnd(event, QueryInterceptor.Command.QUERY, query, digest(event, query), executionResult, error);
+        }
+    }
+
+    private void executeTextQuery(ExecutionResult executionResult, final String sql, int resultSetScrollType) throws QueryException {
         checkClose();
         try {
+            boolean gtidWait = sendGtidWait();
             writer.sendTextPacket(sql);
+            if (gtidWait) {
+                readGtidWait(resultSetScrollType, false);
+            }
             getResult(executionResult, resultSetScrollType, false);
         } catch (QueryException queryException) {
             if (getOptions().dumpQueriesOnException || queryException.getErrorCode() == 1064) {
@@ -626,6 +965,25 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      */
     public void executeQueries(ExecutionResult executionResult, List<String> queries, int resultSetScrollType)
             throws QueryException {
+        if (!mustIntercept()) {
+            internalExecuteQueries(executionResult, queries, resultSetScrollType);
+            return;
+        }
+        String sql = queries.isEmpty() ? null : queries.get(0);
+        Object event = interceptStart();
+        QueryException error = null;
+        try {
+            internalExecuteQueries(executionResult, queries, resultSetScrollType);
+        } catch (QueryException queryException) {
+            error = queryException;
+            throw queryException;
+        } finally {
+            interceptEnd(event, QueryInterceptor.Command.BATCH, sql, digest(event, sql), executionResult, error);
+        }
+    }
+
+    private void internalExecuteQueries(ExecutionResult executionResult, List<String> queries, int resultSetScrollType)
+            throws QueryException {
         checkClose();
         int counter = 0;
         int size = queries.size();
@@ -671,6 +1029,38 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
      */
     public void executeQueries(ExecutionResult executionResult, final List<String> queryParts, List<ParameterHolder[]> parameterList,
                                int resultSetScrollType, boolean isRewritable) throws QueryException {
+        if (!mustIntercept()) {
+            internalExecuteQueries(executionResult, queryParts, parameterList, resultSetScrollType, isRewritable);
+            return;
+        }
+        //query with parameter placeholders, built once for a client side prepared statement
+        if (queryParts != lastQueryParts) {
+            StringBuilder sql = new StringBuilder(queryParts.get(0)).append(queryParts.get(1));
+            for (int i = 2; i < queryParts.size(); i++) {
+                sql.append(i < queryParts.size() - 1 ? "?" : "").append(queryParts.get(i));
+            }
+            lastQueryParts = queryParts;
+            lastQueryPartsSql = sql.toString();
+            lastQueryPartsDigest = null;
+        }
+        String sql = lastQueryPartsSql;
+        Object event = interceptStart();
+        QueryException error = null;
+        try {
+            internalExecuteQueries(executionResult, queryParts, parameterList, resultSetScrollType, isRewritable);
+        } catch (QueryException queryException) {
+            error = queryException;
+            throw queryException;
+        } finally {
+            if (lastQueryPartsDigest == null) {
+                lastQueryPartsDigest = digest(event, sql);
+            }
+            interceptEnd(event, QueryInterceptor.Command.BATCH, sql, lastQueryPartsDigest, executionResult, error);
+        }
+    }
+
+    private void internalExecuteQueries(ExecutionResult executionResult, final List<String> queryParts, List<ParameterHolder[]> parameterList,
+                                        int resultSetScrollType, boolean isRewritable) throws QueryException {
         checkClose();
         ParameterHolder[] parameters = null;
         int paramCount = queryParts.size() - 3;
@@ -695,6 +1085,7 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             }
 
             this.moreResults = false;
+            boolean gtidWait = sendGtidWait();
 
             do {
                 parameters = parameterList.get(currentIndex++);
@@ -772,6 +1163,10 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                 }
 
                 writer.finishPacket();
+                if (gtidWait) {
+                    gtidWait = false;
+                    readGtidWait(resultSetScrollType, false);
+                }
                 getResult(executionResult, resultSetScrollType, false);
             } while (currentIndex < totalParameterList);
 
@@ -813,6 +1208,25 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     public void executeQueriesRewrite(ExecutionResult executionResult, List<String> queries, int resultSetScrollType, boolean isRewritable,
                                       int rewriteOffset)
             throws QueryException {
+        if (!mustIntercept()) {
+            internalExecuteQueriesRewrite(executionResult, queries, resultSetScrollType, isRewritable, rewriteOffset);
+            return;
+        }
+        String sql = queries.isEmpty() ? null : queries.get(0);
+        Object event = interceptStart();
+        QueryException error = null;
+        try {
+            internalExecuteQueriesRewrite(executionResult, queries, resultSetScrollType, isRewritable, rewriteOffset);
+        } catch (QueryException queryException) {
+            error = queryException;
+            throw queryException;
+        } finally {
+            interceptEnd(event, QueryInterceptor.Command.BATCH, sql, digest(event, sql), executionResult, error);
+        }
+    }
+
+    private void internalExecuteQueriesRewrite(ExecutionResult executionResult, List<String> queries, int resultSetScrollType,
+                                               boolean isRewritable, int rewriteOffset) throws QueryException {
         this.moreResults = false;
         String firstSql = null;
         int currentIndex = 0;
@@ -908,6 +1322,20 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             throw new QueryException("Could not read resultset: " + e.getMessage(), -1,
                     ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), e);
         }
+        lastExchangeNanos = System.nanoTime();
+        if (queryInterceptor != null && firstResponseNanos == 0) {
+            firstResponseNanos = lastExchangeNanos;
+            sendEndNanos = writer.getLastSendNanos();
+        }
+        if (queryStartNanos != 0) {
+            if (hostScore != null) {
+                hostScore.addQueryTime(lastExchangeNanos - queryStartNanos);
+            }
+            if (metrics != null) {
+                metrics.queryLatency(lastExchangeNanos - queryStartNanos);
+            }
+            queryStartNanos = 0;
+        }
         switch (buffer.getByteAt(0)) {
             case Packet.OK:
                 //OK packet
@@ -917,6 +1345,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
                 serverStatus = buffer.readShort();
                 this.hasWarnings = (buffer.readShort() > 0);
                 this.moreResults = ((serverStatus & ServerStatus.MORE_RESULTS_EXISTS) != 0);
+                if (sessionTrack && (serverStatus & ServerStatus.SESSION_STATE_CHANGED) != 0) {
+                    readSessionStateChanges(buffer);
+                }
                 executionResult.addStats(affectedRows, insertId, hasMoreResults());
                 break;
             case Packet.ERROR:
@@ -1001,6 +1432,94 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     }
 
+    /**
+     * Must command be timed, for query interceptor, digest statistics or flight recorder.
+     */
+    private boolean mustIntercept() {
+        return queryInterceptor != null || digestStatistics != null || JfrEvent.EXECUTE.isEnabled();
+    }
+
+    private Object interceptStart() {
+        interceptStartNanos = System.nanoTime();
+        interceptStartBytesSent = writer.getBytesSent();
+        interceptStartBytesReceived = packetFetcher.getBytesReceived();
+        firstResponseNanos = 0;
+        return JfrEvent.EXECUTE.begin();
+    }
+
+    /**
+     * SQL digest, for flight recorder event and digest statistics.
+     *
+     * @param event flight recorder event
+     * @param sql   command SQL
+     * @return digest, or null if not needed
+     */
+    private String digest(Object event, String sql) {
+        if ((event == null && digestStatistics == null) || sql == null) {
+            return null;
+        }
+        return Utils.digest(sql, noBackslashEscapes());
+    }
+
+    /**
+     * SQL digest of a server side prepared statement, computed on first execution and kept in prepare result.
+     *
+     * @param event         flight recorder event
+     * @param prepareResult prepare result
+     * @param sql           prepared statement SQL
+     * @return digest, or null if not needed
+     */
+    private String digest(Object event, PrepareResult prepareResult, String sql) {
+        if ((event == null && digestStatistics == null) || sql == null) {
+            return null;
+        }
+        String digest = prepareResult.getDigest();
+        if (digest == null) {
+            digest = Utils.digest(sql, noBackslashEscapes());
+            prepareResult.setDigest(digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Commit flight recorder execute event, record digest statistics, and give command timings to query interceptor.
+     * Send time ends when last packet before first response has been sent.
+     */
+    private void interceptEnd(Object event, QueryInterceptor.Command command, String sql, String digest, ExecutionResult executionResult,
+                              QueryException error) {
+        long endNanos = System.nanoTime();
+        long sendNanos = endNanos - interceptStartNanos;
+        long serverWaitNanos = 0;
+        long decodeNanos = 0;
+        if (firstResponseNanos != 0) {
+            long sendEnd = Math.max(interceptStartNanos, Math.min(sendEndNanos, firstResponseNanos));
+            sendNanos = sendEnd - interceptStartNanos;
+            serverWaitNanos = firstResponseNanos - sendEnd;
+            decodeNanos = endNanos - firstResponseNanos;
+        }
+        long bytesSent = (writer == null) ? 0 : writer.getBytesSent() - interceptStartBytesSent;
+        long bytesReceived = (packetFetcher == null) ? 0 : packetFetcher.getBytesReceived() - interceptStartBytesReceived;
+        long rows = (executionResult != null && executionResult.getResult() != null) ? executionResult.getResult().getRowsRead() : 0;
+        if (event != null) {
+            JfrEvent.EXECUTE.commit(event, currentHost.host + ":" + currentHost.port, command.name(), digest, bytesSent, bytesReceived);
+        }
+        if (digestStatistics != null && digest != null) {
+            digestStatistics.record(digest, endNanos - interceptStartNanos, rows, bytesSent, bytesReceived, error != null);
+        }
+        if (queryInterceptor == null) {
+            return;
+        }
+        if (queryTimings == null) {
+            queryTimings = new QueryTimings();
+        }
+        queryTimings.set(command, sql, sendNanos, serverWaitNanos, decodeNanos, rows, bytesSent, bytesReceived, error);
+        try {
+            queryInterceptor.afterExecution(queryTimings);
+        } catch (RuntimeException exception) {
+            //interceptor error must not change command result
+        }
+    }
+
     public void prologProxy(PrepareResult prepareResult, ExecutionResult executionResult, int maxRows, boolean hasProxy,
                             MariaDbConnection connection, Statement statement) throws SQLException {
         prolog(executionResult, maxRows, hasProxy, connection, statement);
@@ -1040,6 +1559,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         } catch (QueryException qe) {
             ExceptionMapper.throwException(qe, connection, statement);
         }
+        if (hostScore != null || metrics != null) {
+            queryStartNanos = System.nanoTime();
+        }
 
         connection.reenableWarnings();
     }
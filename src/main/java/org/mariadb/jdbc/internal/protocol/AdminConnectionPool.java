@@ -0,0 +1,302 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.protocol;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.util.dao.HostConnectionKey;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Administration connections used to kill running queries (statement cancellation and query timeout).
+ * <p>
+ * Instead of creating a new connection for each KILL, each host and connection settings (credentials, SSL and other options) has a
+ * single cached connection, authenticated without session initialization. Concurrent kills for the same host are coalesced :
+ * the first caller sends all pending KILL commands on the cached connection (once per server thread), the others wait for their
+ * result.
+ * Cached connections that aren't used for {@link #IDLE_TIMEOUT_SECONDS} seconds are closed, and removed from cache.
+ * </p>
+ */
+public class AdminConnectionPool {
+    public static final int IDLE_TIMEOUT_SECONDS = 60;
+    private static final long WAIT_MILLIS = 10;
+    private static final ConcurrentMap<HostConnectionKey, AdminConnectionPool> pools = new ConcurrentHashMap<>();
+    private static final AtomicBoolean cleanerStarted = new AtomicBoolean();
+
+    private final UrlParser urlParser;
+    private final HostAddress hostAddress;
+    private final ConcurrentLinkedQueue<KillRequest> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    // only used by sending thread
+    private MasterProtocol protocol;
+    // pool has been removed from cache : requests must be sent using a new pool. Only used by sending thread
+    private boolean retired;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    private AdminConnectionPool(UrlParser urlParser, HostAddress hostAddress) {
+        this.urlParser = urlParser;
+        this.hostAddress = hostAddress;
+    }
+
+    /**
+     * Kill query running on a server thread.
+     *
+     * @param urlParser   connection configuration
+     * @param hostAddress host of the connection
+     * @param threadId    server thread id of the connection
+     * @throws QueryException if KILL command fail
+     */
+    public static void killQuery(UrlParser urlParser, HostAddress hostAddress, long threadId) throws QueryException {
+        HostConnectionKey key = new HostConnectionKey(hostAddress, urlParser);
+        while (true) {
+            AdminConnectionPool pool = pools.get(key);
+            if (pool == null) {
+                pool = new AdminConnectionPool(urlParser, hostAddress);
+                AdminConnectionPool existing = pools.putIfAbsent(key, pool);
+                if (existing != null) {
+                    pool = existing;
+                } else if (cleanerStarted.compareAndSet(false, true)) {
+                    startCleaner();
+                }
+            }
+            if (pool.kill(threadId)) {
+                return;
+            }
+            pools.remove(key, pool);
+        }
+    }
+
+    private static void startCleaner() {
+        ScheduledExecutorService cleaner = SchedulerServiceProviderHolder.getFixedSizeScheduler(1);
+        cleaner.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                for (Map.Entry<HostConnectionKey, AdminConnectionPool> entry : pools.entrySet()) {
+                    if (entry.getValue().retireIfIdle()) {
+                        pools.remove(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }, IDLE_TIMEOUT_SECONDS, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Kill query running on a server thread, using this pool connection.
+     *
+     * @param threadId server thread id
+     * @return false if pool has been retired before sending KILL : a new pool must be used
+     * @throws QueryException if KILL command fail
+     */
+    private boolean kill(long threadId) throws QueryException {
+        KillRequest request = new KillRequest(threadId);
+        requests.add(request);
+        while (!request.isDone()) {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    if (retired) {
+                        retireRequests();
+                    } else {
+                        sendRequests();
+                    }
+                } finally {
+                    sending.set(false);
+                }
+            } else {
+                request.await(WAIT_MILLIS);
+            }
+        }
+        if (request.exception != null) {
+            throw request.exception;
+        }
+        return !request.retired;
+    }
+
+    /**
+     * Give back pending requests of a retired pool to their callers. Only called by the sending thread.
+     */
+    private void retireRequests() {
+        KillRequest request;
+        while ((request = requests.poll()) != null) {
+            request.retire();
+        }
+    }
+
+    /**
+     * Send all pending KILL commands, one per server thread. Only called by the sending thread.
+     */
+    private void sendRequests() {
+        List<KillRequest> batch = new ArrayList<>();
+        KillRequest request;
+        while ((request = requests.poll()) != null) {
+            batch.add(request);
+        }
+        while (!batch.isEmpty()) {
+            KillRequest first = batch.get(0);
+            QueryException exception = null;
+            try {
+                sendKill(first.threadId);
+            } catch (QueryException queryException) {
+                exception = queryException;
+            }
+            Iterator<KillRequest> iterator = batch.iterator();
+            while (iterator.hasNext()) {
+                KillRequest killRequest = iterator.next();
+                if (killRequest.threadId == first.threadId) {
+                    killRequest.complete(exception);
+                    iterator.remove();
+                }
+            }
+        }
+        lastUsedNanos = System.nanoTime();
+    }
+
+    private void sendKill(long threadId) throws QueryException {
+        boolean reused = protocol != null;
+        while (true) {
+            if (protocol == null) {
+                MasterProtocol newProtocol = new MasterProtocol(urlParser, new ReentrantLock());
+                newProtocol.setHostAddress(hostAddress);
+                newProtocol.setAdminConnection(true);
+                newProtocol.connect();
+                protocol = newProtocol;
+            }
+            try {
+                //no lock, because there is already a query running that possessed the lock.
+                protocol.executeQuery("KILL QUERY " + threadId);
+                return;
+            } catch (QueryException queryException) {
+                if (queryException.getSqlState() == null || !queryException.getSqlState().startsWith("08")) {
+                    throw queryException;
+                }
+                protocol.close();
+                protocol = null;
+                if (!reused) {
+                    throw queryException;
+                }
+                //cached connection may have been closed by server : retry once with a new connection
+                reused = false;
+            }
+        }
+    }
+
+    /**
+     * Close connection if not used since {@link #IDLE_TIMEOUT_SECONDS} seconds. Pool is then retired, and must be removed from
+     * cache : requests added concurrently are given back to their callers.
+     *
+     * @return true if pool has been retired
+     */
+    private boolean retireIfIdle() {
+        if (System.nanoTime() - lastUsedNanos > TimeUnit.SECONDS.toNanos(IDLE_TIMEOUT_SECONDS)
+                && sending.compareAndSet(false, true)) {
+            try {
+                if (requests.isEmpty()) {
+                    if (protocol != null) {
+                        protocol.close();
+                        protocol = null;
+                    }
+                    retired = true;
+                }
+            } finally {
+                sending.set(false);
+            }
+        }
+        return retired;
+    }
+
+    private static class KillRequest {
+        private final long threadId;
+        private volatile boolean done;
+        private QueryException exception;
+        private boolean retired;
+
+        KillRequest(long threadId) {
+            this.threadId = threadId;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        synchronized void complete(QueryException queryException) {
+            exception = queryException;
+            done = true;
+            notifyAll();
+        }
+
+        synchronized void retire() {
+            retired = true;
+            done = true;
+            notifyAll();
+        }
+
+        synchronized void await(long millis) {
+            if (!done) {
+                try {
+                    wait(millis);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
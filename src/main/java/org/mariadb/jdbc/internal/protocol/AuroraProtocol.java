@@ -53,6 +53,7 @@ import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.failover.impl.AuroraListener;
+import org.mariadb.jdbc.internal.failover.tools.ConnectionRace;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 import org.mariadb.jdbc.internal.queryresults.SingleExecutionResult;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
@@ -116,71 +117,75 @@ public class AuroraProtocol extends MastersSlavesProtocol {
             throws QueryException {
 
         AuroraProtocol protocol;
-        ArrayDeque<HostAddress> loopAddresses = new ArrayDeque<>((!addresses.isEmpty()) ? addresses : listener.getBlacklistKeys());
-        if (loopAddresses.isEmpty()) {
-            loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
+        ArrayDeque<HostAddress> loopAddresses = new ArrayDeque<>(addresses);
+        if (loopAddresses.isEmpty() && !searchFilter.isFailoverLoop()) {
+            //every host circuit is open : connection is needed now, so try them anyway.
+            //failover loop will wait for a circuit to be half-open.
+            loopAddresses.addAll(listener.getBlacklistKeys());
+            if (loopAddresses.isEmpty()) {
+                loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
+            }
         }
         int maxConnectionTry = listener.getRetriesAllDown();
         QueryException lastQueryException = null;
 
-        while (!loopAddresses.isEmpty() || (!searchFilter.isFailoverLoop() && maxConnectionTry > 0)) {
-            protocol = getNewProtocol(listener.getProxy(), listener.getUrlParser());
-
-            if (listener.isExplicitClosed() || (!listener.isSecondaryHostFailReconnect() && !listener.isMasterHostFailReconnect())) {
-                return;
-            }
-            maxConnectionTry--;
-
-            try {
-                HostAddress host = loopAddresses.pollFirst();
-                if (host == null) {
-                    loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
-                    host = loopAddresses.pollFirst();
-                }
-                protocol.setHostAddress(host);
-                protocol.connect();
+        ConnectionRace race = new ConnectionRace(listener.getUrlParser());
+        try {
+            while (!loopAddresses.isEmpty() || race.hasPendingAttempts() || (!searchFilter.isFailoverLoop() && maxConnectionTry > 0)) {
+                protocol = getNewProtocol(listener.getProxy(), listener.getUrlParser());
 
-                if (listener.isExplicitClosed()) {
-                    protocol.close();
+                if (listener.isExplicitClosed() || (!listener.isSecondaryHostFailReconnect() && !listener.isMasterHostFailReconnect())) {
                     return;
                 }
+                maxConnectionTry--;
 
-                listener.removeFromBlacklist(protocol.getHostAddress());
+                try {
+                    race.connect(protocol, loopAddresses);
 
-                if (listener.isMasterHostFailReconnect() && protocol.isMasterConnection()) {
-                    if (foundMaster(listener, protocol, searchFilter)) {
-                        return;
-                    }
-                } else if (listener.isSecondaryHostFailReconnect() && !protocol.isMasterConnection()) {
-                    if (foundSecondary(listener, protocol, searchFilter)) {
+                    if (listener.isExplicitClosed()) {
+                        protocol.close();
                         return;
                     }
-                    HostAddress probableMasterHost = listener.searchByStartName(protocol, listener.getUrlParser().getHostAddresses());
-                    if (probableMasterHost != null) {
-                        loopAddresses.remove(probableMasterHost);
-                        AuroraProtocol.searchProbableMaster(listener, probableMasterHost, searchFilter);
-                        if (listener.isMasterHostFailReconnect() && searchFilter.isFineIfFoundOnlySlave()) {
+
+                    listener.removeFromBlacklist(protocol.getHostAddress());
+
+                    if (listener.isMasterHostFailReconnect() && protocol.isMasterConnection()) {
+                        if (foundMaster(listener, protocol, searchFilter)) {
                             return;
                         }
+                    } else if (listener.isSecondaryHostFailReconnect() && !protocol.isMasterConnection()) {
+                        if (foundSecondary(listener, protocol, searchFilter)) {
+                            return;
+                        }
+                        HostAddress probableMasterHost = listener.searchByStartName(protocol, listener.getUrlParser().getHostAddresses());
+                        if (probableMasterHost != null) {
+                            loopAddresses.remove(probableMasterHost);
+                            AuroraProtocol.searchProbableMaster(listener, probableMasterHost, searchFilter);
+                            if (listener.isMasterHostFailReconnect() && searchFilter.isFineIfFoundOnlySlave()) {
+                                return;
+                            }
+                        }
+                    } else {
+                        protocol.close();
                     }
-                } else {
-                    protocol.close();
+                } catch (QueryException e) {
+                    lastQueryException = e;
+                    listener.addToBlacklist(protocol.getHostAddress());
                 }
-            } catch (QueryException e) {
-                lastQueryException = e;
-                listener.addToBlacklist(protocol.getHostAddress());
-            }
 
-            if (!listener.isMasterHostFailReconnect() && !listener.isSecondaryHostFailReconnect()) {
-                return;
-            }
+                if (!listener.isMasterHostFailReconnect() && !listener.isSecondaryHostFailReconnect()) {
+                    return;
+                }
 
-            //loop is set so
-            if (loopAddresses.isEmpty() && !searchFilter.isFailoverLoop() && maxConnectionTry > 0) {
-                //use blacklist if all server has been connected and no result
-                loopAddresses = new ArrayDeque<>(listener.getBlacklistKeys());
-            }
+                //loop is set so
+                if (loopAddresses.isEmpty() && !race.hasPendingAttempts() && !searchFilter.isFailoverLoop() && maxConnectionTry > 0) {
+                    //use blacklist if all server has been connected and no result
+                    loopAddresses = new ArrayDeque<>(listener.getBlacklistKeys());
+                }
 
+            }
+        } finally {
+            race.close();
         }
 
         if (listener.isMasterHostFailReconnect() || listener.isMasterHostFailReconnect()) {
@@ -219,7 +224,7 @@ public class AuroraProtocol extends MastersSlavesProtocol {
      */
     @Override
     public boolean checkIfMaster() throws QueryException {
-        proxy.lock.lock();
+        lock.lock();
         try {
             SingleExecutionResult executionResult = new SingleExecutionResult(null, 0, true, false);
             executeQuery(executionResult, "show global variables like 'innodb_read_only'", ResultSet.TYPE_FORWARD_ONLY);
@@ -237,7 +242,7 @@ public class AuroraProtocol extends MastersSlavesProtocol {
             throw new QueryException("could not check the 'innodb_read_only' variable status on " + this.getHostAddress()
                     + " : " + sqle.getMessage(), -1, ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), sqle);
         } finally {
-            proxy.lock.unlock();
+            lock.unlock();
         }
     }
 
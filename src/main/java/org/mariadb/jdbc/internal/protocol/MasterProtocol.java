@@ -55,6 +55,7 @@ import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.failover.Listener;
+import org.mariadb.jdbc.internal.failover.tools.ConnectionRace;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 
 import java.util.ArrayDeque;
@@ -100,44 +101,48 @@ public class MasterProtocol extends AbstractQueryProtocol {
                             SearchFilter searchFilter) throws QueryException {
 
         MasterProtocol protocol;
-        ArrayDeque<HostAddress> loopAddresses = new ArrayDeque<>((!addresses.isEmpty()) ? addresses : listener.getBlacklistKeys());
-        if (loopAddresses.isEmpty()) {
-            loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
+        ArrayDeque<HostAddress> loopAddresses = new ArrayDeque<>(addresses);
+        if (loopAddresses.isEmpty() && !searchFilter.isFailoverLoop()) {
+            //every host circuit is open : connection is needed now, so try them anyway.
+            //failover loop will wait for a circuit to be half-open.
+            loopAddresses.addAll(listener.getBlacklistKeys());
+            if (loopAddresses.isEmpty()) {
+                loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
+            }
         }
         int maxConnectionTry = listener.getRetriesAllDown();
         QueryException lastQueryException = null;
-        while (!loopAddresses.isEmpty() || (!searchFilter.isFailoverLoop() && maxConnectionTry > 0)) {
-            protocol = getNewProtocol(listener.getProxy(), listener.getUrlParser());
-
-            if (listener.isExplicitClosed()) {
-                return;
-            }
-            maxConnectionTry--;
+        ConnectionRace race = new ConnectionRace(listener.getUrlParser());
+        try {
+            while (!loopAddresses.isEmpty() || race.hasPendingAttempts() || (!searchFilter.isFailoverLoop() && maxConnectionTry > 0)) {
+                protocol = getNewProtocol(listener.getProxy(), listener.getUrlParser());
 
-            try {
-                HostAddress host = loopAddresses.pollFirst();
-                if (host == null) {
-                    loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
-                    host = loopAddresses.pollFirst();
-                }
-                protocol.setHostAddress(host);
-                protocol.connect();
                 if (listener.isExplicitClosed()) {
-                    protocol.close();
                     return;
                 }
-                listener.removeFromBlacklist(protocol.getHostAddress());
-                listener.foundActiveMaster(protocol);
-                return;
+                maxConnectionTry--;
+
+                try {
+                    race.connect(protocol, loopAddresses);
+                    if (listener.isExplicitClosed()) {
+                        protocol.close();
+                        return;
+                    }
+                    listener.removeFromBlacklist(protocol.getHostAddress());
+                    listener.foundActiveMaster(protocol);
+                    return;
 
-            } catch (QueryException e) {
-                listener.addToBlacklist(protocol.getHostAddress());
-                lastQueryException = e;
-            }
+                } catch (QueryException e) {
+                    listener.addToBlacklist(protocol.getHostAddress());
+                    lastQueryException = e;
+                }
 
-            if (loopAddresses.isEmpty() && !searchFilter.isFailoverLoop() && maxConnectionTry > 0) {
-                loopAddresses = new ArrayDeque<>(listener.getBlacklistKeys());
+                if (loopAddresses.isEmpty() && !race.hasPendingAttempts() && !searchFilter.isFailoverLoop() && maxConnectionTry > 0) {
+                    loopAddresses = new ArrayDeque<>(listener.getBlacklistKeys());
+                }
             }
+        } finally {
+            race.close();
         }
         if (lastQueryException != null) {
             throw new QueryException("No active connection found for master : " + lastQueryException.getMessage(),
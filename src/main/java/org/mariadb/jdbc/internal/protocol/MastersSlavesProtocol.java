@@ -53,6 +53,7 @@ import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.failover.impl.MastersSlavesListener;
+import org.mariadb.jdbc.internal.failover.tools.ConnectionRace;
 import org.mariadb.jdbc.internal.failover.tools.SearchFilter;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
@@ -81,63 +82,66 @@ public class MastersSlavesProtocol extends MasterProtocol {
                             SearchFilter searchFilter) throws QueryException {
 
         MastersSlavesProtocol protocol;
-        ArrayDeque<HostAddress> loopAddresses = new ArrayDeque<>((!addresses.isEmpty()) ? addresses : listener.getBlacklistKeys());
-        if (loopAddresses.isEmpty()) {
-            loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
+        ArrayDeque<HostAddress> loopAddresses = new ArrayDeque<>(addresses);
+        if (loopAddresses.isEmpty() && !searchFilter.isFailoverLoop()) {
+            //every host circuit is open : connection is needed now, so try them anyway.
+            //failover loop will wait for a circuit to be half-open.
+            loopAddresses.addAll(listener.getBlacklistKeys());
+            if (loopAddresses.isEmpty()) {
+                loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
+            }
         }
 
         int maxConnectionTry = listener.getRetriesAllDown();
         QueryException lastQueryException = null;
 
-        while (!loopAddresses.isEmpty() || (!searchFilter.isFailoverLoop() && maxConnectionTry > 0)) {
-            protocol = getNewProtocol(listener.getProxy(), listener.getUrlParser());
-
-            if (listener.isExplicitClosed() || (!listener.isSecondaryHostFailReconnect() && !listener.isMasterHostFailReconnect())) {
-                return;
-            }
-            maxConnectionTry--;
-
-            try {
-                HostAddress host = loopAddresses.pollFirst();
-                if (host == null) {
-                    loopAddresses.addAll(listener.getUrlParser().getHostAddresses());
-                    host = loopAddresses.pollFirst();
-                }
+        ConnectionRace race = new ConnectionRace(listener.getUrlParser());
+        try {
+            while (!loopAddresses.isEmpty() || race.hasPendingAttempts() || (!searchFilter.isFailoverLoop() && maxConnectionTry > 0)) {
+                protocol = getNewProtocol(listener.getProxy(), listener.getUrlParser());
 
-                protocol.setHostAddress(host);
-                protocol.connect();
-                if (listener.isExplicitClosed()) {
-                    protocol.close();
+                if (listener.isExplicitClosed() || (!listener.isSecondaryHostFailReconnect() && !listener.isMasterHostFailReconnect())) {
                     return;
                 }
+                maxConnectionTry--;
 
-                listener.removeFromBlacklist(protocol.getHostAddress());
-
-                if (listener.isMasterHostFailReconnect() && protocol.isMasterConnection()) {
-                    if (foundMaster(listener, protocol, searchFilter)) {
+                try {
+                    race.connect(protocol, loopAddresses);
+                    if (listener.isExplicitClosed()) {
+                        protocol.close();
                         return;
                     }
-                } else if (listener.isSecondaryHostFailReconnect() && !protocol.isMasterConnection()) {
-                    if (foundSecondary(listener, protocol, searchFilter)) {
-                        return;
+
+                    listener.removeFromBlacklist(protocol.getHostAddress());
+
+                    if (listener.isMasterHostFailReconnect() && protocol.isMasterConnection()) {
+                        if (foundMaster(listener, protocol, searchFilter)) {
+                            return;
+                        }
+                    } else if (listener.isSecondaryHostFailReconnect() && !protocol.isMasterConnection()) {
+                        if (foundSecondary(listener, protocol, searchFilter)) {
+                            return;
+                        }
+                    } else {
+                        protocol.close();
                     }
-                } else {
-                    protocol.close();
-                }
 
-            } catch (QueryException e) {
-                lastQueryException = e;
-                listener.addToBlacklist(protocol.getHostAddress());
-            }
+                } catch (QueryException e) {
+                    lastQueryException = e;
+                    listener.addToBlacklist(protocol.getHostAddress());
+                }
 
-            if (!listener.isMasterHostFailReconnect() && !listener.isSecondaryHostFailReconnect()) {
-                return;
-            }
+                if (!listener.isMasterHostFailReconnect() && !listener.isSecondaryHostFailReconnect()) {
+                    return;
+                }
 
-            //loop is set so
-            if (loopAddresses.isEmpty() && !searchFilter.isFailoverLoop() && maxConnectionTry > 0) {
-                loopAddresses = new ArrayDeque<>(listener.getBlacklistKeys());
+                //loop is set so
+                if (loopAddresses.isEmpty() && !race.hasPendingAttempts() && !searchFilter.isFailoverLoop() && maxConnectionTry > 0) {
+                    loopAddresses = new ArrayDeque<>(listener.getBlacklistKeys());
+                }
             }
+        } finally {
+            race.close();
         }
 
         if (listener.isMasterHostFailReconnect() || listener.isSecondaryHostFailReconnect()) {
@@ -61,6 +61,7 @@ import org.mariadb.jdbc.internal.util.PrepareStatementCache;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.packet.dao.parameters.ParameterHolder;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
+import org.mariadb.jdbc.internal.util.metrics.ConnectionMetrics;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -132,6 +133,12 @@ public interface Protocol {
 
     boolean ping() throws QueryException;
 
+    boolean isValidWithoutPing(int elisionTime);
+
+    void setGtidWait(String gtid, int timeoutMillis);
+
+    String getLastGtid();
+
     void executeQuery(String sql) throws QueryException;
 
     void executeQuery(ExecutionResult executionResult, final String sql, int resultSetScrollType) throws QueryException;
@@ -179,6 +186,8 @@ public interface Protocol {
 
     long getServerThreadId();
 
+    ConnectionMetrics getMetrics();
+
     void setTransactionIsolation(int level) throws QueryException;
 
     int getTransactionIsolationLevel();
@@ -203,6 +212,10 @@ public interface Protocol {
 
     PrepareStatementCache prepareStatementCache();
 
+    void prepareWarmUp(List<String> queries) throws QueryException;
+
+    List<String> getMostUsedPrepareStatements(int max);
+
 
     String getServerData(String code);
 
@@ -51,6 +51,7 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.queryresults.resultset;
 
+import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.MariaDbBlob;
 import org.mariadb.jdbc.MariaDbClob;
 import org.mariadb.jdbc.MariaDbConnection;
@@ -68,6 +69,7 @@ import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
 import org.mariadb.jdbc.internal.util.constant.ServerStatus;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.jfr.JfrEvent;
 
 import java.io.*;
 import java.math.BigDecimal;
@@ -91,6 +93,7 @@ public class MariaSelectResultSet implements ResultSet {
 
     public static final int TINYINT1_IS_BIT = 1;
     public static final int YEAR_IS_DATE_TYPE = 2;
+    private static final int ER_QUERY_INTERRUPTED = 1317;
     private static final Pattern isIntegerRegex = Pattern.compile("^-?\\d+\\.0+$");
 
     private Protocol protocol;
@@ -118,6 +121,7 @@ public class MariaSelectResultSet implements ResultSet {
     private Options options;
     private boolean returnTableAlias;
     private boolean isClosed;
+    private long rowsRead;
     public boolean callableResult;
 
     /**
@@ -324,6 +328,10 @@ public class MariaSelectResultSet implements ResultSet {
     }
 
     private void fetchAllResults() throws IOException, QueryException {
+        Object event = JfrEvent.FETCH.begin();
+        String host = (event == null) ? null : hostDescription();
+        ReadPacketFetcher fetcher = packetFetcher;
+        long initialBytesReceived = fetcher.getBytesReceived();
 
         final List<byte[][]> valueObjects = new ArrayList<>();
         while (readNextValue(valueObjects)) {
@@ -331,6 +339,9 @@ public class MariaSelectResultSet implements ResultSet {
         }
         dataFetchTime++;
         resultSet = valueObjects;
+        if (event != null) {
+            JfrEvent.FETCH.commit(event, host, valueObjects.size() + " rows", null, 0, fetcher.getBytesReceived() - initialBytesReceived);
+        }
     }
 
     /**
@@ -342,9 +353,18 @@ public class MariaSelectResultSet implements ResultSet {
         try {
             try {
                 Protocol protocolTmp = this.protocol;
+                Object event = JfrEvent.FETCH.begin();
+                String host = (event == null) ? null : hostDescription();
+                ReadPacketFetcher fetcher = packetFetcher;
+                long initialBytesReceived = fetcher.getBytesReceived();
+                int initialSize = resultSet.size();
                 while (readNextValue(resultSet)) {
                     //fetch all results
                 }
+                if (event != null) {
+                    JfrEvent.FETCH.commit(event, host, (resultSet.size() - initialSize) + " remaining rows", null, 0,
+                            fetcher.getBytesReceived() - initialBytesReceived);
+                }
 
                 //retrieve other results if needed
                 if (protocolTmp.hasMoreResults()) {
@@ -365,6 +385,10 @@ public class MariaSelectResultSet implements ResultSet {
 
 
     private void nextStreamingValue() throws IOException, QueryException {
+        Object event = JfrEvent.FETCH.begin();
+        String host = (event == null) ? null : hostDescription();
+        ReadPacketFetcher fetcher = packetFetcher;
+        long initialBytesReceived = fetcher.getBytesReceived();
 
         final List<byte[][]> valueObjects = new ArrayList<>(fetchSize);
         //fetch maximum fetchSize results
@@ -374,6 +398,14 @@ public class MariaSelectResultSet implements ResultSet {
         }
         dataFetchTime++;
         resultSet = valueObjects;
+        if (event != null) {
+            JfrEvent.FETCH.commit(event, host, valueObjects.size() + " rows", null, 0, fetcher.getBytesReceived() - initialBytesReceived);
+        }
+    }
+
+    private String hostDescription() {
+        HostAddress hostAddress = protocol.getHostAddress();
+        return (hostAddress == null) ? null : hostAddress.host + ":" + hostAddress.port;
     }
 
     /**
@@ -417,6 +449,7 @@ public class MariaSelectResultSet implements ResultSet {
                 protocol.setMoreResults(callableResult
                         || (((buffer.buf[2] & 0xff) + ((buffer.buf[3] & 0xff) << 8)) & ServerStatus.MORE_RESULTS_EXISTS) != 0,
                         isBinaryEncoded);
+                recordResultRows();
                 protocol = null;
                 packetFetcher = null;
                 inputStream = null;
@@ -426,6 +459,7 @@ public class MariaSelectResultSet implements ResultSet {
             }
 
             values.add(rowPacket.getRow(packetFetcher, inputStream, remaining, read));
+            rowsRead++;
             return true;
         }
 
@@ -450,6 +484,7 @@ public class MariaSelectResultSet implements ResultSet {
             protocol.setMoreResults(callableResult
                             || (((buffer.buf[3] & 0xff) + ((buffer.buf[4] & 0xff) << 8)) & ServerStatus.MORE_RESULTS_EXISTS) != 0,
                     isBinaryEncoded);
+            recordResultRows();
             protocol = null;
             packetFetcher = null;
             inputStream = null;
@@ -458,12 +493,15 @@ public class MariaSelectResultSet implements ResultSet {
             return false;
         }
         values.add(rowPacket.getRow(packetFetcher, buffer));
+        rowsRead++;
         return true;
     }
 
 
     /**
      * Close resultset.
+     * When resultset is streaming, remaining rows are skipped without decoding. If set, after "streamingAbandonThreshold" skipped
+     * rows, running query is killed, so only rows already sent by server have to be read.
      */
     public void close() throws SQLException {
         isClosed = true;
@@ -471,15 +509,42 @@ public class MariaSelectResultSet implements ResultSet {
             ReentrantLock lock = protocol.getLock();
             lock.lock();
             try {
+                Object event = JfrEvent.STREAMING_DRAIN.begin();
+                String host = (event == null) ? null : hostDescription();
+                ReadPacketFetcher fetcher = packetFetcher;
+                long initialBytesReceived = fetcher.getBytesReceived();
+                int skippedRows = 0;
+                boolean killed = false;
                 try {
+                    int abandonThreshold = (callableResult || options.allowMultiQueries) ? 0 : options.streamingAbandonThreshold;
                     while (!isEof) {
-                        //fetch all results
-                        Buffer buffer = packetFetcher.getReusableBuffer();
+                        //skip remaining results
+                        Buffer buffer = packetFetcher.skipRowPacket();
+
+                        if (buffer == null) {
+                            rowsRead++;
+                            skippedRows++;
+                            if (!killed && abandonThreshold > 0 && skippedRows >= abandonThreshold) {
+                                killed = true;
+                                abandonQuery();
+                            }
+                            continue;
+                        }
 
                         //is error Packet
                         if (buffer.getByteAt(0) == Packet.ERROR) {
                             protocol.setActiveStreamingResult(null);
                             ErrorPacket errorPacket = new ErrorPacket(buffer);
+                            if (killed && errorPacket.getErrorNumber() == ER_QUERY_INTERRUPTED) {
+                                //expected end of an abandoned query
+                                protocol.setMoreResults(false, isBinaryEncoded);
+                                recordResultRows();
+                                protocol = null;
+                                packetFetcher = null;
+                                inputStream = null;
+                                isEof = true;
+                                continue;
+                            }
                             throw new QueryException(errorPacket.getMessage(), errorPacket.getErrorNumber(), errorPacket.getSqlState());
                         }
 
@@ -491,6 +556,7 @@ public class MariaSelectResultSet implements ResultSet {
                             }
                             protocol.setHasWarnings(endOfFilePacket.getWarningCount() > 0);
                             protocol.setMoreResults((endOfFilePacket.getStatusFlags() & ServerStatus.MORE_RESULTS_EXISTS) != 0, isBinaryEncoded);
+                            recordResultRows();
                             protocol = null;
                             packetFetcher = null;
                             inputStream = null;
@@ -500,6 +566,11 @@ public class MariaSelectResultSet implements ResultSet {
                 } catch (IOException ioexception) {
                     throw new QueryException("Could not close resultset : " + ioexception.getMessage(), -1,
                             ExceptionMapper.SqlStates.CONNECTION_EXCEPTION.getSqlState(), ioexception);
+                } finally {
+                    if (event != null) {
+                        JfrEvent.STREAMING_DRAIN.commit(event, host, skippedRows + (killed ? " rows skipped, query killed" : " rows skipped"),
+                                null, 0, fetcher.getBytesReceived() - initialBytesReceived);
+                    }
                 }
             } catch (QueryException queryException) {
                 ExceptionMapper.throwException(queryException, null, this.getStatement());
@@ -509,6 +580,33 @@ public class MariaSelectResultSet implements ResultSet {
         }
     }
 
+    /**
+     * Number of rows read from server (for streaming result sets, rows fetched until now).
+     *
+     * @return number of rows read
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    private void recordResultRows() {
+        if (protocol.getMetrics() != null) {
+            protocol.getMetrics().resultRows(rowsRead);
+        }
+    }
+
+    /**
+     * Kill running query, so server stop sending rows.
+     * If KILL fails, remaining rows will just be skipped until end of resultset.
+     */
+    private void abandonQuery() {
+        try {
+            protocol.cancelCurrentQuery();
+        } catch (QueryException | IOException exception) {
+            //eat exception : rows will be skipped until EOF
+        }
+    }
+
     @Override
     public boolean next() throws SQLException {
         checkClose();
@@ -50,6 +50,8 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.stream;
 
+import org.mariadb.jdbc.internal.util.jfr.JfrEvent;
+
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
@@ -148,6 +150,7 @@ public class DecompressInputStream extends InputStream {
                 off += count;
             } while (remaining > 0);
 
+            Object event = JfrEvent.COMPRESSION.begin();
             Inflater inflater = new Inflater();
             inflater.setInput(compressedBuffer);
             try {
@@ -160,6 +163,9 @@ public class DecompressInputStream extends InputStream {
                 throw new IOException(dfe);
             }
             inflater.end();
+            if (event != null) {
+                JfrEvent.COMPRESSION.commit(event, null, "decompress " + decompressedLength + " bytes", null, 0, compressedLength);
+            }
             decompressedByteStream = new ByteArrayInputStream(decompressedBuffer);
 
         } else {
@@ -52,6 +52,8 @@ package org.mariadb.jdbc.internal.stream;
 
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.jfr.JfrEvent;
+import org.mariadb.jdbc.internal.util.metrics.ConnectionMetrics;
 
 import java.io.*;
 import java.nio.ByteBuffer;
@@ -82,6 +84,10 @@ public class PacketOutputStream extends OutputStream {
     boolean useCompression;
     public OutputStream outputStream;
     private volatile boolean closed = false;
+    private ConnectionMetrics metrics;
+    private long bytesSent;
+    private boolean recordSendTime;
+    private long lastSendNanos;
 
     /**
      * Initialization with server outputStream.
@@ -101,6 +107,40 @@ public class PacketOutputStream extends OutputStream {
         buffer = newBuffer;
     }
 
+    public void setMetrics(ConnectionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Record time of the end of each send, to be retrieved with {@link #getLastSendNanos()}.
+     *
+     * @param recordSendTime must send time be recorded
+     */
+    public void setRecordSendTime(boolean recordSendTime) {
+        this.recordSendTime = recordSendTime;
+    }
+
+    public long getLastSendNanos() {
+        return lastSendNanos;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    private void packetSent(int bytes) {
+        bytesSent += bytes;
+        if (metrics != null) {
+            metrics.packetSent(bytes);
+        }
+    }
+
+    private void sendEnd() {
+        if (recordSendTime) {
+            lastSendNanos = System.nanoTime();
+        }
+    }
+
     public void setUseCompression(boolean useCompression) {
         this.useCompression = useCompression;
     }
@@ -120,6 +160,9 @@ public class PacketOutputStream extends OutputStream {
         this.checkPacketLength = checkPacketLength;
         buffer.clear();
         buffer.position(4);
+        if (seqNo == 0 && metrics != null) {
+            metrics.roundTrip();
+        }
 
     }
 
@@ -138,6 +181,7 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any error occur during data send to server
      */
     public void writeEmptyPacket(int seqNo) throws IOException {
+        packetSent(4);
         byte[] header;
         if (!useCompression) {
             header = new byte[4];
@@ -164,6 +208,7 @@ public class PacketOutputStream extends OutputStream {
             outputStream.write(header, 0, 4);
         }
         outputStream.flush();
+        sendEnd();
     }
 
     /**
@@ -323,12 +368,14 @@ public class PacketOutputStream extends OutputStream {
     public void finishPacket() throws IOException {
         if (buffer.position() > 4) {
             checkPacketMaxSize(buffer.position());
+            packetSent(buffer.position());
 
             if (useCompression) {
                 flushWithCompression();
             } else {
                 flushDirect();
             }
+            sendEnd();
         }
 
         //save big buffer next query to avoid new allocation if next query size is similar
@@ -479,6 +526,7 @@ public class PacketOutputStream extends OutputStream {
             boolean compressedPacketSend = false;
 
             if (packetLength > MIN_COMPRESSION_SIZE) {
+                Object event = JfrEvent.COMPRESSION.begin();
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 DeflaterOutputStream deflater = new DeflaterOutputStream(baos);
 
@@ -488,6 +536,9 @@ public class PacketOutputStream extends OutputStream {
 
                 byte[] compressedBytes = baos.toByteArray();
                 baos.close();
+                if (event != null) {
+                    JfrEvent.COMPRESSION.commit(event, null, "compress " + packetLength + " bytes", null, compressedBytes.length, 0);
+                }
 
                 if (compressedBytes.length < (int) (MIN_COMPRESSION_RATIO * packetLength)) {
 
@@ -789,6 +840,10 @@ public class PacketOutputStream extends OutputStream {
         packetBuffer[4] = (byte) 0x16;
 
         System.arraycopy(sqlBytes, 0, packetBuffer, 5, sqlLength - 1);
+        if (metrics != null) {
+            metrics.roundTrip();
+        }
+        packetSent(sqlLength + 4);
 
         if (!useCompression) {
             outputStream.write(packetBuffer);
@@ -796,6 +851,7 @@ public class PacketOutputStream extends OutputStream {
         } else {
             compressedAndSend(sqlLength + 4, packetBuffer);
         }
+        sendEnd();
     }
 
 
@@ -818,6 +874,10 @@ public class PacketOutputStream extends OutputStream {
             throw new QueryException("Could not send query: max_allowed_packet=" + maxAllowedPacket + " but packet size is : "
                     + (sqlLength + 1), -1, ExceptionMapper.SqlStates.INTERRUPTED_EXCEPTION.getSqlState());
         }
+        if (metrics != null) {
+            metrics.roundTrip();
+        }
+        packetSent(sqlLength + 5);
         if (!useCompression) {
 
             if (sqlLength + 1 <= maxPacketSize) {
@@ -917,5 +977,6 @@ public class PacketOutputStream extends OutputStream {
                 compressedAndSend(expectedPacketSize, packetBuffer);
             }
         }
+        sendEnd();
     }
 }
@@ -247,7 +247,8 @@ public enum DefaultOptions {
     VALID_CONNECTION_TIMEOUT("validConnectionTimeout", new Integer(120), new Integer(0), Integer.MAX_VALUE, "1.2.0"),
 
     /**
-     * time in second a server is blacklisted after a connection failure.  default to 50s
+     * maximum time in second a server is blacklisted after a connection failure.  default to 50s
+     * (blacklist time start at loadBalanceBlacklistInitialDelay and double after each failed probe).
      */
     LOAD_BALANCE_BLACKLIST_TIMEOUT("loadBalanceBlacklistTimeout", new Integer(50), new Integer(0), Integer.MAX_VALUE, "1.2.0"),
 
@@ -345,7 +346,176 @@ public enum DefaultOptions {
      * Those information can be retrieved on server within tables mysql.session_connect_attrs and mysql.session_account_connect_attrs.
      * This can permit from server an identification of client.
      */
-    CONNECTION_ATTRIBUTES("connectionAttributes", "1.4.0");
+    CONNECTION_ATTRIBUTES("connectionAttributes", "1.4.0"),
+
+    /**
+     * Time in milliseconds server variables loaded on connection are shared by new connections to the same server.
+     * When 0, server variables are queried on each new connection. Default to 5000.
+     */
+    SERVER_DATA_CACHE_TTL("serverDataCacheTtl", new Integer(5000), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * When using MariaDbPoolDataSource, pool name, to identify the pool. Default to "MariaDB-pool-" followed by pool index.
+     */
+    POOL_NAME("poolName", "1.5.0"),
+
+    /**
+     * When using MariaDbPoolDataSource, maximum number of physical connections in the pool. Default to 8.
+     */
+    MAX_POOL_SIZE("maxPoolSize", new Integer(8), new Integer(1), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * When using MariaDbPoolDataSource, number of physical connections the pool keeps, even when idle.
+     * Default to maxPoolSize value.
+     */
+    MIN_POOL_SIZE("minPoolSize", (Integer) null, new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * When using MariaDbPoolDataSource, time in seconds an idle connection is kept in the pool when there is more than
+     * minPoolSize connections. Default to 600 (10 minutes).
+     */
+    MAX_IDLE_TIME("maxIdleTime", new Integer(600), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * When using MariaDbPoolDataSource, time in milliseconds a connection must have been idle before being validated when borrowed.
+     * Default to 1000.
+     */
+    POOL_VALID_MIN_DELAY("poolValidMinDelay", new Integer(1000), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * Connection.isValid() will consider connection valid without sending a ping if a successful exchange with server occurred less than
+     * this time in milliseconds ago, and no unexpected data is waiting on socket.
+     * When 0, a ping is always sent. Default to 0.
+     */
+    PING_ELISION_TIME("pingElisionTime", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * Maximum number of closed poolable prepared statements kept per pooled physical connection, to be reused without any server exchange
+     * when the same query is prepared again. Only connections obtained through a PooledConnection are concerned.
+     * When 0, statement pooling is disabled. Default to 0.
+     */
+    STATEMENT_POOL_SIZE("statementPoolSize", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * Queries separated by ";" that are prepared, in pipelined bursts, when connection is established (including reconnection after
+     * a failover), so their first execution uses an already prepared statement.
+     * Need cachePrepStmts and useServerPrepStmts.
+     */
+    WARMUP_STATEMENTS("warmupStatements", "1.5.0"),
+
+    /**
+     * After a failover, number of most recently used prepared statements of the previous connection that are prepared on the new connection,
+     * along with warmupStatements.
+     * Need cachePrepStmts and useServerPrepStmts. Default to 0.
+     */
+    WARMUP_CACHED_STATEMENTS("warmupCachedStatements", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * When searching a valid host, connect sockets to candidate hosts concurrently : a new host is tried each time this delay in
+     * milliseconds elapses, or as soon as an attempt fails. Hosts are used in the order their socket connected.
+     * When 0, hosts are tried one after another. Default to 0.
+     */
+    CONNECT_RACE_DELAY("connectRaceDelay", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * In replication and aurora modes, choose hosts according to their latency (moving averages of connection time, ping and query
+     * latency, shared by all connections of the JVM) using "power of two choices", instead of random order.
+     * Host weight can be set in URL, like "address=(host=h)(port=3306)(type=slave)(weight=2)".
+     */
+    LATENCY_AWARE_SELECTION("latencyAwareSelection", Boolean.FALSE, "1.5.0"),
+
+    /**
+     * time in milliseconds a server is blacklisted after its first connection failure. Then a single connection of the JVM
+     * is permitted to probe the server, and if this probe fails, time is doubled (with jitter) up to loadBalanceBlacklistTimeout.
+     * Default to 1000.
+     */
+    LOAD_BALANCE_BLACKLIST_INITIAL_DELAY("loadBalanceBlacklistInitialDelay", new Integer(1000), new Integer(0), Integer.MAX_VALUE,
+            "1.5.0"),
+
+    /**
+     * When set, in high availability modes, each distinct host is probed once every healthCheckInterval milliseconds by a
+     * connection shared by the JVM, instead of validating each connection every validConnectionTimeout, and failover loops only
+     * try to reconnect when a host is reachable. 0 to disable. Default to 0.
+     */
+    HEALTH_CHECK_INTERVAL("healthCheckInterval", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * In replication and aurora modes, when connection isn't set read-only, execute SELECT statements outside transaction
+     * (except locking reads, SELECT INTO, statements using user variables or session functions) on a replica, all other
+     * statements on master. Default to false.
+     */
+    READ_WRITE_SPLITTING("readWriteSplitting", Boolean.FALSE, "1.5.0"),
+
+    /**
+     * When "readWriteSplitting" is set, after a write on master, wait until the replica has applied this write (using GTID
+     * position) before reading on it, at most gtidWaitTimeout milliseconds. If position isn't reached in time, the statement
+     * is executed on master. 0 to disable. Default to 0.
+     */
+    GTID_WAIT_TIMEOUT("gtidWaitTimeout", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * In replication and aurora modes, maximum replication lag in seconds of a replica to be used as secondary connection.
+     * Lag of each replica is monitored once for the JVM. 0 to disable. Default to 0.
+     */
+    MAX_REPLICATION_LAG("maxReplicationLag", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * Query returning replica lag in seconds in first column, like a heartbeat table query. If not set, lag is
+     * "Seconds_Behind_Master" of "SHOW SLAVE STATUS".
+     */
+    REPLICATION_LAG_QUERY("replicationLagQuery", "1.5.0"),
+
+    /**
+     * When "readWriteSplitting" is set, a read executed on a replica that hasn't returned after this percentile of replica
+     * reads latency is executed as well on another replica, first result is used and other query is killed. 0 to disable.
+     * Default to 0.
+     */
+    HEDGED_READ_PERCENTILE("hedgedReadPercentile", new Integer(0), new Integer(0), new Integer(99), "1.5.0"),
+
+    /**
+     * Maximum percentage of replica reads that can be hedged. Default to 5.
+     */
+    HEDGED_READ_BUDGET("hedgedReadBudget", new Integer(5), new Integer(0), new Integer(100), "1.5.0"),
+
+    /**
+     * In replication and aurora modes, number of replica connections kept by a connection, each on a different replica.
+     * Additional connections are used in turn by "readWriteSplitting", and replace the secondary connection immediately
+     * when it fails. Default to 1.
+     */
+    SECONDARY_CONNECTIONS("secondaryConnections", new Integer(1), new Integer(1), new Integer(16), "1.5.0"),
+
+    /**
+     * In failover modes, keep an authenticated connection to another master candidate, validated in background,
+     * that become master connection immediately when master fails. Default to false.
+     */
+    WARM_STANDBY_MASTER("warmStandbyMaster", Boolean.FALSE, "1.5.0"),
+
+    /**
+     * When a streaming result set is closed before its end, number of remaining rows discarded before running query is
+     * killed (KILL QUERY on the administration connection), to avoid reading the whole result set. Server side work of the
+     * statement is interrupted : only for queries without side effects after their result set (not for CALL).
+     * Not used for callable results or when "allowMultiQueries" is set. 0 to disable. Default to 0.
+     */
+    STREAMING_ABANDON_THRESHOLD("streamingAbandonThreshold", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.5.0"),
+
+    /**
+     * Record driver metrics (connections, network, latencies, prepare cache, failovers), aggregated by host and by data source
+     * ("poolName"), and published as MXBeans "org.mariadb.jdbc:type=Metrics". Default to false.
+     */
+    ENABLE_METRICS("enableMetrics", Boolean.FALSE, "1.5.0"),
+
+    /**
+     * Full name of a class that implements org.mariadb.jdbc.QueryInterceptor, called around each command with send, server wait
+     * and decode timings. Interceptor can rewrite SQL, or answer a query with a cached result.
+     */
+    QUERY_INTERCEPTOR("queryInterceptor", "1.5.0"),
+
+    /**
+     * Record execution statistics per SQL digest (literals and IN lists replaced), for the most frequent digests of each data source,
+     * published as MXBean "org.mariadb.jdbc:type=DigestStatistics". Value is the maximum number of digests kept. 0 to disable.
+     * Default to 0.
+     */
+    DIGEST_STATISTICS_SIZE("digestStatisticsSize", new Integer(0), new Integer(0), new Integer(1000), "1.5.0");
 
     protected final String name;
     protected final Object objType;
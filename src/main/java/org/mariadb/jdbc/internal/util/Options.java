@@ -102,6 +102,34 @@ public class Options {
     public boolean cacheCallableStmts;
     public Integer callableStmtCacheSize;
     public String connectionAttributes;
+    public int serverDataCacheTtl;
+    public int pingElisionTime;
+    public int statementPoolSize;
+    public String warmupStatements;
+    public int warmupCachedStatements;
+    public int connectRaceDelay;
+    public boolean latencyAwareSelection;
+    public int loadBalanceBlacklistInitialDelay;
+    public int healthCheckInterval;
+    public boolean readWriteSplitting;
+    public int gtidWaitTimeout;
+    public int maxReplicationLag;
+    public String replicationLagQuery;
+    public int hedgedReadPercentile;
+    public int hedgedReadBudget;
+    public int secondaryConnections;
+    public boolean warmStandbyMaster;
+    public int streamingAbandonThreshold;
+    public boolean enableMetrics;
+    public String queryInterceptor;
+    public int digestStatisticsSize;
+
+    //pool options
+    public String poolName;
+    public int maxPoolSize;
+    public Integer minPoolSize;
+    public int maxIdleTime;
+    public int poolValidMinDelay;
 
     //HA options
     public boolean assureReadOnly;
@@ -168,6 +196,32 @@ public class Options {
                 + ", cacheCallableStmts=" + cacheCallableStmts
                 + ", callableStmtCacheSize=" + callableStmtCacheSize
                 + ", connectionAttributes=" + connectionAttributes
+                + ", serverDataCacheTtl=" + serverDataCacheTtl
+                + ", pingElisionTime=" + pingElisionTime
+                + ", statementPoolSize=" + statementPoolSize
+                + ", warmupStatements=" + warmupStatements
+                + ", warmupCachedStatements=" + warmupCachedStatements
+                + ", connectRaceDelay=" + connectRaceDelay
+                + ", latencyAwareSelection=" + latencyAwareSelection
+                + ", loadBalanceBlacklistInitialDelay=" + loadBalanceBlacklistInitialDelay
+                + ", healthCheckInterval=" + healthCheckInterval
+                + ", readWriteSplitting=" + readWriteSplitting
+                + ", gtidWaitTimeout=" + gtidWaitTimeout
+                + ", maxReplicationLag=" + maxReplicationLag
+                + ", replicationLagQuery=" + replicationLagQuery
+                + ", hedgedReadPercentile=" + hedgedReadPercentile
+                + ", hedgedReadBudget=" + hedgedReadBudget
+                + ", secondaryConnections=" + secondaryConnections
+                + ", warmStandbyMaster=" + warmStandbyMaster
+                + ", streamingAbandonThreshold=" + streamingAbandonThreshold
+                + ", enableMetrics=" + enableMetrics
+                + ", queryInterceptor=" + queryInterceptor
+                + ", digestStatisticsSize=" + digestStatisticsSize
+                + ", poolName=" + poolName
+                + ", maxPoolSize=" + maxPoolSize
+                + ", minPoolSize=" + minPoolSize
+                + ", maxIdleTime=" + maxIdleTime
+                + ", poolValidMinDelay=" + poolValidMinDelay
                 + "}";
     }
 
@@ -279,6 +333,22 @@ public class Options {
         if (serverSslCert != null ? !serverSslCert.equals(options.serverSslCert) : options.serverSslCert != null) {
             return false;
         }
+        if (trustCertificateKeyStoreUrl != null ? !trustCertificateKeyStoreUrl.equals(options.trustCertificateKeyStoreUrl)
+                : options.trustCertificateKeyStoreUrl != null) {
+            return false;
+        }
+        if (trustCertificateKeyStorePassword != null ? !trustCertificateKeyStorePassword.equals(options.trustCertificateKeyStorePassword)
+                : options.trustCertificateKeyStorePassword != null) {
+            return false;
+        }
+        if (clientCertificateKeyStoreUrl != null ? !clientCertificateKeyStoreUrl.equals(options.clientCertificateKeyStoreUrl)
+                : options.clientCertificateKeyStoreUrl != null) {
+            return false;
+        }
+        if (clientCertificateKeyStorePassword != null ? !clientCertificateKeyStorePassword.equals(options.clientCertificateKeyStorePassword)
+                : options.clientCertificateKeyStorePassword != null) {
+            return false;
+        }
         if (socketFactory != null ? !socketFactory.equals(options.socketFactory) : options.socketFactory != null) {
             return false;
         }
@@ -331,9 +401,172 @@ public class Options {
         if (connectionAttributes != null ? !connectionAttributes.equals(options.connectionAttributes) : options.connectionAttributes != null) {
             return false;
         }
+        if (serverDataCacheTtl != options.serverDataCacheTtl) {
+            return false;
+        }
+        if (pingElisionTime != options.pingElisionTime) {
+            return false;
+        }
+        if (statementPoolSize != options.statementPoolSize) {
+            return false;
+        }
+        if (warmupStatements != null ? !warmupStatements.equals(options.warmupStatements) : options.warmupStatements != null) {
+            return false;
+        }
+        if (warmupCachedStatements != options.warmupCachedStatements) {
+            return false;
+        }
+        if (connectRaceDelay != options.connectRaceDelay) {
+            return false;
+        }
+        if (latencyAwareSelection != options.latencyAwareSelection) {
+            return false;
+        }
+        if (loadBalanceBlacklistInitialDelay != options.loadBalanceBlacklistInitialDelay) {
+            return false;
+        }
+        if (healthCheckInterval != options.healthCheckInterval) {
+            return false;
+        }
+        if (readWriteSplitting != options.readWriteSplitting) {
+            return false;
+        }
+        if (gtidWaitTimeout != options.gtidWaitTimeout) {
+            return false;
+        }
+        if (maxReplicationLag != options.maxReplicationLag) {
+            return false;
+        }
+        if (replicationLagQuery != null ? !replicationLagQuery.equals(options.replicationLagQuery) : options.replicationLagQuery != null) {
+            return false;
+        }
+        if (hedgedReadPercentile != options.hedgedReadPercentile) {
+            return false;
+        }
+        if (hedgedReadBudget != options.hedgedReadBudget) {
+            return false;
+        }
+        if (secondaryConnections != options.secondaryConnections) {
+            return false;
+        }
+        if (warmStandbyMaster != options.warmStandbyMaster) {
+            return false;
+        }
+        if (streamingAbandonThreshold != options.streamingAbandonThreshold) {
+            return false;
+        }
+        if (enableMetrics != options.enableMetrics) {
+            return false;
+        }
+        if (queryInterceptor != null ? !queryInterceptor.equals(options.queryInterceptor) : options.queryInterceptor != null) {
+            return false;
+        }
+        if (digestStatisticsSize != options.digestStatisticsSize) {
+            return false;
+        }
+        if (poolName != null ? !poolName.equals(options.poolName) : options.poolName != null) {
+            return false;
+        }
+        if (maxPoolSize != options.maxPoolSize) {
+            return false;
+        }
+        if (minPoolSize != null ? !minPoolSize.equals(options.minPoolSize) : options.minPoolSize != null) {
+            return false;
+        }
+        if (maxIdleTime != options.maxIdleTime) {
+            return false;
+        }
+        if (poolValidMinDelay != options.poolValidMinDelay) {
+            return false;
+        }
         return !(prepStmtCacheSqlLimit != null ? !prepStmtCacheSqlLimit.equals(options.prepStmtCacheSqlLimit)
                 : options.prepStmtCacheSqlLimit != null);
 
     }
 
+    @Override
+    public int hashCode() {
+        int result = (user != null ? user.hashCode() : 0);
+        result = 31 * result + (password != null ? password.hashCode() : 0);
+        result = 31 * result + (trustServerCertificate ? 1 : 0);
+        result = 31 * result + (serverSslCert != null ? serverSslCert.hashCode() : 0);
+        result = 31 * result + (trustCertificateKeyStoreUrl != null ? trustCertificateKeyStoreUrl.hashCode() : 0);
+        result = 31 * result + (trustCertificateKeyStorePassword != null ? trustCertificateKeyStorePassword.hashCode() : 0);
+        result = 31 * result + (clientCertificateKeyStoreUrl != null ? clientCertificateKeyStoreUrl.hashCode() : 0);
+        result = 31 * result + (clientCertificateKeyStorePassword != null ? clientCertificateKeyStorePassword.hashCode() : 0);
+        result = 31 * result + (useFractionalSeconds ? 1 : 0);
+        result = 31 * result + (pinGlobalTxToPhysicalConnection ? 1 : 0);
+        result = 31 * result + (socketFactory != null ? socketFactory.hashCode() : 0);
+        result = 31 * result + (connectTimeout != null ? connectTimeout.hashCode() : 0);
+        result = 31 * result + (pipe != null ? pipe.hashCode() : 0);
+        result = 31 * result + (localSocket != null ? localSocket.hashCode() : 0);
+        result = 31 * result + (sharedMemory != null ? sharedMemory.hashCode() : 0);
+        result = 31 * result + (tcpNoDelay ? 1 : 0);
+        result = 31 * result + (tcpKeepAlive ? 1 : 0);
+        result = 31 * result + (tcpRcvBuf != null ? tcpRcvBuf.hashCode() : 0);
+        result = 31 * result + (tcpSndBuf != null ? tcpSndBuf.hashCode() : 0);
+        result = 31 * result + (tcpAbortiveClose ? 1 : 0);
+        result = 31 * result + (localSocketAddress != null ? localSocketAddress.hashCode() : 0);
+        result = 31 * result + (socketTimeout != null ? socketTimeout.hashCode() : 0);
+        result = 31 * result + (allowMultiQueries ? 1 : 0);
+        result = 31 * result + (rewriteBatchedStatements ? 1 : 0);
+        result = 31 * result + (useCompression ? 1 : 0);
+        result = 31 * result + (interactiveClient ? 1 : 0);
+        result = 31 * result + (useSsl ? 1 : 0);
+        result = 31 * result + (sessionVariables != null ? sessionVariables.hashCode() : 0);
+        result = 31 * result + (tinyInt1isBit ? 1 : 0);
+        result = 31 * result + (yearIsDateType ? 1 : 0);
+        result = 31 * result + (createDatabaseIfNotExist ? 1 : 0);
+        result = 31 * result + (serverTimezone != null ? serverTimezone.hashCode() : 0);
+        result = 31 * result + (nullCatalogMeansCurrent ? 1 : 0);
+        result = 31 * result + (dumpQueriesOnException ? 1 : 0);
+        result = 31 * result + (useOldAliasMetadataBehavior ? 1 : 0);
+        result = 31 * result + (allowLocalInfile ? 1 : 0);
+        result = 31 * result + (cachePrepStmts ? 1 : 0);
+        result = 31 * result + (prepStmtCacheSize != null ? prepStmtCacheSize.hashCode() : 0);
+        result = 31 * result + (prepStmtCacheSqlLimit != null ? prepStmtCacheSqlLimit.hashCode() : 0);
+        result = 31 * result + (useLegacyDatetimeCode ? 1 : 0);
+        result = 31 * result + (maximizeMysqlCompatibility ? 1 : 0);
+        result = 31 * result + (useServerPrepStmts ? 1 : 0);
+        result = 31 * result + (continueBatchOnError ? 1 : 0);
+        result = 31 * result + (jdbcCompliantTruncation ? 1 : 0);
+        result = 31 * result + (cacheCallableStmts ? 1 : 0);
+        result = 31 * result + (callableStmtCacheSize != null ? callableStmtCacheSize.hashCode() : 0);
+        result = 31 * result + (connectionAttributes != null ? connectionAttributes.hashCode() : 0);
+        result = 31 * result + serverDataCacheTtl;
+        result = 31 * result + pingElisionTime;
+        result = 31 * result + statementPoolSize;
+        result = 31 * result + (warmupStatements != null ? warmupStatements.hashCode() : 0);
+        result = 31 * result + warmupCachedStatements;
+        result = 31 * result + connectRaceDelay;
+        result = 31 * result + (latencyAwareSelection ? 1 : 0);
+        result = 31 * result + loadBalanceBlacklistInitialDelay;
+        result = 31 * result + healthCheckInterval;
+        result = 31 * result + (readWriteSplitting ? 1 : 0);
+        result = 31 * result + gtidWaitTimeout;
+        result = 31 * result + maxReplicationLag;
+        result = 31 * result + (replicationLagQuery != null ? replicationLagQuery.hashCode() : 0);
+        result = 31 * result + hedgedReadPercentile;
+        result = 31 * result + hedgedReadBudget;
+        result = 31 * result + secondaryConnections;
+        result = 31 * result + (warmStandbyMaster ? 1 : 0);
+        result = 31 * result + streamingAbandonThreshold;
+        result = 31 * result + (enableMetrics ? 1 : 0);
+        result = 31 * result + (queryInterceptor != null ? queryInterceptor.hashCode() : 0);
+        result = 31 * result + digestStatisticsSize;
+        result = 31 * result + (poolName != null ? poolName.hashCode() : 0);
+        result = 31 * result + maxPoolSize;
+        result = 31 * result + (minPoolSize != null ? minPoolSize.hashCode() : 0);
+        result = 31 * result + maxIdleTime;
+        result = 31 * result + poolValidMinDelay;
+        result = 31 * result + (assureReadOnly ? 1 : 0);
+        result = 31 * result + (autoReconnect ? 1 : 0);
+        result = 31 * result + (failOnReadOnly ? 1 : 0);
+        result = 31 * result + retriesAllDown;
+        result = 31 * result + validConnectionTimeout;
+        result = 31 * result + loadBalanceBlacklistTimeout;
+        result = 31 * result + failoverLoopRetries;
+        return result;
+    }
+
 }
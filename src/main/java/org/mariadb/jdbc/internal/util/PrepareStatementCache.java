@@ -53,7 +53,9 @@ import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.util.dao.PrepareResult;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -81,6 +83,9 @@ public final class PrepareStatementCache extends LinkedHashMap<String, PrepareRe
         boolean mustBeRemoved = this.size() > maxSize;
 
         if (mustBeRemoved) {
+            if (protocol.getMetrics() != null) {
+                protocol.getMetrics().prepareCacheEviction();
+            }
             PrepareResult prepareResult = ((PrepareResult) eldest.getValue());
             prepareResult.setRemoveFromCache();
             if (prepareResult.canBeDeallocate()) {
@@ -117,6 +122,24 @@ public final class PrepareStatementCache extends LinkedHashMap<String, PrepareRe
         return null;
     }
 
+    /**
+     * Get the queries of the most recently used cached entries of a database, most recent first.
+     *
+     * @param database database the queries have been prepared on
+     * @param max maximum number of queries
+     * @return query list
+     */
+    public synchronized List<String> mostRecentlyUsed(String database, int max) {
+        String prefix = database + "-";
+        List<String> queries = new ArrayList<>();
+        for (String key : keySet()) {
+            if (key.startsWith(prefix)) {
+                queries.add(0, key.substring(prefix.length()));
+            }
+        }
+        return (queries.size() > max) ? new ArrayList<>(queries.subList(0, max)) : queries;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder("PrepareStatementCache.map[");
@@ -0,0 +1,138 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM-wide cache of server variables loaded at connection time (max_allowed_packet, time zones, sql_mode).
+ * Those values are identical for all connections to the same server, so a new connection can reuse them
+ * instead of querying the server again. An entry is valid until its time to live expires, and only if
+ * the handshake of the new connection reports the same server version and a thread id that has not gone
+ * backward (a lower thread id means the server has restarted).
+ */
+public class ServerDataCache {
+
+    private static final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Get cached server data if still valid for this handshake.
+     *
+     * @param key           server key (see {@link #key(String, int, String)})
+     * @param serverVersion server version reported by handshake
+     * @param threadId      connection thread id reported by handshake
+     * @return server data, or null if not cached or no more valid.
+     */
+    public static Map<String, String> get(String key, String serverVersion, long threadId) {
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiration - System.nanoTime() < 0
+                || !entry.serverVersion.equals(serverVersion)
+                || threadId < entry.threadId) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.serverData;
+    }
+
+    /**
+     * Store server data loaded by a connection.
+     *
+     * @param key           server key (see {@link #key(String, int, String)})
+     * @param serverVersion server version reported by handshake
+     * @param threadId      connection thread id reported by handshake
+     * @param serverData    server variables
+     * @param ttl           time to live in milliseconds
+     */
+    public static void put(String key, String serverVersion, long threadId, Map<String, String> serverData, int ttl) {
+        cache.put(key, new Entry(serverVersion, threadId, Collections.unmodifiableMap(serverData),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttl)));
+    }
+
+    public static void invalidate(String key) {
+        cache.remove(key);
+    }
+
+    public static void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Cache key. User is part of the key, since init_connect may change session variables differently per user.
+     *
+     * @param host host
+     * @param port port
+     * @param user user
+     * @return cache key
+     */
+    public static String key(String host, int port, String user) {
+        return host + ":" + port + "/" + user;
+    }
+
+    private static class Entry {
+        private final String serverVersion;
+        private final long threadId;
+        private final Map<String, String> serverData;
+        private final long expiration;
+
+        Entry(String serverVersion, long threadId, Map<String, String> serverData, long expiration) {
+            this.serverVersion = serverVersion;
+            this.threadId = threadId;
+            this.serverData = serverData;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util;
+
+import org.mariadb.jdbc.internal.util.dao.StatementPoolKey;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU of idle poolable statements of a physical connection.
+ * A statement is removed from pool when borrowed, so a pooled statement is never shared.
+ * Evicted statements are physically closed.
+ */
+public class StatementPool extends LinkedHashMap<StatementPoolKey, PreparedStatement> {
+    private static final long serialVersionUID = -2813652483407458924L;
+    private final transient StatementPoolKey lookupKey = new StatementPoolKey("", "", 0);
+    private int maxSize;
+
+    private StatementPool(int size) {
+        super(size, .75f, true);
+        maxSize = size;
+    }
+
+    public static StatementPool newInstance(int size) {
+        return new StatementPool(size);
+    }
+
+    /**
+     * Remove an idle statement from pool, using the pool lookup key : caller must hold pool lock.
+     *
+     * @param database      current database
+     * @param sql           sql
+     * @param resultSetType result-set type
+     * @return idle statement, or null if none
+     */
+    public PreparedStatement borrow(String database, String sql, int resultSetType) {
+        return remove(lookupKey.reset(database, sql, resultSetType));
+    }
+
+    /**
+     * Add an idle statement to pool.
+     * If an idle statement with same key already exist, statement is not added.
+     *
+     * @param key database, sql and result-set type
+     * @param statement idle statement
+     * @return true if statement has been added to pool
+     */
+    public boolean putIfNone(StatementPoolKey key, PreparedStatement statement) {
+        if (containsKey(key)) {
+            return false;
+        }
+        put(key, statement);
+        return true;
+    }
+
+    /**
+     * Physically close all idle statements.
+     */
+    public void closeAll() {
+        List<PreparedStatement> statements = new ArrayList<>(values());
+        clear();
+        for (PreparedStatement statement : statements) {
+            closePhysically(statement);
+        }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<StatementPoolKey, PreparedStatement> eldest) {
+        if (this.size() > maxSize) {
+            closePhysically(eldest.getValue());
+            return true;
+        }
+        return false;
+    }
+
+    private static void closePhysically(PreparedStatement statement) {
+        try {
+            statement.setPoolable(false);
+            statement.close();
+        } catch (SQLException sqle) {
+            //eat
+        }
+    }
+
+}
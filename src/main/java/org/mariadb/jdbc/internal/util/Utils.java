@@ -48,7 +48,9 @@ WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWIS
 ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
 OF SUCH DAMAGE.
 */
+import org.mariadb.jdbc.QueryInterceptor;
 import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.failover.FailoverProtocol;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.failover.impl.AuroraListener;
 import org.mariadb.jdbc.internal.failover.impl.MastersFailoverListener;
@@ -64,7 +66,6 @@ import org.mariadb.jdbc.internal.util.dao.QueryException;
 
 import javax.net.SocketFactory;
 import java.io.IOException;
-import java.lang.reflect.Proxy;
 import java.net.Socket;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -446,26 +447,14 @@ public class Utils {
             case AURORA:
                 if (urlParser.getHostAddresses().size() == 1) {
                     //single node cluster consider like "FAILOVER"
-                    return (Protocol) Proxy.newProxyInstance(
-                            MasterProtocol.class.getClassLoader(),
-                            new Class[]{Protocol.class},
-                            new FailoverProxy(new MastersFailoverListener(urlParser), lock));
+                    return new FailoverProtocol(new FailoverProxy(new MastersFailoverListener(urlParser), lock));
                 }
-                return (Protocol) Proxy.newProxyInstance(
-                        AuroraProtocol.class.getClassLoader(),
-                        new Class[]{Protocol.class},
-                        new FailoverProxy(new AuroraListener(urlParser), lock));
+                return new FailoverProtocol(new FailoverProxy(new AuroraListener(urlParser), lock));
             case REPLICATION:
-                return (Protocol) Proxy.newProxyInstance(
-                        MastersSlavesProtocol.class.getClassLoader(),
-                        new Class[]{Protocol.class},
-                        new FailoverProxy(new MastersSlavesListener(urlParser), lock));
+                return new FailoverProtocol(new FailoverProxy(new MastersSlavesListener(urlParser), lock));
             case FAILOVER:
             case SEQUENTIAL:
-                return (Protocol) Proxy.newProxyInstance(
-                        MasterProtocol.class.getClassLoader(),
-                        new Class[]{Protocol.class},
-                        new FailoverProxy(new MastersFailoverListener(urlParser), lock));
+                return new FailoverProtocol(new FailoverProxy(new MastersFailoverListener(urlParser), lock));
             default:
                 MasterProtocol protocol = new MasterProtocol(urlParser, lock);
                 protocol.connectWithoutProxy();
@@ -531,4 +520,216 @@ public class Utils {
         }
     }
 
+    /**
+     * Create query interceptor instance.
+     *
+     * @param queryInterceptorName full name of a class implementing QueryInterceptor
+     * @return query interceptor
+     * @throws QueryException if class cannot be instantiated
+     */
+    public static QueryInterceptor createQueryInterceptor(String queryInterceptorName) throws QueryException {
+        try {
+            return (QueryInterceptor) (Class.forName(queryInterceptorName).newInstance());
+        } catch (Exception | LinkageError exception) {
+            throw new QueryException("Could not create query interceptor " + queryInterceptorName + " : " + exception.getMessage(), -1,
+                    ExceptionMapper.SqlStates.UNDEFINED_SQLSTATE.getSqlState(), exception);
+        }
+    }
+
+    /**
+     * Normalize a query to its digest, so that queries differing only by values have the same digest :
+     * <ul>
+     *     <li>string and number literals are replaced by "?",</li>
+     *     <li>IN lists are replaced by "(...)", and repeated value lists like "(?, ?), (?, ?)" by a single one,</li>
+     *     <li>comments are removed, and whitespaces normalized.</li>
+     * </ul>
+     * Example : "SELECT * FROM t WHERE a = 'x' AND b IN (1, 2,3)" digest is "SELECT * FROM t WHERE a = ? AND b IN (...)".
+     *
+     * @param sql query
+     * @param noBackslashEscapes must backslash be escaped
+     * @return digest
+     */
+    public static String digest(String sql, boolean noBackslashEscapes) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        LexState state = LexState.Normal;
+        char quoteChar = '\0';
+        boolean pendingSpace = false;
+        int[] parenthesisPositions = new int[8];
+        int depth = 0;
+        char[] query = sql.toCharArray();
+
+        for (int i = 0; i < query.length; i++) {
+            char car = query[i];
+            char nextChar = (i + 1 < query.length) ? query[i + 1] : '\0';
+            switch (state) {
+                case Escape:
+                    state = LexState.String;
+                    break;
+
+                case String:
+                    if (car == '\\' && !noBackslashEscapes) {
+                        state = LexState.Escape;
+                    } else if (car == quoteChar) {
+                        if (nextChar == quoteChar) {
+                            //doubled quote
+                            i++;
+                        } else {
+                            state = LexState.Normal;
+                        }
+                    }
+                    break;
+
+                case SlashStarComment:
+                    if (car == '*' && nextChar == '/') {
+                        i++;
+                        state = LexState.Normal;
+                        pendingSpace = true;
+                    }
+                    break;
+
+                case EOLComment:
+                    if (car == '\n') {
+                        state = LexState.Normal;
+                        pendingSpace = true;
+                    }
+                    break;
+
+                case Backtick:
+                    sb.append(car);
+                    if (car == '`') {
+                        state = LexState.Normal;
+                    }
+                    break;
+
+                default:
+                    if (Character.isWhitespace(car)) {
+                        pendingSpace = true;
+                        break;
+                    }
+                    if ((car == '/' && nextChar == '*') || (car == '-' && nextChar == '-')) {
+                        i++;
+                        state = (car == '/') ? LexState.SlashStarComment : LexState.EOLComment;
+                        pendingSpace = true;
+                        break;
+                    }
+                    if (car == '#') {
+                        state = LexState.EOLComment;
+                        pendingSpace = true;
+                        break;
+                    }
+
+                    if (pendingSpace && sb.length() > 0 && car != ',' && car != ')' && sb.charAt(sb.length() - 1) != '(') {
+                        sb.append(' ');
+                    }
+                    pendingSpace = false;
+
+                    if (car == '\'' || car == '"') {
+                        sb.append('?');
+                        quoteChar = car;
+                        state = LexState.String;
+                    } else if (car == '`') {
+                        sb.append(car);
+                        state = LexState.Backtick;
+                    } else if (car >= '0' && car <= '9' && (sb.length() == 0 || !isIdentifierPart(sb.charAt(sb.length() - 1)))) {
+                        i = skipNumber(query, i) - 1;
+                        sb.append('?');
+                    } else if (car == '(') {
+                        if (depth == parenthesisPositions.length) {
+                            parenthesisPositions = Arrays.copyOf(parenthesisPositions, depth * 2);
+                        }
+                        parenthesisPositions[depth++] = sb.length();
+                        sb.append(car);
+                    } else if (car == ')') {
+                        sb.append(car);
+                        if (depth > 0) {
+                            collapseList(sb, parenthesisPositions[--depth]);
+                        }
+                    } else {
+                        sb.append(car);
+                        if (car == ',') {
+                            pendingSpace = true;
+                        }
+                    }
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isIdentifierPart(char car) {
+        return Character.isLetterOrDigit(car) || car == '_' || car == '$' || car == '`';
+    }
+
+    /**
+     * Skip a number literal (decimal, with exponent, or hexadecimal).
+     *
+     * @return position after number
+     */
+    private static int skipNumber(char[] query, int start) {
+        int pos = start;
+        if (query[pos] == '0' && pos + 1 < query.length && (query[pos + 1] == 'x' || query[pos + 1] == 'X')) {
+            pos += 2;
+            while (pos < query.length && Character.digit(query[pos], 16) != -1) {
+                pos++;
+            }
+            return pos;
+        }
+        while (pos < query.length && ((query[pos] >= '0' && query[pos] <= '9') || query[pos] == '.')) {
+            pos++;
+        }
+        if (pos < query.length && (query[pos] == 'e' || query[pos] == 'E')) {
+            int exponentPos = pos + 1;
+            if (exponentPos < query.length && (query[exponentPos] == '+' || query[exponentPos] == '-')) {
+                exponentPos++;
+            }
+            if (exponentPos < query.length && query[exponentPos] >= '0' && query[exponentPos] <= '9') {
+                pos = exponentPos;
+                while (pos < query.length && query[pos] >= '0' && query[pos] <= '9') {
+                    pos++;
+                }
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Parenthesis starting at position start has just been closed : if it contains only placeholders, replace it by "(...)" if it's
+     * an IN list, or remove it if it repeats the previous list.
+     */
+    private static void collapseList(StringBuilder sb, int start) {
+        int end = sb.length() - 1;
+        boolean hasPlaceholder = false;
+        for (int i = start + 1; i < end; i++) {
+            char car = sb.charAt(i);
+            if (car == '?') {
+                hasPlaceholder = true;
+            } else if (car != ',' && car != ' ') {
+                return;
+            }
+        }
+        if (!hasPlaceholder) {
+            return;
+        }
+
+        int keywordEnd = start;
+        while (keywordEnd > 0 && sb.charAt(keywordEnd - 1) == ' ') {
+            keywordEnd--;
+        }
+        if (keywordEnd >= 2
+                && (sb.charAt(keywordEnd - 2) == 'i' || sb.charAt(keywordEnd - 2) == 'I')
+                && (sb.charAt(keywordEnd - 1) == 'n' || sb.charAt(keywordEnd - 1) == 'N')
+                && (keywordEnd == 2 || !isIdentifierPart(sb.charAt(keywordEnd - 3)))) {
+            sb.setLength(start + 1);
+            sb.append("...)");
+            return;
+        }
+
+        int length = sb.length() - start;
+        int previousStart = start - 2 - length;
+        if (previousStart >= 0 && sb.charAt(start - 2) == ',' && sb.charAt(start - 1) == ' '
+                && sb.substring(previousStart, start - 2).equals(sb.substring(start))) {
+            sb.setLength(start - 2);
+        }
+    }
+
 }
@@ -62,4 +62,5 @@ public class ServerStatus {
     public static short METADATA_CHANGED = 1024;
     public static short QUERY_WAS_SLOW = 2048;
     public static short PS_OUT_PARAMETERS = 4096;
+    public static short SESSION_STATE_CHANGED = 16384;
 }
@@ -0,0 +1,118 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.dao;
+
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.constant.HaMode;
+
+/**
+ * Key of a connection to a host, using given connection settings (high availability mode, database and all options,
+ * including credentials, SSL and socket options).
+ * Used to share internal connections between connections having the same settings only. Hash is computed once.
+ */
+public class HostConnectionKey {
+    private final HostAddress hostAddress;
+    private final HaMode haMode;
+    private final String database;
+    private final Options options;
+    private final int hash;
+
+    /**
+     * Constructor.
+     *
+     * @param hostAddress host
+     * @param urlParser   connection settings
+     */
+    public HostConnectionKey(HostAddress hostAddress, UrlParser urlParser) {
+        this.hostAddress = hostAddress;
+        this.haMode = urlParser.getHaMode();
+        this.database = urlParser.getDatabase();
+        this.options = urlParser.getOptions();
+        int result = hostAddress.hashCode();
+        result = 31 * result + haMode.hashCode();
+        result = 31 * result + (database != null ? database.hashCode() : 0);
+        result = 31 * result + options.hashCode();
+        this.hash = result;
+    }
+
+    public HostAddress getHostAddress() {
+        return hostAddress;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        HostConnectionKey that = (HostConnectionKey) object;
+        if (hash != that.hash || haMode != that.haMode || !hostAddress.equals(that.hostAddress)) {
+            return false;
+        }
+        if (database != null ? !database.equals(that.database) : that.database != null) {
+            return false;
+        }
+        return options.equals(that.options);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "HostConnectionKey{host=" + hostAddress + ", haMode=" + haMode + ", database=" + database + "}";
+    }
+}
@@ -66,6 +66,8 @@ public class PrepareResult {
     private volatile int shareCounter = 1;
     private volatile boolean isBeingDeallocate;
     private AtomicBoolean inCache = new AtomicBoolean();
+    //SQL digest, for digest statistics and flight recorder events
+    private volatile String digest;
 
     /**
      * PrepareStatement Result object.
@@ -172,4 +174,12 @@ public class PrepareResult {
     public boolean isExecuteOnMaster() {
         return executeOnMaster;
     }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
 }
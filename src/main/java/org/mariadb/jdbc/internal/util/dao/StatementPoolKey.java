@@ -0,0 +1,99 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.dao;
+
+/**
+ * Statement pool key : current database, sql and result-set type.
+ * Database is part of the key, since a statement prepared on a database resolves unqualified table names of that database.
+ * Keys stored in pool are never changed. A pool uses one mutable lookup key, reset before each search, to avoid an allocation per borrow.
+ */
+public class StatementPoolKey {
+    private String database;
+    private String sql;
+    private int resultSetType;
+    private int hash;
+
+    public StatementPoolKey(String database, String sql, int resultSetType) {
+        reset(database, sql, resultSetType);
+    }
+
+    /**
+     * Change key value. Must only be used on a lookup key, never on a key stored in pool.
+     *
+     * @param database      current database
+     * @param sql           sql
+     * @param resultSetType result-set type
+     * @return this key
+     */
+    public StatementPoolKey reset(String database, String sql, int resultSetType) {
+        this.database = database;
+        this.sql = sql;
+        this.resultSetType = resultSetType;
+        this.hash = 31 * (31 * database.hashCode() + sql.hashCode()) + resultSetType;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        StatementPoolKey that = (StatementPoolKey) object;
+        return hash == that.hash && resultSetType == that.resultSetType && sql.equals(that.sql) && database.equals(that.database);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
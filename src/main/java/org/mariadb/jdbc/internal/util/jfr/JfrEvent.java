@@ -0,0 +1,268 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.jfr;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Java Flight Recorder event type.
+ *
+ * <p>jdk.jfr API is only available since java 8u262 / 11, and driver must run on java 7 : event classes are created
+ * reflectively using jdk.jfr.EventFactory, only when a first recording is started.
+ * Until then, and when event is not enabled in running recordings, {@link #begin()} only read a volatile field and
+ * return null.</p>
+ *
+ * <p>Usage :</p>
+ * <pre>
+ * Object event = JfrEvent.EXECUTE.begin();
+ * ...
+ * JfrEvent.EXECUTE.commit(event, host, detail, sql, bytesSent, bytesReceived);
+ * </pre>
+ */
+public final class JfrEvent {
+    private static final String CATEGORY = "MariaDB Connector/J";
+    private static final String[] FIELDS = {"host", "detail", "sql", "bytesSent", "bytesReceived"};
+    private static final int MAX_SQL_LENGTH = 1024;
+
+    public static final JfrEvent CONNECT = new JfrEvent("Connect", "Connection phase : socket, handshake, authentication or bootstrap");
+    public static final JfrEvent EXECUTE = new JfrEvent("Execute", "Command execution, from send to last result packet read");
+    public static final JfrEvent FETCH = new JfrEvent("Fetch", "Fetch of a batch of result set rows");
+    public static final JfrEvent STREAMING_DRAIN = new JfrEvent("StreamingDrain", "Skip of unread streaming result set rows");
+    public static final JfrEvent COMPRESSION = new JfrEvent("Compression", "Compression of a packet");
+    public static final JfrEvent FAILOVER = new JfrEvent("Failover", "Failover or reconnection episode");
+
+    private static final List<JfrEvent> EVENTS = Collections.unmodifiableList(
+            Arrays.asList(CONNECT, EXECUTE, FETCH, STREAMING_DRAIN, COMPRESSION, FAILOVER));
+
+    private static Method newEventMethod;
+    private static Method eventTypeMethod;
+    private static Method isEnabledMethod;
+    private static Method beginMethod;
+    private static Method endMethod;
+    private static Method shouldCommitMethod;
+    private static Method commitMethod;
+    private static Method setMethod;
+    private static boolean initialized;
+
+    private final String name;
+    private final String description;
+    private volatile Object factory;
+    private volatile boolean enabled;
+
+    static {
+        try {
+            registerRecorderListener();
+        } catch (Throwable throwable) {
+            //java version without flight recorder API, events stay disabled
+        }
+    }
+
+    private JfrEvent(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    /**
+     * Is this event enabled in a running recording.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a new event.
+     *
+     * @return event, or null if event isn't enabled
+     */
+    public Object begin() {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            Object event = newEventMethod.invoke(factory);
+            beginMethod.invoke(event);
+            return event;
+        } catch (Throwable throwable) {
+            return null;
+        }
+    }
+
+    /**
+     * End and commit an event started with {@link #begin()}. Does nothing if event is null.
+     *
+     * @param event event returned by {@link #begin()}
+     * @param host host, as "host:port"
+     * @param detail event detail (connection phase, command, ...)
+     * @param sql sql digest or sql command. Can be null
+     * @param bytesSent number of bytes sent during event
+     * @param bytesReceived number of bytes received during event
+     */
+    public void commit(Object event, String host, String detail, String sql, long bytesSent, long bytesReceived) {
+        if (event == null) {
+            return;
+        }
+        try {
+            endMethod.invoke(event);
+            if ((Boolean) shouldCommitMethod.invoke(event)) {
+                setMethod.invoke(event, 0, host);
+                setMethod.invoke(event, 1, detail);
+                setMethod.invoke(event, 2, (sql != null && sql.length() > MAX_SQL_LENGTH) ? sql.substring(0, MAX_SQL_LENGTH) : sql);
+                setMethod.invoke(event, 3, bytesSent);
+                setMethod.invoke(event, 4, bytesReceived);
+                commitMethod.invoke(event);
+            }
+        } catch (Throwable throwable) {
+            //event is lost
+        }
+    }
+
+    private static void registerRecorderListener() throws Exception {
+        final Class<?> listenerClass = Class.forName("jdk.jfr.FlightRecorderListener");
+        Object listener = Proxy.newProxyInstance(JfrEvent.class.getClassLoader(), new Class<?>[]{listenerClass},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        String methodName = method.getName();
+                        if ("recordingStateChanged".equals(methodName) || "recorderInitialized".equals(methodName)) {
+                            refresh();
+                            return null;
+                        }
+                        if ("equals".equals(methodName)) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(methodName)) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ("toString".equals(methodName)) {
+                            return "MariaDB Connector/J flight recorder listener";
+                        }
+                        return null;
+                    }
+                });
+        Class.forName("jdk.jfr.FlightRecorder").getMethod("addListener", listenerClass).invoke(null, listener);
+    }
+
+    /**
+     * Recording state changed : create event types if not done, and update enabled flags.
+     */
+    private static synchronized void refresh() {
+        try {
+            if (!initialized) {
+                initialized = true;
+                createEventTypes();
+            }
+            for (JfrEvent jfrEvent : EVENTS) {
+                if (jfrEvent.factory != null) {
+                    Object eventType = eventTypeMethod.invoke(jfrEvent.factory);
+                    jfrEvent.enabled = (Boolean) isEnabledMethod.invoke(eventType);
+                }
+            }
+        } catch (Throwable throwable) {
+            for (JfrEvent jfrEvent : EVENTS) {
+                jfrEvent.enabled = false;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void createEventTypes() throws Exception {
+        Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+        Class<?> eventClass = Class.forName("jdk.jfr.Event");
+        Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+        Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+        Constructor<?> annotationConstructor = annotationElementClass.getConstructor(Class.class, Object.class);
+        Constructor<?> valueConstructor = valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+        Method createMethod = factoryClass.getMethod("create", List.class, List.class);
+        Class<?> nameClass = Class.forName("jdk.jfr.Name");
+        Class<?> labelClass = Class.forName("jdk.jfr.Label");
+        Class<?> descriptionClass = Class.forName("jdk.jfr.Description");
+        Class<?> categoryClass = Class.forName("jdk.jfr.Category");
+        Class<?> dataAmountClass = Class.forName("jdk.jfr.DataAmount");
+
+        List<Object> fields = new ArrayList<>();
+        for (String field : FIELDS) {
+            List<Object> fieldAnnotations = new ArrayList<>();
+            fieldAnnotations.add(annotationConstructor.newInstance(labelClass, field));
+            if (field.startsWith("bytes")) {
+                fieldAnnotations.add(annotationConstructor.newInstance(dataAmountClass, "BYTES"));
+                fields.add(valueConstructor.newInstance(long.class, field, fieldAnnotations));
+            } else {
+                fields.add(valueConstructor.newInstance(String.class, field, fieldAnnotations));
+            }
+        }
+
+        for (JfrEvent jfrEvent : EVENTS) {
+            List<Object> annotations = new ArrayList<>();
+            annotations.add(annotationConstructor.newInstance(nameClass, "org.mariadb.jdbc." + jfrEvent.name));
+            annotations.add(annotationConstructor.newInstance(labelClass, jfrEvent.name));
+            annotations.add(annotationConstructor.newInstance(descriptionClass, jfrEvent.description));
+            annotations.add(annotationConstructor.newInstance(categoryClass, new String[]{CATEGORY}));
+            jfrEvent.factory = createMethod.invoke(null, annotations, fields);
+        }
+
+        newEventMethod = factoryClass.getMethod("newEvent");
+        eventTypeMethod = factoryClass.getMethod("getEventType");
+        isEnabledMethod = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+        beginMethod = eventClass.getMethod("begin");
+        endMethod = eventClass.getMethod("end");
+        shouldCommitMethod = eventClass.getMethod("shouldCommit");
+        commitMethod = eventClass.getMethod("commit");
+        setMethod = eventClass.getMethod("set", int.class, Object.class);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.metrics;
+
+import org.mariadb.jdbc.HostAddress;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics recorder of a connection : each value is added to the metrics of the connection host and of its data source.
+ * Connections to the same host from the same data source share the same instance.
+ * When metrics are disabled, connections have no recorder, so that the only cost is a null check.
+ */
+public final class ConnectionMetrics {
+    public static final String DEFAULT_DATA_SOURCE = "default";
+    private static final ConcurrentMap<String, ConnectionMetrics> recorders = new ConcurrentHashMap<>();
+
+    private final DriverMetrics host;
+    private final DriverMetrics dataSource;
+
+    private ConnectionMetrics(DriverMetrics host, DriverMetrics dataSource) {
+        this.host = host;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Get recorder of a host for a data source.
+     *
+     * @param hostAddress    host
+     * @param dataSourceName data source name (poolName option), null for default
+     * @return recorder
+     */
+    public static ConnectionMetrics get(HostAddress hostAddress, String dataSourceName) {
+        String hostName = hostAddress.host + ":" + hostAddress.port;
+        String dataSource = (dataSourceName == null) ? DEFAULT_DATA_SOURCE : dataSourceName;
+        String key = hostName + "/" + dataSource;
+        ConnectionMetrics recorder = recorders.get(key);
+        if (recorder == null) {
+            ConnectionMetrics newRecorder = new ConnectionMetrics(DriverMetrics.get(DriverMetrics.SCOPE_HOST, hostName),
+                    DriverMetrics.get(DriverMetrics.SCOPE_DATA_SOURCE, dataSource));
+            recorder = recorders.putIfAbsent(key, newRecorder);
+            if (recorder == null) {
+                recorder = newRecorder;
+            }
+        }
+        return recorder;
+    }
+
+    public DriverMetrics getHostMetrics() {
+        return host;
+    }
+
+    public DriverMetrics getDataSourceMetrics() {
+        return dataSource;
+    }
+
+    public void connectionOpened() {
+        host.connectionsOpened.increment();
+        dataSource.connectionsOpened.increment();
+    }
+
+    public void connectionClosed() {
+        host.connectionsClosed.increment();
+        dataSource.connectionsClosed.increment();
+    }
+
+    /**
+     * Record a packet sent.
+     *
+     * @param bytes packet length, including header
+     */
+    public void packetSent(int bytes) {
+        host.packetsSent.increment();
+        host.bytesSent.add(bytes);
+        dataSource.packetsSent.increment();
+        dataSource.bytesSent.add(bytes);
+    }
+
+    /**
+     * Record a packet received.
+     *
+     * @param bytes packet length, including header
+     */
+    public void packetReceived(int bytes) {
+        host.packetsReceived.increment();
+        host.bytesReceived.add(bytes);
+        dataSource.packetsReceived.increment();
+        dataSource.bytesReceived.add(bytes);
+    }
+
+    public void roundTrip() {
+        host.roundTrips.increment();
+        dataSource.roundTrips.increment();
+    }
+
+    /**
+     * Record result rows.
+     *
+     * @param rows number of rows read
+     */
+    public void resultRows(long rows) {
+        host.resultRows.add(rows);
+        dataSource.resultRows.add(rows);
+    }
+
+    /**
+     * Record query latency (time until first response packet).
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void queryLatency(long nanos) {
+        host.queryLatency.record(nanos);
+        dataSource.queryLatency.record(nanos);
+    }
+
+    /**
+     * Record server prepare latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void prepareLatency(long nanos) {
+        host.prepareLatency.record(nanos);
+        dataSource.prepareLatency.record(nanos);
+    }
+
+    public void prepareCacheHit() {
+        host.prepareCacheHits.increment();
+        dataSource.prepareCacheHits.increment();
+    }
+
+    public void prepareCacheMiss() {
+        host.prepareCacheMisses.increment();
+        dataSource.prepareCacheMisses.increment();
+    }
+
+    public void prepareCacheEviction() {
+        host.prepareCacheEvictions.increment();
+        dataSource.prepareCacheEvictions.increment();
+    }
+
+    public void failover() {
+        host.failovers.increment();
+        dataSource.failovers.increment();
+    }
+}
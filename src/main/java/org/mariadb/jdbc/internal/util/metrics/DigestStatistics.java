@@ -0,0 +1,361 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.metrics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Execution statistics per SQL digest of a data source, created once for the JVM and registered as MXBean.
+ *
+ * <p>Memory is bounded : at most maxSize digests are kept, using a sampled "space saving" top-K algorithm. When a new digest must
+ * be added to a full table, the digest with lowest weight (executions, plus weight inherited at admission) among
+ * {@link #EVICTION_SAMPLES} random digests is evicted, and the new one inherits its weight, so that frequent digests stay, and a
+ * digest that just arrived isn't evicted immediately. Admission cost doesn't depend on maxSize.
+ * Statistics of a digest are counted since its last admission. Executions are never recorded on an evicted digest : a digest
+ * being recorded cannot be evicted, and recording retries on the new digest if eviction happened first.</p>
+ */
+public final class DigestStatistics implements DigestStatisticsMXBean {
+    static final int EVICTION_SAMPLES = 8;
+    private static final ConcurrentMap<String, DigestStatistics> registry = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int maxSize;
+    private final ConcurrentMap<String, Entry> entries;
+    private final AtomicLong evictions = new AtomicLong();
+    // admitted entries, to sample eviction candidates. Guarded by this monitor
+    private final Entry[] slots;
+    private int size;
+
+    private DigestStatistics(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(maxSize * 4 / 3 + 1);
+        this.slots = new Entry[maxSize];
+    }
+
+    /**
+     * Get statistics of a data source, creating and registering them in JMX if needed.
+     * Maximum size is set by the first caller.
+     *
+     * @param name    data source name
+     * @param maxSize maximum number of digests
+     * @return statistics
+     */
+    public static DigestStatistics get(String name, int maxSize) {
+        DigestStatistics statistics = registry.get(name);
+        if (statistics == null) {
+            DigestStatistics newStatistics = new DigestStatistics(name, maxSize);
+            statistics = registry.putIfAbsent(name, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+                register(statistics);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Get statistics of a data source, if existing.
+     *
+     * @param name data source name ("default" for connections without pool name)
+     * @return statistics, or null if no connection of this data source has enabled digest statistics
+     */
+    public static DigestStatistics get(String name) {
+        return registry.get(name);
+    }
+
+    private static void register(DigestStatistics statistics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("org.mariadb.jdbc:type=DigestStatistics,name=" + ObjectName.quote(statistics.name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(statistics, objectName);
+            }
+        } catch (Exception | LinkageError exception) {
+            //JMX not available or not permitted : statistics are still available using DigestStatistics.get()
+        }
+    }
+
+    /**
+     * Record an execution.
+     *
+     * @param digest        SQL digest
+     * @param nanos         execution time in nanoseconds
+     * @param rows          rows read
+     * @param bytesSent     bytes sent
+     * @param bytesReceived bytes received
+     * @param error         has execution failed
+     */
+    public void record(String digest, long nanos, long rows, long bytesSent, long bytesReceived, boolean error) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        while (true) {
+            Entry entry = entries.get(digest);
+            if (entry == null) {
+                entry = admit(digest);
+            }
+            if (entry.pin()) {
+                try {
+                    entry.record(micros, rows, bytesSent, bytesReceived, error);
+                } finally {
+                    entry.unpin();
+                }
+                return;
+            }
+            //entry has been evicted concurrently : record on the new entry
+        }
+    }
+
+    private synchronized Entry admit(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry != null) {
+            return entry;
+        }
+        long inheritedWeight = 0;
+        int slot = size;
+        if (size < maxSize) {
+            size++;
+        } else {
+            Entry evicted = evictSample();
+            slot = evicted.slot;
+            entries.remove(evicted.digest);
+            inheritedWeight = evicted.weight();
+            evictions.incrementAndGet();
+        }
+        entry = new Entry(digest, slot, inheritedWeight);
+        slots[slot] = entry;
+        entries.put(digest, entry);
+        return entry;
+    }
+
+    /**
+     * Evict lightest entry of a random sample (of all entries if there are fewer than the sample size).
+     * Entries being recorded are skipped. Must hold this monitor.
+     *
+     * @return evicted entry
+     */
+    private Entry evictSample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean scanAll = size <= EVICTION_SAMPLES;
+        while (true) {
+            Entry lightest = null;
+            for (int i = 0; i < (scanAll ? size : EVICTION_SAMPLES); i++) {
+                Entry candidate = slots[scanAll ? i : random.nextInt(size)];
+                if (!candidate.isPinned() && (lightest == null || candidate.weight() < lightest.weight())) {
+                    lightest = candidate;
+                }
+            }
+            if (lightest != null && lightest.evict()) {
+                return lightest;
+            }
+            Thread.yield();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Digest statistics, ordered by total execution time, descending.
+     *
+     * @return digest statistics
+     */
+    @Override
+    public List<DigestSummary> getTopDigests() {
+        List<DigestSummary> summaries = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            summaries.add(entry.getValue().summary(entry.getKey()));
+        }
+        Collections.sort(summaries, new Comparator<DigestSummary>() {
+            @Override
+            public int compare(DigestSummary summary1, DigestSummary summary2) {
+                long diff = summary2.getTotalMicros() - summary1.getTotalMicros();
+                return (diff > 0) ? 1 : ((diff < 0) ? -1 : 0);
+            }
+        });
+        return summaries;
+    }
+
+    @Override
+    public synchronized void reset() {
+        entries.clear();
+        Arrays.fill(slots, null);
+        size = 0;
+        evictions.set(0);
+    }
+
+    /**
+     * Statistics of a digest. Latency histogram uses LatencyHistogram buckets, limited to 2^40 microseconds (12 days) to save memory.
+     */
+    private static final class Entry {
+        private static final int BUCKETS = LatencyHistogram.bucketIndex(1L << 40) + 1;
+        private static final int EVICTED = -1;
+
+        private final String digest;
+        private final int slot;
+        private final long inheritedWeight;
+        // number of threads recording on this entry, or EVICTED
+        private final AtomicInteger pins = new AtomicInteger();
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong totalMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong bytesSent = new AtomicLong();
+        private final AtomicLong bytesReceived = new AtomicLong();
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        Entry(String digest, int slot, long inheritedWeight) {
+            this.digest = digest;
+            this.slot = slot;
+            this.inheritedWeight = inheritedWeight;
+        }
+
+        boolean pin() {
+            int current;
+            do {
+                current = pins.get();
+                if (current == EVICTED) {
+                    return false;
+                }
+            } while (!pins.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void unpin() {
+            pins.decrementAndGet();
+        }
+
+        boolean isPinned() {
+            return pins.get() > 0;
+        }
+
+        boolean evict() {
+            return pins.compareAndSet(0, EVICTED);
+        }
+
+        long weight() {
+            return inheritedWeight + count.get();
+        }
+
+        void record(long micros, long rowNumber, long sent, long received, boolean error) {
+            count.incrementAndGet();
+            if (error) {
+                errors.incrementAndGet();
+            }
+            totalMicros.addAndGet(micros);
+            long max = maxMicros.get();
+            while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+                max = maxMicros.get();
+            }
+            counts.incrementAndGet(Math.min(LatencyHistogram.bucketIndex(micros), BUCKETS - 1));
+            rows.addAndGet(rowNumber);
+            bytesSent.addAndGet(sent);
+            bytesReceived.addAndGet(received);
+        }
+
+        DigestSummary summary(String digest) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            return new DigestSummary(digest, count.get(), errors.get(), totalMicros.get(), maxMicros.get(),
+                    percentile(snapshot, total, 50), percentile(snapshot, total, 99), rows.get(), bytesSent.get(), bytesReceived.get());
+        }
+
+        private long percentile(long[] snapshot, long total, double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(LatencyHistogram.bucketUpperBound(i), maxMicros.get());
+                }
+            }
+            return maxMicros.get();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Statistics snapshot of a SQL digest. Latencies are in microseconds.
+ */
+public final class DigestSummary {
+    private final String digest;
+    private final long count;
+    private final long errors;
+    private final long totalMicros;
+    private final long maxMicros;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long rows;
+    private final long bytesSent;
+    private final long bytesReceived;
+
+    /**
+     * Constructor.
+     *
+     * @param digest SQL digest
+     * @param count number of executions
+     * @param errors number of executions in error
+     * @param totalMicros total execution time
+     * @param maxMicros max execution time
+     * @param p50Micros median execution time
+     * @param p99Micros 99th percentile execution time
+     * @param rows rows read
+     * @param bytesSent bytes sent
+     * @param bytesReceived bytes received
+     */
+    @ConstructorProperties({"digest", "count", "errors", "totalMicros", "maxMicros", "p50Micros", "p99Micros", "rows",
+            "bytesSent", "bytesReceived"})
+    public DigestSummary(String digest, long count, long errors, long totalMicros, long maxMicros, long p50Micros, long p99Micros,
+                         long rows, long bytesSent, long bytesReceived) {
+        this.digest = digest;
+        this.count = count;
+        this.errors = errors;
+        this.totalMicros = totalMicros;
+        this.maxMicros = maxMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.rows = rows;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getTotalMicros() {
+        return totalMicros;
+    }
+
+    public long getMeanMicros() {
+        return (count == 0) ? 0 : totalMicros / count;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    @Override
+    public String toString() {
+        return digest + " : count=" + count + ", errors=" + errors + ", total=" + totalMicros + "us, mean=" + getMeanMicros()
+                + "us, p50=" + p50Micros + "us, p99=" + p99Micros + "us, max=" + maxMicros + "us, rows=" + rows
+                + ", bytesSent=" + bytesSent + ", bytesReceived=" + bytesReceived;
+    }
+}
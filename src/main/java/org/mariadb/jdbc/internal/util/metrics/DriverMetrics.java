@@ -0,0 +1,254 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.metrics;
+
+import org.mariadb.jdbc.internal.failover.tools.HostCircuitBreaker;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Driver metrics aggregated for a host, or for a data source.
+ * Instances are created once for the JVM and registered as MXBean.
+ */
+public final class DriverMetrics implements DriverMetricsMXBean {
+    public static final String SCOPE_HOST = "host";
+    public static final String SCOPE_DATA_SOURCE = "dataSource";
+    private static final ConcurrentMap<String, DriverMetrics> registry = new ConcurrentHashMap<>();
+
+    private final String scope;
+    private final String name;
+    final StripedCounter connectionsOpened = new StripedCounter();
+    final StripedCounter connectionsClosed = new StripedCounter();
+    final StripedCounter bytesSent = new StripedCounter();
+    final StripedCounter bytesReceived = new StripedCounter();
+    final StripedCounter packetsSent = new StripedCounter();
+    final StripedCounter packetsReceived = new StripedCounter();
+    final StripedCounter roundTrips = new StripedCounter();
+    final StripedCounter resultRows = new StripedCounter();
+    final StripedCounter prepareCacheHits = new StripedCounter();
+    final StripedCounter prepareCacheMisses = new StripedCounter();
+    final StripedCounter prepareCacheEvictions = new StripedCounter();
+    final StripedCounter failovers = new StripedCounter();
+    final LatencyHistogram queryLatency = new LatencyHistogram();
+    final LatencyHistogram prepareLatency = new LatencyHistogram();
+
+    private DriverMetrics(String scope, String name) {
+        this.scope = scope;
+        this.name = name;
+    }
+
+    /**
+     * Get metrics of a scope, creating and registering them in JMX if needed.
+     *
+     * @param scope scope (SCOPE_HOST or SCOPE_DATA_SOURCE)
+     * @param name  host ("host:port") or data source name
+     * @return metrics
+     */
+    public static DriverMetrics get(String scope, String name) {
+        String key = scope + "/" + name;
+        DriverMetrics metrics = registry.get(key);
+        if (metrics == null) {
+            DriverMetrics newMetrics = new DriverMetrics(scope, name);
+            metrics = registry.putIfAbsent(key, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+                register(metrics);
+            }
+        }
+        return metrics;
+    }
+
+    private static void register(DriverMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("org.mariadb.jdbc:type=Metrics,scope=" + metrics.scope
+                    + ",name=" + ObjectName.quote(metrics.name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (Exception | LinkageError exception) {
+            //JMX not available or not permitted : metrics are still available using DriverMetrics.get()
+        }
+    }
+
+    @Override
+    public String getScope() {
+        return scope;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    @Override
+    public long getConnectionsClosed() {
+        return connectionsClosed.sum();
+    }
+
+    @Override
+    public long getActiveConnections() {
+        return connectionsOpened.sum() - connectionsClosed.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public long getPacketsSent() {
+        return packetsSent.sum();
+    }
+
+    @Override
+    public long getPacketsReceived() {
+        return packetsReceived.sum();
+    }
+
+    @Override
+    public long getRoundTrips() {
+        return roundTrips.sum();
+    }
+
+    @Override
+    public long getResultRows() {
+        return resultRows.sum();
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queryLatency.getCount();
+    }
+
+    @Override
+    public long getQueryLatencyMean() {
+        return queryLatency.getMeanMicros();
+    }
+
+    @Override
+    public long getQueryLatencyP50() {
+        return queryLatency.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getQueryLatencyP99() {
+        return queryLatency.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getQueryLatencyP999() {
+        return queryLatency.getPercentileMicros(99.9);
+    }
+
+    @Override
+    public long getQueryLatencyMax() {
+        return queryLatency.getMaxMicros();
+    }
+
+    @Override
+    public long getPrepareCount() {
+        return prepareLatency.getCount();
+    }
+
+    @Override
+    public long getPrepareLatencyMean() {
+        return prepareLatency.getMeanMicros();
+    }
+
+    @Override
+    public long getPrepareLatencyP99() {
+        return prepareLatency.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getPrepareLatencyMax() {
+        return prepareLatency.getMaxMicros();
+    }
+
+    @Override
+    public long getPrepareCacheHits() {
+        return prepareCacheHits.sum();
+    }
+
+    @Override
+    public long getPrepareCacheMisses() {
+        return prepareCacheMisses.sum();
+    }
+
+    @Override
+    public long getPrepareCacheEvictions() {
+        return prepareCacheEvictions.sum();
+    }
+
+    @Override
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    @Override
+    public int getBlacklistSize() {
+        return HostCircuitBreaker.getOpenHosts().size();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histogram with log-linear buckets (like HdrHistogram) : values are recorded in microseconds, each power of two is split
+ * in 8 buckets, so percentiles have a precision of 12.5%, without allocation when recording.
+ * Like {@link StripedCounter}, each thread records in one of several stripes, allocated on first use, that are merged on read.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(StripedCounter.STRIPES);
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int index = StripedCounter.currentStripe();
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new Stripe());
+            stripe = stripes.get(index);
+        }
+        stripe.counts.incrementAndGet(bucketIndex(micros));
+        stripe.totalMicros.addAndGet(micros);
+        long max = stripe.maxMicros.get();
+        while (micros > max && !stripe.maxMicros.compareAndSet(max, micros)) {
+            max = stripe.maxMicros.get();
+        }
+    }
+
+    /**
+     * Number of recorded values.
+     *
+     * @return count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < BUCKETS; j++) {
+                    count += stripe.counts.get(j);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Maximum recorded value.
+     *
+     * @return max in microseconds, 0 if no value has been recorded
+     */
+    public long getMaxMicros() {
+        long max = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                max = Math.max(max, stripe.maxMicros.get());
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Mean of recorded values.
+     *
+     * @return mean in microseconds, 0 if no value has been recorded
+     */
+    public long getMeanMicros() {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long totalMicros = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                totalMicros += stripe.totalMicros.get();
+            }
+        }
+        return totalMicros / count;
+    }
+
+    /**
+     * Value at a percentile (upper bound of the bucket containing this percentile, limited to max value).
+     *
+     * @param percentile percentile, between 0 and 100
+     * @return value in microseconds, 0 if no value has been recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < BUCKETS; j++) {
+                    long bucketCount = stripe.counts.get(j);
+                    snapshot[j] += bucketCount;
+                    count += bucketCount;
+                }
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long maxMicros = getMaxMicros();
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    private static final class Stripe {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong totalMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+    }
+}
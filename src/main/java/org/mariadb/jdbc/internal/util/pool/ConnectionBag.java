@@ -0,0 +1,260 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.pool;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free container of pool entries.
+ * <p>
+ * Borrowing first looks at entries last returned by the current thread (thread affinity: a thread that returns a connection
+ * will most of the time borrow it again), then scans the shared list. Entries are claimed by a compare-and-set on their state,
+ * so no lock is taken on these paths. When no entry is available, the borrowing thread waits on a hand-off queue, and threads
+ * returning entries pass them directly to waiting threads.
+ */
+public class ConnectionBag {
+    private static final int THREAD_LIST_MAX_SIZE = 16;
+
+    private final CopyOnWriteArrayList<PoolEntry> sharedList = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<WeakReference<PoolEntry>>> threadList = new ThreadLocal<List<WeakReference<PoolEntry>>>() {
+        @Override
+        protected List<WeakReference<PoolEntry>> initialValue() {
+            return new ArrayList<>(THREAD_LIST_MAX_SIZE);
+        }
+    };
+    private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     * Borrow an entry without waiting.
+     *
+     * @return an entry in state IN_USE or null if none is available.
+     */
+    public PoolEntry poll() {
+        //thread affinity fast path, most recently returned first
+        final List<WeakReference<PoolEntry>> list = threadList.get();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            final PoolEntry entry = list.remove(i).get();
+            if (entry != null && entry.compareAndSetState(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_IN_USE)) {
+                return entry;
+            }
+        }
+
+        for (PoolEntry entry : sharedList) {
+            if (entry.compareAndSetState(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_IN_USE)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Borrow an entry, waiting until one is returned if none is available.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    timeout unit
+     * @return an entry in state IN_USE or null if timeout expired.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public PoolEntry poll(long timeout, TimeUnit unit) throws InterruptedException {
+        PoolEntry entry = poll();
+        if (entry != null) {
+            return entry;
+        }
+
+        waiters.incrementAndGet();
+        try {
+            //an entry may have been returned before this thread was registered as waiter
+            entry = poll();
+            if (entry != null) {
+                return entry;
+            }
+
+            long remaining = unit.toNanos(timeout);
+            final long end = System.nanoTime() + remaining;
+            while (remaining > 0) {
+                entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry != null && entry.compareAndSetState(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_IN_USE)) {
+                    return entry;
+                }
+                remaining = end - System.nanoTime();
+            }
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Give back a borrowed (or reserved) entry, handing it directly to a waiting thread if any.
+     *
+     * @param entry entry to give back
+     */
+    public void requite(PoolEntry entry) {
+        if (handoff(entry)) {
+            return;
+        }
+        final List<WeakReference<PoolEntry>> list = threadList.get();
+        if (list.size() < THREAD_LIST_MAX_SIZE) {
+            list.add(new WeakReference<>(entry));
+        }
+    }
+
+    /**
+     * Give back a reserved entry, without thread affinity (the reserving thread is not a borrowing thread).
+     *
+     * @param entry reserved entry
+     */
+    public void unreserve(PoolEntry entry) {
+        handoff(entry);
+    }
+
+    private boolean handoff(PoolEntry entry) {
+        entry.setState(PoolEntry.STATE_NOT_IN_USE);
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.getState() != PoolEntry.STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+                return true;
+            }
+            if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add a new entry to the bag, handing it to a waiting thread if any.
+     *
+     * @param entry new entry
+     */
+    public void add(PoolEntry entry) {
+        sharedList.add(entry);
+        while (waiters.get() > 0 && entry.getState() == PoolEntry.STATE_NOT_IN_USE && !handoffQueue.offer(entry)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Remove an entry from the bag. Entry must be borrowed or reserved.
+     *
+     * @param entry entry to remove
+     * @return true if removed
+     */
+    public boolean remove(PoolEntry entry) {
+        if (!entry.compareAndSetState(PoolEntry.STATE_IN_USE, PoolEntry.STATE_REMOVED)
+                && !entry.compareAndSetState(PoolEntry.STATE_RESERVED, PoolEntry.STATE_REMOVED)) {
+            return false;
+        }
+        return sharedList.remove(entry);
+    }
+
+    /**
+     * Reserve an idle entry, so it cannot be borrowed (used by housekeeping to validate or evict an entry).
+     *
+     * @param entry entry
+     * @return true if reserved
+     */
+    public boolean reserve(PoolEntry entry) {
+        return entry.compareAndSetState(PoolEntry.STATE_NOT_IN_USE, PoolEntry.STATE_RESERVED);
+    }
+
+    /**
+     * List entries in a given state.
+     *
+     * @param state state
+     * @return entries
+     */
+    public List<PoolEntry> values(int state) {
+        final List<PoolEntry> list = new ArrayList<>(sharedList.size());
+        for (PoolEntry entry : sharedList) {
+            if (entry.getState() == state) {
+                list.add(entry);
+            }
+        }
+        return list;
+    }
+
+    public List<PoolEntry> values() {
+        return new ArrayList<>(sharedList);
+    }
+
+    /**
+     * Count entries in a given state.
+     *
+     * @param state state
+     * @return number of entries
+     */
+    public int getCount(int state) {
+        int count = 0;
+        for (PoolEntry entry : sharedList) {
+            if (entry.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return sharedList.size();
+    }
+
+    public int getWaitingThreadCount() {
+        return waiters.get();
+    }
+}
@@ -0,0 +1,411 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.pool;
+
+import org.mariadb.jdbc.MariaDbConnection;
+import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+import org.mariadb.jdbc.internal.util.Options;
+import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
+
+import java.sql.SQLException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Connection pool.
+ * <p>
+ * Physical connections are kept in a {@link ConnectionBag}. Connection borrowing is lock-free when an idle connection is available.
+ * A background task evicts connections idle for more than maxIdleTime (keeping minPoolSize connections), validates idle connections and
+ * fill the pool to minPoolSize. Connections are reset when given back to the pool, using protocol state to avoid useless commands.
+ * Each borrow gets its own {@link PoolConnection} handle, so a closed handle cannot use a physical connection lent to another borrower.
+ */
+public class Pool {
+    private static final AtomicInteger POOL_ID = new AtomicInteger();
+    private static final long MAX_HOUSEKEEPING_DELAY_SECONDS = 30;
+
+    private final String name;
+    private final UrlParser urlParser;
+    private final int maxPoolSize;
+    private final int minPoolSize;
+    private final long maxIdleNanos;
+    private final long validMinDelayNanos;
+    private final ConnectionBag bag = new ConnectionBag();
+    private final AtomicInteger totalConnection = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private final ScheduledExecutorService connectionAppender;
+    private final Runnable addConnectionTask = new Runnable() {
+        @Override
+        public void run() {
+            addConnection();
+        }
+    };
+    private volatile boolean closed = false;
+
+    //metrics
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalUsageNanos = new AtomicLong();
+
+    /**
+     * Create pool. Pool is filled asynchronously to minPoolSize.
+     *
+     * @param urlParser connection information
+     */
+    public Pool(UrlParser urlParser) {
+        this.urlParser = urlParser;
+        Options options = urlParser.getOptions();
+        this.name = options.poolName != null ? options.poolName : "MariaDB-pool-" + POOL_ID.incrementAndGet();
+        this.maxPoolSize = options.maxPoolSize;
+        this.minPoolSize = options.minPoolSize == null ? maxPoolSize : Math.min(options.minPoolSize, maxPoolSize);
+        this.maxIdleNanos = TimeUnit.SECONDS.toNanos(options.maxIdleTime);
+        this.validMinDelayNanos = TimeUnit.MILLISECONDS.toNanos(options.poolValidMinDelay);
+
+        long housekeepingDelay = MAX_HOUSEKEEPING_DELAY_SECONDS;
+        if (options.maxIdleTime > 0) {
+            housekeepingDelay = Math.max(1, Math.min(MAX_HOUSEKEEPING_DELAY_SECONDS, options.maxIdleTime / 2));
+        }
+
+        connectionAppender = SchedulerServiceProviderHolder.getFixedSizeScheduler(1);
+        housekeeper = SchedulerServiceProviderHolder.getFixedSizeScheduler(1);
+        housekeeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                houseKeeping();
+            }
+        }, housekeepingDelay, housekeepingDelay, TimeUnit.SECONDS);
+
+        fillPool();
+    }
+
+    /**
+     * Borrow a connection from pool.
+     * If no connection is idle, a new one is created if pool has not reach maxPoolSize, or wait until a connection is released.
+     *
+     * @param timeoutMillis maximum time to wait for a connection
+     * @return a logical connection, invalidated when closed
+     * @throws SQLException if pool is closed, if no connection is available in time or if connection creation fail.
+     */
+    public PoolConnection getConnection(long timeoutMillis) throws SQLException {
+        final long start = System.nanoTime();
+        final long end = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (true) {
+            if (closed) {
+                throw ExceptionMapper.getSqlException("Pool " + name + " is closed");
+            }
+
+            PoolEntry entry = bag.poll();
+            boolean created = false;
+            if (entry == null) {
+                if (reserveSlot()) {
+                    entry = createEntry();
+                    entry.setState(PoolEntry.STATE_IN_USE);
+                    bag.add(entry);
+                    created = true;
+                } else {
+                    try {
+                        entry = bag.poll(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw ExceptionMapper.getSqlException("Interrupted while waiting for a connection of pool " + name, interrupted);
+                    }
+                    if (entry == null) {
+                        timeoutCount.incrementAndGet();
+                        throw ExceptionMapper.getSqlException("No connection available in pool " + name + " within "
+                                + timeoutMillis + "ms (total=" + totalConnection.get() + ", active=" + getActiveConnections() + ")", "08004", null);
+                    }
+                }
+            }
+
+            final long now = System.nanoTime();
+            if (!created && now - entry.getLastUsedNanos() > validMinDelayNanos && !isValid(entry)) {
+                discard(entry);
+                continue;
+            }
+
+            recordBorrow(now - start);
+            entry.setBorrowNanos(now);
+            return new PoolConnection(entry);
+        }
+    }
+
+    /**
+     * Give back a connection to the pool. Called when application close the connection.
+     *
+     * @param entry pool entry
+     */
+    void release(PoolEntry entry) {
+        if (!entry.compareAndSetState(PoolEntry.STATE_IN_USE, PoolEntry.STATE_RESERVED)) {
+            //connection already released
+            return;
+        }
+        final long now = System.nanoTime();
+        totalUsageNanos.addAndGet(now - entry.getBorrowNanos());
+
+        MariaDbConnection connection = entry.getConnection();
+        try {
+            if (closed || entry.isBroken() || connection.isClosed()) {
+                discard(entry);
+                return;
+            }
+            connection.reset();
+        } catch (SQLException sqle) {
+            discard(entry);
+            return;
+        }
+        entry.setLastUsedNanos(now);
+        bag.requite(entry);
+    }
+
+    /**
+     * Discard a borrowed connection aborted by application.
+     *
+     * @param entry pool entry
+     */
+    void abort(PoolEntry entry) {
+        if (!entry.compareAndSetState(PoolEntry.STATE_IN_USE, PoolEntry.STATE_RESERVED)) {
+            //connection already released
+            return;
+        }
+        totalUsageNanos.addAndGet(System.nanoTime() - entry.getBorrowNanos());
+        discard(entry);
+    }
+
+    private boolean isValid(PoolEntry entry) {
+        try {
+            return entry.getConnection().isValid(0);
+        } catch (SQLException sqle) {
+            return false;
+        }
+    }
+
+    private PoolEntry createEntry() throws SQLException {
+        try {
+            ReentrantLock lock = new ReentrantLock();
+            Protocol protocol = Utils.retrieveProxy(urlParser, lock);
+            return new PoolEntry(this, MariaDbConnection.newConnection(protocol, lock));
+        } catch (QueryException e) {
+            totalConnection.decrementAndGet();
+            throw ExceptionMapper.createException(e, null, null);
+        } catch (SQLException | RuntimeException e) {
+            totalConnection.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnection.get();
+            if (current >= maxPoolSize) {
+                return false;
+            }
+            if (totalConnection.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Create a new connection in pool. Used by connection appender thread.
+     */
+    private void addConnection() {
+        if (closed) {
+            totalConnection.decrementAndGet();
+            return;
+        }
+        try {
+            bag.add(createEntry());
+        } catch (SQLException sqle) {
+            //connection will be created again next housekeeping, or on demand
+        }
+    }
+
+    private void discard(PoolEntry entry) {
+        if (bag.remove(entry)) {
+            totalConnection.decrementAndGet();
+            entry.closePhysical();
+            if (!closed && bag.getWaitingThreadCount() > 0 && reserveSlot()) {
+                connectionAppender.execute(addConnectionTask);
+            }
+        }
+    }
+
+    private void fillPool() {
+        while (!closed && totalConnection.get() < minPoolSize && reserveSlot()) {
+            connectionAppender.execute(addConnectionTask);
+        }
+    }
+
+    private void houseKeeping() {
+        if (closed) {
+            return;
+        }
+        for (PoolEntry entry : bag.values(PoolEntry.STATE_NOT_IN_USE)) {
+            if (!bag.reserve(entry)) {
+                continue;
+            }
+            long idleNanos = System.nanoTime() - entry.getLastUsedNanos();
+            if (maxIdleNanos > 0 && idleNanos > maxIdleNanos && totalConnection.get() > minPoolSize) {
+                discard(entry);
+            } else if (idleNanos > validMinDelayNanos && !isValid(entry)) {
+                discard(entry);
+            } else {
+                bag.unreserve(entry);
+            }
+        }
+        fillPool();
+    }
+
+    private void recordBorrow(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        long max;
+        while (waitNanos > (max = maxWaitNanos.get())) {
+            if (maxWaitNanos.compareAndSet(max, waitNanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Close pool: idle connections are closed, and borrowed connections will be closed when released.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        connectionAppender.shutdownNow();
+        for (PoolEntry entry : bag.values(PoolEntry.STATE_NOT_IN_USE)) {
+            if (bag.reserve(entry)) {
+                discard(entry);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getActiveConnections() {
+        return bag.getCount(PoolEntry.STATE_IN_USE);
+    }
+
+    public int getIdleConnections() {
+        return bag.getCount(PoolEntry.STATE_NOT_IN_USE);
+    }
+
+    public int getTotalConnections() {
+        return totalConnection.get();
+    }
+
+    public int getConnectionRequests() {
+        return bag.getWaitingThreadCount();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * Average time waited to borrow a connection.
+     *
+     * @return average wait time in microseconds
+     */
+    public long getAverageWaitTime() {
+        long count = borrowCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get() / count);
+    }
+
+    public long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get());
+    }
+
+    /**
+     * Current utilisation: part of maxPoolSize connections currently borrowed.
+     *
+     * @return utilisation between 0 and 1
+     */
+    public double getUtilisation() {
+        return (double) getActiveConnections() / maxPoolSize;
+    }
+
+    /**
+     * Average utilisation since pool creation: total time connections have been borrowed, relative to maxPoolSize connections
+     * borrowed all the time.
+     *
+     * @return utilisation between 0 and 1
+     */
+    public double getAverageUtilisation() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed <= 0 ? 0 : (double) totalUsageNanos.get() / ((double) elapsed * maxPoolSize);
+    }
+
+    @Override
+    public String toString() {
+        return "Pool{name=" + name + ", total=" + getTotalConnections() + ", active=" + getActiveConnections()
+                + ", idle=" + getIdleConnections() + ", waiting=" + getConnectionRequests() + "}";
+    }
+}
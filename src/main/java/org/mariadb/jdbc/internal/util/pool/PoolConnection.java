@@ -0,0 +1,491 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.pool;
+
+import org.mariadb.jdbc.MariaDbConnection;
+import org.mariadb.jdbc.internal.util.ExceptionMapper;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLPermission;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * Logical connection given to the application by a {@link Pool}, for one borrow.
+ * <p>
+ * Calls are delegated to the physical connection. Statements created through this handle are closed (closing their result-sets)
+ * when the handle is closed, before the physical connection is given back to the pool.
+ * Once closed, the handle is invalidated: any call other than close(), isClosed() and isValid() throws an exception, even if the
+ * physical connection is now borrowed by another thread.
+ * Aborting the handle discards the physical connection from the pool.
+ */
+public class PoolConnection implements Connection {
+    private static final int MIN_PURGE_THRESHOLD = 16;
+
+    private final PoolEntry entry;
+    private final MariaDbConnection connection;
+    private final List<Statement> statements = new ArrayList<>();
+    private int purgeThreshold = MIN_PURGE_THRESHOLD;
+    private volatile boolean closed;
+
+    public PoolConnection(PoolEntry entry) {
+        this.entry = entry;
+        this.connection = entry.getConnection();
+    }
+
+    private MariaDbConnection physical() throws SQLException {
+        if (closed) {
+            throw new SQLNonTransientConnectionException("Connection is closed", "08003");
+        }
+        return connection;
+    }
+
+    private <T extends Statement> T track(T statement) {
+        synchronized (statements) {
+            if (statements.size() >= purgeThreshold) {
+                purgeClosedStatements();
+                purgeThreshold = Math.max(MIN_PURGE_THRESHOLD, statements.size() * 2);
+            }
+            statements.add(statement);
+        }
+        return statement;
+    }
+
+    private void purgeClosedStatements() {
+        Iterator<Statement> iterator = statements.iterator();
+        while (iterator.hasNext()) {
+            try {
+                if (iterator.next().isClosed()) {
+                    iterator.remove();
+                }
+            } catch (SQLException sqle) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Close the logical connection : statements opened through this handle are closed, and physical connection is given back to the pool.
+     *
+     * @throws SQLException if physical connection reset fail
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeStatements();
+        connection.close();
+    }
+
+    private void closeStatements() {
+        synchronized (statements) {
+            for (Statement statement : statements) {
+                try {
+                    //statement already closed may be in the statement pool : closing it again would release it
+                    if (!statement.isClosed()) {
+                        statement.close();
+                    }
+                } catch (SQLException sqle) {
+                    //eat exception, connection will be reset or discarded
+                }
+            }
+            statements.clear();
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || connection.isClosed();
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        return !closed && connection.isValid(timeout);
+    }
+
+    /**
+     * Abort the physical connection. Connection is immediately marked as broken, then executor removes it from pool,
+     * closes the socket and the statements opened through this handle.
+     *
+     * @param executor executor
+     * @throws SQLException if security manager doesn't permit it, or if executor is null.
+     */
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        if (closed) {
+            return;
+        }
+        SecurityManager securityManager = System.getSecurityManager();
+        if (securityManager != null) {
+            securityManager.checkPermission(new SQLPermission("callAbort"));
+        }
+        if (executor == null) {
+            throw ExceptionMapper.getSqlException("Cannot abort the connection: null executor passed");
+        }
+        closed = true;
+        entry.markBroken();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                entry.abort();
+                //physical connection is closed : closing statements doesn't block
+                closeStatements();
+            }
+        });
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        return track(physical().createStatement());
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        return track(physical().createStatement(resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return track(physical().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return track(physical().prepareStatement(sql));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return track(physical().prepareStatement(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+            throws SQLException {
+        return track(physical().prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return track(physical().prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        return track(physical().prepareStatement(sql, columnIndexes));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        return track(physical().prepareStatement(sql, columnNames));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        return track(physical().prepareCall(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return track(physical().prepareCall(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+            throws SQLException {
+        return track(physical().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        return physical().nativeSQL(sql);
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        physical().setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        return physical().getAutoCommit();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        physical().commit();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        physical().rollback();
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        physical().rollback(savepoint);
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        return physical().setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        return physical().setSavepoint(name);
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        physical().releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return physical().getMetaData();
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        physical().setReadOnly(readOnly);
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return physical().isReadOnly();
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        physical().setCatalog(catalog);
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        return physical().getCatalog();
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        physical().setTransactionIsolation(level);
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        return physical().getTransactionIsolation();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return physical().getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        physical().clearWarnings();
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        return physical().getTypeMap();
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        physical().setTypeMap(map);
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        physical().setHoldability(holdability);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return physical().getHoldability();
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        return physical().createClob();
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        return physical().createBlob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        return physical().createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        return physical().createSQLXML();
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        return physical().createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        return physical().createStruct(typeName, attributes);
+    }
+
+    /**
+     * Set client info. Fails with a SQLClientInfoException if connection is closed.
+     *
+     * @param name  client info name
+     * @param value client info value
+     * @throws SQLClientInfoException if connection is closed or client info cannot be set
+     */
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        if (closed) {
+            throw new SQLClientInfoException("Connection is closed", "08003", 0, null);
+        }
+        connection.setClientInfo(name, value);
+    }
+
+    /**
+     * Set client info. Fails with a SQLClientInfoException if connection is closed.
+     *
+     * @param properties client info properties
+     * @throws SQLClientInfoException if connection is closed or client info cannot be set
+     */
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        if (closed) {
+            throw new SQLClientInfoException("Connection is closed", "08003", 0, null);
+        }
+        connection.setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        return physical().getClientInfo(name);
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return physical().getClientInfo();
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        physical().setSchema(schema);
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        return physical().getSchema();
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        physical().setNetworkTimeout(executor, milliseconds);
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        return physical().getNetworkTimeout();
+    }
+
+    /**
+     * Returns an object that implements the given interface, the handle itself or the physical connection.
+     *
+     * @param iface interface
+     * @param <T>   interface type
+     * @return object implementing the interface
+     * @throws SQLException if no object implements this interface, or if connection is closed
+     */
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return physical().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || physical().isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConnection{closed=" + closed + ", connection=" + connection + "}";
+    }
+}
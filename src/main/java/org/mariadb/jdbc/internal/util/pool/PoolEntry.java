@@ -0,0 +1,174 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.pool;
+
+import org.mariadb.jdbc.MariaDbConnection;
+import org.mariadb.jdbc.MariaDbPooledConnection;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Physical connection handled by a {@link Pool}.
+ * Entry listen to connection events, to get back to the pool when the application close the connection.
+ */
+public class PoolEntry implements ConnectionEventListener {
+    public static final int STATE_REMOVED = -1;
+    public static final int STATE_NOT_IN_USE = 0;
+    public static final int STATE_IN_USE = 1;
+    public static final int STATE_RESERVED = 2;
+
+    private final AtomicInteger state = new AtomicInteger(STATE_NOT_IN_USE);
+    private final Pool pool;
+    private final MariaDbPooledConnection pooledConnection;
+    private final MariaDbConnection connection;
+    private final long creationNanos;
+    private volatile long lastUsedNanos;
+    private volatile long borrowNanos;
+    private volatile boolean broken;
+
+    /**
+     * Create a pool entry.
+     *
+     * @param pool       pool the entry belong to
+     * @param connection physical connection
+     */
+    public PoolEntry(Pool pool, MariaDbConnection connection) {
+        this.pool = pool;
+        this.connection = connection;
+        this.pooledConnection = new MariaDbPooledConnection(connection);
+        this.pooledConnection.addConnectionEventListener(this);
+        this.creationNanos = System.nanoTime();
+        this.lastUsedNanos = creationNanos;
+    }
+
+    public int getState() {
+        return state.get();
+    }
+
+    public void setState(int newState) {
+        state.set(newState);
+    }
+
+    public boolean compareAndSetState(int expect, int update) {
+        return state.compareAndSet(expect, update);
+    }
+
+    public MariaDbConnection getConnection() {
+        return connection;
+    }
+
+    public long getCreationNanos() {
+        return creationNanos;
+    }
+
+    public long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    public void setLastUsedNanos(long lastUsedNanos) {
+        this.lastUsedNanos = lastUsedNanos;
+    }
+
+    public long getBorrowNanos() {
+        return borrowNanos;
+    }
+
+    public void setBorrowNanos(long borrowNanos) {
+        this.borrowNanos = borrowNanos;
+    }
+
+    public boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Mark connection as broken : it will be discarded instead of given back to the pool.
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    /**
+     * Discard an aborted connection from pool, closing physical connection.
+     */
+    public void abort() {
+        broken = true;
+        pool.abort(this);
+    }
+
+    /**
+     * Close physical connection, without notifying pool.
+     */
+    public void closePhysical() {
+        pooledConnection.removeConnectionEventListener(this);
+        try {
+            pooledConnection.close();
+        } catch (Exception e) {
+            //eat exception, connection is discarded
+        }
+    }
+
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+        pool.release(this);
+    }
+
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+        broken = true;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolEntry{state=" + state.get() + ", connection=" + connection + "}";
+    }
+}
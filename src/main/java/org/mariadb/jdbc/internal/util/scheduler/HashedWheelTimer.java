@@ -0,0 +1,350 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.scheduler;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel for timeouts, that are most of the time cancelled before expiring (statement query timeout).
+ * <p>
+ * Scheduling and cancellation are O(1) and lock-free : new timeouts and cancelled timeouts are queued, and a single worker
+ * thread moves them to / removes them from wheel buckets on each tick. Resolution is coarse : a task is run at most one tick
+ * after its delay. Tasks are run by the worker thread.
+ * Worker thread is started on first schedule, and parks when there is no pending timeout.
+ * </p>
+ */
+public class HashedWheelTimer implements TimeoutTimer {
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+    private final AtomicInteger workerState = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private final ThreadFactory threadFactory;
+    private volatile Thread workerThread;
+
+    /**
+     * Create a timer.
+     *
+     * @param tickDuration  tick duration
+     * @param unit          tick duration unit
+     * @param ticksPerWheel number of buckets, rounded to next power of 2
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this(tickDuration, unit, ticksPerWheel, new MariaDbThreadFactory());
+    }
+
+    /**
+     * Create a timer whose worker thread is created by threadFactory.
+     *
+     * @param tickDuration  tick duration
+     * @param unit          tick duration unit
+     * @param ticksPerWheel number of buckets, rounded to next power of 2
+     * @param threadFactory worker thread factory
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel, ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task  task to run after delay
+     * @param delay delay
+     * @param unit  delay unit
+     * @return future of the task. Cancelling it before task start removes task from wheel; task isn't interrupted once started.
+     */
+    @Override
+    public Future<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + unit.toNanos(delay));
+        newTimeouts.add(timeout);
+        if (pendingTimeouts.getAndIncrement() == 0) {
+            startOrWakeWorker();
+        }
+        return timeout;
+    }
+
+    /**
+     * Number of timeouts neither expired nor removed from wheel after cancellation.
+     *
+     * @return pending timeout count
+     */
+    public long pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    private void startOrWakeWorker() {
+        if (workerState.get() == 0 && workerState.compareAndSet(0, 1)) {
+            Thread thread = threadFactory.newThread(new Worker());
+            workerThread = thread;
+            thread.start();
+        } else {
+            Thread thread = workerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+        private long tick;
+
+        @Override
+        public void run() {
+            while (true) {
+                if (pendingTimeouts.get() == 0) {
+                    //no timeout : wait for next schedule, and restart ticking from current time
+                    LockSupport.park(HashedWheelTimer.this);
+                    tick = (System.nanoTime() - startNanos) / tickNanos;
+                    continue;
+                }
+                long deadline = (tick + 1) * tickNanos;
+                long sleepNanos = deadline - (System.nanoTime() - startNanos);
+                if (sleepNanos > 0) {
+                    LockSupport.parkNanos(HashedWheelTimer.this, sleepNanos);
+                    continue;
+                }
+                removeCancelledTimeouts();
+                transferNewTimeouts();
+                wheel[(int) (tick & mask)].expireTimeouts(deadline);
+                tick++;
+            }
+        }
+
+        private void removeCancelledTimeouts() {
+            Timeout timeout;
+            while ((timeout = cancelledTimeouts.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                    pendingTimeouts.decrementAndGet();
+                }
+            }
+        }
+
+        private void transferNewTimeouts() {
+            Timeout timeout;
+            while ((timeout = newTimeouts.poll()) != null) {
+                if (timeout.state.get() == CANCELLED) {
+                    //cancelled before being put in wheel
+                    pendingTimeouts.decrementAndGet();
+                    continue;
+                }
+                long calculated = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+                long ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+    }
+
+    /**
+     * Bucket of the wheel : double-linked list, only accessed by worker thread.
+     */
+    private class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    pendingTimeouts.decrementAndGet();
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    private class Timeout implements Future<Object> {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // worker thread only
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(PENDING, RUNNING)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                //task errors are ignored, like for a scheduled executor
+            } finally {
+                synchronized (this) {
+                    state.set(DONE);
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            synchronized (this) {
+                if (!state.compareAndSet(PENDING, CANCELLED)) {
+                    return false;
+                }
+                notifyAll();
+            }
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state.get() >= DONE;
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            synchronized (this) {
+                while (state.get() < DONE) {
+                    wait();
+                }
+            }
+            if (state.get() == CANCELLED) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long end = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                while (state.get() < DONE) {
+                    long remaining = end - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new TimeoutException();
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+            if (state.get() == CANCELLED) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package org.mariadb.jdbc.internal.util.scheduler;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class MariaDbThreadFactory implements ThreadFactory {
     private static final AtomicInteger POOL_ID = new AtomicInteger();
+    // system property "mariadb.virtualThreads" : driver threads are virtual threads if runtime permit it (java 21+)
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = Boolean.getBoolean("mariadb.virtualThreads")
+            ? createVirtualThreadFactory() : null;
     
     private final int thisPoolId = POOL_ID.incrementAndGet();
     // start from DefaultThread factory to get security groups and what not
-    private final ThreadFactory parentFactory = Executors.defaultThreadFactory();
+    private final ThreadFactory parentFactory = (VIRTUAL_THREAD_FACTORY != null) ? VIRTUAL_THREAD_FACTORY : Executors.defaultThreadFactory();
     private final AtomicInteger threadId = new AtomicInteger();
 
+    /**
+     * Get virtual thread factory using reflection, since driver must run on java 7.
+     *
+     * @return virtual thread factory, or null if runtime doesn't support virtual threads
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (Exception exception) {
+            return null;
+        }
+    }
+
     @Override
     public Thread newThread(Runnable runnable) {
         Thread result = parentFactory.newThread(runnable);
@@ -57,10 +57,16 @@ import java.util.concurrent.*;
  */
 public class SchedulerServiceProviderHolder {
 
+    /**
+     * Maximum thread count of each failover scheduler. Pool size follows the number of connections, but is bounded
+     * by the number of processors, so the number of threads stays flat whatever the number of connections.
+     */
+    public static final int FAILOVER_MAX_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
     /**
      * The default provider will construct a new pool on every request.
      */
-    public static SchedulerProvider DEFAULT_PROVIDER = new SchedulerProvider() {
+    public static SchedulerProvider DEFAULT_PROVIDER = new TimeoutTimerProvider() {
         @Override
         public DynamicSizedSchedulerInterface getScheduler(int minimumThreads) {
             return new DynamicSizedSchedulerImpl(minimumThreads);
@@ -77,6 +83,12 @@ public class SchedulerServiceProviderHolder {
             timeoutScheduler.setRemoveOnCancelPolicy(true);
             return timeoutScheduler;
         }
+
+        @Override
+        public HashedWheelTimer getTimeoutTimer() {
+            // query timeouts have a 100ms resolution : O(1) scheduling and cancellation without lock
+            return new HashedWheelTimer(100, TimeUnit.MILLISECONDS, 512, new MariaDbThreadFactory());
+        }
     };
 
     private static volatile SchedulerProvider currentProvider = null;
@@ -117,6 +129,17 @@ public class SchedulerServiceProviderHolder {
         return getSchedulerProvider().getScheduler(initialThreadCount);
     }
 
+    /**
+     * Failover scheduler pool size according to the number of connections using it.
+     *
+     * @param listenerCount number of connections using scheduler
+     * @param ratio         thread to connection ratio
+     * @return pool size, between 1 and {@link #FAILOVER_MAX_THREADS}
+     */
+    public static int getFailoverPoolSize(int listenerCount, double ratio) {
+        return Math.max(1, Math.min(FAILOVER_MAX_THREADS, (int) Math.ceil(listenerCount * ratio)));
+    }
+
     /**
      * Get a fixed sized scheduler directly with the current set provider.
      *
@@ -136,6 +159,21 @@ public class SchedulerServiceProviderHolder {
         return getSchedulerProvider().getTimeoutScheduler();
     }
 
+    /**
+     * Get a timer to handle statement query timeouts.
+     * Provider timer is used if provider is a {@link TimeoutTimerProvider}, otherwise tasks are scheduled on provider
+     * timeout scheduler.
+     *
+     * @return timer, whose worker thread is started on first schedule
+     */
+    public static TimeoutTimer getTimeoutTimer() {
+        SchedulerProvider provider = getSchedulerProvider();
+        if (provider instanceof TimeoutTimerProvider) {
+            return ((TimeoutTimerProvider) provider).getTimeoutTimer();
+        }
+        return new ScheduledExecutorTimeoutTimer(provider.getTimeoutScheduler());
+    }
+
     /**
      * <p>Provider for thread pools which allow scheduling capabilities.  It is expected that the
      * thread pools entire lifecycle (start to stop) is done through the same provider instance.</p>
@@ -163,5 +201,37 @@ public class SchedulerServiceProviderHolder {
         public ScheduledThreadPoolExecutor getTimeoutScheduler();
     }
 
+    /**
+     * <p>Provider that also gives the timer used for statement query timeouts. Providers that only implement
+     * {@link SchedulerProvider} get query timeouts scheduled on their timeout scheduler.</p>
+     */
+    public interface TimeoutTimerProvider extends SchedulerProvider {
+        /**
+         * Timeout timer.
+         *
+         * Default timer is a hashed timing wheel with a single worker thread : statement timeouts are most of the time
+         * cancelled, and cancelled tasks are removed from wheel, avoiding memory consumption [CONJ-297]
+         *
+         * @return A new timer that is ready to accept tasks
+         */
+        public HashedWheelTimer getTimeoutTimer();
+    }
+
+    /**
+     * Timer scheduling tasks on the timeout scheduler of a provider.
+     */
+    private static class ScheduledExecutorTimeoutTimer implements TimeoutTimer {
+        private final ScheduledExecutorService scheduler;
+
+        ScheduledExecutorTimeoutTimer(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public Future<?> schedule(Runnable task, long delay, TimeUnit unit) {
+            return scheduler.schedule(task, delay, unit);
+        }
+    }
+
 
 }
@@ -8,6 +8,8 @@ import java.sql.*;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
@@ -54,6 +56,42 @@ public class CancelTest extends BaseTest {
         }
     }
 
+    @Test
+    public void concurrentTimeouts() throws Exception {
+        ExecutorService exec = Executors.newFixedThreadPool(4);
+        final AtomicInteger timeouts = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            exec.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Connection tmpConnection = null;
+                    try {
+                        tmpConnection = openNewConnection(connUri, new Properties());
+                        Statement stmt = tmpConnection.createStatement();
+                        stmt.setQueryTimeout(1);
+                        stmt.execute("select sleep(100)");
+                    } catch (SQLTimeoutException e) {
+                        timeouts.incrementAndGet();
+                    } catch (SQLException e) {
+                        e.printStackTrace();
+                    } finally {
+                        try {
+                            if (tmpConnection != null) {
+                                tmpConnection.close();
+                            }
+                        } catch (SQLException e) {
+                            //eat exception
+                        }
+                    }
+                }
+            });
+        }
+        exec.shutdown();
+        Assert.assertTrue(exec.awaitTermination(60, TimeUnit.SECONDS));
+        //all KILL QUERY are sent on the cached administration connection
+        assertEquals(8, timeouts.get());
+    }
+
     @Test
     public void noTimeoutSleep() throws Exception {
         Statement stmt = sharedConnection.createStatement();
@@ -10,6 +10,7 @@ import java.sql.*;
 import java.util.Arrays;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -283,4 +284,51 @@ public class ConnectionTest extends BaseTest {
         }
     }
 
+    @Test
+    public void isValidPingElision() throws SQLException, InterruptedException {
+        try (Connection connection = setConnection("&pingElisionTime=500")) {
+            MariaDbConnection mariaDbConnection = (MariaDbConnection) connection;
+            Statement statement = connection.createStatement();
+            statement.execute("SELECT 1");
+            assertTrue(connection.isValid(0));
+            assertEquals(1, mariaDbConnection.getElidedValidationCount());
+            assertEquals(0, mariaDbConnection.getPerformedValidationCount());
+
+            Thread.sleep(600);
+            assertTrue(connection.isValid(0));
+            assertEquals(1, mariaDbConnection.getElidedValidationCount());
+            assertEquals(1, mariaDbConnection.getPerformedValidationCount());
+
+            //ping is a successful exchange too
+            assertTrue(connection.isValid(0));
+            assertEquals(2, mariaDbConnection.getElidedValidationCount());
+        }
+    }
+
+    @Test
+    public void isValidWithoutElision() throws SQLException {
+        try (Connection connection = setConnection()) {
+            MariaDbConnection mariaDbConnection = (MariaDbConnection) connection;
+            assertTrue(connection.isValid(0));
+            assertTrue(connection.isValid(0));
+            assertEquals(0, mariaDbConnection.getElidedValidationCount());
+            assertEquals(2, mariaDbConnection.getPerformedValidationCount());
+        }
+    }
+
+    @Test
+    public void connectRaceSkipsUnreachableHost() throws SQLException {
+        Assume.assumeTrue(testSingleHost);
+        //10.255.255.1 is not routable : without race, connection would wait for connectTimeout
+        String url = "jdbc:mysql:sequential://10.255.255.1:" + port + "," + hostname + ":" + port + "/" + database
+                + "?user=" + username
+                + (password != null && !"".equals(password) ? "&password=" + password : "")
+                + "&connectTimeout=20000&connectRaceDelay=100";
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url)) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 10000);
+            assertTrue(connection.isValid(0));
+        }
+    }
+
 }
@@ -6,6 +6,7 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -163,6 +164,33 @@ public class FetchSizeTest extends BaseTest {
 
     }
 
+    @Test
+    public void abandonStreamingResultTest() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection("&streamingAbandonThreshold=10");
+            Statement stmt = connection.createStatement();
+            stmt.setFetchSize(1);
+            ResultSet resultSet = stmt.executeQuery("SELECT * FROM information_schema.columns c1, information_schema.columns c2, "
+                    + "information_schema.columns c3");
+            for (int counter = 0; counter < 10; counter++) {
+                assertTrue(resultSet.next());
+            }
+            long start = System.currentTimeMillis();
+            resultSet.close();
+            //query must have been killed instead of reading all rows
+            assertTrue(System.currentTimeMillis() - start < 10000);
+
+            ResultSet rs2 = stmt.executeQuery("SELECT 1");
+            assertTrue(rs2.next());
+            assertEquals(1, rs2.getInt(1));
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
     private void prepare1000record() throws SQLException {
         sharedConnection.createStatement().execute("TRUNCATE TABLE fetchSizeTest1");
         PreparedStatement pstmt = sharedConnection.prepareStatement("INSERT INTO fetchSizeTest1 (test) values (?)");
@@ -0,0 +1,346 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PoolDataSourceTest extends BaseTest {
+
+    @Test
+    public void basicPool() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=2&minPoolSize=1");
+        try {
+            Connection connection = ds.getConnection();
+            assertTrue(connection.isValid(0));
+            assertEquals(1, ds.getActiveConnections());
+            MariaDbConnection physical = connection.unwrap(MariaDbConnection.class);
+            connection.close();
+            assertEquals(0, ds.getActiveConnections());
+            assertTrue(connection.isClosed());
+            assertFalse(connection.isValid(0));
+
+            //same physical connection is reused, with a new logical connection
+            Connection connection2 = ds.getConnection();
+            assertNotSame(connection, connection2);
+            assertSame(physical, connection2.unwrap(MariaDbConnection.class));
+            connection2.close();
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void staleConnectionHandle() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1");
+        try {
+            Connection connection = ds.getConnection();
+            connection.close();
+            Connection connection2 = ds.getConnection();
+            assertFalse(connection2.isClosed());
+            try {
+                connection.createStatement();
+                fail("closed connection must not use physical connection of next borrower");
+            } catch (SQLException sqle) {
+                assertEquals("08003", sqle.getSQLState());
+            }
+            try {
+                connection.setAutoCommit(false);
+                fail("closed connection must not use physical connection of next borrower");
+            } catch (SQLException sqle) {
+                assertEquals("08003", sqle.getSQLState());
+            }
+            assertTrue(connection2.getAutoCommit());
+            //closing again stale handle must not give back connection of next borrower
+            connection.close();
+            assertEquals(1, ds.getActiveConnections());
+            connection2.close();
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void statementsClosedOnRelease() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1");
+        try {
+            Connection connection = ds.getConnection();
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT 1");
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT ?");
+            connection.close();
+            assertTrue(stmt.isClosed());
+            assertTrue(rs.isClosed());
+            assertTrue(preparedStatement.isClosed());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void abortDiscardConnection() throws Exception {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=2&minPoolSize=0");
+        try {
+            Connection connection = ds.getConnection();
+            MariaDbConnection physical = connection.unwrap(MariaDbConnection.class);
+            Statement stmt = connection.createStatement();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            connection.abort(executor);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertTrue(connection.isClosed());
+            assertTrue(physical.isClosed());
+            assertTrue(stmt.isClosed());
+            assertEquals(0, ds.getTotalConnections());
+            assertEquals(0, ds.getIdleConnections());
+            assertEquals(0, ds.getActiveConnections());
+
+            //aborted connection is not lent again, and pool still has its slots
+            Connection connection2 = ds.getConnection();
+            Connection connection3 = ds.getConnection();
+            assertNotSame(physical, connection2.unwrap(MariaDbConnection.class));
+            assertNotSame(physical, connection3.unwrap(MariaDbConnection.class));
+            assertEquals(2, ds.getTotalConnections());
+            connection2.close();
+            connection3.close();
+            assertEquals(2, ds.getTotalConnections());
+            assertEquals(2, ds.getIdleConnections());
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void resetOnRelease() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1");
+        try {
+            Connection connection = ds.getConnection();
+            int defaultIsolation = connection.getTransactionIsolation();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            connection.setTransactionIsolation(defaultIsolation == Connection.TRANSACTION_SERIALIZABLE
+                    ? Connection.TRANSACTION_READ_COMMITTED : Connection.TRANSACTION_SERIALIZABLE);
+            connection.close();
+
+            connection = ds.getConnection();
+            assertTrue(connection.getAutoCommit());
+            assertFalse(connection.isReadOnly());
+            assertEquals(defaultIsolation, connection.getTransactionIsolation());
+            connection.close();
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void waitForConnection() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1");
+        ds.setLoginTimeout(1);
+        try {
+            final Connection connection = ds.getConnection();
+            try {
+                ds.getConnection();
+                fail("Pool has only one connection");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("No connection available"));
+            }
+
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(100);
+                        connection.close();
+                    } catch (Exception e) {
+                        //eat
+                    }
+                }
+            }).start();
+            Connection connection2 = ds.getConnection();
+            Statement stmt = connection2.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT 1");
+            assertTrue(rs.next());
+            connection2.close();
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void closedPool() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1");
+        Connection connection = ds.getConnection();
+        ds.close();
+        //borrowed connection is physically closed when given back
+        connection.close();
+        assertTrue(connection.isClosed());
+        try {
+            ds.getConnection();
+            fail("Pool is closed");
+        } catch (SQLException sqle) {
+            assertTrue(sqle.getMessage().contains("is closed"));
+        }
+    }
+
+    @Test
+    public void statementPooling() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1&statementPoolSize=2");
+        try {
+            Connection connection = ds.getConnection();
+            MariaDbPooledConnection pooledConnection = connection.unwrap(MariaDbConnection.class).pooledConnection;
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT ?");
+            assertTrue(preparedStatement.isPoolable());
+            preparedStatement.setInt(1, 1);
+            ResultSet rs = preparedStatement.executeQuery();
+            preparedStatement.close();
+            assertTrue(preparedStatement.isClosed());
+            assertEquals(1, pooledConnection.getIdleStatementCount());
+
+            //same sql and result-set type : pooled statement is reused, through a new object
+            PreparedStatement preparedStatement2 = connection.prepareStatement("SELECT ?");
+            assertEquals(0, pooledConnection.getIdleStatementCount());
+            assertNotSame(preparedStatement, preparedStatement2);
+            assertFalse(preparedStatement2.isClosed());
+            preparedStatement2.setInt(1, 2);
+            rs = preparedStatement2.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+
+            //reference kept on the closed statement cannot use or close statement of next borrower
+            assertTrue(preparedStatement.isClosed());
+            try {
+                preparedStatement.executeQuery();
+                fail("closed statement must not be usable");
+            } catch (SQLException sqle) {
+                //expected
+            }
+            preparedStatement.close();
+            assertFalse(preparedStatement2.isClosed());
+            preparedStatement2.setInt(1, 3);
+            rs = preparedStatement2.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt(1));
+
+            //other result-set type use another statement
+            PreparedStatement scrollStatement = connection.prepareStatement("SELECT ?", ResultSet.TYPE_SCROLL_INSENSITIVE,
+                    ResultSet.CONCUR_READ_ONLY);
+            assertNotSame(preparedStatement2, scrollStatement);
+            preparedStatement2.close();
+            scrollStatement.close();
+            assertEquals(2, pooledConnection.getIdleStatementCount());
+
+            //statement pool is kept when connection is given back to pool
+            connection.close();
+            connection = ds.getConnection();
+            connection.prepareStatement("SELECT ?");
+            assertEquals(1, pooledConnection.getIdleStatementCount());
+            connection.close();
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void statementPoolingDatabase() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1&statementPoolSize=2");
+        try {
+            Connection connection = ds.getConnection();
+            String database = connection.getCatalog();
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT DATABASE()");
+            preparedStatement.close();
+
+            //statement prepared on another database is not reused
+            connection.setCatalog("mysql");
+            preparedStatement = connection.prepareStatement("SELECT DATABASE()");
+            ResultSet rs = preparedStatement.executeQuery();
+            assertTrue(rs.next());
+            assertEquals("mysql", rs.getString(1));
+            preparedStatement.close();
+            connection.setCatalog(database);
+            connection.close();
+        } finally {
+            ds.close();
+        }
+    }
+
+    @Test
+    public void statementNotPoolable() throws SQLException {
+        MariaDbPoolDataSource ds = new MariaDbPoolDataSource(connUri + "&maxPoolSize=1&statementPoolSize=2");
+        try {
+            Connection connection = ds.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT ?");
+            preparedStatement.setPoolable(false);
+            preparedStatement.close();
+            assertNotSame(preparedStatement, connection.prepareStatement("SELECT ?"));
+
+            //without statementPoolSize, statements are not pooled
+            Connection connection2 = DriverManager.getConnection(connUri);
+            PreparedStatement preparedStatement2 = connection2.prepareStatement("SELECT ?");
+            preparedStatement2.close();
+            assertNotSame(preparedStatement2, connection2.prepareStatement("SELECT ?"));
+            connection2.close();
+            connection.close();
+        } finally {
+            ds.close();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.queryresults.SingleExecutionResult;
+import org.mariadb.jdbc.internal.util.dao.QueryException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class QueryInterceptorTest extends BaseTest {
+
+    @Test
+    public void timingsAndRewrite() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection("&queryInterceptor=" + RecordingInterceptor.class.getName());
+            RecordingInterceptor.timings.clear();
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT 'rewrite-me'");
+            assertTrue(rs.next());
+            assertEquals("rewritten", rs.getString(1));
+
+            assertEquals(1, RecordingInterceptor.timings.size());
+            String timings = RecordingInterceptor.timings.get(0);
+            assertTrue(timings, timings.startsWith("QUERY"));
+            assertTrue(timings, timings.contains("rows=1"));
+            assertTrue(timings, timings.endsWith("SELECT 'rewritten'"));
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void cachedResult() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection("&queryInterceptor=" + RecordingInterceptor.class.getName());
+            RecordingInterceptor.timings.clear();
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT cached");
+            assertTrue(rs.next());
+            assertEquals("value", rs.getString("col"));
+            assertFalse(rs.next());
+            //query has not been sent
+            assertTrue(RecordingInterceptor.timings.isEmpty());
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void cachedResultOnClosedConnection() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection("&queryInterceptor=" + RecordingInterceptor.class.getName());
+            Protocol protocol = ((MariaDbConnection) connection).getProtocol();
+            protocol.close();
+            try {
+                protocol.executeQuery(new SingleExecutionResult(null, 0, true, false), "SELECT cached", ResultSet.TYPE_FORWARD_ONLY);
+                fail("cached result must not be given on a closed connection");
+            } catch (QueryException expected) {
+                //expected
+            }
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void preparedAndBatch() throws SQLException {
+        createTable("interceptorBatch", "id int");
+        Connection connection = null;
+        try {
+            connection = setConnection("&useServerPrepStmts=true&queryInterceptor=" + RecordingInterceptor.class.getName());
+            RecordingInterceptor.timings.clear();
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT ?");
+            preparedStatement.setInt(1, 1);
+            preparedStatement.executeQuery();
+
+            Statement stmt = connection.createStatement();
+            stmt.addBatch("INSERT INTO interceptorBatch VALUES (1)");
+            stmt.addBatch("INSERT INTO interceptorBatch VALUES (2)");
+            stmt.executeBatch();
+
+            List<String> commands = new ArrayList<>();
+            for (String timings : RecordingInterceptor.timings) {
+                commands.add(timings.substring(0, timings.indexOf(' ')));
+            }
+            assertTrue(commands.toString(), commands.contains("PREPARE"));
+            assertTrue(commands.toString(), commands.contains("EXECUTE_PREPARED"));
+            assertTrue(commands.toString(), commands.contains("BATCH"));
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    public static class RecordingInterceptor implements QueryInterceptor {
+        static final List<String> timings = new ArrayList<>();
+
+        @Override
+        public String rewrite(Command command, String sql) {
+            return "SELECT 'rewrite-me'".equals(sql) ? "SELECT 'rewritten'" : sql;
+        }
+
+        @Override
+        public CachedResult cachedResult(String sql) {
+            if ("SELECT cached".equals(sql)) {
+                return new CachedResult(new String[] {"col"}, new String[][] {{"value"}});
+            }
+            return null;
+        }
+
+        @Override
+        public void afterExecution(QueryTimings queryTimings) {
+            timings.add(queryTimings.toString());
+        }
+    }
+}
@@ -789,5 +789,30 @@ public class ServerPrepareStatementTest extends BaseTest {
         pstmt.execute();
     }
 
+    @Test
+    public void warmupStatements() throws Throwable {
+        Properties properties = new Properties();
+        properties.setProperty("warmupStatements", "SELECT ?; SELECT 2;SELECT * FROM warmupStatementsNotExistingTable");
+        Connection connection = setConnection(properties);
+        try {
+            Protocol protocol = getProtocolFromConnection(connection);
+            //not existing table is ignored
+            assertEquals(2, protocol.prepareStatementCache().size());
+            assertEquals(Arrays.asList("SELECT 2", "SELECT ?"), protocol.getMostUsedPrepareStatements(10));
+
+            //warm-up prepare is used
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT ?");
+            assertEquals(2, protocol.prepareStatementCache().size());
+            preparedStatement.setInt(1, 1);
+            ResultSet rs = preparedStatement.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals(Arrays.asList("SELECT ?", "SELECT 2"), protocol.getMostUsedPrepareStatements(10));
+            assertEquals(Arrays.asList("SELECT ?"), protocol.getMostUsedPrepareStatements(1));
+            preparedStatement.close();
+        } finally {
+            connection.close();
+        }
+    }
 
 }
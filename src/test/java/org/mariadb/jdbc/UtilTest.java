@@ -45,4 +45,27 @@ public class UtilTest {
             assertEquals(Utils.nativeSql(inputs[i], false), outputs[i]);
         }
     }
+
+    @Test
+    public void digest() {
+        String[] inputs = new String[]{
+                "SELECT * FROM t WHERE a = 'x' AND b IN (1, 2,3)",
+                "select a1,b from `t 1` where c=-1.5e3 and d in ('a','b') -- comment\n limit 10",
+                "INSERT INTO t(a,b) VALUES (1,'a'),(2,'b'),(3,'c')",
+                "INSERT INTO t(a,b) VALUES (?, ?)",
+                "/* comment */ UPDATE t SET a='it''s \\' x' WHERE id=0x1F",
+                "select * from t where x in (select y from z where w in (1,2))"
+        };
+        String[] outputs = new String[]{
+                "SELECT * FROM t WHERE a = ? AND b IN (...)",
+                "select a1, b from `t 1` where c=-? and d in (...) limit ?",
+                "INSERT INTO t(a, b) VALUES (?, ?)",
+                "INSERT INTO t(a, b) VALUES (?, ?)",
+                "UPDATE t SET a=? WHERE id=?",
+                "select * from t where x in (select y from z where w in (...))"
+        };
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(outputs[i], Utils.digest(inputs[i], false));
+        }
+    }
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package org.mariadb.jdbc.failover;
 
 import org.junit.*;
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.internal.failover.Listener;
+import org.mariadb.jdbc.internal.failover.thread.HostHealthMonitor;
 import org.mariadb.jdbc.internal.util.constant.HaMode;
+import org.mariadb.jdbc.internal.protocol.Protocol;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
@@ -212,4 +219,184 @@ public class ReplicationFailoverTest extends BaseReplication {
         }
     }
 
+
+    @Test
+    public void readWriteSplitting() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = getNewConnection("&readWriteSplitting=true", false);
+            Statement stmt = connection.createStatement();
+            String masterServerId = executeServerIdQuery(stmt, "SELECT @@server_id");
+            String routedServerId = executeServerIdQuery(stmt,
+                    "SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_VARIABLES WHERE VARIABLE_NAME = 'SERVER_ID'");
+            //plain select are executed on replica
+            assertNotEquals(masterServerId, routedServerId);
+            assertFalse(connection.isReadOnly());
+
+            //locking read is executed on master
+            assertEquals(masterServerId, executeServerIdQuery(stmt,
+                    "SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_VARIABLES WHERE VARIABLE_NAME = 'SERVER_ID' FOR UPDATE"));
+
+            //in transaction, all statements are executed on master
+            connection.setAutoCommit(false);
+            assertEquals(masterServerId, executeServerIdQuery(stmt,
+                    "SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_VARIABLES WHERE VARIABLE_NAME = 'SERVER_ID'"));
+            connection.commit();
+            connection.setAutoCommit(true);
+
+            //server side prepared statement
+            PreparedStatement preparedStatement = connection.prepareStatement(
+                    "SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_VARIABLES WHERE VARIABLE_NAME = ?");
+            preparedStatement.setString(1, "SERVER_ID");
+            ResultSet rs = preparedStatement.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(routedServerId, rs.getString(1));
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void gtidWaitReadYourWrites() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = getNewConnection("&readWriteSplitting=true&gtidWaitTimeout=5000", false);
+            Statement stmt = connection.createStatement();
+            stmt.execute("drop table if exists gtidWaitRead");
+            stmt.execute("create table gtidWaitRead (id int not null primary key)");
+            for (int i = 0; i < 10; i++) {
+                stmt.execute("insert into gtidWaitRead values (" + i + ")");
+                //read on replica must see the row just inserted on master
+                ResultSet rs = stmt.executeQuery("select count(*) from gtidWaitRead");
+                assertTrue(rs.next());
+                assertEquals(i + 1, rs.getInt(1));
+            }
+            stmt.execute("drop table gtidWaitRead");
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void gtidReportedInOkPacket() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = getNewConnection("&readWriteSplitting=true&gtidWaitTimeout=5000", false);
+            Protocol protocol = getProtocolFromConnection(connection);
+            Assume.assumeTrue(protocol.getServerVersion().contains("MariaDB") && protocol.versionGreaterOrEqual(10, 3, 1));
+            Statement stmt = connection.createStatement();
+            stmt.execute("drop table if exists gtidOkPacket");
+            stmt.execute("create table gtidOkPacket (id int not null primary key)");
+            stmt.execute("insert into gtidOkPacket values (1)");
+            String gtid = protocol.getLastGtid();
+            assertNotNull(gtid);
+            assertFalse(gtid.isEmpty());
+            stmt.execute("insert into gtidOkPacket values (2)");
+            assertNotEquals(gtid, protocol.getLastGtid());
+            stmt.execute("drop table gtidOkPacket");
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void laggingReplicaNotUsed() throws Throwable {
+        Connection connection = null;
+        try {
+            //lag query always report 100s lag
+            connection = getNewConnection("&readWriteSplitting=true&maxReplicationLag=10&replicationLagQuery=SELECT(100)", false);
+            Statement stmt = connection.createStatement();
+            String masterServerId = executeServerIdQuery(stmt, "SELECT @@server_id");
+
+            Protocol protocol = getProtocolFromConnection(connection);
+            Listener listener = protocol.getProxy().getListener();
+            List<HostAddress> hostAddresses = protocol.getUrlParser().getHostAddresses();
+            long maxWait = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (HostHealthMonitor.getReplicationLag(listener, hostAddresses.get(1)) != 100 && System.nanoTime() < maxWait) {
+                Thread.sleep(50);
+            }
+            assertEquals(100, HostHealthMonitor.getReplicationLag(listener, hostAddresses.get(1)));
+            //master lag isn't measured
+            assertEquals(-1, HostHealthMonitor.getReplicationLag(listener, hostAddresses.get(0)));
+
+            //plain select is executed on master, replica being too late
+            assertEquals(masterServerId, executeServerIdQuery(stmt,
+                    "SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_VARIABLES WHERE VARIABLE_NAME = 'SERVER_ID'"));
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void standbySecondaryPromotion() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = getNewConnection("&secondaryConnections=2&retriesAllDown=6&connectTimeout=1000&socketTimeout=1000", true);
+            //need at least 2 replicas
+            Assume.assumeTrue(getProtocolFromConnection(connection).getUrlParser().getHostAddresses().size() > 2);
+            Statement stmt = connection.createStatement();
+            int masterServerId = getServerId(connection);
+            connection.setReadOnly(true);
+            int slaveServerId = getServerId(connection);
+            assertFalse(masterServerId == slaveServerId);
+
+            //wait for standby secondary connection
+            stmt.execute("SELECT 1");
+            Thread.sleep(1000);
+
+            stopProxy(slaveServerId);
+            stmt.execute("SELECT 1");
+
+            //standby connection has replaced failing secondary, without switching to master
+            int currentServerId = getServerId(connection);
+            assertTrue(connection.isReadOnly());
+            assertFalse(currentServerId == masterServerId);
+            assertFalse(currentServerId == slaveServerId);
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void sessionStateReplayedOnReplica() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = getNewConnection("&readWriteSplitting=true", false);
+            Statement stmt = connection.createStatement();
+            String masterServerId = executeServerIdQuery(stmt, "SELECT @@server_id");
+            stmt.execute("SET SESSION div_precision_increment = 10");
+
+            //routed read use the session state set on master
+            String routedServerId = executeServerIdQuery(stmt,
+                    "SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_VARIABLES WHERE VARIABLE_NAME = 'SERVER_ID'");
+            assertNotEquals(masterServerId, routedServerId);
+            assertEquals("0.3333333333", executeServerIdQuery(stmt, "SELECT 1/3"));
+
+            //session change that cannot be replayed : reads stay on master
+            stmt.execute("SET @a = (SELECT 1)");
+            assertEquals(masterServerId, executeServerIdQuery(stmt,
+                    "SELECT VARIABLE_VALUE FROM information_schema.GLOBAL_VARIABLES WHERE VARIABLE_NAME = 'SERVER_ID'"));
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    private String executeServerIdQuery(Statement stmt, String sql) throws SQLException {
+        ResultSet rs = stmt.executeQuery(sql);
+        assertTrue(rs.next());
+        return rs.getString(1);
+    }
+
 }
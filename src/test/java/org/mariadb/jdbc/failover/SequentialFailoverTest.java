@@ -3,6 +3,9 @@ package org.mariadb.jdbc.failover;
 import org.junit.*;
 import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.UrlParser;
+import org.mariadb.jdbc.internal.failover.AbstractMastersListener;
+import org.mariadb.jdbc.internal.failover.Listener;
+import org.mariadb.jdbc.internal.failover.thread.HostHealthMonitor;
 import org.mariadb.jdbc.internal.util.constant.HaMode;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.threadly.test.concurrent.TestableScheduler;
@@ -103,6 +106,84 @@ public class SequentialFailoverTest extends BaseMultiHostTest {
         }
     }
 
+    @Test
+    public void sharedHealthCheck() throws Throwable {
+        Connection connection = null;
+        Connection connection2 = null;
+        HostAddress hostAddress;
+        try {
+            connection = getNewConnection("&healthCheckInterval=100&retriesAllDown=6", true);
+            connection2 = getNewConnection("&healthCheckInterval=100&retriesAllDown=6", true);
+            int masterServerId = getServerId(connection);
+            Protocol protocol = getProtocolFromConnection(connection);
+            Listener listener = protocol.getProxy().getListener();
+            hostAddress = protocol.getHostAddress();
+            waitHealthStatus(listener, hostAddress, HostHealthMonitor.Status.UP);
+            Assert.assertTrue(HostHealthMonitor.isProbed(hostAddress));
+
+            stopProxy(masterServerId);
+            waitHealthStatus(listener, hostAddress, HostHealthMonitor.Status.DOWN);
+            //connection with same settings shares the probe
+            Assert.assertEquals(HostHealthMonitor.Status.DOWN,
+                    HostHealthMonitor.getStatus(getProtocolFromConnection(connection2).getProxy().getListener(), hostAddress));
+            Assert.assertTrue(listener.getBlacklistKeys().contains(hostAddress));
+
+            restartProxy(masterServerId);
+            waitHealthStatus(listener, hostAddress, HostHealthMonitor.Status.UP);
+            Assert.assertFalse(protocol.getProxy().getListener().getBlacklistKeys().contains(hostAddress));
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+            if (connection2 != null) {
+                connection2.close();
+            }
+        }
+        //host isn't probed anymore when no connection use it
+        Assert.assertFalse(HostHealthMonitor.isProbed(hostAddress));
+    }
+
+    private void waitHealthStatus(Listener listener, HostAddress hostAddress, HostHealthMonitor.Status status)
+            throws InterruptedException {
+        long startTime = System.nanoTime();
+        while (HostHealthMonitor.getStatus(listener, hostAddress) != status) {
+            if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) > 10 * 1000) {
+                Assert.fail("host " + hostAddress + " status hasn't changed to " + status);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void warmStandbyMaster() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = getNewConnection("&warmStandbyMaster=true&retriesAllDown=6", true);
+            Statement st = connection.createStatement();
+            int masterServerId = getServerId(connection);
+            AbstractMastersListener listener = (AbstractMastersListener) getProtocolFromConnection(connection).getProxy().getListener();
+            //let standby master connection be created in background
+            Protocol standby = listener.getStandbyMasterProtocol();
+            for (int i = 0; i < 50 && standby == null; i++) {
+                Thread.sleep(100);
+                standby = listener.getStandbyMasterProtocol();
+            }
+            Assert.assertNotNull(standby);
+            long standbyThreadId = standby.getServerThreadId();
+            stopProxy(masterServerId);
+
+            st.execute("SELECT 1");
+            //standby connection is used as master connection : no new connection creation
+            Assert.assertNotEquals(masterServerId, getServerId(connection));
+            Assert.assertEquals(standbyThreadId, getProtocolFromConnection(connection).getServerThreadId());
+            Assert.assertNotSame(standby, listener.getStandbyMasterProtocol());
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
     @Test
     public void testMultiHostWriteOnMaster() throws Throwable {
         Assume.assumeTrue(initialGaleraUrl != null);
@@ -0,0 +1,104 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class HedgedReadPolicyTest {
+
+    @Test
+    public void bucketBounds() {
+        assertEquals(0, HedgedReadPolicy.bucketIndex(0));
+        assertEquals(0, HedgedReadPolicy.bucketIndex(HedgedReadPolicy.MIN_LATENCY_NANOS));
+        assertEquals(HedgedReadPolicy.BUCKETS - 1, HedgedReadPolicy.bucketIndex(Long.MAX_VALUE));
+        for (long nanos = 1000; nanos < TimeUnit.SECONDS.toNanos(10); nanos *= 3) {
+            int index = HedgedReadPolicy.bucketIndex(nanos);
+            assertTrue(nanos <= HedgedReadPolicy.bucketUpperBound(index));
+            assertTrue(index == 0 || nanos >= HedgedReadPolicy.bucketUpperBound(index - 1));
+        }
+    }
+
+    @Test
+    public void hedgeDelay() {
+        HedgedReadPolicy policy = new HedgedReadPolicy();
+        //not enough samples
+        assertEquals(-1, policy.hedgeDelayNanos(95));
+
+        //90 fast reads (1ms) and 10 slow reads (100ms)
+        for (int i = 0; i < 90; i++) {
+            policy.recordRead(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < 10; i++) {
+            policy.recordRead(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        long p50 = policy.hedgeDelayNanos(50);
+        assertTrue(p50 >= TimeUnit.MILLISECONDS.toNanos(1) && p50 < TimeUnit.MILLISECONDS.toNanos(2));
+        long p95 = policy.hedgeDelayNanos(95);
+        assertTrue(p95 >= TimeUnit.MILLISECONDS.toNanos(100) && p95 < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void budget() {
+        HedgedReadPolicy policy = new HedgedReadPolicy();
+        assertFalse(policy.tryAcquireHedge(5));
+        for (int i = 0; i < 100; i++) {
+            policy.recordRead(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        int hedges = 0;
+        while (policy.tryAcquireHedge(5)) {
+            hedges++;
+        }
+        assertEquals(5, hedges);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mariadb.jdbc.HostAddress;
+
+public class HostCircuitBreakerTest {
+
+    @After
+    @Before
+    public void circuitReset() {
+        HostCircuitBreaker.clear();
+    }
+
+    @Test
+    public void backoff() {
+        for (int i = 0; i < 100; i++) {
+            long first = HostCircuitBreaker.backoff(1, 1000, 50000);
+            assertTrue(first >= 500 && first <= 1000);
+            long third = HostCircuitBreaker.backoff(3, 1000, 50000);
+            assertTrue(third >= 2000 && third <= 4000);
+            long capped = HostCircuitBreaker.backoff(30, 1000, 50000);
+            assertTrue(capped >= 25000 && capped <= 50000);
+        }
+        assertEquals(0, HostCircuitBreaker.backoff(5, 1000, 0));
+    }
+
+    @Test
+    public void singleProbe() throws InterruptedException {
+        HostAddress hostAddress = new HostAddress("host1", 3306);
+        HostCircuitBreaker breaker = HostCircuitBreaker.get(hostAddress);
+        Object owner1 = new Object();
+        Object owner2 = new Object();
+
+        assertEquals(HostCircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.tryAcquireProbe(owner1, 10000));
+
+        breaker.onFailure(0, 0);
+        assertEquals(HostCircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(HostCircuitBreaker.getOpenHosts().contains(hostAddress));
+
+        //only one connection can probe half-open host
+        assertTrue(breaker.tryAcquireProbe(owner1, 10000));
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquireProbe(owner2, 10000));
+
+        //untried probe released
+        breaker.releaseProbe(owner2);
+        assertEquals(HostCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.releaseProbe(owner1);
+        assertEquals(HostCircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquireProbe(owner2, 10000));
+
+        breaker.onSuccess();
+        assertEquals(HostCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(HostCircuitBreaker.getOpenHosts().isEmpty());
+    }
+
+    @Test
+    public void openUntilBackoff() {
+        HostCircuitBreaker breaker = HostCircuitBreaker.get(new HostAddress("host1", 3306));
+        breaker.onFailure(60000, 60000);
+        assertFalse(breaker.tryAcquireProbe(this, 10000));
+
+        //failures of already open circuit are ignored
+        breaker.onFailure(0, 0);
+        assertFalse(breaker.tryAcquireProbe(this, 10000));
+    }
+
+    @Test
+    public void stateListener() {
+        final List<String> transitions = new ArrayList<>();
+        HostCircuitBreaker.StateListener listener = new HostCircuitBreaker.StateListener() {
+            @Override
+            public void stateChanged(HostAddress hostAddress, HostCircuitBreaker.State previous, HostCircuitBreaker.State current) {
+                transitions.add(hostAddress.host + ":" + previous + "->" + current);
+            }
+        };
+        HostCircuitBreaker.addStateListener(listener);
+        try {
+            HostCircuitBreaker breaker = HostCircuitBreaker.get(new HostAddress("host1", 3306));
+            breaker.onFailure(0, 0);
+            breaker.tryAcquireProbe(this, 10000);
+            breaker.onFailure(0, 0);
+            breaker.tryAcquireProbe(this, 10000);
+            breaker.onSuccess();
+            breaker.onSuccess();
+        } finally {
+            HostCircuitBreaker.removeStateListener(listener);
+        }
+        assertEquals(5, transitions.size());
+        assertEquals("host1:CLOSED->OPEN", transitions.get(0));
+        assertEquals("host1:OPEN->HALF_OPEN", transitions.get(1));
+        assertEquals("host1:HALF_OPEN->OPEN", transitions.get(2));
+        assertEquals("host1:OPEN->HALF_OPEN", transitions.get(3));
+        assertEquals("host1:HALF_OPEN->CLOSED", transitions.get(4));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.internal.util.constant.HaMode;
+
+public class HostScoreTest {
+
+    @After
+    @Before
+    public void scoreReset() {
+        HostScore.clear();
+    }
+
+    @Test
+    public void movingAverage() {
+        HostScore hostScore = HostScore.get(new HostAddress("host1", 3306));
+        assertEquals(0, hostScore.getScore(), 0);
+        hostScore.addConnectTime(10000000);
+        assertEquals(10000, hostScore.getScore(), 0.1);
+        hostScore.addPingTime(2000000);
+        assertEquals(6000, hostScore.getScore(), 0.1);
+        hostScore.addPingTime(12000000);
+        //ping average : 2000 + 0.3 * (12000 - 2000)
+        assertEquals((10000 + 5000) / 2, hostScore.getScore(), 0.1);
+        //score is shared by host/port, whatever the type
+        assertSame(hostScore, HostScore.get(new HostAddress("host1", 3306, "slave")));
+    }
+
+    @Test
+    public void powerOfTwoChoices() {
+        HostAddress slow = new HostAddress("slow", 3306, "slave");
+        HostAddress fast = new HostAddress("fast", 3306, "slave");
+        HostScore.get(slow).addPingTime(20000000);
+        HostScore.get(fast).addPingTime(1000000);
+        for (int i = 0; i < 20; i++) {
+            List<HostAddress> hosts = new ArrayList<>();
+            hosts.add(slow);
+            hosts.add(fast);
+            HostScore.powerOfTwoChoicesOrder(hosts);
+            assertEquals(fast, hosts.get(0));
+            assertEquals(slow, hosts.get(1));
+        }
+    }
+
+    @Test
+    public void weight() {
+        List<HostAddress> hosts = HostAddress.parse("address=(host=near)(port=3306)(type=slave),"
+                + "address=(host=far)(port=3306)(type=slave)(weight=10)", HaMode.REPLICATION);
+        assertEquals(1, hosts.get(0).weight);
+        assertEquals(10, hosts.get(1).weight);
+        HostScore.get(hosts.get(0)).addPingTime(2000000);
+        HostScore.get(hosts.get(1)).addPingTime(10000000);
+        HostScore.powerOfTwoChoicesOrder(hosts);
+        assertEquals("far", hosts.get(0).host);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.failover.tools;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.failover.tools.StatementClassifier.SessionEffect;
+
+public class StatementClassifierTest {
+
+    @Test
+    public void plainSelect() {
+        assertTrue(StatementClassifier.isRoutableToReplica("SELECT * FROM t WHERE id = 1"));
+        assertTrue(StatementClassifier.isRoutableToReplica("  select last_update FROM t;"));
+        assertTrue(StatementClassifier.isRoutableToReplica("/* comment */ (SELECT 1) UNION (SELECT 2)"));
+        assertTrue(StatementClassifier.isRoutableToReplica("-- comment\nSELECT 'FOR UPDATE', `into` FROM t"));
+        assertTrue(StatementClassifier.isRoutableToReplica(Arrays.asList("SELECT * FROM t WHERE id = ", " AND b = ", "")));
+    }
+
+    @Test
+    public void masterStatements() {
+        assertFalse(StatementClassifier.isRoutableToReplica((String) null));
+        assertFalse(StatementClassifier.isRoutableToReplica(""));
+        assertFalse(StatementClassifier.isRoutableToReplica("INSERT INTO t VALUES (1)"));
+        assertFalse(StatementClassifier.isRoutableToReplica("UPDATE t SET a = 1"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SET autocommit=0"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT * FROM t FOR UPDATE"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT * FROM t LOCK IN SHARE MODE"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT a INTO @var FROM t"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT @@server_id"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT LAST_INSERT_ID()"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT GET_LOCK('a', 10)"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT 1; DELETE FROM t"));
+        assertFalse(StatementClassifier.isRoutableToReplica("SELECT * FROM t /*!50000 FOR UPDATE */"));
+        assertFalse(StatementClassifier.isRoutableToReplica(Arrays.asList("SELECT * FROM t WHERE id = ", " FOR UPDATE")));
+    }
+
+    @Test
+    public void sessionEffect() {
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect(null));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("SELECT 1"));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("INSERT INTO settings VALUES (1)"));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("SET autocommit=0"));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("set @@session.autocommit = 1"));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("SET GLOBAL max_connections = 100"));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("SET TRANSACTION ISOLATION LEVEL SERIALIZABLE"));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("SET STATEMENT max_statement_time=1 FOR SELECT 1"));
+        assertEquals(SessionEffect.NONE, StatementClassifier.getSessionEffect("SETTINGS"));
+
+        assertEquals(SessionEffect.REPLAYABLE, StatementClassifier.getSessionEffect("SET time_zone = '+01:00'"));
+        assertEquals(SessionEffect.REPLAYABLE, StatementClassifier.getSessionEffect("/* c */ set SESSION sql_mode='ANSI_QUOTES';"));
+        assertEquals(SessionEffect.REPLAYABLE, StatementClassifier.getSessionEffect("SET NAMES utf8mb4"));
+        assertEquals(SessionEffect.REPLAYABLE, StatementClassifier.getSessionEffect("SET @a = 'b;c'"));
+        assertEquals(SessionEffect.REPLAYABLE, StatementClassifier.getSessionEffect("/*!40101 SET character_set_client = utf8 */"));
+
+        assertEquals(SessionEffect.UNKNOWN, StatementClassifier.getSessionEffect("SET @a = ?"));
+        assertEquals(SessionEffect.UNKNOWN, StatementClassifier.getSessionEffect("SET @a = (SELECT max(id) FROM t)"));
+        assertEquals(SessionEffect.UNKNOWN, StatementClassifier.getSessionEffect("SET @@global.x = 1, time_zone = '+00:00'"));
+        assertEquals(SessionEffect.UNKNOWN, StatementClassifier.getSessionEffect("SET time_zone = '+00:00'; DELETE FROM t"));
+    }
+}
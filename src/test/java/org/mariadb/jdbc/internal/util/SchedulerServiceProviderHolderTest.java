@@ -2,9 +2,13 @@ package org.mariadb.jdbc.internal.util;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.After;
 import org.junit.Before;
@@ -83,4 +87,45 @@ public class SchedulerServiceProviderHolderTest {
         SchedulerServiceProviderHolder.setSchedulerProvider(emptyProvider);
         assertTrue(emptyProvider == SchedulerServiceProviderHolder.getSchedulerProvider());
     }
+
+    @Test
+    public void timeoutTimerOnProviderTimeoutScheduler() throws Exception {
+        final ScheduledThreadPoolExecutor timeoutScheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "provider-timeout");
+            }
+        });
+        SchedulerServiceProviderHolder.setSchedulerProvider(new SchedulerProvider() {
+            @Override
+            public DynamicSizedSchedulerInterface getScheduler(int minimumThreads) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ScheduledThreadPoolExecutor getFixedSizeScheduler(int minimumThreads) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ScheduledThreadPoolExecutor getTimeoutScheduler() {
+                return timeoutScheduler;
+            }
+        });
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicReference<Thread> taskThread = new AtomicReference<>();
+            SchedulerServiceProviderHolder.getTimeoutTimer().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    taskThread.set(Thread.currentThread());
+                    latch.countDown();
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals("provider-timeout", taskThread.get().getName());
+        } finally {
+            timeoutScheduler.shutdown();
+        }
+    }
 }
@@ -0,0 +1,106 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServerDataCacheTest {
+    private static final String KEY = ServerDataCache.key("localhost", 3306, "root");
+
+    @After
+    @Before
+    public void cacheReset() {
+        ServerDataCache.clear();
+    }
+
+    private Map<String, String> serverData() {
+        Map<String, String> serverData = new TreeMap<>();
+        serverData.put("max_allowed_packet", "16777216");
+        serverData.put("time_zone", "SYSTEM");
+        return serverData;
+    }
+
+    @Test
+    public void hitTest() {
+        ServerDataCache.put(KEY, "10.1.14-MariaDB", 10, serverData(), 10000);
+        Map<String, String> cached = ServerDataCache.get(KEY, "10.1.14-MariaDB", 11);
+        assertNotNull(cached);
+        assertEquals("16777216", cached.get("max_allowed_packet"));
+        assertNull(ServerDataCache.get(ServerDataCache.key("localhost", 3307, "root"), "10.1.14-MariaDB", 11));
+    }
+
+    @Test
+    public void versionChangeTest() {
+        ServerDataCache.put(KEY, "10.1.14-MariaDB", 10, serverData(), 10000);
+        assertNull(ServerDataCache.get(KEY, "10.1.15-MariaDB", 11));
+        //entry must have been removed
+        assertNull(ServerDataCache.get(KEY, "10.1.14-MariaDB", 11));
+    }
+
+    @Test
+    public void serverRestartTest() {
+        ServerDataCache.put(KEY, "10.1.14-MariaDB", 10, serverData(), 10000);
+        assertNull(ServerDataCache.get(KEY, "10.1.14-MariaDB", 2));
+    }
+
+    @Test
+    public void expirationTest() throws InterruptedException {
+        ServerDataCache.put(KEY, "10.1.14-MariaDB", 10, serverData(), 1);
+        Thread.sleep(5);
+        assertNull(ServerDataCache.get(KEY, "10.1.14-MariaDB", 11));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.metrics;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DigestStatisticsTest {
+
+    @Test
+    public void recordDigests() {
+        DigestStatistics statistics = DigestStatistics.get("digestRecord", 10);
+        statistics.record("SELECT ?", TimeUnit.MILLISECONDS.toNanos(1), 1, 10, 100, false);
+        statistics.record("SELECT ?", TimeUnit.MILLISECONDS.toNanos(3), 1, 10, 100, true);
+        statistics.record("UPDATE t SET a=?", TimeUnit.MILLISECONDS.toNanos(1), 0, 20, 11, false);
+
+        List<DigestSummary> summaries = statistics.getTopDigests();
+        assertEquals(2, summaries.size());
+        DigestSummary summary = summaries.get(0);
+        assertEquals("SELECT ?", summary.getDigest());
+        assertEquals(2, summary.getCount());
+        assertEquals(1, summary.getErrors());
+        assertEquals(4000, summary.getTotalMicros());
+        assertEquals(3000, summary.getMaxMicros());
+        assertEquals(2, summary.getRows());
+        assertEquals(20, summary.getBytesSent());
+        assertEquals(200, summary.getBytesReceived());
+        assertTrue(summary.getP50Micros() >= 1000 && summary.getP50Micros() < 1125);
+        assertEquals(3000, summary.getP99Micros());
+    }
+
+    @Test
+    public void boundedSize() {
+        DigestStatistics statistics = DigestStatistics.get("digestBounded", 5);
+        for (int i = 0; i < 100; i++) {
+            statistics.record("SELECT frequent", 1000, 0, 0, 0, false);
+            statistics.record("SELECT rare" + i, 1000, 0, 0, 0, false);
+        }
+        assertEquals(5, statistics.getSize());
+        assertEquals(96, statistics.getEvictions());
+        boolean found = false;
+        for (DigestSummary summary : statistics.getTopDigests()) {
+            if ("SELECT frequent".equals(summary.getDigest())) {
+                found = true;
+                assertEquals(100, summary.getCount());
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void sampledEviction() {
+        DigestStatistics statistics = DigestStatistics.get("digestSampled", 100);
+        for (int i = 0; i < 1000; i++) {
+            statistics.record("SELECT frequent", 1000, 0, 0, 0, false);
+            statistics.record("SELECT rare" + i, 1000, 0, 0, 0, false);
+        }
+        assertEquals(100, statistics.getSize());
+        assertEquals(901, statistics.getEvictions());
+        assertEquals("SELECT frequent", statistics.getTopDigests().get(0).getDigest());
+        assertEquals(1000, statistics.getTopDigests().get(0).getCount());
+    }
+
+    @Test
+    public void concurrentRecordsWithEvictions() throws Exception {
+        final DigestStatistics statistics = DigestStatistics.get("digestConcurrent", 50);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int threadId = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        statistics.record("SELECT frequent", 1000, 1, 0, 0, false);
+                        statistics.record("SELECT rare" + threadId + "_" + j, 1000, 0, 0, 0, false);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50, statistics.getSize());
+        DigestSummary frequent = statistics.getTopDigests().get(0);
+        assertEquals("SELECT frequent", frequent.getDigest());
+        assertEquals(40000, frequent.getCount());
+        assertEquals(40000, frequent.getRows());
+    }
+
+    @Test
+    public void publishedAsMxBean() throws Exception {
+        DigestStatistics statistics = DigestStatistics.get("digestJmx", 10);
+        statistics.record("SELECT ?", 1000, 1, 2, 3, false);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.mariadb.jdbc:type=DigestStatistics,name=" + ObjectName.quote("digestJmx"));
+        CompositeData[] topDigests = (CompositeData[]) server.getAttribute(name, "TopDigests");
+        assertEquals(1, topDigests.length);
+        assertEquals("SELECT ?", topDigests[0].get("digest"));
+        assertEquals(1L, topDigests[0].get("count"));
+        assertSame(statistics, DigestStatistics.get("digestJmx"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0, statistics.getSize());
+    }
+}
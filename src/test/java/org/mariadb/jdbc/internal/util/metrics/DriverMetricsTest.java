@@ -0,0 +1,143 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.metrics;
+
+import org.junit.Test;
+import org.mariadb.jdbc.HostAddress;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DriverMetricsTest {
+
+    @Test
+    public void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMicros(99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMaxMicros());
+        assertEquals(500, histogram.getMeanMicros());
+        //buckets have a 12.5% precision
+        assertEquals(500, histogram.getPercentileMicros(50), 500 * 0.125);
+        assertEquals(990, histogram.getPercentileMicros(99), 990 * 0.125);
+        assertEquals(1000, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    public void histogramConcurrentRecords() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int threadIndex = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 1; j <= 10000; j++) {
+                        histogram.record(TimeUnit.MICROSECONDS.toNanos(j + threadIndex));
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        //stripes are merged on read
+        assertEquals(40000, histogram.getCount());
+        assertEquals(10003, histogram.getMaxMicros());
+        assertEquals(10003, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    public void stripedCounter() throws Exception {
+        final StripedCounter counter = new StripedCounter();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        counter.increment();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, counter.sum());
+    }
+
+    @Test
+    public void publishedAsMxBean() throws Exception {
+        ConnectionMetrics metrics = ConnectionMetrics.get(new HostAddress("metrics-test-host", 3306), "metricsTest");
+        metrics.connectionOpened();
+        metrics.packetSent(100);
+        metrics.queryLatency(TimeUnit.MILLISECONDS.toNanos(2));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName hostName = new ObjectName("org.mariadb.jdbc:type=Metrics,scope=host,name="
+                + ObjectName.quote("metrics-test-host:3306"));
+        ObjectName dataSourceName = new ObjectName("org.mariadb.jdbc:type=Metrics,scope=dataSource,name="
+                + ObjectName.quote("metricsTest"));
+        assertEquals(1L, server.getAttribute(hostName, "ActiveConnections"));
+        assertEquals(100L, server.getAttribute(dataSourceName, "BytesSent"));
+        assertEquals(1L, server.getAttribute(dataSourceName, "QueryCount"));
+        assertSame(metrics, ConnectionMetrics.get(new HostAddress("metrics-test-host", 3306), "metricsTest"));
+    }
+}
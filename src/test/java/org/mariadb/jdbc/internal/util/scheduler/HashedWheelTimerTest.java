@@ -0,0 +1,185 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2016 MariaDB Corporation AB
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.scheduler;
+
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    public void expire() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        Future<?> future = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+        future.get();
+        assertTrue(future.isDone());
+        assertFalse(future.cancel(true));
+    }
+
+    @Test
+    public void expireAfterSeveralRounds() throws Exception {
+        //wheel of 4 ticks of 10ms : 100ms delay needs more than 2 rounds
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 4);
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+    }
+
+    @Test
+    public void cancel() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+        final AtomicInteger runs = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(timer.schedule(task, 10, TimeUnit.SECONDS).cancel(true));
+        }
+        Future<?> future = timer.schedule(task, 10, TimeUnit.SECONDS);
+        future.cancel(true);
+        assertTrue(future.isCancelled());
+        try {
+            future.get();
+            fail("must have thrown CancellationException");
+        } catch (CancellationException expected) {
+            //expected
+        }
+
+        //cancelled timeouts are removed on next tick, without waiting for their delay
+        long start = System.nanoTime();
+        while (timer.pendingTimeouts() != 0) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+            Thread.sleep(1);
+        }
+        Thread.sleep(100);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void cancelWakesWaitingThread() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+        final Future<?> future = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                //nothing to do
+            }
+        }, 10, TimeUnit.SECONDS);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    future.get();
+                } catch (CancellationException expected) {
+                    cancelled.set(true);
+                } catch (Exception exception) {
+                    //not expected
+                }
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        assertTrue(future.cancel(true));
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertTrue(cancelled.get());
+    }
+
+    @Test
+    public void threadFactory() throws Exception {
+        final AtomicInteger createdThreads = new AtomicInteger();
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                createdThreads.incrementAndGet();
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, createdThreads.get());
+    }
+}